@@ -4,7 +4,6 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.Reader;
-import java.lang.reflect.Field;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -22,6 +21,9 @@ import java.util.Properties;
  *     String selectedProcedureName;
  *   }
  * }</pre>
+ * <p> Supported field types are <code>int</code>, <code>long</code>, <code>float</code>,
+ * <code>double</code>, <code>boolean</code>, <code>String</code>, enums (given by constant name),
+ * and arrays of these types (given as comma-separated values). Static fields are ignored.
  * <p> Each field in a schema corresponds to an entry in the configuration map with the same name.
  * For the example above, a valid configuration map would be as follows, formatted in Properties
  * style:
@@ -38,7 +40,7 @@ import java.util.Properties;
  */
 public final class Configuration {
 
-  private static final String PROPERTIES_DIRECTORY = "/storage/self/primary/FIRST/config";
+  static final String PROPERTIES_DIRECTORY = "/storage/self/primary/FIRST/config";
 
   private final Map<String, String> map;
 
@@ -53,6 +55,7 @@ public final class Configuration {
    * @param fileName Name of the file to be read
    * @return The Configuration instance whose entries have been read from the given file
    * @throws IOException If the file with the given name cannot be read
+   * @see ConfigurationWatcher for a configuration that is reloaded when the file changes
    */
   public static Configuration fromPropertiesFile(String fileName)
       throws IOException {
@@ -92,15 +95,7 @@ public final class Configuration {
    * @throws InvalidSchemaError if the type of the given Schema instance is not suitable for loading
    */
   public <T> T loadToSchema(T schemaInstance) {
-    Class<?> schemaClass = schemaInstance.getClass();
-    try {
-      for (Field field : schemaClass.getDeclaredFields()) {
-        populateSchemaField(schemaInstance, field);
-      }
-      return schemaInstance;
-    } catch (Exception reflectionError) {
-      throw new InvalidSchemaError(schemaClass, reflectionError);
-    }
+    return SchemaBinder.of(schemaInstance.getClass()).bind(schemaInstance, this);
   }
 
   /**
@@ -111,12 +106,29 @@ public final class Configuration {
    * @throws NoSuchFieldError if the given key does not exist in this Configuration instance's mapping
    */
   public int getInt(String key) {
-    String strValue = getString(key);
-    try {
-      return Integer.parseInt(strValue);
-    } catch (NumberFormatException numberException) {
-      throw new InvalidFormatError(key, strValue, "int");
-    }
+    return parseInt(key, getString(key));
+  }
+
+  /**
+   * Retrieves the value of the given key in the mapping, parsed as a long.
+   * @param key The key for the requesting value
+   * @return The parsed long represented by the key's corresponding value
+   * @throws InvalidFormatError if the given key's corresponding value cannot be parsed as a long
+   * @throws NoSuchFieldError if the given key does not exist in this Configuration instance's mapping
+   */
+  public long getLong(String key) {
+    return parseLong(key, getString(key));
+  }
+
+  /**
+   * Retrieves the value of the given key in the mapping, parsed as a float.
+   * @param key The key for the requesting value
+   * @return The parsed float represented by the key's corresponding value
+   * @throws InvalidFormatError if the given key's corresponding value cannot be parsed as a float
+   * @throws NoSuchFieldError if the given key does not exist in this Configuration instance's mapping
+   */
+  public float getFloat(String key) {
+    return parseFloat(key, getString(key));
   }
 
   /**
@@ -127,12 +139,7 @@ public final class Configuration {
    * @throws NoSuchFieldError if the given key does not exist in this Configuration instance's mapping
    */
   public double getDouble(String key) {
-    String strValue = getString(key);
-    try {
-      return Double.parseDouble(strValue);
-    } catch (NumberFormatException numberException) {
-      throw new InvalidFormatError(key, strValue, "double");
-    }
+    return parseDouble(key, getString(key));
   }
 
   /**
@@ -144,14 +151,21 @@ public final class Configuration {
    * @throws NoSuchFieldError if the given key does not exist in this Configuration instance's mapping
    */
   public boolean getBoolean(String key) {
-    String value = getString(key);
-    if (value.equalsIgnoreCase("true")) {
-      return true;
-    } else if (value.equalsIgnoreCase("false")) {
-      return false;
-    } else {
-      throw new InvalidFormatError(key, value, "boolean");
-    }
+    return parseBoolean(key, getString(key));
+  }
+
+  /**
+   * Retrieves the value of the given key in the mapping, parsed as the name of a constant of the
+   * given enum type.
+   * @param key The key for the requesting value
+   * @param enumType The enum type whose constant is named by the value
+   * @param <E> The enum type
+   * @return The enum constant named by the key's corresponding value
+   * @throws InvalidFormatError if the given key's corresponding value does not name a constant
+   * @throws NoSuchFieldError if the given key does not exist in this Configuration instance's mapping
+   */
+  public <E extends Enum<E>> E getEnum(String key, Class<E> enumType) {
+    return parseEnum(key, getString(key), enumType);
   }
 
   /**
@@ -185,29 +199,53 @@ public final class Configuration {
     return Objects.hash(map);
   }
 
-  private <T> void populateSchemaField(T schemaInstance, Field field)
-      throws IllegalAccessException {
-
-    String fieldName = field.getName();
-    String typeName = field.getType().getCanonicalName();
-
-    switch (typeName) {
-      case "int":
-        field.setInt(schemaInstance, getInt(fieldName));
-        break;
-      case "double":
-        field.setDouble(schemaInstance, getDouble(fieldName));
-        break;
-      case "boolean":
-        field.setBoolean(schemaInstance, getBoolean(fieldName));
-        break;
-      case "java.lang.String":
-        field.set(schemaInstance, getString(fieldName));
-        break;
-      default:
-        throw new InvalidSchemaError(schemaInstance.getClass(),
-            new UnsupportedOperationException("Invalid type: " + typeName));
+  static int parseInt(String key, String value) {
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException numberException) {
+      throw new InvalidFormatError(key, value, "int");
+    }
+  }
+
+  static long parseLong(String key, String value) {
+    try {
+      return Long.parseLong(value);
+    } catch (NumberFormatException numberException) {
+      throw new InvalidFormatError(key, value, "long");
+    }
+  }
+
+  static float parseFloat(String key, String value) {
+    try {
+      return Float.parseFloat(value);
+    } catch (NumberFormatException numberException) {
+      throw new InvalidFormatError(key, value, "float");
     }
   }
 
+  static double parseDouble(String key, String value) {
+    try {
+      return Double.parseDouble(value);
+    } catch (NumberFormatException numberException) {
+      throw new InvalidFormatError(key, value, "double");
+    }
+  }
+
+  static boolean parseBoolean(String key, String value) {
+    if (value.equalsIgnoreCase("true")) {
+      return true;
+    } else if (value.equalsIgnoreCase("false")) {
+      return false;
+    } else {
+      throw new InvalidFormatError(key, value, "boolean");
+    }
+  }
+
+  static <E extends Enum<E>> E parseEnum(String key, String value, Class<E> enumType) {
+    try {
+      return Enum.valueOf(enumType, value);
+    } catch (IllegalArgumentException nameException) {
+      throw new InvalidFormatError(key, value, enumType.getSimpleName());
+    }
+  }
 }
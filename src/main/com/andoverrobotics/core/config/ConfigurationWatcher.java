@@ -0,0 +1,146 @@
+package com.andoverrobotics.core.config;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the Properties files in a configuration directory and reloads the
+ * {@link ReloadableConfiguration}s read from them when they change, so that values such as PID
+ * gains or servo positions can be tuned without restarting the OpMode. <p> The watcher polls the
+ * modification time and length of each watched file from its own daemon thread, once started with
+ * {@link #start()}, and re-parses only the files that changed. The control thread never touches the
+ * file system; it only reads the snapshots published by the watcher. Polling is used instead of
+ * <code>java.nio.file.WatchService</code>, which is not available on the Android versions that run
+ * on the Control Hub.
+ *
+ * @see ReloadableConfiguration
+ */
+public final class ConfigurationWatcher implements Closeable {
+
+  /**
+   * The default interval between two checks for changes, in milliseconds.
+   */
+  public static final long DEFAULT_POLL_INTERVAL_MS = 500;
+
+  private final File directory;
+  private final long pollIntervalMs;
+  private final Map<String, ReloadableConfiguration> configurations = new ConcurrentHashMap<>();
+
+  private ScheduledExecutorService executor;
+
+  /**
+   * Creates a watcher of the standard directory for configuration file storage, which is also
+   * used by {@link Configuration#fromPropertiesFile(String)}.
+   *
+   * @return The new watcher, not yet started
+   */
+  public static ConfigurationWatcher ofStandardDirectory() {
+    return new ConfigurationWatcher(new File(Configuration.PROPERTIES_DIRECTORY));
+  }
+
+  /**
+   * Creates a watcher of the given directory that checks for changes every {@link
+   * #DEFAULT_POLL_INTERVAL_MS} milliseconds.
+   *
+   * @param directory The directory containing the Properties files
+   */
+  public ConfigurationWatcher(File directory) {
+    this(directory, DEFAULT_POLL_INTERVAL_MS);
+  }
+
+  /**
+   * Creates a watcher of the given directory that checks for changes at the given interval.
+   *
+   * @param directory The directory containing the Properties files
+   * @param pollIntervalMs The interval between two checks for changes, in milliseconds
+   * @throws IllegalArgumentException if the interval is not positive
+   */
+  public ConfigurationWatcher(File directory, long pollIntervalMs) {
+    if (pollIntervalMs <= 0) {
+      throw new IllegalArgumentException("Poll interval must be positive: " + pollIntervalMs);
+    }
+    this.directory = directory;
+    this.pollIntervalMs = pollIntervalMs;
+  }
+
+  /**
+   * Reads the Properties file with the given name in the watched directory and returns a handle
+   * that is reloaded whenever the file changes. Watching the same file twice returns the same
+   * handle.
+   *
+   * @param fileName Name of the file to be read
+   * @return The handle to the configuration read from the file
+   * @throws IOException If the file with the given name cannot be read
+   */
+  public synchronized ReloadableConfiguration watch(String fileName) throws IOException {
+    ReloadableConfiguration configuration = configurations.get(fileName);
+    if (configuration == null) {
+      configuration = new ReloadableConfiguration(new File(directory, fileName));
+      configurations.put(fileName, configuration);
+    }
+    return configuration;
+  }
+
+  /**
+   * Starts checking for changes on a background daemon thread. Calling this more than once has no
+   * further effect.
+   */
+  public synchronized void start() {
+    if (executor != null) {
+      return;
+    }
+    executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "ConfigurationWatcher");
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.scheduleWithFixedDelay(() -> {
+      try {
+        checkForChanges();
+      } catch (Throwable pollError) {
+        // Anything thrown here would cancel the polling for the rest of the run, so a failing
+        // listener or reload only costs this poll; files it skipped are retried next time
+      }
+    }, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * @return True if the background thread is checking for changes
+   */
+  public synchronized boolean isRunning() {
+    return executor != null;
+  }
+
+  /**
+   * Checks every watched file once and reloads those that changed. This is what the background
+   * thread runs; it may also be called directly, for example when the watcher is not started.
+   *
+   * @return The number of files that were reloaded successfully
+   */
+  public int checkForChanges() {
+    int reloaded = 0;
+    for (ReloadableConfiguration configuration : configurations.values()) {
+      if (configuration.reloadIfChanged()) {
+        reloaded++;
+      }
+    }
+    return reloaded;
+  }
+
+  /**
+   * Stops the background thread. The handles keep their last snapshots.
+   */
+  @Override
+  public synchronized void close() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+}
@@ -0,0 +1,209 @@
+package com.andoverrobotics.core.config;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * A handle to a {@link Configuration} that is re-read from its Properties file whenever the file
+ * changes. <p> Obtain one from {@link ConfigurationWatcher#watch(String)}. The current snapshot is
+ * returned by {@link #get()}; each snapshot is an immutable {@link Configuration} that is never
+ * modified after it is published. <p> Schemas are bound with {@link #bind(Supplier)}. On every
+ * reload, a fresh instance of each bound Schema is created and loaded, and only if the new file
+ * loads into every bound Schema are the new instances and the new Configuration swapped in. A file
+ * that fails to parse or to load leaves the previous snapshot in place; the failure is available
+ * from {@link #getLastError()}. <p> Reloads run on the thread of the {@link ConfigurationWatcher},
+ * and so do the {@link Listener}s.
+ */
+public final class ReloadableConfiguration {
+
+  /**
+   * Receives a notification after every successful reload.
+   */
+  public interface Listener {
+
+    /**
+     * Called on the watcher thread after the new snapshot and Schema instances have been swapped
+     * in.
+     *
+     * @param source The handle that was reloaded
+     * @param configuration The new snapshot
+     */
+    void onReload(ReloadableConfiguration source, Configuration configuration);
+  }
+
+  /**
+   * A Schema instance that is replaced by a freshly loaded instance on every reload. <p> Read it
+   * with {@link #get()} once per control-loop iteration and use that instance for the whole
+   * iteration, so that all values come from the same snapshot.
+   *
+   * @param <T> The type of the Schema
+   */
+  public static final class BoundSchema<T> {
+
+    private final Supplier<T> schemaFactory;
+    private final AtomicReference<T> instance = new AtomicReference<>();
+
+    private BoundSchema(Supplier<T> schemaFactory) {
+      this.schemaFactory = schemaFactory;
+    }
+
+    /**
+     * @return The Schema instance loaded from the current snapshot
+     */
+    public T get() {
+      return instance.get();
+    }
+
+    private T load(Configuration configuration) {
+      return configuration.loadToSchema(schemaFactory.get());
+    }
+  }
+
+  private final File file;
+  private final AtomicReference<Configuration> current = new AtomicReference<>();
+  private final List<BoundSchema<?>> schemas = new CopyOnWriteArrayList<>();
+  private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+  private long lastModified, length;
+  private volatile Throwable lastError;
+  private volatile int reloadCount;
+
+  ReloadableConfiguration(File file) throws IOException {
+    this.file = file;
+
+    lastModified = file.lastModified();
+    length = file.length();
+    current.set(read(file));
+  }
+
+  /**
+   * @return The current snapshot
+   */
+  public Configuration get() {
+    return current.get();
+  }
+
+  /**
+   * Binds a Schema to this configuration. The Schema is loaded from the current snapshot right
+   * away, and again from every new snapshot.
+   *
+   * @param schemaFactory Creates a new, empty Schema instance for each load
+   * @param <T> The type of the Schema
+   * @return The handle through which the current Schema instance is read
+   * @throws InvalidSchemaError if the Schema cannot be loaded from the current snapshot
+   */
+  public synchronized <T> BoundSchema<T> bind(Supplier<T> schemaFactory) {
+    BoundSchema<T> schema = new BoundSchema<>(schemaFactory);
+    schema.instance.set(schema.load(current.get()));
+    schemas.add(schema);
+    return schema;
+  }
+
+  /**
+   * Adds a listener that is notified after every successful reload.
+   *
+   * @param listener The listener to add
+   */
+  public void addListener(Listener listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Removes a listener added with {@link #addListener(Listener)}.
+   *
+   * @param listener The listener to remove
+   */
+  public void removeListener(Listener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * @return The file that this configuration is read from
+   */
+  public File getFile() {
+    return file;
+  }
+
+  /**
+   * @return The number of successful reloads since this handle was created
+   */
+  public int getReloadCount() {
+    return reloadCount;
+  }
+
+  /**
+   * @return The error of the most recent reload attempt, or null if it succeeded. This is a
+   * {@link NoSuchFieldError} if the file lacks a key of a bound Schema.
+   */
+  public Throwable getLastError() {
+    return lastError;
+  }
+
+  /**
+   * Re-reads the file if its modification time or length changed since it was last read.
+   *
+   * @return True if a new snapshot was swapped in
+   */
+  synchronized boolean reloadIfChanged() {
+    long modified = file.lastModified(), size = file.length();
+    if (modified == lastModified && size == length) {
+      return false;
+    }
+
+    // Remember the new stamp even if the reload fails, so that a broken file is not re-parsed on
+    // every poll; the next edit changes the stamp again.
+    lastModified = modified;
+    length = size;
+    return reload();
+  }
+
+  /**
+   * Re-reads the file regardless of whether it changed.
+   *
+   * @return True if a new snapshot was swapped in
+   */
+  public synchronized boolean reload() {
+    Configuration configuration;
+    List<Object> instances = new ArrayList<>(schemas.size());
+    try {
+      configuration = read(file);
+      for (BoundSchema<?> schema : schemas) {
+        instances.add(schema.load(configuration));
+      }
+    } catch (IOException | RuntimeException | NoSuchFieldError reloadError) {
+      // A missing key surfaces as NoSuchFieldError, which must not escape to the watcher thread
+      lastError = reloadError;
+      return false;
+    }
+
+    current.set(configuration);
+    for (int i = 0; i < schemas.size(); i++) {
+      swap(schemas.get(i), instances.get(i));
+    }
+    lastError = null;
+    reloadCount++;
+
+    for (Listener listener : listeners) {
+      listener.onReload(this, configuration);
+    }
+    return true;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> void swap(BoundSchema<T> schema, Object instance) {
+    schema.instance.set((T) instance);
+  }
+
+  private static Configuration read(File file) throws IOException {
+    try (Reader reader = new FileReader(file)) {
+      return Configuration.fromProperties(reader);
+    }
+  }
+}
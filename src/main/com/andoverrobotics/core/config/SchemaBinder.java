@@ -0,0 +1,164 @@
+package com.andoverrobotics.core.config;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binds {@link Configuration} entries to the fields of a Schema class. <p> Each Schema class is
+ * compiled once into a list of typed field setters, which is cached for the lifetime of the
+ * process. Later loads of the same class look up no fields and dispatch on no type names; they only
+ * parse the values and set the fields. Static and synthetic fields are not bound.
+ */
+final class SchemaBinder {
+
+  private interface FieldBinder {
+
+    void bind(Object schemaInstance, Configuration config) throws IllegalAccessException;
+  }
+
+  private interface ElementParser {
+
+    Object parse(String key, String value);
+  }
+
+  private static final ConcurrentHashMap<Class<?>, SchemaBinder> binders =
+      new ConcurrentHashMap<>();
+
+  private final Class<?> schemaClass;
+  private final FieldBinder[] fieldBinders;
+
+  private SchemaBinder(Class<?> schemaClass, FieldBinder[] fieldBinders) {
+    this.schemaClass = schemaClass;
+    this.fieldBinders = fieldBinders;
+  }
+
+  /**
+   * Returns the cached binder of the given Schema class, compiling it on first use.
+   *
+   * @throws InvalidSchemaError if the class has a field of an unsupported type
+   */
+  static SchemaBinder of(Class<?> schemaClass) {
+    SchemaBinder binder = binders.get(schemaClass);
+    if (binder == null) {
+      binder = compile(schemaClass);
+      SchemaBinder existing = binders.putIfAbsent(schemaClass, binder);
+      if (existing != null) {
+        binder = existing;
+      }
+    }
+    return binder;
+  }
+
+  /**
+   * Compiles a binder for the given Schema class without consulting or filling the cache.
+   *
+   * @throws InvalidSchemaError if the class has a field of an unsupported type
+   */
+  static SchemaBinder compile(Class<?> schemaClass) {
+    List<FieldBinder> fieldBinders = new ArrayList<>();
+    try {
+      for (Field field : schemaClass.getDeclaredFields()) {
+        int modifiers = field.getModifiers();
+        if (Modifier.isStatic(modifiers) || field.isSynthetic()) {
+          continue;
+        }
+        field.setAccessible(true);
+        fieldBinders.add(binderFor(field));
+      }
+    } catch (RuntimeException reflectionError) {
+      throw new InvalidSchemaError(schemaClass, reflectionError);
+    }
+    return new SchemaBinder(schemaClass, fieldBinders.toArray(new FieldBinder[0]));
+  }
+
+  /**
+   * Sets every bound field of the given instance from the given Configuration.
+   *
+   * @throws InvalidSchemaError if a value cannot be parsed or set, with the cause attached
+   */
+  <T> T bind(T schemaInstance, Configuration config) {
+    try {
+      for (FieldBinder fieldBinder : fieldBinders) {
+        fieldBinder.bind(schemaInstance, config);
+      }
+      return schemaInstance;
+    } catch (Exception loadError) {
+      throw new InvalidSchemaError(schemaClass, loadError);
+    }
+  }
+
+  int getFieldCount() {
+    return fieldBinders.length;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static FieldBinder binderFor(Field field) {
+    final String key = field.getName();
+    Class<?> type = field.getType();
+
+    if (type == int.class) {
+      return (instance, config) -> field.setInt(instance, config.getInt(key));
+    } else if (type == long.class) {
+      return (instance, config) -> field.setLong(instance, config.getLong(key));
+    } else if (type == float.class) {
+      return (instance, config) -> field.setFloat(instance, config.getFloat(key));
+    } else if (type == double.class) {
+      return (instance, config) -> field.setDouble(instance, config.getDouble(key));
+    } else if (type == boolean.class) {
+      return (instance, config) -> field.setBoolean(instance, config.getBoolean(key));
+    } else if (type == String.class) {
+      return (instance, config) -> field.set(instance, config.getString(key));
+    } else if (type.isEnum()) {
+      Class<? extends Enum> enumType = (Class<? extends Enum>) type;
+      return (instance, config) -> field.set(instance, config.getEnum(key, enumType));
+    } else if (type.isArray()) {
+      Class<?> elementType = type.getComponentType();
+      ElementParser parser = elementParserFor(elementType);
+      return (instance, config) ->
+          field.set(instance, parseArray(key, config.getString(key), elementType, parser));
+    }
+
+    throw new UnsupportedOperationException("Invalid type: " + type.getCanonicalName());
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static ElementParser elementParserFor(Class<?> elementType) {
+    if (elementType == int.class) {
+      return Configuration::parseInt;
+    } else if (elementType == long.class) {
+      return Configuration::parseLong;
+    } else if (elementType == float.class) {
+      return Configuration::parseFloat;
+    } else if (elementType == double.class) {
+      return Configuration::parseDouble;
+    } else if (elementType == boolean.class) {
+      return Configuration::parseBoolean;
+    } else if (elementType == String.class) {
+      return (key, value) -> value;
+    } else if (elementType.isEnum()) {
+      Class<? extends Enum> enumType = (Class<? extends Enum>) elementType;
+      return (key, value) -> Configuration.parseEnum(key, value, enumType);
+    }
+
+    throw new UnsupportedOperationException(
+        "Invalid array element type: " + elementType.getCanonicalName());
+  }
+
+  // Array values are comma-separated, and each element is trimmed; an empty value is an empty
+  // array.
+  private static Object parseArray(String key, String value, Class<?> elementType,
+      ElementParser parser) {
+    String trimmed = value.trim();
+    String[] elements = trimmed.isEmpty() ? new String[0] : trimmed.split(",");
+    Object array = Array.newInstance(elementType, elements.length);
+
+    for (int i = 0; i < elements.length; i++) {
+      Array.set(array, i, parser.parse(key, elements[i].trim()));
+    }
+    return array;
+  }
+}
@@ -0,0 +1,136 @@
+package com.andoverrobotics.core.diagnostics;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of non-negative values, such as durations in nanoseconds, with a fixed set of
+ * buckets allocated up front. <p> As in an HDR histogram, values below 64 each have their own
+ * bucket, and every power-of-two range above that is split into 32 equal buckets, so a value is
+ * known to within about 3% of itself from 0 to 2<sup>40</sup>. Larger values are counted in the
+ * last bucket. Recording is a few arithmetic operations and an array increment, with no locks and
+ * no allocation. <p> A histogram has a single writer: it must be recorded into from one thread.
+ * Reading it from another thread gives approximate results.
+ */
+public final class Histogram {
+
+  private static final int SUB_BUCKET_BITS = 5, SUB_BUCKETS = 1 << SUB_BUCKET_BITS,
+      LINEAR_LIMIT = 2 * SUB_BUCKETS, HIGHEST_BIT = 39;
+  /**
+   * The largest value that is recorded exactly to within the bucket precision.
+   */
+  public static final long MAX_TRACKABLE_VALUE = (1L << (HIGHEST_BIT + 1)) - 1;
+
+  private final long[] counts =
+      new long[LINEAR_LIMIT + (HIGHEST_BIT - SUB_BUCKET_BITS) * SUB_BUCKETS];
+  private long count, sum, min = Long.MAX_VALUE, max;
+
+  /**
+   * Records one value.
+   *
+   * @param value The value; negative values are recorded as 0
+   */
+  public void record(long value) {
+    long clamped = Math.max(0, value);
+    counts[indexOf(Math.min(clamped, MAX_TRACKABLE_VALUE))]++;
+    count++;
+    sum += clamped;
+    if (clamped < min) {
+      min = clamped;
+    }
+    if (clamped > max) {
+      max = clamped;
+    }
+  }
+
+  /**
+   * Removes every recorded value.
+   */
+  public void reset() {
+    Arrays.fill(counts, 0);
+    count = 0;
+    sum = 0;
+    min = Long.MAX_VALUE;
+    max = 0;
+  }
+
+  /**
+   * @return The number of recorded values
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * @return The smallest recorded value, or 0 if there is none
+   */
+  public long getMin() {
+    return count == 0 ? 0 : min;
+  }
+
+  /**
+   * @return The largest recorded value, or 0 if there is none
+   */
+  public long getMax() {
+    return max;
+  }
+
+  /**
+   * @return The mean of the recorded values, or 0 if there is none
+   */
+  public double getMean() {
+    return count == 0 ? 0 : (double) sum / count;
+  }
+
+  /**
+   * Finds the value below or at which the given percentage of the recorded values lie, to within
+   * the precision of the buckets.
+   *
+   * @param percentile The percentage, between 0 and 100
+   * @return The largest value of the bucket containing the percentile, but no more than the
+   * largest recorded value; 0 if nothing has been recorded
+   */
+  public long getValueAtPercentile(double percentile) {
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * count));
+
+    long seen = 0;
+    for (int index = 0; index < counts.length; index++) {
+      seen += counts[index];
+      if (seen == count) {
+        return max;
+      } else if (seen >= rank) {
+        return Math.max(getMin(), Math.min(max, highestValueOf(index)));
+      }
+    }
+    return max;
+  }
+
+  int bucketCount() {
+    return counts.length;
+  }
+
+  long countAt(int index) {
+    return counts[index];
+  }
+
+  static int indexOf(long value) {
+    if (value < LINEAR_LIMIT) {
+      return (int) value;
+    }
+    int highestBit = 63 - Long.numberOfLeadingZeros(value);
+    int shift = highestBit - SUB_BUCKET_BITS;
+    int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+    return LINEAR_LIMIT + (highestBit - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + subBucket;
+  }
+
+  static long highestValueOf(int index) {
+    if (index < LINEAR_LIMIT) {
+      return index;
+    }
+    int shift = (index - LINEAR_LIMIT) / SUB_BUCKETS + 1,
+        subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS;
+    return ((long) (SUB_BUCKETS + subBucket + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,292 @@
+package com.andoverrobotics.core.diagnostics;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+
+/**
+ * Records how long each iteration of the control loop takes, how regularly the iterations start,
+ * and how long named sections of each iteration take, into one {@link Histogram} per section.
+ * <p> The built-in sections are the loop itself ({@link #LOOP}), the period between the starts of
+ * two iterations ({@link #PERIOD}), and hardware I/O ({@link #MOTOR_WRITES} and {@link
+ * #MOTOR_READS}), which {@link com.andoverrobotics.core.utilities.CachedMotor}, {@link
+ * com.andoverrobotics.core.utilities.MotorAdapter} and {@link
+ * com.andoverrobotics.core.utilities.MotorReadCache} record once given a profiler. {@link #PID}
+ * and {@link #USER} are for the OpMode to time itself, and {@link #addSection(String)} adds more.
+ * A typical loop looks like:
+ * <pre>
+ *   profiler.beginLoop();
+ *   long start = profiler.start();
+ *   double output = controller.calculate(target, measured, time);
+ *   profiler.stop(LoopProfiler.PID, start);
+ *   ...
+ *   profiler.endLoop();
+ *   profiler.publish(telemetry);
+ * </pre>
+ * Recording does not lock or allocate, and a disabled profiler records nothing. Like {@link
+ * Histogram}, a profiler must be recorded into from one thread. <p> {@link #publish(Telemetry)}
+ * adds the 50th and 99th percentiles and the maximum of each section to the telemetry at most
+ * once per publish interval, and {@link #exportCsv(File)} writes the same statistics, with the
+ * full distributions, when the OpMode ends.
+ */
+public final class LoopProfiler {
+
+  /**
+   * The section timed from {@link #beginLoop()} to {@link #endLoop()}.
+   */
+  public static final int LOOP = 0;
+  /**
+   * The section timed from one {@link #beginLoop()} to the next.
+   */
+  public static final int PERIOD = 1;
+  /**
+   * The section of the writes that motors send to the hardware.
+   */
+  public static final int MOTOR_WRITES = 2;
+  /**
+   * The section of the reads that motors make from the hardware.
+   */
+  public static final int MOTOR_READS = 3;
+  /**
+   * The section for controller updates, timed by the OpMode.
+   */
+  public static final int PID = 4;
+  /**
+   * The section for the OpMode's own code, timed by the OpMode.
+   */
+  public static final int USER = 5;
+
+  /**
+   * The default minimum interval between two publications to the telemetry, in milliseconds.
+   */
+  public static final long DEFAULT_PUBLISH_INTERVAL_MS = 500;
+
+  private String[] names = {"loop", "period", "motor writes", "motor reads", "pid", "user"};
+  private Histogram[] histograms = new Histogram[names.length];
+
+  private boolean enabled = true;
+  private long loopStart = -1;
+  private long publishIntervalNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_PUBLISH_INTERVAL_MS);
+  private long lastPublish;
+  private boolean published = false;
+
+  /**
+   * Creates a profiler with the built-in sections.
+   */
+  public LoopProfiler() {
+    for (int section = 0; section < histograms.length; section++) {
+      histograms[section] = new Histogram();
+    }
+  }
+
+  /**
+   * Adds a section, whose histogram is allocated right away.
+   *
+   * @param name The name of the section, used in the telemetry and the CSV file
+   * @return The index of the new section, to pass to {@link #stop(int, long)}
+   */
+  public int addSection(String name) {
+    int section = names.length;
+    names = Arrays.copyOf(names, section + 1);
+    histograms = Arrays.copyOf(histograms, section + 1);
+    names[section] = name;
+    histograms[section] = new Histogram();
+    return section;
+  }
+
+  /**
+   * Enables or disables recording. While disabled, the recording methods return right away.
+   *
+   * @param enabled True to record
+   */
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * @return True if recording is enabled
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Sets the minimum interval between two publications to the telemetry.
+   *
+   * @param intervalMs The interval, in milliseconds
+   */
+  public void setPublishInterval(long intervalMs) {
+    publishIntervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+  }
+
+  /**
+   * Marks the start of an iteration of the control loop, recording the {@link #PERIOD} since the
+   * start of the previous one.
+   */
+  public void beginLoop() {
+    if (!enabled) {
+      return;
+    }
+    long now = nanoTime();
+    if (loopStart >= 0) {
+      histograms[PERIOD].record(now - loopStart);
+    }
+    loopStart = now;
+  }
+
+  /**
+   * Marks the end of an iteration of the control loop, recording its duration in {@link #LOOP}.
+   */
+  public void endLoop() {
+    if (enabled && loopStart >= 0) {
+      histograms[LOOP].record(nanoTime() - loopStart);
+    }
+  }
+
+  /**
+   * @return The current time, to pass to {@link #stop(int, long)} at the end of a section
+   */
+  public long start() {
+    return enabled ? nanoTime() : 0;
+  }
+
+  /**
+   * Records the time since the given start in the given section.
+   *
+   * @param section The index of the section
+   * @param startNanos The time returned by {@link #start()} at the beginning of the section
+   */
+  public void stop(int section, long startNanos) {
+    if (enabled) {
+      histograms[section].record(nanoTime() - startNanos);
+    }
+  }
+
+  /**
+   * Records the given duration in the given section, for durations measured elsewhere.
+   *
+   * @param section The index of the section
+   * @param nanos The duration, in nanoseconds
+   */
+  public void record(int section, long nanos) {
+    if (enabled) {
+      histograms[section].record(nanos);
+    }
+  }
+
+  /**
+   * @param section The index of the section
+   * @return The histogram of the section
+   */
+  public Histogram getHistogram(int section) {
+    return histograms[section];
+  }
+
+  /**
+   * @param section The index of the section
+   * @return The name of the section
+   */
+  public String getSectionName(int section) {
+    return names[section];
+  }
+
+  /**
+   * @return The number of sections
+   */
+  public int getSectionCount() {
+    return names.length;
+  }
+
+  /**
+   * Clears every histogram and forgets the start of the last iteration.
+   */
+  public void reset() {
+    for (Histogram histogram : histograms) {
+      histogram.reset();
+    }
+    loopStart = -1;
+  }
+
+  /**
+   * Adds a line per section that has recorded values to the given telemetry, with the 50th and
+   * 99th percentiles and the maximum in microseconds, unless the telemetry was published to less
+   * than the publish interval ago. This does not call {@link Telemetry#update()}.
+   *
+   * @param telemetry The telemetry of the OpMode
+   * @return True if lines were added
+   */
+  public boolean publish(Telemetry telemetry) {
+    long now = nanoTime();
+    if (published && now - lastPublish < publishIntervalNanos) {
+      return false;
+    }
+    published = true;
+    lastPublish = now;
+
+    for (int section = 0; section < names.length; section++) {
+      Histogram histogram = histograms[section];
+      if (histogram.getCount() > 0) {
+        telemetry.addData(names[section], "p50 %.0f, p99 %.0f, max %.0f us",
+            micros(histogram.getValueAtPercentile(50)),
+            micros(histogram.getValueAtPercentile(99)), micros(histogram.getMax()));
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Writes the statistics of every section to the given CSV file, replacing it, followed by the
+   * non-empty buckets of every histogram. Call this from the OpMode's <code>stop()</code>.
+   *
+   * @param file The file to write
+   * @throws IOException If the file cannot be written
+   */
+  public void exportCsv(File file) throws IOException {
+    try (Writer writer = new FileWriter(file)) {
+      exportCsv(writer);
+    }
+  }
+
+  /**
+   * Writes the statistics of every section in CSV to the given writer, followed by the non-empty
+   * buckets of every histogram. Times are in microseconds.
+   *
+   * @param writer The writer to write to, which is not closed
+   * @throws IOException If the writer fails
+   */
+  public void exportCsv(Writer writer) throws IOException {
+    writer.write("section,count,min_us,mean_us,p50_us,p90_us,p99_us,max_us\n");
+    for (int section = 0; section < names.length; section++) {
+      Histogram histogram = histograms[section];
+      writer.write(String.format(Locale.US, "%s,%d,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f\n",
+          names[section], histogram.getCount(), micros(histogram.getMin()),
+          histogram.getMean() / 1e3, micros(histogram.getValueAtPercentile(50)),
+          micros(histogram.getValueAtPercentile(90)), micros(histogram.getValueAtPercentile(99)),
+          micros(histogram.getMax())));
+    }
+
+    writer.write("\nsection,bucket_max_us,count\n");
+    for (int section = 0; section < names.length; section++) {
+      Histogram histogram = histograms[section];
+      for (int index = 0; index < histogram.bucketCount(); index++) {
+        if (histogram.countAt(index) > 0) {
+          writer.write(String.format(Locale.US, "%s,%.3f,%d\n", names[section],
+              Histogram.highestValueOf(index) / 1e3, histogram.countAt(index)));
+        }
+      }
+    }
+  }
+
+  private static double micros(long nanos) {
+    return nanos / 1e3;
+  }
+
+  private static long nanoTime() {
+    return System.nanoTime();
+  }
+}
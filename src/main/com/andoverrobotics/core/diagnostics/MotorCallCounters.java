@@ -0,0 +1,239 @@
+package com.andoverrobotics.core.diagnostics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+
+/**
+ * Counts the calls that motor wrappers make to the SDK, by motor name. <p> A {@link
+ * com.andoverrobotics.core.utilities.CachedMotor}, {@link
+ * com.andoverrobotics.core.utilities.MotorAdapter} or {@link
+ * com.andoverrobotics.core.utilities.MotorPair} given a {@link Counter} through its
+ * <code>setCallCounters</code> method counts every write it is asked for, every write it actually
+ * sends, every read, and every read that goes to the hardware, along with the time spent blocked
+ * in the SDK calls. Wrappers given the same name share a counter, so that their calls are
+ * aggregated. <p> A wrapper without counters only pays for a null check, and a disabled set of
+ * counters only for a boolean check. Like the wrappers, the counters are meant to be used from the
+ * OpMode's thread.
+ */
+public final class MotorCallCounters {
+
+  /**
+   * The calls made to one motor.
+   */
+  public static final class Counter {
+
+    private final MotorCallCounters owner;
+    private final String name;
+    private long writesRequested, writesSent, reads, hardwareReads, blockedNanos;
+
+    private Counter(MotorCallCounters owner, String name) {
+      this.owner = owner;
+      this.name = name;
+    }
+
+    /**
+     * @return True if calls are currently being counted
+     */
+    public boolean isEnabled() {
+      return owner.enabled;
+    }
+
+    /**
+     * Counts a write requested from the wrapper, whether or not it is sent.
+     */
+    public void countWriteRequested() {
+      if (owner.enabled) {
+        writesRequested++;
+      }
+    }
+
+    /**
+     * Counts a write sent to the SDK.
+     *
+     * @param nanos The time the SDK call took
+     */
+    public void countWriteSent(long nanos) {
+      if (owner.enabled) {
+        writesSent++;
+        blockedNanos += nanos;
+      }
+    }
+
+    /**
+     * Counts a read served from a cache.
+     */
+    public void countCachedRead() {
+      if (owner.enabled) {
+        reads++;
+      }
+    }
+
+    /**
+     * Counts a read that went to the SDK.
+     *
+     * @param nanos The time the SDK call took
+     */
+    public void countHardwareRead(long nanos) {
+      if (owner.enabled) {
+        reads++;
+        hardwareReads++;
+        blockedNanos += nanos;
+      }
+    }
+
+    /**
+     * @return The name of the motor
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * @return The number of writes requested, including those that were dropped
+     */
+    public long getWritesRequested() {
+      return writesRequested;
+    }
+
+    /**
+     * @return The number of writes sent to the SDK
+     */
+    public long getWritesSent() {
+      return writesSent;
+    }
+
+    /**
+     * @return The number of reads, whether served from a cache or from the hardware
+     */
+    public long getReads() {
+      return reads;
+    }
+
+    /**
+     * @return The number of reads that went to the SDK
+     */
+    public long getHardwareReads() {
+      return hardwareReads;
+    }
+
+    /**
+     * @return The total time spent blocked in SDK calls, in nanoseconds
+     */
+    public long getBlockedNanos() {
+      return blockedNanos;
+    }
+
+    private void reset() {
+      writesRequested = 0;
+      writesSent = 0;
+      reads = 0;
+      hardwareReads = 0;
+      blockedNanos = 0;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(Locale.US, "%s: writes %d/%d, reads %d/%d, blocked %.1f ms", name,
+          writesSent, writesRequested, hardwareReads, reads, blockedNanos / 1e6);
+    }
+  }
+
+  private final Map<String, Counter> counters = new LinkedHashMap<>();
+  private boolean enabled = true;
+
+  /**
+   * Finds the counter of the motor with the given name, creating it on first use.
+   *
+   * @param name The name of the motor, usually its name in the hardware map
+   * @return The counter shared by every wrapper of that motor
+   */
+  public Counter forMotor(String name) {
+    Counter counter = counters.get(name);
+    if (counter == null) {
+      counter = new Counter(this, name);
+      counters.put(name, counter);
+    }
+    return counter;
+  }
+
+  /**
+   * @return Every counter, in the order they were created
+   */
+  public List<Counter> getCounters() {
+    return new ArrayList<>(counters.values());
+  }
+
+  /**
+   * Enables or disables counting. While disabled, the counters keep their values.
+   *
+   * @param enabled True to count calls
+   */
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * @return True if calls are being counted
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Resets every counter to zero.
+   */
+  public void reset() {
+    for (Counter counter : counters.values()) {
+      counter.reset();
+    }
+  }
+
+  /**
+   * Adds a line per motor to the given telemetry with its writes sent and requested, its hardware
+   * and total reads, and the time blocked in the SDK. This does not call {@link
+   * Telemetry#update()}.
+   *
+   * @param telemetry The telemetry of the OpMode
+   */
+  public void publish(Telemetry telemetry) {
+    for (Counter counter : counters.values()) {
+      telemetry.addData(counter.name, "W %d/%d R %d/%d %.1fms", counter.writesSent,
+          counter.writesRequested, counter.hardwareReads, counter.reads,
+          counter.blockedNanos / 1e6);
+    }
+  }
+
+  /**
+   * Writes a table of every counter, with the share of writes that were dropped, to the given
+   * writer.
+   *
+   * @param writer The writer to write to, which is not closed
+   * @throws IOException If the writer fails
+   */
+  public void writeReport(Writer writer) throws IOException {
+    writer.write(String.format(Locale.US, "%-16s %10s %10s %8s %10s %10s %12s%n", "motor",
+        "writes", "sent", "dropped", "reads", "hardware", "blocked ms"));
+    for (Counter counter : counters.values()) {
+      double dropped = counter.writesRequested == 0 ? 0
+          : 100.0 * (counter.writesRequested - counter.writesSent) / counter.writesRequested;
+      writer.write(String.format(Locale.US, "%-16s %10d %10d %7.1f%% %10d %10d %12.3f%n",
+          counter.name, counter.writesRequested, counter.writesSent, dropped, counter.reads,
+          counter.hardwareReads, counter.blockedNanos / 1e6));
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    for (Counter counter : counters.values()) {
+      builder.append(counter).append('\n');
+    }
+    return builder.toString();
+  }
+}
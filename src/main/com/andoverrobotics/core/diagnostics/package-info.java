@@ -0,0 +1,4 @@
+/**
+ * Includes classes that measure the timing and hardware traffic of the control loop.
+ */
+package com.andoverrobotics.core.diagnostics;
@@ -1,24 +1,96 @@
 package com.andoverrobotics.core.drivetrain;
 
 
+import com.andoverrobotics.core.utilities.Converter;
 import com.andoverrobotics.core.utilities.IMotor;
+import com.andoverrobotics.core.utilities.PIDFController;
 import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
 import com.qualcomm.robotcore.util.Range;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
 
 /**
  * Defines the interface for an ordinary DriveTrain object with support for a default motor power.
+ * <p> Besides the moves and the TeleOp methods, a subclass describes its geometry to the
+ * closed-loop features: {@link #getForwardTicksPerInch()} for heading-held straight drives,
+ * {@link #getRotationTickOffsets(double)} for profiled rotations, and {@link
+ * #computeDisplacement(double[], double[])} for {@link PoseEstimator}. Profiled forward moves use
+ * {@link #getForwardTickOffsets(double)}, which a subclass overrides only if its wheels do not all
+ * turn alike when driving forwards.
  */
 public abstract class DriveTrain {
 
   protected final OpMode opMode;
   protected double defaultPower = 0.7;
+  protected MotionPoller motionPoller = new MotionPoller();
+
+  private MotionExecutor motionExecutor = new MotionExecutor();
+  private Motion activeMotion, startingMotion;
+  private final HeadingHold headingHold = new HeadingHold(this);
+  private final ProfiledMove profiledMove = new ProfiledMove(this);
+  private VelocityControl velocityControl;
+  // The mode that every motor was last switched to by setMotorMode, or null once the motors may
+  // have been switched individually
+  private RunMode motorMode;
 
   protected DriveTrain(OpMode opMode) {
     this.opMode = opMode;
   }
 
+  /**
+   * Sets the {@link MotionPoller} used to wait for encoder moves to complete, which determines how
+   * often the motors are polled while waiting.
+   *
+   * @param poller The new MotionPoller
+   */
+  public final void setMotionPoller(MotionPoller poller) {
+    motionPoller = poller;
+  }
+
+  /**
+   * Gets the {@link MotionPoller} used to wait for encoder moves to complete.
+   *
+   * @return The current MotionPoller
+   */
+  public final MotionPoller getMotionPoller() {
+    return motionPoller;
+  }
+
+  /**
+   * Sets the {@link MotionExecutor} that advances the motions started by the non-blocking methods,
+   * such as {@link #driveForwardsAsync(double, double)}.
+   *
+   * @param executor The new MotionExecutor
+   */
+  public final void setMotionExecutor(MotionExecutor executor) {
+    motionExecutor = executor;
+  }
+
+  /**
+   * Gets the {@link MotionExecutor} that advances the motions started by the non-blocking methods.
+   * Its {@link MotionExecutor#tick()} must be called once per iteration of the control loop.
+   *
+   * @return The current MotionExecutor
+   */
+  public final MotionExecutor getMotionExecutor() {
+    return motionExecutor;
+  }
+
+  /**
+   * Watches the motors from a background thread until none of them is busy or the OpMode stops.
+   * As a {@link com.andoverrobotics.core.utilities.MotorReadCache} is used from one thread, do not
+   * call this on a DriveTrain whose motors read through one.
+   *
+   * @return A future that completes once the motors are no longer busy
+   * @see MotionPoller#watch
+   */
+  public CompletableFuture<Integer> whenMotionComplete() {
+    return motionPoller.watch(this::isBusy, this::opModeIsActive);
+  }
+
   /**
    * Sets the default driving power.
    *
@@ -107,8 +179,338 @@ public abstract class DriveTrain {
    */
   public abstract void rotateCounterClockwise(int degrees, double power);
 
+  // -- Non-blocking Autonomous Methods --
+
+  /**
+   * Starts driving forwards a specific distance at the default power, without waiting for the
+   * move to finish.
+   *
+   * @param distanceInInches The distance to travel, in inches
+   * @return The handle of the started move
+   */
+  public final Motion driveForwardsAsync(double distanceInInches) {
+    return driveForwardsAsync(distanceInInches, defaultPower);
+  }
+
+  /**
+   * Starts driving forwards a specific distance at a specific power, without waiting for the move
+   * to finish.
+   *
+   * @param distanceInInches The distance to travel, in inches
+   * @param power The power to drive at, between 0 and 1, inclusive
+   * @return The handle of the started move
+   */
+  public final Motion driveForwardsAsync(double distanceInInches, double power) {
+    return startAsync(() -> driveForwards(distanceInInches, power));
+  }
+
+  /**
+   * Starts driving backwards a specific distance at the default power, without waiting for the
+   * move to finish.
+   *
+   * @param distanceInInches The distance to travel, in inches
+   * @return The handle of the started move
+   */
+  public final Motion driveBackwardsAsync(double distanceInInches) {
+    return driveBackwardsAsync(distanceInInches, defaultPower);
+  }
+
+  /**
+   * Starts driving backwards a specific distance at a specific power, without waiting for the move
+   * to finish.
+   *
+   * @param distanceInInches The distance to travel, in inches
+   * @param power The power to drive at, between 0 and 1, inclusive
+   * @return The handle of the started move
+   */
+  public final Motion driveBackwardsAsync(double distanceInInches, double power) {
+    return startAsync(() -> driveBackwards(distanceInInches, power));
+  }
+
+  /**
+   * Starts rotating clockwise a specific amount at the default power, without waiting for the
+   * rotation to finish.
+   *
+   * @param degrees The amount to rotate (in degrees), between 0 and 360, inclusive
+   * @return The handle of the started rotation
+   */
+  public final Motion rotateClockwiseAsync(int degrees) {
+    return rotateClockwiseAsync(degrees, defaultPower);
+  }
+
+  /**
+   * Starts rotating clockwise a specific amount at a specified power, without waiting for the
+   * rotation to finish.
+   *
+   * @param degrees The amount to rotate (in degrees), between 0 and 360, inclusive
+   * @param power The power to rotate at, between 0 and 1, inclusive
+   * @return The handle of the started rotation
+   */
+  public final Motion rotateClockwiseAsync(int degrees, double power) {
+    return startAsync(() -> rotateClockwise(degrees, power));
+  }
+
+  /**
+   * Starts rotating counterclockwise a specific amount at the default power, without waiting for
+   * the rotation to finish.
+   *
+   * @param degrees The amount to rotate (in degrees), between 0 and 360, inclusive
+   * @return The handle of the started rotation
+   */
+  public final Motion rotateCounterClockwiseAsync(int degrees) {
+    return rotateCounterClockwiseAsync(degrees, defaultPower);
+  }
+
+  /**
+   * Starts rotating counterclockwise a specific amount at a specified power, without waiting for
+   * the rotation to finish.
+   *
+   * @param degrees The amount to rotate (in degrees), between 0 and 360, inclusive
+   * @param power The power to rotate at, between 0 and 1, inclusive
+   * @return The handle of the started rotation
+   */
+  public final Motion rotateCounterClockwiseAsync(int degrees, double power) {
+    return startAsync(() -> rotateCounterClockwise(degrees, power));
+  }
+
+  /**
+   * Runs the given blocking move without blocking: the move starts its motors as usual, but its
+   * call to {@link #completeMotion(RunMode)} returns immediately, and the returned {@link Motion}
+   * finishes the move from {@link MotionExecutor#tick()} instead.
+   *
+   * @param blockingMove A call to one of the blocking autonomous methods
+   * @return The handle of the started move
+   */
+  protected final Motion startAsync(Runnable blockingMove) {
+    if (activeMotion != null) {
+      stop();
+    }
+
+    Motion motion = new Motion(this);
+    startingMotion = motion;
+    try {
+      blockingMove.run();
+    } finally {
+      startingMotion = null;
+    }
+
+    activeMotion = motion;
+    motionExecutor.submit(motion);
+    return motion;
+  }
+
+  // -- Closed-loop Heading Methods --
+
+  /**
+   * Sets the source of the robot's heading used by the closed-loop methods, such as {@link
+   * #turnToHeading(double, double)}.
+   *
+   * @param source The new heading source, such as an {@link ImuHeadingSource}
+   */
+  public final void setHeadingSource(HeadingSource source) {
+    headingHold.setSource(source);
+  }
+
+  /**
+   * Gets the source of the robot's heading used by the closed-loop methods.
+   *
+   * @return The current heading source, or null if none has been set
+   */
+  public final HeadingSource getHeadingSource() {
+    return headingHold.getSource();
+  }
+
+  /**
+   * Gets the controller that the closed-loop methods run on the heading error, in degrees, so that
+   * its gains can be tuned. Its output is bounded to the power of each move.
+   *
+   * @return The heading controller
+   */
+  public final PIDFController getHeadingController() {
+    return headingHold.getController();
+  }
+
+  /**
+   * Sets when a closed-loop turn is finished: once the heading error has stayed within the given
+   * tolerance for the given time. The defaults are 1.5 degrees and 150 milliseconds.
+   *
+   * @param toleranceDegrees The largest heading error, in degrees, that counts as on target
+   * @param settleTimeMs The time, in milliseconds, that the error must stay within the tolerance
+   */
+  public final void setHeadingTolerance(double toleranceDegrees, long settleTimeMs) {
+    headingHold.setTolerance(toleranceDegrees, settleTimeMs);
+  }
+
+  /**
+   * Turns to the given heading at up to the default power, by the shortest direction.
+   *
+   * @param headingDegrees The heading to face, in degrees, counter-clockwise positive
+   * @throws IllegalStateException if no heading source has been set
+   */
+  public final void turnToHeading(double headingDegrees) {
+    turnToHeading(headingDegrees, defaultPower);
+  }
+
+  /**
+   * Turns to the given heading at up to the given power, by the shortest direction. Unlike {@link
+   * #rotateClockwise(int, double)}, this reads the heading source on every control tick and ends
+   * once the heading error has settled within the tolerance, so wheel slip does not affect the
+   * final heading.
+   *
+   * @param headingDegrees The heading to face, in degrees, counter-clockwise positive
+   * @param maxPower The largest power to rotate at, between 0 and 1, inclusive
+   * @throws IllegalStateException if no heading source has been set
+   */
+  public void turnToHeading(double headingDegrees, double maxPower) {
+    headingHold.turnTo(headingDegrees, maxPower);
+  }
+
+  /**
+   * Turns by the given angle relative to the current heading, in closed loop.
+   *
+   * @param degrees The angle to turn, in degrees. Positive is counterclockwise, negative is
+   * clockwise
+   * @param maxPower The largest power to rotate at, between 0 and 1, inclusive
+   * @throws IllegalStateException if no heading source has been set
+   * @see #turnToHeading(double, double)
+   */
+  public void turnByDegrees(double degrees, double maxPower) {
+    turnToHeading(headingHold.readHeading() + degrees, maxPower);
+  }
+
+  /**
+   * Drives the given distance while holding the heading at which the move started, correcting
+   * the heading on every control tick. The move ends once the average encoder travel of the motors
+   * reaches the distance.
+   *
+   * @param distanceInInches The distance to travel, in inches. Positive is forwards, negative is
+   * backwards
+   * @param power The power to drive at, between 0 and 1, inclusive
+   * @throws IllegalStateException if no heading source has been set
+   */
+  public void driveStraight(double distanceInInches, double power) {
+    headingHold.driveStraight(distanceInInches, power);
+  }
+
+  // -- Motion-profiled Autonomous Methods --
+
+  /**
+   * Sets the limits of the motion profiles generated for the profiled moves, such as {@link
+   * #driveForwardsProfiled(double)}. The limits apply to the motor that travels the farthest in a
+   * move; the defaults are 2000 ticks/s and 2500 ticks/s&sup2;, with no jerk limit.
+   *
+   * @param maxVelocity The maximum velocity, in encoder ticks per second
+   * @param maxAcceleration The maximum acceleration, in encoder ticks per second squared
+   * @param maxJerk The maximum jerk, in encoder ticks per second cubed, for S-curve profiles; 0 for
+   * trapezoidal profiles
+   */
+  public final void setMotionConstraints(double maxVelocity, double maxAcceleration,
+      double maxJerk) {
+    profiledMove.setConstraints(maxVelocity, maxAcceleration, maxJerk);
+  }
+
+  /**
+   * Sets the gains with which the profiled moves compute each motor's power from its reference
+   * velocity (ticks/s), reference acceleration (ticks/s&sup2;) and position error (ticks). kV is
+   * the reciprocal of the motor's velocity at full power; the defaults are 1/2800, 0 and 0.005.
+   *
+   * @param kV The velocity feedforward gain
+   * @param kA The acceleration feedforward gain
+   * @param kP The proportional gain on the position error
+   */
+  public final void setProfileGains(double kV, double kA, double kP) {
+    profiledMove.setGains(kV, kA, kP);
+  }
+
+  /**
+   * Sets the largest position error, in encoder ticks, at which a profiled move counts as
+   * finished once its profile has ended. The default is 10 ticks.
+   *
+   * @param toleranceTicks The position tolerance, in encoder ticks
+   */
+  public final void setProfileTolerance(int toleranceTicks) {
+    profiledMove.setTolerance(toleranceTicks);
+  }
+
+  /**
+   * Drives forwards a specific distance along a motion profile, which ramps the speed up and down
+   * within the limits set by {@link #setMotionConstraints(double, double, double)}.
+   *
+   * @param distanceInInches The distance to travel, in inches
+   */
+  public final void driveForwardsProfiled(double distanceInInches) {
+    followProfile(getForwardTickOffsets(Math.abs(distanceInInches)));
+  }
+
+  /**
+   * Drives backwards a specific distance along a motion profile.
+   *
+   * @param distanceInInches The distance to travel, in inches
+   * @see #driveForwardsProfiled(double)
+   */
+  public final void driveBackwardsProfiled(double distanceInInches) {
+    followProfile(getForwardTickOffsets(-Math.abs(distanceInInches)));
+  }
+
+  /**
+   * Rotates clockwise a specific amount along a motion profile.
+   *
+   * @param degrees The amount to rotate (in degrees), between 0 and 360, inclusive
+   * @see #driveForwardsProfiled(double)
+   */
+  public final void rotateClockwiseProfiled(int degrees) {
+    if (degrees < 0) {
+      rotateCounterClockwiseProfiled(-degrees);
+    } else {
+      followProfile(getRotationTickOffsets(-Converter.normalizedDegrees(degrees)));
+    }
+  }
+
+  /**
+   * Rotates counterclockwise a specific amount along a motion profile.
+   *
+   * @param degrees The amount to rotate (in degrees), between 0 and 360, inclusive
+   * @see #driveForwardsProfiled(double)
+   */
+  public final void rotateCounterClockwiseProfiled(int degrees) {
+    if (degrees < 0) {
+      rotateClockwiseProfiled(-degrees);
+    } else {
+      followProfile(getRotationTickOffsets(Converter.normalizedDegrees(degrees)));
+    }
+  }
+
+  /**
+   * Moves every motor by the given number of encoder ticks along a shared motion profile, so that
+   * all motors start and finish together, and blocks until the move is finished or the OpMode
+   * stops.
+   *
+   * @param tickOffsets The offset of each motor, in the order of {@link #getMotors()}
+   */
+  protected final void followProfile(int[] tickOffsets) {
+    profiledMove.follow(tickOffsets);
+  }
+
   // -- Teleop Methods --
 
+  /**
+   * Makes the TeleOp methods hold wheel velocities instead of sending open-loop power.
+   *
+   * @param control The conversion of powers into wheel velocities, or null to send open-loop power
+   * in {@link RunMode#RUN_WITHOUT_ENCODER}
+   */
+  public final void setVelocityControl(VelocityControl control) {
+    velocityControl = control;
+  }
+
+  /**
+   * @return The conversion of powers into wheel velocities, or null if the TeleOp methods send
+   * open-loop power
+   */
+  public final VelocityControl getVelocityControl() {
+    return velocityControl;
+  }
+
   /**
    * Sets the power to move at.
    *
@@ -142,22 +544,174 @@ public abstract class DriveTrain {
   }
 
   /**
-   * Stops the motor(s).
+   * Stops the motor(s), cancelling the active {@link Motion} if there is one.
    */
   public void stop() {
-    for (IMotor motor : getMotors()) {
-      motor.setPower(0);
+    Motion motion = activeMotion;
+    activeMotion = null;
+    if (motion != null) {
+      motion.markCancelled();
     }
+
+    haltMotors();
   }
 
   // -- Internal methods
 
   protected abstract IMotor[] getMotors();
 
+  /**
+   * @return The average number of encoder ticks that the motors turn when the robot drives forward
+   * by one inch
+   */
+  protected abstract double getForwardTicksPerInch();
+
+  /**
+   * Computes the encoder offsets of a forward move. By default, every motor turns by the distance
+   * times {@link #getForwardTicksPerInch()}, as on a drive train whose wheels all point forwards.
+   *
+   * @param distanceInInches The distance to drive, in inches; positive is forwards
+   * @return The encoder offset of each motor for the move, in the order of {@link #getMotors()}
+   */
+  protected int[] getForwardTickOffsets(double distanceInInches) {
+    int[] offsets = new int[getMotors().length];
+    Arrays.fill(offsets, (int) (distanceInInches * getForwardTicksPerInch()));
+    return offsets;
+  }
+
+  /**
+   * @param degrees The angle to rotate, in degrees; positive is counterclockwise
+   * @return The encoder offset of each motor for the rotation, in the order of {@link
+   * #getMotors()}
+   */
+  protected abstract int[] getRotationTickOffsets(double degrees);
+
+  /**
+   * Converts the encoder travel of each motor into the robot-relative displacement that caused it,
+   * for {@link PoseEstimator}.
+   *
+   * @param tickDeltas The encoder travel of each motor, in the order of {@link #getMotors()}
+   * @param displacement Receives the displacement: to the right in inches, forwards in inches, and
+   * the heading change in degrees, counterclockwise positive
+   */
+  protected abstract void computeDisplacement(double[] tickDeltas, double[] displacement);
+
   protected void setMotorMode(RunMode mode) {
     for (IMotor motor : getMotors()) {
       motor.setMode(mode);
     }
+    motorMode = mode;
+  }
+
+  /**
+   * Switches the motors to the mode of the TeleOp methods: {@link RunMode#RUN_WITHOUT_ENCODER},
+   * unless a {@link VelocityControl} decides otherwise. The motors are only written to when they
+   * are not known to be in that mode already, so calling this every loop costs nothing once the
+   * DriveTrain is in its TeleOp regime.
+   */
+  protected final void setTeleopMode() {
+    RunMode mode = velocityControl == null ? RunMode.RUN_WITHOUT_ENCODER
+        : velocityControl.getRunMode();
+    if (mode != motorMode) {
+      setMotorMode(mode);
+    }
+  }
+
+  /**
+   * Forgets the mode of the motors, so that the next TeleOp method switches them again. Encoder
+   * moves call this themselves; call it after changing the mode of the drive motors without going
+   * through this DriveTrain.
+   */
+  public final void invalidateMotorMode() {
+    motorMode = null;
+  }
+
+  /**
+   * Drives one motor for the TeleOp methods: sets its power, or the velocity that the {@link
+   * VelocityControl} derives from it.
+   *
+   * @param motor The motor to drive
+   * @param power The power, between -1 and 1, inclusive
+   */
+  protected final void setTeleopPower(IMotor motor, double power) {
+    if (velocityControl == null) {
+      motor.setPower(power);
+    } else {
+      velocityControl.drive(motor, power);
+    }
+  }
+
+  /**
+   * Blocks until no motor is busy or the OpMode stops, polling at the rate of the current
+   * {@link MotionPoller}.
+   */
+  protected void awaitMotion() {
+    motionPoller.awaitIdle(freshPoll(this::isBusy), this::opModeIsActive);
+  }
+
+  /**
+   * Discards the reads cached by the motors, if any, so that the next reads go to the hardware.
+   */
+  protected final void invalidateReads() {
+    for (IMotor motor : getMotors()) {
+      motor.invalidateReads();
+    }
+  }
+
+  // Nothing refreshes a read cache while a blocking loop polls, so each poll reads the hardware
+  final BooleanSupplier freshPoll(BooleanSupplier poll) {
+    return () -> {
+      invalidateReads();
+      return poll.getAsBoolean();
+    };
+  }
+
+  /**
+   * Finishes an encoder move whose motors have been started: waits for the motors, stops them, and
+   * then switches them to the given mode. When the move was started through {@link
+   * #startAsync(Runnable)}, this returns immediately, and its {@link Motion} does the rest once the
+   * motors are idle.
+   *
+   * @param restoreMode The mode to switch the motors to afterwards, or null to leave the mode as is
+   */
+  protected final void completeMotion(RunMode restoreMode) {
+    // The motors were switched to RUN_TO_POSITION one by one
+    invalidateMotorMode();
+    if (startingMotion != null) {
+      startingMotion.setRestoreMode(restoreMode);
+      return;
+    }
+
+    awaitMotion();
+    stop();
+    if (restoreMode != null) {
+      setMotorMode(restoreMode);
+    }
+  }
+
+  void finishMotion(Motion motion, RunMode restoreMode) {
+    if (activeMotion == motion) {
+      activeMotion = null;
+    }
+
+    haltMotors();
+    if (restoreMode != null) {
+      setMotorMode(restoreMode);
+    }
+  }
+
+  void cancelMotion(Motion motion) {
+    if (activeMotion == motion) {
+      stop();
+    } else {
+      motion.markCancelled();
+    }
+  }
+
+  private void haltMotors() {
+    for (IMotor motor : getMotors()) {
+      motor.setPower(0);
+    }
   }
 
   protected boolean isBusy() {
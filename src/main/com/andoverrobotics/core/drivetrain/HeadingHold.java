@@ -0,0 +1,141 @@
+package com.andoverrobotics.core.drivetrain;
+
+import com.andoverrobotics.core.utilities.Converter;
+import com.andoverrobotics.core.utilities.IMotor;
+import com.andoverrobotics.core.utilities.PIDFController;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the closed-loop turns and straight drives of a {@link DriveTrain}. Each tick reads the
+ * {@link HeadingSource} once and runs the heading controller on the shortest signed heading error.
+ * Ticks are paced by the DriveTrain's {@link MotionPoller}, whose clock also times the controller.
+ */
+final class HeadingHold {
+
+  static final double DEFAULT_TOLERANCE_DEGREES = 1.5;
+  static final long DEFAULT_SETTLE_TIME_MS = 150;
+
+  private final DriveTrain driveTrain;
+  private final PIDFController controller = new PIDFController(0.02, 0, 0.002);
+
+  private HeadingSource source;
+  private double toleranceDegrees = DEFAULT_TOLERANCE_DEGREES;
+  private long settleNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_SETTLE_TIME_MS);
+
+  // State of the current move
+  private double targetHeading, drivePower, startPosition, targetTicks;
+  private boolean settling;
+  private long settledSince;
+
+  HeadingHold(DriveTrain driveTrain) {
+    this.driveTrain = driveTrain;
+    controller.setDerivativeFilter(0.02);
+  }
+
+  void setSource(HeadingSource source) {
+    this.source = source;
+  }
+
+  HeadingSource getSource() {
+    return source;
+  }
+
+  PIDFController getController() {
+    return controller;
+  }
+
+  void setTolerance(double toleranceDegrees, long settleTimeMs) {
+    if (toleranceDegrees < 0 || settleTimeMs < 0) {
+      throw new IllegalArgumentException(
+          "Tolerance and settle time must not be negative: " + toleranceDegrees + ", "
+              + settleTimeMs);
+    }
+    this.toleranceDegrees = toleranceDegrees;
+    this.settleNanos = TimeUnit.MILLISECONDS.toNanos(settleTimeMs);
+  }
+
+  void turnTo(double heading, double maxPower) {
+    begin(heading, maxPower);
+    driveTrain.getMotionPoller().awaitIdle(driveTrain.freshPoll(this::turnTick), driveTrain::opModeIsActive);
+    driveTrain.stop();
+  }
+
+  void driveStraight(double distanceInInches, double power) {
+    begin(readHeading(), Math.abs(power));
+    drivePower = Math.abs(power) * Math.signum(distanceInInches);
+    targetTicks = Math.abs(distanceInInches * driveTrain.getForwardTicksPerInch());
+    startPosition = averagePosition();
+    driveTrain.setTeleopMode();
+
+    driveTrain.getMotionPoller().awaitIdle(driveTrain.freshPoll(this::driveTick), driveTrain::opModeIsActive);
+    driveTrain.stop();
+  }
+
+  double readHeading() {
+    requireSource();
+    return source.getHeading();
+  }
+
+  private void begin(double heading, double maxPower) {
+    requireSource();
+    driveTrain.stop();
+
+    targetHeading = heading;
+    settling = false;
+    double bound = Math.min(1, Math.abs(maxPower));
+    controller.reset();
+    controller.boundOutput(-bound, bound);
+  }
+
+  // Returns true while the turn is in progress. The turn ends once the error has stayed within the
+  // tolerance for the settle time.
+  private boolean turnTick() {
+    long now = driveTrain.getMotionPoller().nanoTime();
+    double error = Converter.signedDegrees(targetHeading - source.getHeading());
+
+    if (Math.abs(error) <= toleranceDegrees) {
+      if (!settling) {
+        settling = true;
+        settledSince = now;
+      }
+      if (now - settledSince >= settleNanos) {
+        return false;
+      }
+    } else {
+      settling = false;
+    }
+
+    // The controller's output is counter-clockwise positive; rotation power is clockwise positive
+    driveTrain.setRotationPower(-controller.calculate(error, 0, now / 1e9));
+    return true;
+  }
+
+  // Returns true until the average encoder travel reaches the target distance
+  private boolean driveTick() {
+    long now = driveTrain.getMotionPoller().nanoTime();
+    double error = Converter.signedDegrees(targetHeading - source.getHeading());
+    double correction = controller.calculate(error, 0, now / 1e9);
+
+    if (Math.abs(averagePosition() - startPosition) >= targetTicks) {
+      return false;
+    }
+
+    driveTrain.setMovementAndRotation(drivePower, -correction);
+    return true;
+  }
+
+  private double averagePosition() {
+    IMotor[] motors = driveTrain.getMotors();
+    double sum = 0;
+    for (IMotor motor : motors) {
+      sum += motor.getCurrentPosition();
+    }
+    return sum / motors.length;
+  }
+
+  private void requireSource() {
+    if (source == null) {
+      throw new IllegalStateException("No HeadingSource has been set on this DriveTrain");
+    }
+  }
+}
@@ -0,0 +1,18 @@
+package com.andoverrobotics.core.drivetrain;
+
+/**
+ * Provides the heading of the robot for the closed-loop methods of {@link DriveTrain}, such as
+ * {@link DriveTrain#turnToHeading(double, double)}. <p> Implementations may read an IMU (see
+ * {@link ImuHeadingSource}), a gyro, odometry, or a simulation. The closed-loop methods call
+ * {@link #getHeading()} exactly once per control tick.
+ */
+public interface HeadingSource {
+
+  /**
+   * Reads the current heading of the robot.
+   *
+   * @return The heading in degrees, counter-clockwise positive. It may be in any range, such as
+   * (-180, 180] or a continuous total.
+   */
+  double getHeading();
+}
@@ -0,0 +1,64 @@
+package com.andoverrobotics.core.drivetrain;
+
+import com.qualcomm.hardware.bosch.BNO055IMU;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.AxesOrder;
+import org.firstinspires.ftc.robotcore.external.navigation.AxesReference;
+
+/**
+ * A {@link HeadingSource} that reads the yaw of a {@link BNO055IMU}, such as the one built into
+ * the Expansion Hub and the Control Hub. The hub is assumed to be mounted flat, so that the yaw is
+ * the first angle in intrinsic ZYX order.
+ */
+public class ImuHeadingSource implements HeadingSource {
+
+  private final BNO055IMU imu;
+  private double offset = 0;
+
+  /**
+   * Creates a heading source from an already initialized IMU.
+   *
+   * @param imu The IMU to read
+   */
+  public ImuHeadingSource(BNO055IMU imu) {
+    this.imu = imu;
+  }
+
+  /**
+   * Initializes the IMU with the given name to report degrees, and creates a heading source that
+   * reads it.
+   *
+   * @param map The hardware map of the OpMode
+   * @param imuName The name of the IMU in the robot configuration, usually "imu"
+   * @return The new heading source
+   */
+  public static ImuHeadingSource fromHardware(HardwareMap map, String imuName) {
+    BNO055IMU imu = map.get(BNO055IMU.class, imuName);
+
+    BNO055IMU.Parameters parameters = new BNO055IMU.Parameters();
+    parameters.angleUnit = BNO055IMU.AngleUnit.DEGREES;
+    imu.initialize(parameters);
+
+    return new ImuHeadingSource(imu);
+  }
+
+  @Override
+  public double getHeading() {
+    return readYaw() - offset;
+  }
+
+  /**
+   * Redefines the current heading as the given value, such as 0 at the start of autonomous.
+   *
+   * @param heading The heading that the robot currently faces, in degrees
+   */
+  public void setHeading(double heading) {
+    offset = readYaw() - heading;
+  }
+
+  private double readYaw() {
+    return imu.getAngularOrientation(AxesReference.INTRINSIC, AxesOrder.ZYX, AngleUnit.DEGREES)
+        .firstAngle;
+  }
+}
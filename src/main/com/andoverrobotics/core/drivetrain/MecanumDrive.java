@@ -1,11 +1,11 @@
 package com.andoverrobotics.core.drivetrain;
 
 import static com.qualcomm.robotcore.hardware.DcMotor.RunMode.RUN_USING_ENCODER;
-import static com.qualcomm.robotcore.hardware.DcMotor.RunMode.RUN_WITHOUT_ENCODER;
 
 import com.andoverrobotics.core.utilities.Converter;
 import com.andoverrobotics.core.utilities.Coordinate;
 import com.andoverrobotics.core.utilities.IMotor;
+import com.andoverrobotics.core.utilities.MotorCommandBuffer;
 import com.andoverrobotics.core.utilities.MotorAdapter;
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.hardware.DcMotor;
@@ -24,6 +24,9 @@ public class MecanumDrive extends StrafingDriveTrain {
       motorLeftDiagonalRightSide, motorRightDiagonalRightSide;
   private final int ticksPerInch, ticksPer360;
 
+  // Motor groups are built once, so that TeleOp methods called every loop do not allocate
+  private final MotorAdapter[] leftSide, rightSide, leftDiagonal, rightDiagonal, allMotors;
+
   /**
    * Constructs a new <code>MecanumDrive</code> instance with the given {@link DcMotor}s and encoder
    * parameters.
@@ -51,6 +54,13 @@ public class MecanumDrive extends StrafingDriveTrain {
 
     this.ticksPerInch = ticksPerInch;
     this.ticksPer360 = ticksPer360;
+
+    leftSide = new MotorAdapter[] {rightDiagLeftSide, leftDiagLeftSide};
+    rightSide = new MotorAdapter[] {rightDiagRightSide, leftDiagRightSide};
+    leftDiagonal = new MotorAdapter[] {leftDiagLeftSide, leftDiagRightSide};
+    rightDiagonal = new MotorAdapter[] {rightDiagLeftSide, rightDiagRightSide};
+    allMotors = new MotorAdapter[] {
+        rightDiagRightSide, rightDiagLeftSide, leftDiagRightSide, leftDiagLeftSide};
   }
 
   /**
@@ -125,6 +135,18 @@ public class MecanumDrive extends StrafingDriveTrain {
         new MotorAdapter(motorBL), new MotorAdapter(motorFR), opMode, ticksPerInch, ticksPer360);
   }
 
+  /**
+   * Attaches all four motors to the given {@link MotorCommandBuffer}, so that their writes are
+   * queued while the buffer has an open transaction.
+   *
+   * @param buffer The buffer to queue writes in, or null to always send writes right away
+   */
+  public void setCommandBuffer(MotorCommandBuffer buffer) {
+    for (MotorAdapter motor : allMotors) {
+      motor.setCommandBuffer(buffer);
+    }
+  }
+
   // Rotates the given displacement by 45deg clockwise, assigns its components to the diagonals as
   // a tick offset (setTargetPosition), then scales its components down such that the greatest
   // component is equal to the power given, followed by assigning these components to the diagonals
@@ -145,15 +167,12 @@ public class MecanumDrive extends StrafingDriveTrain {
     double leftPower = Math.abs(clippedPower * (diagonalOffsets.getY() / maxOffset)),
         rightPower = Math.abs(clippedPower * (diagonalOffsets.getX() / maxOffset));
 
-    for (MotorAdapter motor : leftDiagonal())
+    for (MotorAdapter motor : leftDiagonal)
       motor.startRunToPosition(leftOffset, leftPower);
-    for (MotorAdapter motor : rightDiagonal())
+    for (MotorAdapter motor : rightDiagonal)
       motor.startRunToPosition(rightOffset, rightPower);
 
-    while (isBusy() && opModeIsActive()) {
-    }
-
-    stop();
+    completeMotion(null);
   }
 
   @Override
@@ -171,54 +190,13 @@ public class MecanumDrive extends StrafingDriveTrain {
     double clippedPower = Math.abs(Range.clip(power, -1, 1));
     double rotationTicks = degrees / 360.0 * ticksPer360;
 
-    for (MotorAdapter motor : leftSide())
+    for (MotorAdapter motor : leftSide)
       motor.startRunToPosition((int) -rotationTicks, clippedPower);
-    for (MotorAdapter motor : rightSide())
+    for (MotorAdapter motor : rightSide)
       motor.startRunToPosition((int) rotationTicks, clippedPower);
 
 
-    while (isBusy() && opModeIsActive()) {
-    }
-
-    stop();
-    setMotorMode(RUN_USING_ENCODER);
-  }
-
-  private MotorAdapter[] leftSide() {
-    return new MotorAdapter[] {
-        motorRightDiagonalLeftSide,
-        motorLeftDiagonalLeftSide
-    };
-  }
-
-  private MotorAdapter[] rightSide() {
-    return new MotorAdapter[] {
-        motorRightDiagonalRightSide,
-        motorLeftDiagonalRightSide
-    };
-  }
-
-  private MotorAdapter[] leftDiagonal() {
-    return new MotorAdapter[] {
-        motorLeftDiagonalLeftSide,
-        motorLeftDiagonalRightSide
-    };
-  }
-
-  private MotorAdapter[] rightDiagonal() {
-    return new MotorAdapter[] {
-        motorRightDiagonalLeftSide,
-        motorRightDiagonalRightSide
-    };
-  }
-
-  private MotorAdapter[] allMotors() {
-    return new MotorAdapter[] {
-        motorRightDiagonalRightSide,
-        motorRightDiagonalLeftSide,
-        motorLeftDiagonalRightSide,
-        motorLeftDiagonalLeftSide
-    };
+    completeMotion(RUN_USING_ENCODER);
   }
 
   @Override
@@ -232,10 +210,10 @@ public class MecanumDrive extends StrafingDriveTrain {
   public void setMovementPower(double power) {
     double clippedPower = Range.clip(power, -1, 1);
 
-    setMotorMode(RUN_WITHOUT_ENCODER);
+    setTeleopMode();
 
-    for (MotorAdapter motor : allMotors()) {
-      motor.setPower(clippedPower);
+    for (MotorAdapter motor : allMotors) {
+      setTeleopPower(motor, clippedPower);
     }
   }
 
@@ -243,21 +221,22 @@ public class MecanumDrive extends StrafingDriveTrain {
   public void setRotationPower(double power) { //clockwise if power is positive
     double clippedPower = Range.clip(power, -1, 1);
 
-    setMotorMode(RUN_WITHOUT_ENCODER);
+    setTeleopMode();
 
-    for (MotorAdapter motor : leftSide()) {
-      motor.setPower(clippedPower);
+    for (MotorAdapter motor : leftSide) {
+      setTeleopPower(motor, clippedPower);
     }
-    for (MotorAdapter motor : rightSide()) {
-      motor.setPower(-clippedPower);
+    for (MotorAdapter motor : rightSide) {
+      setTeleopPower(motor, -clippedPower);
     }
   }
 
   @Override
-  public void setStrafeRotation(Coordinate direction, double strafePower, double z) {
-    Coordinate xy = direction.getPolarDistance() < 1e-5 ? Coordinate.fromXY(0, 0) :
-        Coordinate.fromPolar(1, direction.getPolarDirection());
-    double x = xy.getX(), y = xy.getY(),
+  public void setStrafeRotation(double directionX, double directionY, double strafePower,
+      double z) {
+    double distance = Math.sqrt(directionX * directionX + directionY * directionY);
+    double x = distance < 1e-5 ? 0 : directionX / distance,
+        y = distance < 1e-5 ? 0 : directionY / distance,
         rightDiagonalLeftSide = x + y + z,
         rightDiagonalRightSide = x + y - z,
         leftDiagonalLeftSide = -x + y + z,
@@ -271,19 +250,17 @@ public class MecanumDrive extends StrafingDriveTrain {
     leftDiagonalLeftSide *= coefficient;
     leftDiagonalRightSide *= coefficient;
 
-    for (MotorAdapter motor : allMotors()) {
-      motor.setMode(RUN_WITHOUT_ENCODER);
-    }
+    setTeleopMode();
 
-    motorRightDiagonalLeftSide.setPower(rightDiagonalLeftSide);
-    motorRightDiagonalRightSide.setPower(rightDiagonalRightSide);
-    motorLeftDiagonalLeftSide.setPower(leftDiagonalLeftSide);
-    motorLeftDiagonalRightSide.setPower(leftDiagonalRightSide);
+    setTeleopPower(motorRightDiagonalLeftSide, rightDiagonalLeftSide);
+    setTeleopPower(motorRightDiagonalRightSide, rightDiagonalRightSide);
+    setTeleopPower(motorLeftDiagonalLeftSide, leftDiagonalLeftSide);
+    setTeleopPower(motorLeftDiagonalRightSide, leftDiagonalRightSide);
   }
 
   @Override
   public void setMovementAndRotation(double movePower, double rotatePower) {
-    setMotorMode(RUN_WITHOUT_ENCODER);
+    setTeleopMode();
 
     double leftPower = movePower + rotatePower,
         rightPower = movePower - rotatePower;
@@ -294,21 +271,54 @@ public class MecanumDrive extends StrafingDriveTrain {
       rightPower /= maxPower;
     }
 
-    for (MotorAdapter motor : leftSide()) {
-      motor.setPower(leftPower);
+    for (MotorAdapter motor : leftSide) {
+      setTeleopPower(motor, leftPower);
     }
-    for (MotorAdapter motor : rightSide()) {
-      motor.setPower(rightPower);
+    for (MotorAdapter motor : rightSide) {
+      setTeleopPower(motor, rightPower);
     }
   }
 
   @Override
   protected IMotor[] getMotors() {
-    return new MotorAdapter[] {
-        motorLeftDiagonalLeftSide,
-        motorLeftDiagonalRightSide,
-        motorRightDiagonalLeftSide,
-        motorRightDiagonalRightSide
-    };
+    return allMotors;
+  }
+
+  // Driving forward moves both diagonals by the forward component of their 45-degree axes
+  @Override
+  protected double getForwardTicksPerInch() {
+    return ticksPerInch * Math.sqrt(0.5);
+  }
+
+  // Same as driveWithEncoder: the left diagonal travels the y-component and the right diagonal the
+  // x-component of the displacement rotated by 45deg clockwise. Offsets are in the order of
+  // allMotors.
+  @Override
+  protected int[] getStrafeTickOffsets(Coordinate inchOffset) {
+    Coordinate diagonalOffsets = inchOffset.rotate(-45);
+    int leftOffset = (int) (diagonalOffsets.getY() * ticksPerInch),
+        rightOffset = (int) (diagonalOffsets.getX() * ticksPerInch);
+
+    return new int[] {rightOffset, rightOffset, leftOffset, leftOffset};
+  }
+
+  @Override
+  protected int[] getRotationTickOffsets(double degrees) {
+    int rotationTicks = (int) Math.round(degrees / 360.0 * ticksPer360);
+
+    return new int[] {rotationTicks, -rotationTicks, rotationTicks, -rotationTicks};
+  }
+
+  // The inverse of the offsets above: rotation cancels out within each diagonal, and the diagonal
+  // travels are rotated back by 45deg counterclockwise
+  @Override
+  protected void computeDisplacement(double[] tickDeltas, double[] displacement) {
+    double rotationTicks = (tickDeltas[0] - tickDeltas[1] + tickDeltas[2] - tickDeltas[3]) / 4;
+    double rightDiagonal = (tickDeltas[0] + tickDeltas[1]) / 2 / ticksPerInch,
+        leftDiagonal = (tickDeltas[2] + tickDeltas[3]) / 2 / ticksPerInch;
+
+    displacement[0] = (rightDiagonal - leftDiagonal) * Math.sqrt(0.5);
+    displacement[1] = (rightDiagonal + leftDiagonal) * Math.sqrt(0.5);
+    displacement[2] = rotationTicks / ticksPer360 * 360;
   }
 }
@@ -0,0 +1,96 @@
+package com.andoverrobotics.core.drivetrain;
+
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+
+/**
+ * A cancellable handle to a non-blocking {@link DriveTrain} move, such as one started by {@link
+ * DriveTrain#driveForwardsAsync(double, double)}. <p> A Motion is advanced by the {@link
+ * MotionExecutor} of its DriveTrain: once its motors are no longer busy, the next {@link
+ * MotionExecutor#tick()} stops them and marks the Motion as completed. If the OpMode stops first,
+ * the Motion is stopped and marked as cancelled instead.
+ */
+public final class Motion {
+
+  private enum State { RUNNING, COMPLETED, CANCELLED }
+
+  private final DriveTrain driveTrain;
+  private State state = State.RUNNING;
+  private RunMode restoreMode;
+
+  Motion(DriveTrain driveTrain) {
+    this.driveTrain = driveTrain;
+  }
+
+  /**
+   * @return True if this Motion has either completed or been cancelled
+   */
+  public boolean isDone() {
+    return state != State.RUNNING;
+  }
+
+  /**
+   * @return True if this Motion ran to completion
+   */
+  public boolean isCompleted() {
+    return state == State.COMPLETED;
+  }
+
+  /**
+   * @return True if this Motion was cancelled before completing
+   */
+  public boolean isCancelled() {
+    return state == State.CANCELLED;
+  }
+
+  /**
+   * Cancels this Motion, stopping the motors of its DriveTrain if it is still running.
+   *
+   * @return True if this Motion was running and has been cancelled
+   */
+  public boolean cancel() {
+    if (isDone()) {
+      return false;
+    }
+    driveTrain.cancelMotion(this);
+    return true;
+  }
+
+  /**
+   * Blocks until this Motion is done, ticking the {@link MotionExecutor} of its DriveTrain at the
+   * rate of the DriveTrain's {@link MotionPoller}.
+   */
+  public void await() {
+    MotionExecutor executor = driveTrain.getMotionExecutor();
+    driveTrain.getMotionPoller().awaitIdle(() -> {
+      driveTrain.invalidateReads();
+      executor.tick();
+      return !isDone();
+    }, () -> true);
+  }
+
+  void setRestoreMode(RunMode mode) {
+    restoreMode = mode;
+  }
+
+  void markCancelled() {
+    if (!isDone()) {
+      state = State.CANCELLED;
+    }
+  }
+
+  // Returns true once this Motion no longer needs to be advanced
+  boolean advance() {
+    if (isDone()) {
+      return true;
+    }
+    boolean active = driveTrain.opModeIsActive();
+    if (active && driveTrain.isBusy()) {
+      return false;
+    }
+
+    // A move that the end of the OpMode cut short did not complete
+    driveTrain.finishMotion(this, restoreMode);
+    state = active ? State.COMPLETED : State.CANCELLED;
+    return true;
+  }
+}
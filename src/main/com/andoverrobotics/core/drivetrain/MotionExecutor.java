@@ -0,0 +1,60 @@
+package com.andoverrobotics.core.drivetrain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Advances every active {@link Motion} once per control-loop iteration. <p> A MotionExecutor is
+ * single-threaded: {@link #tick()} must be called from the same thread that starts the motions,
+ * usually once per iteration of the OpMode's loop. Several DriveTrains (or other subsystems) may
+ * share one executor through {@link DriveTrain#setMotionExecutor(MotionExecutor)}.
+ */
+public class MotionExecutor {
+
+  private final List<Motion> activeMotions = new ArrayList<>();
+
+  /**
+   * Adds the given Motion to the set of motions advanced by {@link #tick()}.
+   *
+   * @param motion The Motion to advance
+   */
+  public void submit(Motion motion) {
+    if (!motion.isDone()) {
+      activeMotions.add(motion);
+    }
+  }
+
+  /**
+   * Advances every active Motion by one step, completing those whose motors are no longer busy and
+   * discarding those that are done.
+   */
+  public void tick() {
+    int kept = 0;
+    for (int i = 0; i < activeMotions.size(); i++) {
+      Motion motion = activeMotions.get(i);
+      if (!motion.advance()) {
+        activeMotions.set(kept++, motion);
+      }
+    }
+    for (int i = activeMotions.size() - 1; i >= kept; i--) {
+      activeMotions.remove(i);
+    }
+  }
+
+  /**
+   * Cancels every active Motion.
+   */
+  public void cancelAll() {
+    for (int i = 0; i < activeMotions.size(); i++) {
+      activeMotions.get(i).cancel();
+    }
+    activeMotions.clear();
+  }
+
+  /**
+   * @return The number of motions that have not yet been discarded by {@link #tick()}
+   */
+  public int getActiveCount() {
+    return activeMotions.size();
+  }
+}
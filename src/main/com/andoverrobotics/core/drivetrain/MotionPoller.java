@@ -0,0 +1,129 @@
+package com.andoverrobotics.core.drivetrain;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Waits for the completion of a motion by polling at a fixed rate, parking the calling thread
+ * between polls instead of spinning on the hardware bus. <p> A {@link DriveTrain} uses one of these
+ * to wait for its encoder moves; see {@link DriveTrain#setMotionPoller(MotionPoller)}. The poller
+ * can also watch a motion from a background thread, handing back a {@link CompletableFuture} so
+ * that the OpMode can overlap other work with the motion.
+ */
+public class MotionPoller {
+
+  /**
+   * The default interval between two polls, in milliseconds.
+   */
+  public static final long DEFAULT_POLL_INTERVAL_MS = 10;
+
+  private static final ExecutorService watchers = Executors.newCachedThreadPool(runnable -> {
+    Thread thread = new Thread(runnable, "MotionPoller");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final long pollIntervalNanos;
+
+  /**
+   * Creates a MotionPoller that polls every {@link #DEFAULT_POLL_INTERVAL_MS} milliseconds.
+   */
+  public MotionPoller() {
+    this(DEFAULT_POLL_INTERVAL_MS);
+  }
+
+  /**
+   * Creates a MotionPoller that polls at the given interval.
+   *
+   * @param pollIntervalMs The interval between two polls, in milliseconds; must be positive
+   */
+  public MotionPoller(long pollIntervalMs) {
+    if (pollIntervalMs <= 0) {
+      throw new IllegalArgumentException("pollIntervalMs must be positive: " + pollIntervalMs);
+    }
+    this.pollIntervalNanos = TimeUnit.MILLISECONDS.toNanos(pollIntervalMs);
+  }
+
+  /**
+   * @return The interval between two polls, in nanoseconds
+   */
+  public long getPollIntervalNanos() {
+    return pollIntervalNanos;
+  }
+
+  /**
+   * Blocks until <code>isBusy</code> reports false or <code>shouldContinue</code> reports false,
+   * whichever happens first. Each poll queries <code>isBusy</code> exactly once, and the thread is
+   * parked until the next poll is due.
+   *
+   * @param isBusy Tells whether the motion is still in progress
+   * @param shouldContinue Tells whether waiting should continue, such as
+   * {@link com.qualcomm.robotcore.eventloop.opmode.LinearOpMode#opModeIsActive()}
+   * @return The number of times <code>isBusy</code> was polled
+   */
+  public int awaitIdle(BooleanSupplier isBusy, BooleanSupplier shouldContinue) {
+    int polls = 0;
+    long nextPoll = nanoTime();
+
+    while (shouldContinue.getAsBoolean()) {
+      polls++;
+      if (!isBusy.getAsBoolean() || Thread.currentThread().isInterrupted()) {
+        break;
+      }
+
+      // After a stall, the next poll is one interval from now rather than a burst to catch up
+      nextPoll = Math.max(nextPoll + pollIntervalNanos, nanoTime());
+      parkUntil(nextPoll);
+    }
+
+    return polls;
+  }
+
+  /**
+   * Watches a motion from a background thread and completes the returned future once
+   * <code>isBusy</code> or <code>shouldContinue</code> reports false. Cancelling the returned
+   * future stops the watch at its next poll. <p> Since <code>isBusy</code> is queried from another
+   * thread, it should not be shared with code that is polling it concurrently.
+   *
+   * @param isBusy Tells whether the motion is still in progress
+   * @param shouldContinue Tells whether watching should continue
+   * @return A future that completes with the number of polls once the motion is no longer busy
+   */
+  public CompletableFuture<Integer> watch(BooleanSupplier isBusy, BooleanSupplier shouldContinue) {
+    CompletableFuture<Integer> completion = new CompletableFuture<>();
+
+    watchers.execute(() -> {
+      try {
+        completion.complete(
+            awaitIdle(isBusy, () -> !completion.isDone() && shouldContinue.getAsBoolean()));
+      } catch (RuntimeException e) {
+        completion.completeExceptionally(e);
+      }
+    });
+
+    return completion;
+  }
+
+  /**
+   * @return The current time of this poller's clock, in nanoseconds
+   */
+  protected long nanoTime() {
+    return System.nanoTime();
+  }
+
+  /**
+   * Parks the calling thread until this poller's clock reaches the given deadline.
+   *
+   * @param deadlineNanos The time at which to resume, as given by {@link #nanoTime()}
+   */
+  protected void parkUntil(long deadlineNanos) {
+    long remaining;
+    while ((remaining = deadlineNanos - nanoTime()) > 0 && !Thread.currentThread().isInterrupted()) {
+      LockSupport.parkNanos(this, remaining);
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package com.andoverrobotics.core.drivetrain;
+
+import com.andoverrobotics.core.utilities.Coordinate;
+import java.util.Arrays;
+
+/**
+ * A polyline through field-frame waypoints, in inches, for a {@link PathFollower} to drive through
+ * without stopping. The length along the path up to each waypoint and the curvature at each
+ * waypoint are computed once, when the path is created.
+ */
+public final class Path {
+
+  private final double[] xs, ys, distances, curvatures;
+
+  private Path(double[] xs, double[] ys) {
+    this.xs = xs;
+    this.ys = ys;
+
+    int count = xs.length;
+    distances = new double[count];
+    for (int i = 1; i < count; i++) {
+      distances[i] = distances[i - 1] + Math.hypot(xs[i] - xs[i - 1], ys[i] - ys[i - 1]);
+    }
+
+    // The curvature of the circle through each interior waypoint and its two neighbors
+    curvatures = new double[count];
+    for (int i = 1; i < count - 1; i++) {
+      double cross = (xs[i] - xs[i - 1]) * (ys[i + 1] - ys[i])
+          - (ys[i] - ys[i - 1]) * (xs[i + 1] - xs[i]);
+      double sides = (distances[i] - distances[i - 1]) * (distances[i + 1] - distances[i])
+          * Math.hypot(xs[i + 1] - xs[i - 1], ys[i + 1] - ys[i - 1]);
+      curvatures[i] = sides == 0 ? Double.POSITIVE_INFINITY : 2 * Math.abs(cross) / sides;
+    }
+  }
+
+  /**
+   * Creates a path through the given waypoints, in order. Consecutive duplicate waypoints are
+   * ignored.
+   *
+   * @param waypoints The field-frame waypoints, in inches
+   * @return The new path
+   * @throws IllegalArgumentException if there are fewer than two distinct waypoints
+   */
+  public static Path of(Coordinate... waypoints) {
+    double[] xs = new double[waypoints.length], ys = new double[waypoints.length];
+    int count = 0;
+    for (Coordinate waypoint : waypoints) {
+      if (count == 0 || waypoint.getX() != xs[count - 1] || waypoint.getY() != ys[count - 1]) {
+        xs[count] = waypoint.getX();
+        ys[count] = waypoint.getY();
+        count++;
+      }
+    }
+    if (count < 2) {
+      throw new IllegalArgumentException("A path needs at least two distinct waypoints");
+    }
+    return new Path(Arrays.copyOf(xs, count), Arrays.copyOf(ys, count));
+  }
+
+  /**
+   * @return The number of waypoints
+   */
+  public int getWaypointCount() {
+    return xs.length;
+  }
+
+  /**
+   * @return The number of straight segments between waypoints
+   */
+  public int getSegmentCount() {
+    return xs.length - 1;
+  }
+
+  /**
+   * @param index The index of a waypoint
+   * @return The x-coordinate of the waypoint, in inches
+   */
+  public double getX(int index) {
+    return xs[index];
+  }
+
+  /**
+   * @param index The index of a waypoint
+   * @return The y-coordinate of the waypoint, in inches
+   */
+  public double getY(int index) {
+    return ys[index];
+  }
+
+  /**
+   * @param index The index of a waypoint
+   * @return The length of the path from its start to the waypoint, in inches
+   */
+  public double getDistance(int index) {
+    return distances[index];
+  }
+
+  /**
+   * @return The total length of the path, in inches
+   */
+  public double getLength() {
+    return distances[distances.length - 1];
+  }
+
+  /**
+   * @param index The index of a waypoint
+   * @return The curvature of the path at the waypoint, in inverse inches: 0 at the ends and where
+   * the path is straight, and larger for sharper corners
+   */
+  public double getCurvature(int index) {
+    return curvatures[index];
+  }
+}
@@ -0,0 +1,368 @@
+package com.andoverrobotics.core.drivetrain;
+
+import com.andoverrobotics.core.utilities.Converter;
+import com.andoverrobotics.core.utilities.PIDFController;
+import com.andoverrobotics.core.utilities.Pose2;
+import com.qualcomm.robotcore.util.Range;
+
+/**
+ * Drives a {@link DriveTrain} through the waypoints of a {@link Path} without stopping between
+ * them, by pure pursuit: on every tick, it steers towards the point that lies a lookahead distance
+ * further along the path than the point of the path closest to the robot. <p> A {@link
+ * StrafingDriveTrain} strafes straight towards that point while holding its heading, through
+ * {@link StrafingDriveTrain#setStrafeRotation(double, double, double, double)}. A {@link TankDrive}
+ * drives the arc that passes through the point, through {@link
+ * DriveTrain#setMovementAndRotation(double, double)}, backing up when the point is behind it. <p>
+ * A path ends once the robot is within the tolerance of its last waypoint, or once it has driven
+ * past the end of the last segment. <p> The power is limited at each waypoint
+ * by the curvature of the path there, and ramps between the limits at a fixed rate per inch, so
+ * that the robot slows down before corners and before the end of the path. <p> The closest point
+ * is searched for only among the segments within a small window ahead of the previous closest
+ * point, so a tick costs the same on a long path as on a short one, and the robot never skips back
+ * to an earlier part of a path that crosses itself. Ticks do not allocate. <p> The pose is read
+ * from a {@link PoseEstimator}; if it is not started, the follower updates it on every tick.
+ */
+public class PathFollower {
+
+  static final double DEFAULT_LOOKAHEAD = 8, DEFAULT_MAX_POWER = 0.8, DEFAULT_MIN_POWER = 0.15,
+      DEFAULT_CORNER_RADIUS = 12, DEFAULT_RAMP_RATE = 0.05, DEFAULT_TOLERANCE = 1;
+
+  private final DriveTrain driveTrain;
+  private final StrafingDriveTrain strafingDriveTrain;
+  private final PoseEstimator estimator;
+  private final double trackWidth;
+  private final PIDFController headingController = new PIDFController(0.02, 0, 0.002);
+
+  private double lookahead = DEFAULT_LOOKAHEAD, maxPower = DEFAULT_MAX_POWER,
+      minPower = DEFAULT_MIN_POWER, cornerRadius = DEFAULT_CORNER_RADIUS,
+      rampRate = DEFAULT_RAMP_RATE, tolerance = DEFAULT_TOLERANCE;
+
+  // State of the current path
+  private final Pose2 pose = new Pose2();
+  private Path path;
+  private double[] powerLimits = new double[0];
+  private double targetHeading;
+  private int segment;
+  private double closestDistance, lookaheadX, lookaheadY;
+
+  /**
+   * Creates a follower that strafes the given DriveTrain along paths.
+   *
+   * @param driveTrain The DriveTrain to drive
+   * @param estimator The estimator of the DriveTrain's pose
+   */
+  public PathFollower(StrafingDriveTrain driveTrain, PoseEstimator estimator) {
+    this(driveTrain, driveTrain, estimator, Double.NaN);
+  }
+
+  /**
+   * Creates a follower that steers the given TankDrive along paths.
+   *
+   * @param driveTrain The TankDrive to drive
+   * @param estimator The estimator of the TankDrive's pose
+   */
+  public PathFollower(TankDrive driveTrain, PoseEstimator estimator) {
+    this(driveTrain, null, estimator, driveTrain.getTrackWidth());
+  }
+
+  private PathFollower(DriveTrain driveTrain, StrafingDriveTrain strafingDriveTrain,
+      PoseEstimator estimator, double trackWidth) {
+    this.driveTrain = driveTrain;
+    this.strafingDriveTrain = strafingDriveTrain;
+    this.estimator = estimator;
+    this.trackWidth = trackWidth;
+    headingController.setDerivativeFilter(0.02);
+  }
+
+  /**
+   * Sets how far ahead along the path the robot steers. Longer lookaheads give smoother but wider
+   * corners. The default is 8 inches.
+   *
+   * @param inches The lookahead distance, in inches
+   * @return This follower
+   */
+  public PathFollower setLookahead(double inches) {
+    if (!(inches > 0)) {
+      throw new IllegalArgumentException("Lookahead must be positive: " + inches);
+    }
+    lookahead = inches;
+    return this;
+  }
+
+  /**
+   * Sets the range of power used while following a path. The defaults are 0.15 and 0.8.
+   *
+   * @param minPower The power at the start and end of the path, enough to keep the robot moving
+   * @param maxPower The power on straight parts of the path
+   * @return This follower
+   */
+  public PathFollower setPowerRange(double minPower, double maxPower) {
+    this.minPower = Range.clip(Math.abs(minPower), 0, 1);
+    this.maxPower = Range.clip(Math.abs(maxPower), this.minPower, 1);
+    return this;
+  }
+
+  /**
+   * Sets how much the robot slows down for corners: at a waypoint where the path curves with the
+   * given radius, the power is half of the maximum. The default is 12 inches.
+   *
+   * @param inches The radius of a corner taken at half power, in inches
+   * @return This follower
+   */
+  public PathFollower setCornerRadius(double inches) {
+    cornerRadius = Math.abs(inches);
+    return this;
+  }
+
+  /**
+   * Sets how quickly the power may change along the path. The default is 0.05 per inch.
+   *
+   * @param powerPerInch The largest change of power per inch of travel
+   * @return This follower
+   */
+  public PathFollower setRampRate(double powerPerInch) {
+    if (!(powerPerInch > 0)) {
+      throw new IllegalArgumentException("Ramp rate must be positive: " + powerPerInch);
+    }
+    rampRate = powerPerInch;
+    return this;
+  }
+
+  /**
+   * Sets how close to the last waypoint the robot must get to finish the path. The default is 1
+   * inch.
+   *
+   * @param inches The largest distance from the last waypoint, in inches
+   * @return This follower
+   */
+  public PathFollower setTolerance(double inches) {
+    tolerance = Math.abs(inches);
+    return this;
+  }
+
+  /**
+   * Gets the controller that holds the heading of a {@link StrafingDriveTrain}, so that its gains
+   * can be tuned. Its input is the heading error in degrees.
+   *
+   * @return The heading controller
+   */
+  public PIDFController getHeadingController() {
+    return headingController;
+  }
+
+  /**
+   * Drives through the given path while holding the current heading, and blocks until the robot
+   * reaches the end of the path or the OpMode stops.
+   *
+   * @param path The path to follow
+   */
+  public void follow(Path path) {
+    start(path);
+    await();
+  }
+
+  /**
+   * Drives through the given path while holding the given heading, and blocks until the robot
+   * reaches the end of the path or the OpMode stops. A {@link TankDrive} ignores the heading.
+   *
+   * @param path The path to follow
+   * @param headingDegrees The heading to hold, in degrees, counterclockwise positive
+   */
+  public void follow(Path path, double headingDegrees) {
+    start(path, headingDegrees);
+    await();
+  }
+
+  private void await() {
+    driveTrain.getMotionPoller().awaitIdle(driveTrain.freshPoll(this::update), driveTrain::opModeIsActive);
+    driveTrain.stop();
+  }
+
+  /**
+   * Starts following the given path while holding the current heading, without blocking; {@link
+   * #update()} must then be called once per iteration of the control loop.
+   *
+   * @param path The path to follow
+   */
+  public void start(Path path) {
+    start(path, readPose().getHeading());
+  }
+
+  /**
+   * Starts following the given path while holding the given heading, without blocking; {@link
+   * #update()} must then be called once per iteration of the control loop.
+   *
+   * @param path The path to follow
+   * @param headingDegrees The heading to hold, in degrees, counterclockwise positive
+   */
+  public void start(Path path, double headingDegrees) {
+    driveTrain.stop();
+    this.path = path;
+    targetHeading = headingDegrees;
+    segment = 0;
+    closestDistance = 0;
+    computePowerLimits();
+
+    double bound = maxPower;
+    headingController.reset();
+    headingController.boundOutput(-bound, bound);
+  }
+
+  // Limits the power at each waypoint by its curvature, then by the ramp rate from the waypoints
+  // on either side, starting and ending at the minimum power
+  private void computePowerLimits() {
+    int count = path.getWaypointCount();
+    if (powerLimits.length < count) {
+      powerLimits = new double[count];
+    }
+
+    for (int i = 0; i < count; i++) {
+      powerLimits[i] = Math.max(minPower, maxPower / (1 + cornerRadius * path.getCurvature(i)));
+    }
+    powerLimits[0] = minPower;
+    powerLimits[count - 1] = minPower;
+
+    for (int i = 1; i < count; i++) {
+      double reachable = powerLimits[i - 1] + rampRate * segmentLength(i - 1);
+      powerLimits[i] = Math.min(powerLimits[i], reachable);
+    }
+    for (int i = count - 2; i >= 0; i--) {
+      double reachable = powerLimits[i + 1] + rampRate * segmentLength(i);
+      powerLimits[i] = Math.min(powerLimits[i], reachable);
+    }
+  }
+
+  /**
+   * Runs one tick of the path: updates the closest point and the lookahead point, and sets the
+   * motor powers.
+   *
+   * @return True while the path is in progress; false once the robot has reached the end of the
+   * path, or has driven past the end of its last segment, after which the motors are left to the
+   * caller
+   * @throws IllegalStateException if no path has been started
+   */
+  public boolean update() {
+    if (path == null) {
+      throw new IllegalStateException("No path has been started");
+    }
+    readPose();
+    double x = pose.getX(), y = pose.getY();
+
+    updateClosestPoint(x, y);
+    int last = path.getWaypointCount() - 1;
+    if (segment == last - 1 && (isPastEnd(x, y)
+        || Math.hypot(path.getX(last) - x, path.getY(last) - y) <= tolerance
+        && closestDistance >= path.getDistance(last) - tolerance)) {
+      return false;
+    }
+    updateLookaheadPoint();
+
+    // The direction to the lookahead point, relative to the robot: x to the right, y forwards
+    double radians = Math.toRadians(pose.getHeading());
+    double sin = Math.sin(radians), cos = Math.cos(radians);
+    double fieldX = lookaheadX - x, fieldY = lookaheadY - y;
+    double right = fieldX * cos + fieldY * sin, forwards = -fieldX * sin + fieldY * cos;
+
+    double power = powerAt(closestDistance);
+    if (strafingDriveTrain != null) {
+      double error = Converter.signedDegrees(targetHeading - pose.getHeading());
+      double correction = headingController.calculate(error, 0,
+          driveTrain.getMotionPoller().nanoTime() / 1e9);
+      // The controller's output is counter-clockwise positive; rotation power is clockwise positive
+      strafingDriveTrain.setStrafeRotation(right, forwards, power, -correction);
+    } else {
+      // The arc through the lookahead point; positive curvature bends to the right, which turns
+      // clockwise when driving forwards and counterclockwise when backing up
+      double curvature = 2 * right / (right * right + forwards * forwards);
+      double movePower = Math.signum(forwards) * power;
+      if (movePower == 0) {
+        movePower = power;
+      }
+      driveTrain.setMovementAndRotation(movePower, movePower * curvature * trackWidth / 2);
+    }
+    return true;
+  }
+
+  /**
+   * @return The index of the segment that the robot is closest to
+   */
+  public int getSegmentIndex() {
+    return segment;
+  }
+
+  /**
+   * @return The distance along the path of the point closest to the robot, in inches
+   */
+  public double getDistanceAlongPath() {
+    return closestDistance;
+  }
+
+  // Whether the robot is beyond the line through the last waypoint that is perpendicular to the
+  // last segment, from where it could only reach the waypoint by turning back
+  private boolean isPastEnd(double x, double y) {
+    int last = path.getWaypointCount() - 1;
+    double dx = path.getX(last) - path.getX(last - 1), dy = path.getY(last) - path.getY(last - 1);
+    return (x - path.getX(last)) * dx + (y - path.getY(last)) * dy > 0;
+  }
+
+  private Pose2 readPose() {
+    if (!estimator.isRunning()) {
+      estimator.update();
+    }
+    return estimator.getPose(pose);
+  }
+
+  // Searches the segments from the previous closest one to those starting up to two lookahead
+  // distances beyond the previous closest point
+  private void updateClosestPoint(double x, double y) {
+    int lastSegment = path.getSegmentCount() - 1;
+    double windowEnd = closestDistance + 2 * lookahead;
+    double bestSquared = Double.POSITIVE_INFINITY;
+    int best = segment;
+
+    for (int i = segment; i <= lastSegment && path.getDistance(i) <= windowEnd; i++) {
+      double fraction = projection(i, x, y);
+      double px = path.getX(i) + (path.getX(i + 1) - path.getX(i)) * fraction,
+          py = path.getY(i) + (path.getY(i + 1) - path.getY(i)) * fraction;
+      double squared = (px - x) * (px - x) + (py - y) * (py - y);
+      if (squared < bestSquared) {
+        bestSquared = squared;
+        best = i;
+        closestDistance = path.getDistance(i) + fraction * segmentLength(i);
+      }
+    }
+    segment = best;
+  }
+
+  private void updateLookaheadPoint() {
+    double target = Math.min(closestDistance + lookahead, path.getLength());
+    int i = segment;
+    while (i < path.getSegmentCount() - 1 && path.getDistance(i + 1) < target) {
+      i++;
+    }
+
+    double fraction = (target - path.getDistance(i)) / segmentLength(i);
+    lookaheadX = path.getX(i) + (path.getX(i + 1) - path.getX(i)) * fraction;
+    lookaheadY = path.getY(i) + (path.getY(i + 1) - path.getY(i)) * fraction;
+  }
+
+  private double powerAt(double distance) {
+    int i = segment;
+    while (i < path.getSegmentCount() - 1 && path.getDistance(i + 1) < distance) {
+      i++;
+    }
+    double fraction = (distance - path.getDistance(i)) / segmentLength(i);
+    return powerLimits[i] + (powerLimits[i + 1] - powerLimits[i]) * fraction;
+  }
+
+  // The fraction of segment i at which the point closest to (x, y) lies
+  private double projection(int i, double x, double y) {
+    double dx = path.getX(i + 1) - path.getX(i), dy = path.getY(i + 1) - path.getY(i);
+    double t = ((x - path.getX(i)) * dx + (y - path.getY(i)) * dy) / (dx * dx + dy * dy);
+    return Range.clip(t, 0, 1);
+  }
+
+  private double segmentLength(int i) {
+    return path.getDistance(i + 1) - path.getDistance(i);
+  }
+}
@@ -0,0 +1,222 @@
+package com.andoverrobotics.core.drivetrain;
+
+import com.andoverrobotics.core.utilities.IMotor;
+import com.andoverrobotics.core.utilities.Pose2;
+import java.io.Closeable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Tracks the field-frame pose of the robot from the encoders of a {@link DriveTrain}. <p> Each
+ * {@link #update()} reads every drive motor's encoder once, converts the travel since the previous
+ * update into a robot-relative displacement with the DriveTrain's kinematics (which use its
+ * <code>ticksPerInch</code> and <code>ticksPer360</code>), and adds that displacement to the pose
+ * along the heading halfway through the step. Once started with {@link #start()}, updates run at a
+ * fixed rate on a dedicated daemon thread. <p> The pose is published as a snapshot that {@link
+ * #getPose(Pose2)} reads optimistically, without taking a lock, so the OpMode thread never waits
+ * for the estimator thread; a read that races with a publish simply reads again. <p> The field
+ * frame matches {@link Pose2}: at heading 0 the robot faces the positive y-axis, and the heading
+ * is in degrees, counterclockwise positive. <p> Encoder reads from the estimator thread go through
+ * the drive motors as usual, so whatever is attached to those motors is used from two threads once
+ * the estimator is started. A {@link com.andoverrobotics.core.utilities.MotorReadCache} would serve
+ * the estimator the OpMode thread's snapshot, and the {@link
+ * com.andoverrobotics.core.diagnostics.MotorCallCounters} and {@link
+ * com.andoverrobotics.core.diagnostics.LoopProfiler} of a motor are not thread-safe, so attach none
+ * of them to a drivetrain whose estimator is started. To keep them, leave the estimator stopped and
+ * call {@link #update()} from the control loop instead.
+ */
+public final class PoseEstimator implements Closeable {
+
+  /**
+   * The default interval between two updates, in milliseconds.
+   */
+  public static final long DEFAULT_PERIOD_MS = 10;
+
+  private final DriveTrain driveTrain;
+  private final long periodMs;
+
+  // Used only under the monitor of this estimator, which in practice is the estimator thread
+  private final Pose2 estimate = new Pose2();
+  private final double[] tickDeltas, displacement = new double[3];
+  private final int[] previousPositions;
+  private boolean hasPreviousPositions = false;
+
+  // The published snapshot
+  private final StampedLock lock = new StampedLock();
+  private double x, y, heading;
+  private long updateCount;
+
+  private ScheduledExecutorService executor;
+
+  /**
+   * Creates an estimator of the given DriveTrain's pose that updates every {@link
+   * #DEFAULT_PERIOD_MS} milliseconds once started. The pose starts at the origin, facing heading 0.
+   *
+   * @param driveTrain The DriveTrain whose encoders to read
+   */
+  public PoseEstimator(DriveTrain driveTrain) {
+    this(driveTrain, DEFAULT_PERIOD_MS);
+  }
+
+  /**
+   * Creates an estimator of the given DriveTrain's pose that updates at the given interval once
+   * started. The pose starts at the origin, facing heading 0.
+   *
+   * @param driveTrain The DriveTrain whose encoders to read
+   * @param periodMs The interval between two updates, in milliseconds
+   * @throws IllegalArgumentException if the interval is not positive
+   */
+  public PoseEstimator(DriveTrain driveTrain, long periodMs) {
+    if (periodMs <= 0) {
+      throw new IllegalArgumentException("Period must be positive: " + periodMs);
+    }
+    this.driveTrain = driveTrain;
+    this.periodMs = periodMs;
+
+    int motorCount = driveTrain.getMotors().length;
+    tickDeltas = new double[motorCount];
+    previousPositions = new int[motorCount];
+  }
+
+  /**
+   * Starts updating on a background daemon thread. Calling this more than once has no further
+   * effect.
+   */
+  public synchronized void start() {
+    if (executor != null) {
+      return;
+    }
+    executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "PoseEstimator");
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.scheduleAtFixedRate(() -> {
+      try {
+        update();
+      } catch (RuntimeException readError) {
+        // A failed encoder read must not cancel the updates; the travel is picked up next time
+      }
+    }, 0, periodMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * @return True if the background thread is updating the pose
+   */
+  public synchronized boolean isRunning() {
+    return executor != null;
+  }
+
+  /**
+   * Stops the background thread. The last snapshot stays readable.
+   */
+  @Override
+  public synchronized void close() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+
+  /**
+   * Reads the encoders once and advances the pose by the travel since the previous update. This is
+   * what the background thread runs; it may also be called directly, for example from the control
+   * loop when the estimator is not started. The first update only records the encoder positions.
+   */
+  public void update() {
+    IMotor[] motors = driveTrain.getMotors();
+    synchronized (this) {
+      boolean moved = false;
+      for (int i = 0; i < motors.length; i++) {
+        int position = motors[i].getCurrentPosition();
+        tickDeltas[i] = position - previousPositions[i];
+        moved |= tickDeltas[i] != 0;
+        previousPositions[i] = position;
+      }
+
+      if (hasPreviousPositions && moved) {
+        driveTrain.computeDisplacement(tickDeltas, displacement);
+        integrate(displacement[0], displacement[1], displacement[2]);
+      }
+      hasPreviousPositions = true;
+      publish();
+    }
+  }
+
+  // Exact for straight moves and turns in place; for arcs, the error of using the middle heading
+  // is of third order in the heading change of one step
+  private void integrate(double dx, double dy, double dHeading) {
+    double radians = Math.toRadians(estimate.getHeading() + dHeading / 2);
+    double sin = Math.sin(radians), cos = Math.cos(radians);
+
+    estimate.translate(dx * cos - dy * sin, dx * sin + dy * cos).turn(dHeading);
+  }
+
+  private void publish() {
+    long stamp = lock.writeLock();
+    try {
+      x = estimate.getX();
+      y = estimate.getY();
+      heading = estimate.getHeading();
+      updateCount++;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Copies the latest pose into the given Pose2, without allocating or waiting for an update in
+   * progress.
+   *
+   * @param out The Pose2 to receive the pose
+   * @return The given Pose2
+   */
+  public Pose2 getPose(Pose2 out) {
+    long stamp;
+    double x, y, heading;
+    do {
+      // Fails while an update is being published, which holds the lock only for a few stores
+      stamp = lock.tryOptimisticRead();
+      x = this.x;
+      y = this.y;
+      heading = this.heading;
+    } while (!lock.validate(stamp));
+    return out.set(x, y, heading);
+  }
+
+  /**
+   * @return A new Pose2 holding the latest pose
+   * @see #getPose(Pose2)
+   */
+  public Pose2 getPose() {
+    return getPose(new Pose2());
+  }
+
+  /**
+   * @return The number of updates published so far, including those made by {@link #setPose}
+   */
+  public long getUpdateCount() {
+    long stamp;
+    long count;
+    do {
+      stamp = lock.tryOptimisticRead();
+      count = updateCount;
+    } while (!lock.validate(stamp));
+    return count;
+  }
+
+  /**
+   * Replaces the pose, for example with the known starting position of the robot on the field.
+   * Encoder travel after the last update is applied on top of the new pose.
+   *
+   * @param x The x-coordinate, in inches
+   * @param y The y-coordinate, in inches
+   * @param headingDegrees The heading, in degrees, counterclockwise positive
+   */
+  public synchronized void setPose(double x, double y, double headingDegrees) {
+    estimate.set(x, y, headingDegrees);
+    publish();
+  }
+}
@@ -0,0 +1,121 @@
+package com.andoverrobotics.core.drivetrain;
+
+import com.andoverrobotics.core.utilities.IMotor;
+import com.andoverrobotics.core.utilities.MotionProfile;
+import com.andoverrobotics.core.utilities.MotionProfileFollower;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import com.qualcomm.robotcore.util.Range;
+
+/**
+ * Runs the motion-profiled encoder moves of a {@link DriveTrain}. A move gives every motor a tick
+ * offset; one profile is generated for the largest offset, and each motor follows it scaled by its
+ * share of that offset. On each tick, a motor's power is the feedforward of the profile's velocity
+ * and acceleration plus a proportional correction of its position error. Ticks are paced by the
+ * DriveTrain's {@link MotionPoller}, whose clock also times the profile.
+ */
+final class ProfiledMove {
+
+  static final double DEFAULT_MAX_VELOCITY = 2000, DEFAULT_MAX_ACCELERATION = 2500;
+  static final double DEFAULT_KV = 1 / 2800.0, DEFAULT_KP = 0.005;
+  static final int DEFAULT_TOLERANCE_TICKS = 10;
+  static final double SETTLE_TIMEOUT_SECONDS = 0.5;
+
+  private final DriveTrain driveTrain;
+  private final MotionProfileFollower follower = new MotionProfileFollower();
+
+  private double maxVelocity = DEFAULT_MAX_VELOCITY, maxAcceleration = DEFAULT_MAX_ACCELERATION,
+      maxJerk = 0;
+  private double kV = DEFAULT_KV, kA = 0, kP = DEFAULT_KP;
+  private int toleranceTicks = DEFAULT_TOLERANCE_TICKS;
+
+  // State of the current move, indexed like DriveTrain.getMotors()
+  private IMotor[] motors;
+  private double[] ratios = new double[0], startPositions = new double[0];
+
+  ProfiledMove(DriveTrain driveTrain) {
+    this.driveTrain = driveTrain;
+  }
+
+  void setConstraints(double maxVelocity, double maxAcceleration, double maxJerk) {
+    if (!(maxVelocity > 0) || !(maxAcceleration > 0) || maxJerk < 0) {
+      throw new IllegalArgumentException("Invalid motion constraints: " + maxVelocity + ", "
+          + maxAcceleration + ", " + maxJerk);
+    }
+    this.maxVelocity = maxVelocity;
+    this.maxAcceleration = maxAcceleration;
+    this.maxJerk = maxJerk;
+  }
+
+  void setGains(double kV, double kA, double kP) {
+    this.kV = kV;
+    this.kA = kA;
+    this.kP = kP;
+  }
+
+  void setTolerance(int toleranceTicks) {
+    if (toleranceTicks < 0) {
+      throw new IllegalArgumentException("Tolerance must not be negative: " + toleranceTicks);
+    }
+    this.toleranceTicks = toleranceTicks;
+  }
+
+  MotionProfile createProfile(double distance) {
+    return maxJerk > 0
+        ? MotionProfile.sCurve(distance, maxVelocity, maxAcceleration, maxJerk)
+        : MotionProfile.trapezoidal(distance, maxVelocity, maxAcceleration);
+  }
+
+  void follow(int[] tickOffsets) {
+    driveTrain.stop();
+    motors = driveTrain.getMotors();
+    if (tickOffsets.length != motors.length) {
+      throw new IllegalArgumentException(
+          "Expected " + motors.length + " tick offsets, got " + tickOffsets.length);
+    }
+
+    int longest = 0;
+    for (int offset : tickOffsets) {
+      longest = Math.max(longest, Math.abs(offset));
+    }
+    if (longest == 0) {
+      return;
+    }
+
+    if (ratios.length != motors.length) {
+      ratios = new double[motors.length];
+      startPositions = new double[motors.length];
+    }
+    for (int i = 0; i < motors.length; i++) {
+      ratios[i] = tickOffsets[i] / (double) longest;
+      startPositions[i] = motors[i].getCurrentPosition();
+    }
+
+    driveTrain.setMotorMode(RunMode.RUN_USING_ENCODER);
+    MotionPoller poller = driveTrain.getMotionPoller();
+    follower.start(createProfile(longest), poller.nanoTime() / 1e9);
+
+    poller.awaitIdle(driveTrain.freshPoll(this::tick), driveTrain::opModeIsActive);
+    driveTrain.stop();
+  }
+
+  // Returns true until the profile has ended and every motor is within the tolerance of its
+  // target, or until the settle timeout has passed after the end of the profile
+  private boolean tick() {
+    follower.update(driveTrain.getMotionPoller().nanoTime() / 1e9);
+    double feedforward = kV * follower.getVelocity() + kA * follower.getAcceleration();
+    double reference = follower.getPosition();
+
+    boolean onTarget = true;
+    for (int i = 0; i < motors.length; i++) {
+      double error = ratios[i] * reference - (motors[i].getCurrentPosition() - startPositions[i]);
+      onTarget &= Math.abs(error) <= toleranceTicks;
+      motors[i].setPower(Range.clip(ratios[i] * feedforward + kP * error, -1, 1));
+    }
+
+    if (follower.isComplete()) {
+      double overtime = follower.getElapsed() - follower.getProfile().getDuration();
+      return !onTarget && overtime < SETTLE_TIMEOUT_SECONDS;
+    }
+    return true;
+  }
+}
@@ -5,7 +5,8 @@ import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 
 /**
  * Describes the interface of a {@link DriveTrain} that is capable of "strafing," or moving the
- * robot in any direction without turning.
+ * robot in any direction without turning. <p> Profiled strafes, and profiled forward moves, use
+ * the encoder offsets that a subclass computes in {@link #getStrafeTickOffsets(Coordinate)}.
  */
 public abstract class StrafingDriveTrain extends DriveTrain {
 
@@ -111,6 +112,74 @@ public abstract class StrafingDriveTrain extends DriveTrain {
    */
   public abstract void strafeInches(Coordinate inchOffset, double power);
 
+  /**
+   * Starts strafing the vector &lt;xInInches, yInInches&gt; at the given power, without waiting
+   * for the move to finish.
+   *
+   * @param xInInches The number of inches to strafe in the x-direction
+   * @param yInInches The number of inches to strafe in the y-direction
+   * @param power The power at which to strafe
+   * @return The handle of the started move
+   */
+  public final Motion strafeInchesAsync(double xInInches, double yInInches, double power) {
+    return strafeInchesAsync(Coordinate.fromXY(xInInches, yInInches), power);
+  }
+
+  /**
+   * Starts strafing the vector inchOffset at the default power, without waiting for the move to
+   * finish.
+   *
+   * @param inchOffset The coordinate (relative to the current position) to strafe to
+   * @return The handle of the started move
+   */
+  public final Motion strafeInchesAsync(Coordinate inchOffset) {
+    return strafeInchesAsync(inchOffset, defaultPower);
+  }
+
+  /**
+   * Starts strafing the vector inchOffset at the given power, without waiting for the move to
+   * finish.
+   *
+   * @param inchOffset The coordinate (relative to the current position) to strafe to
+   * @param power The power at which to strafe
+   * @return The handle of the started move
+   */
+  public final Motion strafeInchesAsync(Coordinate inchOffset, double power) {
+    return startAsync(() -> strafeInches(inchOffset, power));
+  }
+
+  /**
+   * Strafes the vector &lt;xInInches, yInInches&gt; along a motion profile.
+   *
+   * @param xInInches The number of inches to strafe in the x-direction
+   * @param yInInches The number of inches to strafe in the y-direction
+   * @see #driveForwardsProfiled(double)
+   */
+  public final void strafeInchesProfiled(double xInInches, double yInInches) {
+    strafeInchesProfiled(Coordinate.fromXY(xInInches, yInInches));
+  }
+
+  /**
+   * Strafes the vector inchOffset along a motion profile.
+   *
+   * @param inchOffset The coordinate (relative to the current position) to strafe to
+   * @see #driveForwardsProfiled(double)
+   */
+  public final void strafeInchesProfiled(Coordinate inchOffset) {
+    followProfile(getStrafeTickOffsets(inchOffset));
+  }
+
+  @Override
+  protected int[] getForwardTickOffsets(double distanceInInches) {
+    return getStrafeTickOffsets(Coordinate.fromXY(0, distanceInInches));
+  }
+
+  /**
+   * @param inchOffset The displacement to strafe, in inches
+   * @return The encoder offset of each motor for the move, in the order of {@link #getMotors()}
+   */
+  protected abstract int[] getStrafeTickOffsets(Coordinate inchOffset);
+
   // -- Teleop Methods --
 
   /**
@@ -131,7 +200,7 @@ public abstract class StrafingDriveTrain extends DriveTrain {
    * @param y The number of inches in the y-direction to strafe.
    */
   public final void setStrafe(double x, double y) {
-    setStrafe(Coordinate.fromXY(x, y));
+    setStrafe(x, y, defaultPower);
   }
 
   /**
@@ -160,7 +229,7 @@ public abstract class StrafingDriveTrain extends DriveTrain {
    * @param power The power at which to strafe
    */
   public final void setStrafe(double x, double y, double power) {
-    setStrafe(Coordinate.fromXY(x, y), power);
+    setStrafeRotation(x, y, power, 0);
   }
 
   /**
@@ -170,7 +239,7 @@ public abstract class StrafingDriveTrain extends DriveTrain {
    * @param power The power at which to strafe, between -1 and 1, inclusive
    */
   public final void setStrafe(Coordinate direction, double power) {
-    setStrafeRotation(direction, power, 0);
+    setStrafe(direction.getX(), direction.getY(), power);
   }
 
   /**
@@ -181,5 +250,20 @@ public abstract class StrafingDriveTrain extends DriveTrain {
    * @param strafePower The power at which to strafe, between -1 and 1, inclusive
    * @param rotatePower The power at which to turn the robot in place, between -1 and 1, inclusive; positive means clockwise
    */
-  public abstract void setStrafeRotation(Coordinate direction, double strafePower, double rotatePower);
+  public void setStrafeRotation(Coordinate direction, double strafePower, double rotatePower) {
+    setStrafeRotation(direction.getX(), direction.getY(), strafePower, rotatePower);
+  }
+
+  /**
+   * Lets the robot strafe in the direction of the vector &lt;x, y&gt; at the given
+   * <code>strafePower</code> while simultaneously turning by <code>rotatePower</code>. <p> Only the
+   * direction of the vector matters; its length is ignored. Implementations do not allocate, so this
+   * method is safe to call on every iteration of a TeleOp loop.
+   *
+   * @param x The x-component of the direction in which to strafe
+   * @param y The y-component of the direction in which to strafe
+   * @param strafePower The power at which to strafe, between -1 and 1, inclusive
+   * @param rotatePower The power at which to turn the robot in place, between -1 and 1, inclusive; positive means clockwise
+   */
+  public abstract void setStrafeRotation(double x, double y, double strafePower, double rotatePower);
 }
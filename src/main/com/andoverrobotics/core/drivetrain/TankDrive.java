@@ -9,7 +9,6 @@ import com.qualcomm.robotcore.hardware.DcMotor;
 import com.qualcomm.robotcore.util.Range;
 
 import static com.qualcomm.robotcore.hardware.DcMotor.RunMode.RUN_USING_ENCODER;
-import static com.qualcomm.robotcore.hardware.DcMotor.RunMode.RUN_WITHOUT_ENCODER;
 
 /**
  * Implements the tank drive DriveTrain for either two motors or four motors. <p> See {@link
@@ -22,6 +21,7 @@ public class TankDrive extends DriveTrain {
   private final int ticksPer360;
   private IMotor motorL;
   private IMotor motorR;
+  private final IMotor[] motors;
 
   // Verify that the motor(s) on one side is reversed if the motors point in opposite directions!
 
@@ -42,6 +42,7 @@ public class TankDrive extends DriveTrain {
 
     this.motorL = motorL;
     this.motorR = motorR;
+    this.motors = new IMotor[]{motorL, motorR};
     this.ticksPerInch = ticksPerInch;
     this.ticksPer360 = ticksPer360;
   }
@@ -157,33 +158,31 @@ public class TankDrive extends DriveTrain {
     motorL.startRunToPosition(leftTickOffset, Math.abs(leftPower));
     motorR.startRunToPosition(rightTickOffset, Math.abs(rightPower));
 
-    while (isBusy() && opModeIsActive()) {
-    }
-
-    stop();
-    setMotorMode(RUN_USING_ENCODER);
+    completeMotion(RUN_USING_ENCODER);
   }
 
   // -- TeleOp methods --
 
   @Override
   public void setMovementPower(double power) {
-    setMotorMode(RUN_WITHOUT_ENCODER);
+    setTeleopMode();
 
-    motorL.setPower(power);
-    motorR.setPower(power);
+    setTeleopPower(motorL, power);
+    setTeleopPower(motorR, power);
   }
 
   @Override
   public void setRotationPower(double power) { //clockwise if power is positive
-    setMotorMode(RUN_WITHOUT_ENCODER);
+    setTeleopMode();
 
-    motorL.setPower(power);
-    motorR.setPower(-power);
+    setTeleopPower(motorL, power);
+    setTeleopPower(motorR, -power);
   }
 
   @Override
   public void setMovementAndRotation(double movePower, double rotatePower) {
+    setTeleopMode();
+
     double leftPower = movePower + rotatePower,
             rightPower = movePower - rotatePower,
             maxAbsPower = Math.max(Math.abs(leftPower), Math.abs(rightPower));
@@ -193,13 +192,41 @@ public class TankDrive extends DriveTrain {
       rightPower /= maxAbsPower;
     }
 
-    motorL.setPower(leftPower);
-    motorR.setPower(rightPower);
+    setTeleopPower(motorL, leftPower);
+    setTeleopPower(motorR, rightPower);
   }
 
   @Override
   protected IMotor[] getMotors() {
-    return new IMotor[]{motorL, motorR};
+    return motors;
+  }
+
+  @Override
+  protected double getForwardTicksPerInch() {
+    return ticksPerInch;
+  }
+
+  /**
+   * @return The distance between the left and right wheels, in inches, implied by the number of
+   * ticks for a full rotation
+   */
+  double getTrackWidth() {
+    return ticksPer360 / (ticksPerInch * Math.PI);
+  }
+
+  @Override
+  protected int[] getRotationTickOffsets(double degrees) {
+    int ticks = (int) Math.round(degrees / 360.0 * ticksPer360);
+    return new int[]{-ticks, ticks};
+  }
+
+  @Override
+  protected void computeDisplacement(double[] tickDeltas, double[] displacement) {
+    double left = tickDeltas[0], right = tickDeltas[1];
+
+    displacement[0] = 0;
+    displacement[1] = (left + right) / 2 / ticksPerInch;
+    displacement[2] = (right - left) / 2 / ticksPer360 * 360;
   }
 
 }
@@ -0,0 +1,182 @@
+package com.andoverrobotics.core.drivetrain;
+
+import com.andoverrobotics.core.utilities.IMotor;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import com.qualcomm.robotcore.hardware.VoltageSensor;
+import com.qualcomm.robotcore.util.Range;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns the powers of the TeleOp methods of a {@link DriveTrain} into wheel velocity targets, so
+ * that the robot drives at the same speed whatever the battery level and the friction of each
+ * wheel. Install one with {@link DriveTrain#setVelocityControl(VelocityControl)}. <p> A power of 1
+ * becomes the maximum velocity given to the constructor, in encoder ticks per second. In {@link
+ * Mode#HUB_PID} mode, which is the default, the target is sent to the hub's velocity PID through
+ * {@link IMotor#setVelocity(double)} in {@link RunMode#RUN_USING_ENCODER}, which needs the motors
+ * to be <code>DcMotorEx</code>es. Since that loop runs on the hub, it already makes up for the
+ * battery voltage. <p> In {@link Mode#FEEDFORWARD} mode, the power of each wheel is computed on
+ * the Robot Controller as
+ * <pre>
+ *   (kS sign(v) + kV v) * nominal voltage / battery voltage + kP (v - measured velocity)
+ * </pre>
+ * and sent in {@link RunMode#RUN_WITHOUT_ENCODER}. The battery voltage is read from the given
+ * {@link VoltageSensor} at most once per voltage period, since every read is a hub transaction.
+ * The measured velocity, only read when kP is not zero, comes from {@link IMotor#getVelocity()}.
+ * <p> Either way, the writes go through the motors' own deduplication, so holding a stick still
+ * does not send a write per loop.
+ */
+public final class VelocityControl {
+
+  /**
+   * Where the velocity loop runs.
+   */
+  public enum Mode {
+    /**
+     * On the hub, with its built-in velocity PID.
+     */
+    HUB_PID,
+    /**
+     * On the Robot Controller, with a feedforward and a proportional term per wheel.
+     */
+    FEEDFORWARD
+  }
+
+  /**
+   * The battery voltage at which the feedforward gains apply unchanged.
+   */
+  public static final double NOMINAL_VOLTAGE = 12;
+  /**
+   * The default minimum interval between two reads of the battery voltage, in milliseconds.
+   */
+  public static final long DEFAULT_VOLTAGE_PERIOD_MS = 100;
+
+  private final double maxVelocity;
+  private Mode mode = Mode.HUB_PID;
+  private double kS = 0, kV, kP = 0;
+
+  private VoltageSensor voltageSensor;
+  private long voltagePeriodNanos;
+  private long lastVoltageRead;
+  private double voltageCompensation = 1;
+
+  /**
+   * Creates a VelocityControl in {@link Mode#HUB_PID} mode. The feedforward gains default to kS =
+   * 0, kV = 1 / maxVelocity and kP = 0.
+   *
+   * @param maxVelocity The wheel velocity for a power of 1, in encoder ticks per second
+   * @throws IllegalArgumentException if the velocity is not positive
+   */
+  public VelocityControl(double maxVelocity) {
+    if (maxVelocity <= 0) {
+      throw new IllegalArgumentException("Maximum velocity must be positive: " + maxVelocity);
+    }
+    this.maxVelocity = maxVelocity;
+    kV = 1 / maxVelocity;
+  }
+
+  /**
+   * @param mode Where the velocity loop runs
+   * @return This VelocityControl
+   */
+  public VelocityControl setMode(Mode mode) {
+    this.mode = mode;
+    return this;
+  }
+
+  /**
+   * Sets the gains used in {@link Mode#FEEDFORWARD} mode.
+   *
+   * @param kS The power that overcomes static friction
+   * @param kV The power per tick per second
+   * @param kP The power per tick per second of velocity error
+   * @return This VelocityControl
+   */
+  public VelocityControl setFeedforwardGains(double kS, double kV, double kP) {
+    this.kS = kS;
+    this.kV = kV;
+    this.kP = kP;
+    return this;
+  }
+
+  /**
+   * Compensates the feedforward for the battery voltage read from the given sensor, read at most
+   * every {@link #DEFAULT_VOLTAGE_PERIOD_MS} milliseconds.
+   *
+   * @param sensor The voltage sensor of a hub, or null to assume the nominal voltage
+   * @return This VelocityControl
+   */
+  public VelocityControl setVoltageSensor(VoltageSensor sensor) {
+    return setVoltageSensor(sensor, DEFAULT_VOLTAGE_PERIOD_MS);
+  }
+
+  /**
+   * Compensates the feedforward for the battery voltage read from the given sensor.
+   *
+   * @param sensor The voltage sensor of a hub, or null to assume the nominal voltage
+   * @param periodMs The minimum interval between two reads, in milliseconds
+   * @return This VelocityControl
+   */
+  public VelocityControl setVoltageSensor(VoltageSensor sensor, long periodMs) {
+    voltageSensor = sensor;
+    voltagePeriodNanos = TimeUnit.MILLISECONDS.toNanos(periodMs);
+    voltageCompensation = 1;
+    lastVoltageRead = System.nanoTime() - voltagePeriodNanos;
+    return this;
+  }
+
+  /**
+   * @return The wheel velocity for a power of 1, in encoder ticks per second
+   */
+  public double getMaxVelocity() {
+    return maxVelocity;
+  }
+
+  /**
+   * @return Where the velocity loop runs
+   */
+  public Mode getMode() {
+    return mode;
+  }
+
+  /**
+   * @return The factor the feedforward is currently multiplied by, which is the nominal voltage
+   * divided by the last battery voltage read
+   */
+  public double getVoltageCompensation() {
+    return voltageCompensation;
+  }
+
+  RunMode getRunMode() {
+    return mode == Mode.HUB_PID ? RunMode.RUN_USING_ENCODER : RunMode.RUN_WITHOUT_ENCODER;
+  }
+
+  void drive(IMotor motor, double power) {
+    double target = Range.clip(power, -1, 1) * maxVelocity;
+    if (mode == Mode.HUB_PID) {
+      motor.setVelocity(target);
+      return;
+    }
+
+    double output = (kS * Math.signum(target) + kV * target) * readVoltageCompensation();
+    if (kP != 0) {
+      output += kP * (target - motor.getVelocity());
+    }
+    motor.setPower(output);
+  }
+
+  private double readVoltageCompensation() {
+    if (voltageSensor == null) {
+      return 1;
+    }
+    long now = System.nanoTime();
+    if (now - lastVoltageRead >= voltagePeriodNanos) {
+      lastVoltageRead = now;
+      double voltage = voltageSensor.getVoltage();
+      // A sensor that has not been read yet reports 0
+      if (voltage > 0) {
+        voltageCompensation = NOMINAL_VOLTAGE / voltage;
+      }
+    }
+    return voltageCompensation;
+  }
+}
@@ -24,19 +24,24 @@ package com.andoverrobotics.core.examples;
 import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
 import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
 
-import org.opencv.core.Core;
+import com.andoverrobotics.core.vision.RegionMeanStage;
+import com.andoverrobotics.core.vision.ResultChannel;
+import com.andoverrobotics.core.vision.VisionPipeline;
 import org.opencv.core.Mat;
-import org.opencv.core.Point;
-import org.opencv.core.Scalar;
-import org.opencv.imgproc.Imgproc;
+import org.opencv.core.Rect;
 import org.openftc.easyopencv.OpenCvCamera;
 import org.openftc.easyopencv.OpenCvCameraRotation;
 import org.openftc.easyopencv.OpenCvInternalCamera;
-import org.openftc.easyopencv.OpenCvPipeline;
 
 @TeleOp(name = "CORE: EasyOpenCV Internal", group = "Experimental")
 public class InternalCameraExample extends LinearOpMode {
   private OpenCvCamera phoneCam;
+  private SamplePipeline pipeline = new SamplePipeline();
+  /*
+   * The red mean of each region, handed from the frame worker thread to this thread. The
+   * reader keeps its own copy, so reading it takes no lock and allocates nothing.
+   */
+  private ResultChannel.Reader<double[]> redMeans = pipeline.results.newReader();
 
   @Override
   public void runOpMode() {
@@ -64,7 +69,7 @@ public class InternalCameraExample extends LinearOpMode {
      * of a frame from the camera. Note that switching pipelines on-the-fly
      * (while a streaming session is in flight) *IS* supported.
      */
-    phoneCam.setPipeline(new SamplePipeline());
+    phoneCam.setPipeline(pipeline);
 
     /*
      * Tell the camera to start streaming images to us! Note that you must make sure
@@ -92,8 +97,23 @@ public class InternalCameraExample extends LinearOpMode {
       telemetry.addData("FPS", String.format("%.2f", phoneCam.getFps()));
       telemetry.addData("Total frame time ms", phoneCam.getTotalFrameTimeMs());
       telemetry.addData("Pipeline time ms", phoneCam.getPipelineTimeMs());
+      pipeline.publish(telemetry);
       telemetry.addData("Overhead time ms", phoneCam.getOverheadTimeMs());
       telemetry.addData("Theoretical max FPS", phoneCam.getCurrentPipelineMaxFps());
+
+      /*
+       * Results older than half a second are rejected, for example after the stream stops
+       */
+      redMeans.update();
+      if (redMeans.isStale(500)) {
+        telemetry.addData("Reddest region", "No recent frame");
+      } else {
+        double[] red = redMeans.getValue();
+        int reddest = red[0] >= red[1] && red[0] >= red[2] ? 0 : (red[1] >= red[2] ? 1 : 2);
+        telemetry.addData("Reddest region", pipeline.getStage(reddest).getName());
+        telemetry.addData("Result frame", redMeans.getFrameNumber());
+        telemetry.addData("Result age ms", "%.1f", redMeans.getAgeMs());
+      }
       telemetry.update();
 
       /*
@@ -167,53 +187,36 @@ public class InternalCameraExample extends LinearOpMode {
    * if you're doing something weird where you do need it synchronized with your OpMode thread,
    * then you will need to account for that accordingly.
    */
-  class SamplePipeline extends OpenCvPipeline {
+  class SamplePipeline extends VisionPipeline {
     /*
-     * NOTE: if you wish to use additional Mat objects in your processing pipeline, it is
-     * highly recommended to declare them here as instance variables and re-use them for
-     * each invocation of processFrame(), rather than declaring them as new local variables
-     * each time through processFrame(). This removes the danger of causing a memory leak
-     * by forgetting to call mat.release(), and it also reduces memory pressure by not
-     * constantly allocating and freeing large chunks of memory.
+     * Every Mat, region and drawing primitive is created once by the pipeline and its
+     * stages, rather than on every call of processFrame(), so the frame worker thread does
+     * not produce garbage. Each stage samples the mean color of one region of the frame
+     * and outlines the region in that color; its time is shown by publish().
      */
+    final RegionMeanStage left, center, right;
+    final ResultChannel<double[]> results =
+        new ResultChannel<>(() -> new double[3], (from, to) -> System.arraycopy(from, 0, to, 0, 3));
+    private final double[] red = new double[3];
 
-    @Override
-    public Mat processFrame(Mat input) {
+    SamplePipeline() {
       /*
-       * IMPORTANT NOTE: the input Mat that is passed in as a parameter to this method
-       * will only dereference to the same image for the duration of this particular
-       * invocation of this method. That is, if for some reason you'd like to save a copy
-       * of this particular frame for later use, you will need to either clone it or copy
-       * it to another Mat.
+       * The frames are neither converted nor copied, so the means are in the camera's colors.
+       * The stages' submats are taken from the camera's frame itself, and are taken again
+       * whenever the camera hands over a different buffer.
        */
+      super(NO_CONVERSION);
+      left = addStage(new RegionMeanStage("Left", new Rect(300, 400, 100, 100)));
+      center = addStage(new RegionMeanStage("Center", new Rect(400, 400, 100, 100)));
+      right = addStage(new RegionMeanStage("Right", new Rect(500, 400, 100, 100)));
+    }
 
-      int[][] ranges = {
-          {400, 500, 300, 400},
-          {400, 500, 400, 500},
-          {400, 500, 500, 600}
-      };
-
-      for (int[] range : ranges) {
-        Mat subImage = input.submat(range[0], range[1], range[2], range[3]);
-        Scalar mean = Core.mean(subImage);
-        Imgproc.rectangle(
-            input,
-            new Point(
-                range[2],
-                range[0]),
-            new Point(
-                range[3],
-                range[1]),
-            mean, 3);
-        subImage.release();
-      }
-
-      /*
-       * NOTE: to see how to get data from your pipeline to your OpMode as well as how
-       * to change which stage of the pipeline is rendered to the viewport when it is
-       * tapped, please see {@link PipelineStageSwitchingExample}
-       */
-      return input;
+    @Override
+    protected void onFrameProcessed(Mat output) {
+      red[0] = left.getMean(0);
+      red[1] = center.getMean(0);
+      red[2] = right.getMean(0);
+      results.publish(red, getFrameStartNanos());
     }
   }
-}
\ No newline at end of file
+}
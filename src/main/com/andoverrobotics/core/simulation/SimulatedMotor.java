@@ -0,0 +1,318 @@
+package com.andoverrobotics.core.simulation;
+
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import com.qualcomm.robotcore.hardware.DcMotor.ZeroPowerBehavior;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.DcMotorSimple.Direction;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * A simulated DC motor with an encoder, advanced by its {@link Simulation}. <p> The motor's shaft
+ * speed approaches the commanded speed with a first-order lag, which stands in for the inertia of
+ * the motor and what it drives. The commanded speed depends on the run mode, as on an Expansion
+ * Hub: <ul> <li>{@link RunMode#RUN_WITHOUT_ENCODER}: the power times the free speed, scaled by the
+ * battery voltage. At zero power, a braking motor stops with the usual lag and a floating one
+ * coasts to a stop more slowly.</li> <li>{@link RunMode#RUN_USING_ENCODER}: the power times the
+ * regulated speed, which the velocity loop holds regardless of the battery voltage as long as the
+ * motor can reach it.</li> <li>{@link RunMode#RUN_TO_POSITION}: the position error times the
+ * position gain, limited to the power times the regulated speed. The motor is busy until it is
+ * within the target position tolerance.</li> <li>{@link RunMode#STOP_AND_RESET_ENCODER}: zero,
+ * with the encoder reset.</li> </ul> <p> {@link #getDevice()} returns a {@link DcMotorEx} view of
+ * the motor that can be wrapped in a {@link com.andoverrobotics.core.utilities.MotorAdapter} or
+ * {@link com.andoverrobotics.core.utilities.MotorPair}. Methods of the view that the simulation does
+ * not model return zero, false or null.
+ */
+public final class SimulatedMotor {
+
+  /**
+   * The default free speed, in encoder ticks per second at the nominal voltage, of a 312 RPM
+   * motor with a 537.7-tick encoder.
+   */
+  public static final double DEFAULT_FREE_SPEED = 2796;
+  /**
+   * The default time constant of the motor's response, in seconds.
+   */
+  public static final double DEFAULT_TIME_CONSTANT = 0.05;
+  /**
+   * The fraction of the free speed that the velocity loop regulates to at full power, like the
+   * SDK's achievable maximum speed.
+   */
+  public static final double REGULATED_SPEED_FRACTION = 0.85;
+  /**
+   * The default gain of the RUN_TO_POSITION loop, in ticks per second per tick of error.
+   */
+  public static final double DEFAULT_POSITION_GAIN = 10;
+  /**
+   * The default target position tolerance, in encoder ticks.
+   */
+  public static final int DEFAULT_TARGET_POSITION_TOLERANCE = 5;
+
+  private static final double FLOAT_TIME_CONSTANT_FACTOR = 8;
+
+  private final String name;
+  private final DcMotorEx device;
+
+  private double freeSpeed = DEFAULT_FREE_SPEED, timeConstant = DEFAULT_TIME_CONSTANT,
+      positionGain = DEFAULT_POSITION_GAIN;
+  private int targetPositionTolerance = DEFAULT_TARGET_POSITION_TOLERANCE;
+
+  // Commanded state, as seen through the device
+  private double power;
+  private RunMode mode = RunMode.RUN_WITHOUT_ENCODER;
+  private Direction direction = Direction.FORWARD;
+  private ZeroPowerBehavior zeroPowerBehavior = ZeroPowerBehavior.BRAKE;
+  private int targetPosition;
+  private boolean targetPositionSet;
+
+  // Physical state; the shaft turns opposite to the encoder's sign when the direction is REVERSE
+  private double shaftPosition, shaftSpeed, encoderOffset;
+
+  SimulatedMotor(String name) {
+    this.name = name;
+    device = (DcMotorEx) Proxy.newProxyInstance(DcMotorEx.class.getClassLoader(),
+        new Class<?>[] {DcMotorEx.class}, (proxy, method, args) -> invoke(proxy, method, args));
+  }
+
+  /**
+   * @return The {@link DcMotorEx} view of this motor
+   */
+  public DcMotorEx getDevice() {
+    return device;
+  }
+
+  /**
+   * @return The name of this motor
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Sets the speed of the unloaded motor at full power and the nominal battery voltage.
+   *
+   * @param ticksPerSecond The free speed, in encoder ticks per second
+   * @return This motor
+   */
+  public SimulatedMotor setFreeSpeed(double ticksPerSecond) {
+    freeSpeed = Math.abs(ticksPerSecond);
+    return this;
+  }
+
+  /**
+   * Sets how quickly the motor responds: the time, in seconds, that it takes to cover about 63%
+   * of a change in speed. Heavier robots have longer time constants.
+   *
+   * @param seconds The time constant, in seconds; must be positive
+   * @return This motor
+   */
+  public SimulatedMotor setTimeConstant(double seconds) {
+    if (!(seconds > 0)) {
+      throw new IllegalArgumentException("Time constant must be positive: " + seconds);
+    }
+    timeConstant = seconds;
+    return this;
+  }
+
+  /**
+   * Sets the gain of the RUN_TO_POSITION loop.
+   *
+   * @param ticksPerSecondPerTick The commanded speed per tick of position error
+   * @return This motor
+   */
+  public SimulatedMotor setPositionGain(double ticksPerSecondPerTick) {
+    positionGain = Math.abs(ticksPerSecondPerTick);
+    return this;
+  }
+
+  /**
+   * @return The free speed, in encoder ticks per second
+   */
+  public double getFreeSpeed() {
+    return freeSpeed;
+  }
+
+  /**
+   * @return The speed that the velocity loop regulates to at full power, in encoder ticks per
+   * second
+   */
+  public double getRegulatedSpeed() {
+    return freeSpeed * REGULATED_SPEED_FRACTION;
+  }
+
+  /**
+   * @return The exact encoder position, in ticks, of which the device reports the integer part
+   */
+  public double getPosition() {
+    return sign() * shaftPosition - encoderOffset;
+  }
+
+  /**
+   * @return The encoder velocity, in ticks per second
+   */
+  public double getVelocity() {
+    return sign() * shaftSpeed;
+  }
+
+  /**
+   * @return The position of the shaft, in ticks, which unlike the encoder position does not depend
+   * on the direction of the motor or on encoder resets
+   */
+  public double getShaftPosition() {
+    return shaftPosition;
+  }
+
+  /**
+   * @return The speed of the shaft, in ticks per second, independent of the motor's direction
+   */
+  public double getShaftSpeed() {
+    return shaftSpeed;
+  }
+
+  /**
+   * @return The power last set through the device
+   */
+  public double getPower() {
+    return power;
+  }
+
+  /**
+   * @return The run mode last set through the device
+   */
+  public RunMode getMode() {
+    return mode;
+  }
+
+  /**
+   * @return True while the motor is running to a position that it has not reached within the
+   * target position tolerance
+   */
+  public boolean isBusy() {
+    return mode == RunMode.RUN_TO_POSITION
+        && Math.abs(targetPosition - getPosition()) > targetPositionTolerance;
+  }
+
+  void step(double dt, double voltageRatio) {
+    double availableSpeed = freeSpeed * voltageRatio;
+    double commanded, lag = timeConstant;
+
+    switch (mode) {
+      case RUN_USING_ENCODER:
+        commanded = power * getRegulatedSpeed();
+        break;
+      case RUN_TO_POSITION:
+        double limit = Math.abs(power) * getRegulatedSpeed();
+        commanded = clip((targetPosition - getPosition()) * positionGain, limit);
+        break;
+      case STOP_AND_RESET_ENCODER:
+        commanded = 0;
+        break;
+      default:
+        commanded = power * availableSpeed;
+        if (power == 0 && zeroPowerBehavior == ZeroPowerBehavior.FLOAT) {
+          lag *= FLOAT_TIME_CONSTANT_FACTOR;
+        }
+    }
+
+    double target = sign() * clip(commanded, availableSpeed);
+    // Exact for a constant target, so that the response does not depend on the step size
+    shaftSpeed += (target - shaftSpeed) * (1 - Math.exp(-dt / lag));
+    shaftPosition += shaftSpeed * dt;
+  }
+
+  private double sign() {
+    return direction == Direction.REVERSE ? -1 : 1;
+  }
+
+  private static double clip(double value, double limit) {
+    return Math.max(-limit, Math.min(limit, value));
+  }
+
+  private Object invoke(Object proxy, Method method, Object[] args) {
+    switch (method.getName()) {
+      case "setPower":
+        power = Math.max(-1, Math.min(1, (Double) args[0]));
+        return null;
+      case "getPower":
+        return power;
+      case "setVelocity":
+        power = Math.max(-1, Math.min(1, (Double) args[0] / getRegulatedSpeed()));
+        return null;
+      case "getVelocity":
+        return args == null ? getVelocity() : defaultValue(method);
+      case "setMode":
+        setMode((RunMode) args[0]);
+        return null;
+      case "getMode":
+        return mode;
+      case "setTargetPosition":
+        targetPosition = (Integer) args[0];
+        targetPositionSet = true;
+        return null;
+      case "getTargetPosition":
+        return targetPosition;
+      case "setTargetPositionTolerance":
+        targetPositionTolerance = (Integer) args[0];
+        return null;
+      case "getTargetPositionTolerance":
+        return targetPositionTolerance;
+      case "getCurrentPosition":
+        return (int) getPosition();
+      case "isBusy":
+        return isBusy();
+      case "setDirection":
+        direction = (Direction) args[0];
+        return null;
+      case "getDirection":
+        return direction;
+      case "setZeroPowerBehavior":
+        zeroPowerBehavior = (ZeroPowerBehavior) args[0];
+        return null;
+      case "getZeroPowerBehavior":
+        return zeroPowerBehavior;
+      case "getDeviceName":
+        return name;
+      case "equals":
+        return proxy == args[0];
+      case "hashCode":
+        return System.identityHashCode(proxy);
+      case "toString":
+        return "SimulatedMotor(" + name + ")";
+      default:
+        return defaultValue(method);
+    }
+  }
+
+  private void setMode(RunMode newMode) {
+    if (newMode == RunMode.RUN_TO_POSITION && !targetPositionSet) {
+      throw new IllegalStateException(
+          "Motor " + name + " must have a target position before RUN_TO_POSITION");
+    }
+    if (newMode == RunMode.STOP_AND_RESET_ENCODER) {
+      encoderOffset += getPosition();
+      targetPosition = 0;
+    }
+    mode = newMode;
+  }
+
+  private static Object defaultValue(Method method) {
+    Class<?> type = method.getReturnType();
+    if (type == boolean.class) {
+      return false;
+    } else if (type == int.class) {
+      return 0;
+    } else if (type == double.class) {
+      return 0.0;
+    } else if (type == float.class) {
+      return 0f;
+    } else if (type == long.class) {
+      return 0L;
+    }
+    return null;
+  }
+
+  @Override
+  public String toString() {
+    return "SimulatedMotor(" + name + ")";
+  }
+}
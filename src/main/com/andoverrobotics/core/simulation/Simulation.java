@@ -0,0 +1,166 @@
+package com.andoverrobotics.core.simulation;
+
+import com.qualcomm.robotcore.hardware.VoltageSensor;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A deterministic, in-process simulation of the motors of a robot, advanced in simulated time.
+ * <p> The simulation owns a clock that starts at zero and moves only when {@link #advance(long)} or
+ * {@link #advanceTo(long)} is called, in fixed steps. A {@link SimulationPoller} installed on a
+ * {@link com.andoverrobotics.core.drivetrain.DriveTrain} advances the clock instead of sleeping, so
+ * blocking autonomous routines run as fast as the host can step the simulation, and always take
+ * the same number of iterations. <p> A simulation is not thread-safe: it must be advanced and its
+ * devices used from one thread.
+ */
+public final class Simulation {
+
+  /**
+   * The default duration of one simulation step, in nanoseconds.
+   */
+  public static final long DEFAULT_STEP_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+  /**
+   * The battery voltage at which motors reach their free speed.
+   */
+  public static final double NOMINAL_VOLTAGE = 12;
+
+  private final long stepNanos;
+  private final List<SimulatedMotor> motors = new ArrayList<>();
+  private final List<Runnable> stepListeners = new ArrayList<>();
+  private final VoltageSensor voltageSensor;
+
+  private double batteryVoltage = NOMINAL_VOLTAGE;
+  private long nanoTime, steps;
+
+  /**
+   * Creates a simulation that advances in steps of {@link #DEFAULT_STEP_NANOS}.
+   */
+  public Simulation() {
+    this(DEFAULT_STEP_NANOS);
+  }
+
+  /**
+   * Creates a simulation that advances in steps of the given duration.
+   *
+   * @param stepNanos The duration of one step, in nanoseconds; must be positive
+   */
+  public Simulation(long stepNanos) {
+    if (stepNanos <= 0) {
+      throw new IllegalArgumentException("Step must be positive: " + stepNanos);
+    }
+    this.stepNanos = stepNanos;
+    voltageSensor = (VoltageSensor) Proxy.newProxyInstance(VoltageSensor.class.getClassLoader(),
+        new Class<?>[] {VoltageSensor.class}, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "getVoltage":
+              return batteryVoltage;
+            case "equals":
+              return proxy == args[0];
+            case "hashCode":
+              return System.identityHashCode(proxy);
+            case "toString":
+              return "SimulatedVoltageSensor";
+            case "getVersion":
+              return 0;
+            default:
+              return null;
+          }
+        });
+  }
+
+  /**
+   * Adds a motor with the default parameters of {@link SimulatedMotor}.
+   *
+   * @param name The name of the motor, as reported by its device
+   * @return The new motor, whose parameters may still be changed
+   */
+  public SimulatedMotor addMotor(String name) {
+    SimulatedMotor motor = new SimulatedMotor(name);
+    motors.add(motor);
+    return motor;
+  }
+
+  /**
+   * Adds an action to run after every step, such as updating a model of the chassis from the
+   * motors' shafts.
+   *
+   * @param listener The action to run
+   */
+  public void addStepListener(Runnable listener) {
+    stepListeners.add(listener);
+  }
+
+  /**
+   * Sets the battery voltage, which scales the speed that motors reach without velocity control.
+   *
+   * @param volts The battery voltage
+   */
+  public void setBatteryVoltage(double volts) {
+    batteryVoltage = volts;
+  }
+
+  /**
+   * @return The battery voltage
+   */
+  public double getBatteryVoltage() {
+    return batteryVoltage;
+  }
+
+  /**
+   * @return A voltage sensor that reports the battery voltage
+   */
+  public VoltageSensor getVoltageSensor() {
+    return voltageSensor;
+  }
+
+  /**
+   * Advances the clock by the given duration, rounded up to a whole number of steps.
+   *
+   * @param nanos The duration, in nanoseconds
+   */
+  public void advance(long nanos) {
+    advanceTo(nanoTime + nanos);
+  }
+
+  /**
+   * Advances the clock in whole steps until it reaches the given time.
+   *
+   * @param deadlineNanos The time to reach, in nanoseconds since the start of the simulation
+   */
+  public void advanceTo(long deadlineNanos) {
+    double dt = stepNanos / 1e9, voltageRatio = batteryVoltage / NOMINAL_VOLTAGE;
+    while (nanoTime < deadlineNanos) {
+      for (int i = 0; i < motors.size(); i++) {
+        motors.get(i).step(dt, voltageRatio);
+      }
+      nanoTime += stepNanos;
+      steps++;
+      for (int i = 0; i < stepListeners.size(); i++) {
+        stepListeners.get(i).run();
+      }
+    }
+  }
+
+  /**
+   * @return The simulated time, in nanoseconds since the start of the simulation
+   */
+  public long getNanoTime() {
+    return nanoTime;
+  }
+
+  /**
+   * @return The simulated time, in seconds since the start of the simulation
+   */
+  public double getTime() {
+    return nanoTime / 1e9;
+  }
+
+  /**
+   * @return The number of steps taken so far
+   */
+  public long getSteps() {
+    return steps;
+  }
+}
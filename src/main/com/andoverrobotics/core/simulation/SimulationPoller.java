@@ -0,0 +1,60 @@
+package com.andoverrobotics.core.simulation;
+
+import com.andoverrobotics.core.drivetrain.MotionPoller;
+
+/**
+ * A {@link MotionPoller} on the clock of a {@link Simulation}: instead of parking the thread until
+ * the next poll, it advances the simulation to that time. It also counts the polls, which are the
+ * control-loop iterations of the moves that it waits for.
+ */
+public class SimulationPoller extends MotionPoller {
+
+  private final Simulation simulation;
+  private long iterations;
+
+  /**
+   * Creates a poller that polls every {@link MotionPoller#DEFAULT_POLL_INTERVAL_MS} milliseconds of
+   * simulated time.
+   *
+   * @param simulation The simulation to advance
+   */
+  public SimulationPoller(Simulation simulation) {
+    this(simulation, DEFAULT_POLL_INTERVAL_MS);
+  }
+
+  /**
+   * Creates a poller that polls at the given interval of simulated time.
+   *
+   * @param simulation The simulation to advance
+   * @param pollIntervalMs The interval between two polls, in milliseconds; must be positive
+   */
+  public SimulationPoller(Simulation simulation, long pollIntervalMs) {
+    super(pollIntervalMs);
+    this.simulation = simulation;
+  }
+
+  /**
+   * @return The number of times this poller has advanced the simulation to the next poll
+   */
+  public long getIterations() {
+    return iterations;
+  }
+
+  /**
+   * Resets the iteration count to zero.
+   */
+  public void resetIterations() {
+    iterations = 0;
+  }
+
+  @Override
+  protected long nanoTime() {
+    return simulation.getNanoTime();
+  }
+
+  @Override
+  protected void parkUntil(long deadlineNanos) {
+    iterations++;
+    simulation.advanceTo(deadlineNanos);
+  }
+}
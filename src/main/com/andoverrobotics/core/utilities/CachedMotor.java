@@ -1,6 +1,9 @@
 package com.andoverrobotics.core.utilities;
 
+import com.andoverrobotics.core.diagnostics.LoopProfiler;
+import com.andoverrobotics.core.diagnostics.MotorCallCounters;
 import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 import com.qualcomm.robotcore.util.Range;
 
@@ -8,9 +11,18 @@ public class CachedMotor {
   protected final DcMotor motor;
 
   private double power;
+  private double velocity;
+  // Whether the last write was a velocity, which the hub replaces with its own power
+  private boolean velocityControlled = false;
   private int targetPosition;
   private DcMotor.RunMode mode;
 
+  private MotorCommandBuffer commandBuffer;
+  private int bufferSlot;
+
+  private LoopProfiler profiler;
+  private MotorCallCounters.Counter callCounter;
+
   public CachedMotor(DcMotor motor) {
     this.motor = motor;
 
@@ -23,45 +35,218 @@ public class CachedMotor {
     return new CachedMotor(map.dcMotor.get(motorName));
   }
 
+  /**
+   * Attaches this motor to the given {@link MotorCommandBuffer}, so that its writes are queued
+   * while the buffer has an open transaction.
+   *
+   * @param buffer The buffer to queue writes in, or null to always send writes right away
+   */
+  public void setCommandBuffer(MotorCommandBuffer buffer) {
+    commandBuffer = buffer;
+    bufferSlot = buffer == null ? -1 : buffer.register(this);
+  }
+
+  /**
+   * Times the writes this motor sends to the hardware in the {@link LoopProfiler#MOTOR_WRITES}
+   * section of the given profiler.
+   *
+   * @param profiler The profiler to record in, or null to stop timing
+   */
+  public void setProfiler(LoopProfiler profiler) {
+    this.profiler = profiler;
+  }
+
+  /**
+   * Counts the writes requested from and sent by this motor, its reads, and the time spent in the
+   * SDK, under the given name. Motors given the same name share a counter.
+   *
+   * @param counters The counters to count calls in, or null to stop counting
+   * @param name The name of the motor, usually its name in the hardware map
+   */
+  public void setCallCounters(MotorCallCounters counters, String name) {
+    callCounter = counters == null ? null : counters.forMotor(name);
+  }
+
   public void setPower(double unboundedPower) {
+    countWriteRequested();
     final double power = Range.clip(unboundedPower, -1, 1);
 
-    if (Math.abs(power - this.power) < 1e-4)
-      return;
-
-    this.power = power;
-    motor.setPower(power);
+    if (isBuffering()) {
+      commandBuffer.queuePower(bufferSlot, power);
+    } else {
+      writePower(power);
+    }
   }
 
   public double getPower() {
+    if (commandBuffer != null && commandBuffer.hasPendingPower(bufferSlot))
+      return commandBuffer.getPendingPower(bufferSlot);
+
     return power;
   }
 
-  public void setTargetPosition(int pos) {
-    if (pos == targetPosition)
-      return;
+  /**
+   * Sets the velocity that the hub's velocity PID holds this motor at, unless the motor already
+   * has it. While a {@link MotorCommandBuffer} has an open transaction, the velocity is queued and
+   * sent after the modes, like a power.
+   *
+   * @param ticksPerSecond The new velocity, in encoder ticks per second
+   * @throws UnsupportedOperationException if the motor is not a {@link DcMotorEx}
+   */
+  public void setVelocity(double ticksPerSecond) {
+    if (!(motor instanceof DcMotorEx)) {
+      throw new UnsupportedOperationException("Velocity control needs a DcMotorEx: " + motor);
+    }
+    countWriteRequested();
+    if (isBuffering()) {
+      commandBuffer.queueVelocity(bufferSlot, ticksPerSecond);
+    } else {
+      writeVelocity(ticksPerSecond);
+    }
+  }
 
-    targetPosition = pos;
-    motor.setTargetPosition(pos);
+  public void setTargetPosition(int pos) {
+    countWriteRequested();
+    if (isBuffering()) {
+      commandBuffer.queueTargetPosition(bufferSlot, pos);
+    } else {
+      writeTargetPosition(pos);
+    }
   }
 
   public int getTargetPosition() {
+    if (commandBuffer != null && commandBuffer.hasPendingTargetPosition(bufferSlot))
+      return commandBuffer.getPendingTargetPosition(bufferSlot);
+
     return targetPosition;
   }
 
   public void setMode(DcMotor.RunMode runMode) {
+    countWriteRequested();
+    if (!isBuffering()) {
+      writeMode(runMode);
+    } else if (runMode == DcMotor.RunMode.STOP_AND_RESET_ENCODER) {
+      commandBuffer.writeModeImmediately(bufferSlot, runMode);
+    } else {
+      commandBuffer.queueMode(bufferSlot, runMode);
+    }
+  }
+
+  public DcMotor.RunMode getMode() {
+    DcMotor.RunMode pendingMode = commandBuffer == null ? null : commandBuffer.getPendingMode(bufferSlot);
+    return pendingMode == null ? mode : pendingMode;
+  }
+
+  public DcMotor getMotor() {
+    return motor;
+  }
+
+  // The write* methods send the given value unless the motor already has it, and tell whether it
+  // was sent.
+
+  boolean writePower(double power) {
+    if (!velocityControlled && Math.abs(power - this.power) < 1e-4)
+      return false;
+
+    this.power = power;
+    velocityControlled = false;
+    long start = startTiming();
+    motor.setPower(power);
+    stopTiming(LoopProfiler.MOTOR_WRITES, start);
+    return true;
+  }
+
+  boolean writeVelocity(double ticksPerSecond) {
+    if (velocityControlled && Math.abs(ticksPerSecond - velocity) < 1e-4)
+      return false;
+
+    velocity = ticksPerSecond;
+    velocityControlled = true;
+    long start = startTiming();
+    ((DcMotorEx) motor).setVelocity(ticksPerSecond);
+    stopTiming(LoopProfiler.MOTOR_WRITES, start);
+    return true;
+  }
+
+  boolean writeTargetPosition(int pos) {
+    if (pos == targetPosition)
+      return false;
+
+    targetPosition = pos;
+    long start = startTiming();
+    motor.setTargetPosition(pos);
+    stopTiming(LoopProfiler.MOTOR_WRITES, start);
+    return true;
+  }
+
+  boolean writeMode(DcMotor.RunMode runMode) {
     if (runMode == mode)
-      return;
+      return false;
 
     mode = runMode;
+    long start = startTiming();
     motor.setMode(mode);
+    stopTiming(LoopProfiler.MOTOR_WRITES, start);
+    return true;
   }
 
-  public DcMotor.RunMode getMode() {
-    return mode;
+  // SDK calls made by this motor are timed for the profiler and the call counter
+
+  long startTiming() {
+    return isTiming() ? System.nanoTime() : 0;
   }
 
-  public DcMotor getMotor() {
-    return motor;
+  void stopTiming(int section, long start) {
+    if (!isTiming()) {
+      return;
+    }
+    long nanos = System.nanoTime() - start;
+    if (profiler != null) {
+      profiler.record(section, nanos);
+    }
+    if (callCounter == null) {
+      return;
+    }
+    if (section == LoopProfiler.MOTOR_WRITES) {
+      callCounter.countWriteSent(nanos);
+    } else {
+      callCounter.countHardwareRead(nanos);
+    }
+  }
+
+  // Reads through a MotorReadCache are timed by the cache's profiler, so they are only counted
+
+  long startCounting() {
+    return isCounting() ? System.nanoTime() : 0;
+  }
+
+  void countRead(boolean cached, long start) {
+    if (!isCounting()) {
+      return;
+    }
+    if (cached) {
+      callCounter.countCachedRead();
+    } else {
+      callCounter.countHardwareRead(System.nanoTime() - start);
+    }
+  }
+
+  // Disabled instruments are skipped like absent ones, so that they do not cost a nanoTime call
+  private boolean isTiming() {
+    return profiler != null && profiler.isEnabled() || isCounting();
+  }
+
+  private boolean isCounting() {
+    return callCounter != null && callCounter.isEnabled();
+  }
+
+  private void countWriteRequested() {
+    if (callCounter != null) {
+      callCounter.countWriteRequested();
+    }
+  }
+
+  private boolean isBuffering() {
+    return commandBuffer != null && commandBuffer.isOpen();
   }
 }
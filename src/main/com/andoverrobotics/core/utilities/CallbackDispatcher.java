@@ -0,0 +1,246 @@
+package com.andoverrobotics.core.utilities;
+
+import com.andoverrobotics.core.diagnostics.Histogram;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs callbacks in order on a single background worker, so that long-running actions such as a
+ * blocking drive or a configuration reload do not freeze the loop that fires them. <p> A callback
+ * wrapped with {@link #queued(Runnable)} runs once for every time it is fired; one wrapped with
+ * {@link #dropIfBusy(Runnable)} is dropped when it is fired while its previous run is still queued
+ * or running. As there is one worker, callbacks run in the order they were fired, and a slow
+ * callback delays the ones queued after it. <p> The dispatcher measures the number of callbacks
+ * waiting in the queue and the time each one waited before it started. The worker is a daemon
+ * thread, started when a callback is first fired; {@link #close()} stops it, and {@link
+ * #close(long, TimeUnit)} stops it once the queued callbacks have run.
+ */
+public final class CallbackDispatcher implements AutoCloseable {
+
+  private ExecutorService executor;
+
+  private final AtomicInteger queueDepth = new AtomicInteger();
+  private final AtomicInteger maxQueueDepth = new AtomicInteger();
+  private final AtomicLong dispatched = new AtomicLong(), dropped = new AtomicLong();
+  private final AtomicLong completed = new AtomicLong(), failed = new AtomicLong();
+  private final Histogram latency = new Histogram();
+  private volatile RuntimeException lastFailure;
+
+  /**
+   * Wraps the given callback so that every run of the wrapper queues a run of the callback on the
+   * worker.
+   *
+   * @param callback The callback to run on the worker
+   * @return The wrapper to run instead of the callback
+   */
+  public Runnable queued(Runnable callback) {
+    return () -> submit(callback, null);
+  }
+
+  /**
+   * Wraps the given callback so that a run of the wrapper queues a run of the callback on the
+   * worker, unless the previous run is still queued or running, in which case it is dropped.
+   *
+   * @param callback The callback to run on the worker
+   * @return The wrapper to run instead of the callback
+   */
+  public Runnable dropIfBusy(Runnable callback) {
+    AtomicBoolean busy = new AtomicBoolean();
+    return () -> {
+      if (busy.compareAndSet(false, true)) {
+        submit(callback, busy);
+      } else {
+        dropped.incrementAndGet();
+      }
+    };
+  }
+
+  /**
+   * @return The number of callbacks waiting to start on the worker
+   */
+  public int getQueueDepth() {
+    return queueDepth.get();
+  }
+
+  /**
+   * @return The largest number of callbacks that waited at once since the last reset
+   */
+  public int getMaxQueueDepth() {
+    return maxQueueDepth.get();
+  }
+
+  /**
+   * @return The number of callbacks queued since the last reset
+   */
+  public long getDispatchedCount() {
+    return dispatched.get();
+  }
+
+  /**
+   * @return The number of callbacks dropped because their previous run was busy, since the last
+   * reset
+   */
+  public long getDroppedCount() {
+    return dropped.get();
+  }
+
+  /**
+   * @return The number of callbacks that finished since the last reset, including those that threw
+   */
+  public long getCompletedCount() {
+    return completed.get();
+  }
+
+  /**
+   * @return The number of callbacks that threw since the last reset
+   */
+  public long getFailedCount() {
+    return failed.get();
+  }
+
+  /**
+   * @return The exception thrown by the last callback that failed, or null if none has
+   */
+  public RuntimeException getLastFailure() {
+    return lastFailure;
+  }
+
+  /**
+   * Reads the time that callbacks waited in the queue, from being fired to starting on the worker.
+   *
+   * @param percentile The percentile, from 0 to 100
+   * @return The waiting time at the percentile, in nanoseconds, or 0 if no callback has started
+   */
+  public long getLatencyAtPercentile(double percentile) {
+    synchronized (latency) {
+      return latency.getValueAtPercentile(percentile);
+    }
+  }
+
+  /**
+   * @return The longest time that a callback waited in the queue, in nanoseconds
+   */
+  public long getMaxLatency() {
+    synchronized (latency) {
+      return latency.getMax();
+    }
+  }
+
+  /**
+   * Clears the counters and the waiting times. The current queue depth is kept.
+   */
+  public void resetMetrics() {
+    maxQueueDepth.set(queueDepth.get());
+    dispatched.set(0);
+    dropped.set(0);
+    completed.set(0);
+    failed.set(0);
+    lastFailure = null;
+    synchronized (latency) {
+      latency.reset();
+    }
+  }
+
+  /**
+   * Stops the worker, interrupting the running callback and discarding the queued ones. A callback
+   * fired afterwards starts a new worker.
+   */
+  @Override
+  public synchronized void close() {
+    if (executor != null) {
+      for (Runnable discarded : executor.shutdownNow()) {
+        ((Task) discarded).finish();
+      }
+      executor = null;
+      queueDepth.set(0);
+    }
+  }
+
+  /**
+   * Stops the worker once the queued callbacks have run, waiting up to the given time for them.
+   * Callbacks still queued or running after that are discarded and interrupted, as by {@link
+   * #close()}. A callback fired afterwards starts a new worker.
+   *
+   * @param timeout The longest time to wait
+   * @param unit The unit of the timeout
+   * @return True if every queued callback finished in time
+   * @throws InterruptedException if the calling thread is interrupted while waiting
+   */
+  public boolean close(long timeout, TimeUnit unit) throws InterruptedException {
+    ExecutorService closing;
+    synchronized (this) {
+      closing = executor;
+      executor = null;
+      if (closing == null) {
+        return true;
+      }
+      closing.shutdown();
+    }
+
+    if (closing.awaitTermination(timeout, unit)) {
+      return true;
+    }
+    for (Runnable discarded : closing.shutdownNow()) {
+      ((Task) discarded).finish();
+      queueDepth.decrementAndGet();
+    }
+    return false;
+  }
+
+  private synchronized void submit(Runnable callback, AtomicBoolean busy) {
+    if (executor == null) {
+      executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "CallbackDispatcher");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+
+    dispatched.incrementAndGet();
+    maxQueueDepth.accumulateAndGet(queueDepth.incrementAndGet(), Math::max);
+    executor.execute(new Task(callback, busy));
+  }
+
+  private final class Task implements Runnable {
+
+    private final Runnable callback;
+    private final AtomicBoolean busy;
+    private final long firedAt = System.nanoTime();
+
+    Task(Runnable callback, AtomicBoolean busy) {
+      this.callback = callback;
+      this.busy = busy;
+    }
+
+    @Override
+    public void run() {
+      queueDepth.decrementAndGet();
+      long waited = System.nanoTime() - firedAt;
+      synchronized (latency) {
+        latency.record(waited);
+      }
+
+      try {
+        callback.run();
+      } catch (RuntimeException callbackError) {
+        // A failing callback must not stop the worker for the callbacks queued after it
+        failed.incrementAndGet();
+        lastFailure = callbackError;
+      } finally {
+        completed.incrementAndGet();
+        finish();
+      }
+    }
+
+    // Lets a dropIfBusy callback be fired again
+    void finish() {
+      if (busy != null) {
+        busy.set(false);
+      }
+    }
+  }
+}
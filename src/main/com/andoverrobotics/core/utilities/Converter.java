@@ -1,11 +1,11 @@
 package com.andoverrobotics.core.utilities;
 
-// Radians are [0, tau)
-// Degrees are [0, 360)
+// Radians are [0, tau), or (-pi, pi] when signed
+// Degrees are [0, 360), or (-180, 180] when signed
 
 /**
- * Provides utility functions that convert between radians and degrees, millimeters and inches, and
- * normalize angle measures.
+ * Provides utility functions that convert between radians and degrees, millimeters and inches,
+ * normalize angle measures, and approximate sine and cosine with a lookup table.
  */
 public class Converter {
 
@@ -55,43 +55,129 @@ public class Converter {
   }
 
   /**
-   * Converts the given angle measure in degrees to its equivalent value in the [0, 360] range.
+   * Converts the given angle measure in degrees to its equivalent value in the [0, 360) range. This
+   * takes constant time regardless of the magnitude of the input.
    *
-   * @param inputDegrees The angle measure of which the equivalent value in the [0, 360] range will
+   * @param inputDegrees The angle measure of which the equivalent value in the [0, 360) range will
    * be returned
-   * @return The equivalent value of the given angle measure in the [0, 360] range
+   * @return The equivalent value of the given angle measure in the [0, 360) range, or NaN if the
+   * input is NaN or infinite
    */
   public static double normalizedDegrees(final double inputDegrees) {
-    double degrees = inputDegrees;
-
-    while (degrees < 0) {
-      degrees += 360;
-    }
-    while (degrees >= 360) {
-      degrees -= 360;
-    }
-
-    return degrees;
+    return normalized(inputDegrees, 360);
   }
 
   /**
-   * Converts the given angle measure in radians to its equivalent value in the [0, {@link #TAU}]
-   * range.
+   * Converts the given angle measure in radians to its equivalent value in the [0, {@link #TAU})
+   * range. This takes constant time regardless of the magnitude of the input.
    *
-   * @param inputRadians The angle measure of which the equivalent value in the [0, {@link #TAU}]
+   * @param inputRadians The angle measure of which the equivalent value in the [0, {@link #TAU})
    * range will be returned
-   * @return The equivalent value of the given angle measure in the [0, {@link #TAU}] range
+   * @return The equivalent value of the given angle measure in the [0, {@link #TAU}) range, or NaN
+   * if the input is NaN or infinite
    */
   public static double normalizedRadians(final double inputRadians) {
-    double radians = inputRadians;
+    return normalized(inputRadians, TAU);
+  }
+
+  /**
+   * Converts the given angle measure in degrees to its equivalent value in the (-180, 180] range,
+   * which is the shortest signed rotation, such as a heading error.
+   *
+   * @param inputDegrees The angle measure of which the equivalent value in the (-180, 180] range
+   * will be returned
+   * @return The equivalent value of the given angle measure in the (-180, 180] range, or NaN if the
+   * input is NaN or infinite
+   */
+  public static double signedDegrees(final double inputDegrees) {
+    double degrees = normalizedDegrees(inputDegrees);
+    return degrees > 180 ? degrees - 360 : degrees;
+  }
 
-    while (radians < 0) {
-      radians += TAU;
+  /**
+   * Converts the given angle measure in radians to its equivalent value in the (-&pi;, &pi;]
+   * range, which is the shortest signed rotation, such as a heading error.
+   *
+   * @param inputRadians The angle measure of which the equivalent value in the (-&pi;, &pi;] range
+   * will be returned
+   * @return The equivalent value of the given angle measure in the (-&pi;, &pi;] range, or NaN if
+   * the input is NaN or infinite
+   */
+  public static double signedRadians(final double inputRadians) {
+    double radians = normalizedRadians(inputRadians);
+    return radians > Math.PI ? radians - TAU : radians;
+  }
+
+  private static double normalized(double angle, double period) {
+    // Most angles are already within one turn of the range, and % is much slower than a comparison
+    if (angle >= 0 && angle < period) {
+      return angle + 0.0;
     }
-    while (radians >= TAU) {
-      radians -= TAU;
+
+    double remainder = angle >= -period && angle < 0 ? angle : angle % period;
+    if (remainder < 0) {
+      remainder += period;
+      // A tiny negative remainder rounds up to the period itself
+      if (remainder >= period) {
+        remainder = 0;
+      }
     }
+    // Turns -0.0 into 0.0
+    return remainder + 0.0;
+  }
+
+  // -- Lookup-table trigonometry --
+
+  private static final int SINE_TABLE_BITS = 12, SINE_TABLE_SIZE = 1 << SINE_TABLE_BITS;
+  private static final int SINE_TABLE_MASK = SINE_TABLE_SIZE - 1;
+  private static final double SINE_TABLE_STEPS_PER_RADIAN = SINE_TABLE_SIZE / TAU;
+  private static final int QUARTER_TURN_STEPS = SINE_TABLE_SIZE / 4;
+  private static final double[] SINE_TABLE = new double[SINE_TABLE_SIZE + 1];
+
+  static {
+    for (int i = 0; i <= SINE_TABLE_SIZE; i++) {
+      SINE_TABLE[i] = Math.sin(i / SINE_TABLE_STEPS_PER_RADIAN);
+    }
+  }
+
+  /**
+   * The maximum absolute error of {@link #fastSin(double)} and {@link #fastCos(double)} for inputs
+   * of magnitude up to 1e6 radians. Linear interpolation between 4096 samples per turn bounds the
+   * error by (&tau; / 4096)&sup2; / 8, about 2.9e-7; the remainder of the bound covers rounding.
+   */
+  public static final double FAST_TRIG_MAX_ERROR = 3e-7;
+
+  /**
+   * Approximates the sine of the given angle with a lookup table, for hot control loops where
+   * {@link Math#sin(double)} is too slow. The result is within {@link #FAST_TRIG_MAX_ERROR} of the
+   * exact value, and is NaN if the input is NaN or infinite.
+   *
+   * @param radians The angle measure in radians
+   * @return The approximate sine of the angle
+   */
+  public static double fastSin(double radians) {
+    return interpolateSine(radians * SINE_TABLE_STEPS_PER_RADIAN, 0);
+  }
+
+  /**
+   * Approximates the cosine of the given angle with a lookup table, for hot control loops where
+   * {@link Math#cos(double)} is too slow. The result is within {@link #FAST_TRIG_MAX_ERROR} of the
+   * exact value, and is NaN if the input is NaN or infinite.
+   *
+   * @param radians The angle measure in radians
+   * @return The approximate cosine of the angle
+   */
+  public static double fastCos(double radians) {
+    return interpolateSine(radians * SINE_TABLE_STEPS_PER_RADIAN, QUARTER_TURN_STEPS);
+  }
 
-    return radians;
+  // cos(x) = sin(x + quarter turn), so the cosine shifts the table index instead of the angle,
+  // which keeps the fractional part exact.
+  private static double interpolateSine(double steps, int offset) {
+    double floor = Math.floor(steps);
+    double fraction = steps - floor;
+    int index = (int) (((long) floor + offset) & SINE_TABLE_MASK);
+    double low = SINE_TABLE[index];
+    return low + (SINE_TABLE[index + 1] - low) * fraction;
   }
 }
@@ -0,0 +1,98 @@
+package com.andoverrobotics.core.utilities;
+
+import java.util.Arrays;
+
+/**
+ * Maps a scheduling variable, such as the magnitude of the error or the battery voltage, to a set
+ * of PID gains by linear interpolation between breakpoints. Below the first breakpoint and above
+ * the last one, the gains of that breakpoint are used. <p> Lookups do not allocate, so a schedule
+ * may be consulted on every control-loop iteration through {@link PIDFController#schedule(double)}.
+ */
+public class GainSchedule {
+
+  private double[] inputs = new double[0], kPs = new double[0], kIs = new double[0],
+      kDs = new double[0];
+
+  /**
+   * Adds a breakpoint to this schedule. A breakpoint at an input that already has one replaces it.
+   *
+   * @param input The value of the scheduling variable at which these gains apply
+   * @param kP The proportional gain
+   * @param kI The integral gain
+   * @param kD The derivative gain
+   */
+  public void addPoint(double input, double kP, double kI, double kD) {
+    int index = Arrays.binarySearch(inputs, input);
+    if (index < 0) {
+      index = -index - 1;
+      inputs = inserted(inputs, index, input);
+      kPs = inserted(kPs, index, kP);
+      kIs = inserted(kIs, index, kI);
+      kDs = inserted(kDs, index, kD);
+    } else {
+      kPs[index] = kP;
+      kIs[index] = kI;
+      kDs[index] = kD;
+    }
+  }
+
+  /**
+   * @return The number of breakpoints in this schedule
+   */
+  public int size() {
+    return inputs.length;
+  }
+
+  /**
+   * @param input The value of the scheduling variable
+   * @return The interpolated proportional gain
+   */
+  public double getP(double input) {
+    return interpolate(kPs, input);
+  }
+
+  /**
+   * @param input The value of the scheduling variable
+   * @return The interpolated integral gain
+   */
+  public double getI(double input) {
+    return interpolate(kIs, input);
+  }
+
+  /**
+   * @param input The value of the scheduling variable
+   * @return The interpolated derivative gain
+   */
+  public double getD(double input) {
+    return interpolate(kDs, input);
+  }
+
+  private double interpolate(double[] gains, double input) {
+    if (inputs.length == 0) {
+      throw new IllegalStateException("GainSchedule has no points");
+    }
+    if (input <= inputs[0]) {
+      return gains[0];
+    }
+    int last = inputs.length - 1;
+    if (input >= inputs[last]) {
+      return gains[last];
+    }
+
+    int index = Arrays.binarySearch(inputs, input);
+    if (index >= 0) {
+      return gains[index];
+    }
+    int upper = -index - 1, lower = upper - 1;
+    double fraction = (input - inputs[lower]) / (inputs[upper] - inputs[lower]);
+    return gains[lower] + (gains[upper] - gains[lower]) * fraction;
+  }
+
+  private static double[] inserted(double[] array, int index, double value) {
+    double[] result = new double[array.length + 1];
+    System.arraycopy(array, 0, result, 0, index);
+    result[index] = value;
+    System.arraycopy(array, index, result, index + 1, array.length - index);
+    return result;
+  }
+}
@@ -0,0 +1,187 @@
+package com.andoverrobotics.core.utilities;
+
+import com.qualcomm.robotcore.hardware.Gamepad;
+
+/**
+ * A copy of the buttons and axes of a {@link Gamepad}, taken once per loop with {@link
+ * #capture()}, with the buttons packed in a bitmask so that the changes since the previous capture
+ * are one XOR away. <p> The SDK updates the fields of a Gamepad from another thread, so reading
+ * them once into a snapshot also gives the loop a consistent view of the gamepad. {@link
+ * InputResponder} uses snapshots to evaluate only the bindings whose inputs changed.
+ */
+public final class GamepadSnapshot {
+
+  /**
+   * The buttons of a gamepad. Each button is one bit of {@link #getButtons()}.
+   */
+  public enum Button {
+    A, B, X, Y,
+    DPAD_UP, DPAD_DOWN, DPAD_LEFT, DPAD_RIGHT,
+    LEFT_BUMPER, RIGHT_BUMPER, LEFT_STICK_BUTTON, RIGHT_STICK_BUTTON,
+    START, BACK, GUIDE;
+
+    /**
+     * @return The bit of this button in {@link #getButtons()}
+     */
+    public int mask() {
+      return 1 << ordinal();
+    }
+  }
+
+  /**
+   * The axes of a gamepad. Each axis is one bit of {@link #getChangedAxes()}.
+   */
+  public enum Axis {
+    LEFT_STICK_X, LEFT_STICK_Y, RIGHT_STICK_X, RIGHT_STICK_Y, LEFT_TRIGGER, RIGHT_TRIGGER;
+
+    /**
+     * @return The bit of this axis in {@link #getChangedAxes()}
+     */
+    public int mask() {
+      return 1 << ordinal();
+    }
+  }
+
+  /**
+   * The number of buttons.
+   */
+  public static final int BUTTON_COUNT = 15;
+  /**
+   * The number of axes.
+   */
+  public static final int AXIS_COUNT = 6;
+
+  private final Gamepad gamepad;
+  private int buttons, changedButtons;
+  private final float[] axes = new float[AXIS_COUNT];
+  private int changedAxes;
+  private long captureCount;
+
+  /**
+   * Creates a snapshot of the given gamepad, with every button released and every axis at 0 until
+   * the first capture.
+   *
+   * @param gamepad The gamepad to copy, usually <code>gamepad1</code> or <code>gamepad2</code>
+   */
+  public GamepadSnapshot(Gamepad gamepad) {
+    this.gamepad = gamepad;
+  }
+
+  /**
+   * Copies the current state of the gamepad, and records what changed since the previous capture.
+   */
+  public void capture() {
+    Gamepad pad = gamepad;
+    int current = bit(pad.a, Button.A) | bit(pad.b, Button.B)
+        | bit(pad.x, Button.X) | bit(pad.y, Button.Y)
+        | bit(pad.dpad_up, Button.DPAD_UP) | bit(pad.dpad_down, Button.DPAD_DOWN)
+        | bit(pad.dpad_left, Button.DPAD_LEFT) | bit(pad.dpad_right, Button.DPAD_RIGHT)
+        | bit(pad.left_bumper, Button.LEFT_BUMPER) | bit(pad.right_bumper, Button.RIGHT_BUMPER)
+        | bit(pad.left_stick_button, Button.LEFT_STICK_BUTTON)
+        | bit(pad.right_stick_button, Button.RIGHT_STICK_BUTTON)
+        | bit(pad.start, Button.START) | bit(pad.back, Button.BACK)
+        | bit(pad.guide, Button.GUIDE);
+    changedButtons = current ^ buttons;
+    buttons = current;
+
+    changedAxes = 0;
+    setAxis(Axis.LEFT_STICK_X, pad.left_stick_x);
+    setAxis(Axis.LEFT_STICK_Y, pad.left_stick_y);
+    setAxis(Axis.RIGHT_STICK_X, pad.right_stick_x);
+    setAxis(Axis.RIGHT_STICK_Y, pad.right_stick_y);
+    setAxis(Axis.LEFT_TRIGGER, pad.left_trigger);
+    setAxis(Axis.RIGHT_TRIGGER, pad.right_trigger);
+
+    captureCount++;
+  }
+
+  /**
+   * @param button The button to read
+   * @return True if the button was pressed at the last capture
+   */
+  public boolean isPressed(Button button) {
+    return (buttons & button.mask()) != 0;
+  }
+
+  /**
+   * @param button The button to read
+   * @return True if the button was pressed at the last capture but not at the one before
+   */
+  public boolean wasJustPressed(Button button) {
+    return (buttons & changedButtons & button.mask()) != 0;
+  }
+
+  /**
+   * @param button The button to read
+   * @return True if the button was released at the last capture but not at the one before
+   */
+  public boolean wasJustReleased(Button button) {
+    return (~buttons & changedButtons & button.mask()) != 0;
+  }
+
+  /**
+   * @param axis The axis to read
+   * @return The value of the axis at the last capture
+   */
+  public float getAxis(Axis axis) {
+    return axes[axis.ordinal()];
+  }
+
+  /**
+   * @return The pressed buttons at the last capture, one bit per {@link Button}
+   */
+  public int getButtons() {
+    return buttons;
+  }
+
+  /**
+   * @return The buttons that changed between the last two captures, one bit per {@link Button}
+   */
+  public int getChangedButtons() {
+    return changedButtons;
+  }
+
+  /**
+   * @return The axes that changed between the last two captures, one bit per {@link Axis}
+   */
+  public int getChangedAxes() {
+    return changedAxes;
+  }
+
+  /**
+   * @return True if any button or axis changed between the last two captures
+   */
+  public boolean hasChanged() {
+    return changedButtons != 0 || changedAxes != 0;
+  }
+
+  /**
+   * @return The number of captures so far
+   */
+  public long getCaptureCount() {
+    return captureCount;
+  }
+
+  /**
+   * @return The gamepad this snapshot copies
+   */
+  public Gamepad getGamepad() {
+    return gamepad;
+  }
+
+  float getAxis(int axis) {
+    return axes[axis];
+  }
+
+  private void setAxis(Axis axis, float value) {
+    int index = axis.ordinal();
+    if (axes[index] != value) {
+      axes[index] = value;
+      changedAxes |= 1 << index;
+    }
+  }
+
+  private static int bit(boolean pressed, Button button) {
+    return pressed ? button.mask() : 0;
+  }
+}
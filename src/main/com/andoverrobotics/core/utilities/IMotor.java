@@ -39,6 +39,24 @@ public interface IMotor {
     setPower(Math.abs(absPower));
   }
 
+  /**
+   * Sets the velocity that the hub's velocity PID holds the motor(s) at, in {@link
+   * RunMode#RUN_USING_ENCODER}.
+   *
+   * @param ticksPerSecond The new velocity, in encoder ticks per second
+   * @throws UnsupportedOperationException if the motor(s) cannot be velocity-controlled
+   */
+  void setVelocity(double ticksPerSecond);
+
+  /**
+   * Reads the velocity of the motor(s).
+   *
+   * @return The velocity in encoder ticks per second; for a set of motors, the average of their
+   * velocities
+   * @throws UnsupportedOperationException if the velocity of the motor(s) cannot be read
+   */
+  double getVelocity();
+
   /**
    * Sets the {@link com.qualcomm.robotcore.hardware.DcMotor.RunMode} of the motor(s).
    *
@@ -46,6 +64,20 @@ public interface IMotor {
    */
   void setMode(RunMode mode);
 
+  /**
+   * Reads the current encoder position of the motor(s).
+   *
+   * @return The current encoder position; for a set of motors, the average of their positions
+   */
+  int getCurrentPosition();
+
+  /**
+   * Discards the reads that the motor(s) cache, if any, so that the next reads go to the hardware.
+   * Loops that poll a move call this before each poll, as nothing refreshes the cache meanwhile.
+   */
+  default void invalidateReads() {
+  }
+
   /**
    * Tells if any motor is busy.
    *
@@ -0,0 +1,765 @@
+package com.andoverrobotics.core.utilities;
+
+import com.andoverrobotics.core.utilities.GamepadSnapshot.Axis;
+import com.andoverrobotics.core.utilities.GamepadSnapshot.Button;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Runs callbacks when gamepad inputs change, with the state of every binding kept in flat arrays
+ * so that {@link #update()} neither boxes nor allocates. <p> Each binding reads a button through a
+ * {@link BooleanSupplier}, or an axis such as a trigger or a stick through a {@link
+ * DoubleSupplier} and a threshold, and fires its callback on one of the {@link Trigger}s. A binding
+ * may also be debounced with {@link #debounce(long)}, so that its input must stay in a new state
+ * for the given time before the change counts. Inputs are sampled once when registered, so an
+ * input that is already pressed does not fire a press. <p> Bindings may instead read a {@link
+ * GamepadSnapshot.Button} or {@link GamepadSnapshot.Axis} of a {@link GamepadSnapshot}. Those are
+ * indexed by input, so {@link #update()} only evaluates the bindings of the inputs that changed
+ * since the previous update, along with the bindings that are waiting on a time, such as a hold or
+ * a debounce. Capture the snapshots at the start of each loop, before calling {@link #update()}.
+ * Supplier bindings cannot be indexed, so they are evaluated on every update. <p> Callbacks run
+ * inside {@link #update()} by default. A binding whose callback takes long, such as a blocking
+ * drive, can instead be given a {@link Dispatch} policy with {@link #dispatch(Dispatch)}, which
+ * runs the callback on the worker of a {@link CallbackDispatcher}; close the dispatcher when the
+ * OpMode stops. <p> Call {@link #update()} once per loop; time-based triggers are only as precise
+ * as the loop rate. Like the gamepads, a responder is meant to be used from the OpMode's thread.
+ */
+public class InputResponder implements InputColumnResponder {
+
+  /**
+   * When a binding fires its callback.
+   */
+  public enum Trigger {
+    /**
+     * Once when the input is pressed.
+     */
+    RISING,
+    /**
+     * Once when the input is released.
+     */
+    FALLING,
+    /**
+     * Once when the input has been held for the binding's time.
+     */
+    HOLD,
+    /**
+     * When the input is pressed a second time within the binding's time of the first press.
+     */
+    DOUBLE_TAP,
+    /**
+     * When the input is pressed, and then again every binding's time while it is held.
+     */
+    REPEAT
+  }
+
+  /**
+   * Where a binding runs its callback.
+   */
+  public enum Dispatch {
+    /**
+     * Inside {@link #update()}, on the loop's thread.
+     */
+    INLINE,
+    /**
+     * On the dispatcher's worker, once for every time the binding fires.
+     */
+    QUEUED,
+    /**
+     * On the dispatcher's worker, unless the previous run of the callback is still queued or
+     * running, in which case the firing is dropped.
+     */
+    DROP_IF_BUSY
+  }
+
+  /**
+   * How far an axis must move back past its threshold to count as released, so that noise around
+   * the threshold does not fire a binding repeatedly.
+   */
+  public static final double ANALOG_HYSTERESIS = 0.05;
+
+  private static final long NEVER = Long.MIN_VALUE;
+  private static final int INPUT_COUNT = GamepadSnapshot.BUTTON_COUNT + GamepadSnapshot.AXIS_COUNT;
+  private static final int[] NO_BINDINGS = {};
+
+  private Trigger[] triggers = new Trigger[8];
+  private BooleanSupplier[] buttons = new BooleanSupplier[8];
+  private DoubleSupplier[] axes = new DoubleSupplier[8];
+  private double[] thresholds = new double[8];
+  // The callbacks as registered, and what runs when the binding fires, which may dispatch them
+  private Runnable[] actions = new Runnable[8], callbacks = new Runnable[8];
+  private CallbackDispatcher dispatcher;
+  private long[] periods = new long[8], debounces = new long[8];
+
+  // The debounced state, and the raw state that is waiting out the debounce time
+  private boolean[] states = new boolean[8], candidates = new boolean[8];
+  private long[] candidateSince = new long[8];
+  // When the binding was pressed, or its next repeat or the start of its double-tap window is due
+  private long[] pressedAt = new long[8], dueAt = new long[8];
+  private boolean[] held = new boolean[8];
+  private int bindingCount = 0;
+
+  // The snapshot and input of each snapshot binding; the snapshot is -1 for supplier bindings
+  private int[] sources = new int[8], inputs = new int[8];
+  private GamepadSnapshot[] snapshots = new GamepadSnapshot[2];
+  private int snapshotCount = 0;
+  // The snapshot state at the previous update, which may be several captures ago
+  private int[] seenButtons = new int[2];
+  private float[][] seenAxes = new float[2][];
+
+  // Built from the bindings before the first update after a registration
+  private boolean indexed = false;
+  private int[][][] bindingsByInput = new int[2][][];
+  private int[] polled = new int[8];
+  private int polledCount = 0;
+
+  // The bindings that wait on a time, to evaluate at the next update whether their inputs changed
+  private int[] waiting = new int[8], stillWaiting = new int[8];
+  private int waitingCount = 0;
+  private long[] evaluatedAt = new long[8];
+  private long updateCount = 0;
+  // Counts the clears of the registry, so that an update stops when a callback clears it
+  private int generation = 0;
+
+  /**
+   * Fires the given callback when the given button is pressed.
+   *
+   * @param button The button to read
+   * @param callback The callback to run
+   * @return This InputResponder
+   */
+  public InputResponder onPress(BooleanSupplier button, Runnable callback) {
+    return register(Trigger.RISING, button, 0, callback);
+  }
+
+  /**
+   * Fires the given callback when the given button is released.
+   *
+   * @param button The button to read
+   * @param callback The callback to run
+   * @return This InputResponder
+   */
+  public InputResponder onRelease(BooleanSupplier button, Runnable callback) {
+    return register(Trigger.FALLING, button, 0, callback);
+  }
+
+  /**
+   * Fires the given callback once the given button has been held for the given time.
+   *
+   * @param button The button to read
+   * @param holdMs How long the button must be held, in milliseconds
+   * @param callback The callback to run
+   * @return This InputResponder
+   */
+  public InputResponder onHold(BooleanSupplier button, long holdMs, Runnable callback) {
+    return register(Trigger.HOLD, button, holdMs, callback);
+  }
+
+  /**
+   * Fires the given callback when the given button is pressed twice within the given time.
+   *
+   * @param button The button to read
+   * @param windowMs The longest time between the two presses, in milliseconds
+   * @param callback The callback to run
+   * @return This InputResponder
+   */
+  public InputResponder onDoubleTap(BooleanSupplier button, long windowMs, Runnable callback) {
+    return register(Trigger.DOUBLE_TAP, button, windowMs, callback);
+  }
+
+  /**
+   * Fires the given callback when the given button is pressed, and then every given interval
+   * while it is held.
+   *
+   * @param button The button to read
+   * @param intervalMs The interval between two repeats, in milliseconds
+   * @param callback The callback to run
+   * @return This InputResponder
+   */
+  public InputResponder whileHeld(BooleanSupplier button, long intervalMs, Runnable callback) {
+    return register(Trigger.REPEAT, button, intervalMs, callback);
+  }
+
+  /**
+   * Fires the given callback when the given axis crosses the given threshold.
+   *
+   * @param axis The axis to read, such as a trigger or a stick
+   * @param threshold The value that counts as pressed: the axis is pressed at or above a positive
+   * threshold, and at or below a negative one
+   * @param callback The callback to run
+   * @return This InputResponder
+   */
+  public InputResponder onThreshold(DoubleSupplier axis, double threshold, Runnable callback) {
+    return registerAxis(Trigger.RISING, axis, threshold, 0, callback);
+  }
+
+  /**
+   * Fires the given callback when the given button of the given snapshot is pressed.
+   *
+   * @param gamepad The snapshot to read
+   * @param button The button to read
+   * @param callback The callback to run
+   * @return This InputResponder
+   */
+  public InputResponder onPress(GamepadSnapshot gamepad, Button button, Runnable callback) {
+    return register(Trigger.RISING, gamepad, button, 0, callback);
+  }
+
+  /**
+   * Fires the given callback when the given button of the given snapshot is released.
+   *
+   * @param gamepad The snapshot to read
+   * @param button The button to read
+   * @param callback The callback to run
+   * @return This InputResponder
+   */
+  public InputResponder onRelease(GamepadSnapshot gamepad, Button button, Runnable callback) {
+    return register(Trigger.FALLING, gamepad, button, 0, callback);
+  }
+
+  /**
+   * Fires the given callback once the given button of the given snapshot has been held for the
+   * given time.
+   *
+   * @param gamepad The snapshot to read
+   * @param button The button to read
+   * @param holdMs How long the button must be held, in milliseconds
+   * @param callback The callback to run
+   * @return This InputResponder
+   */
+  public InputResponder onHold(GamepadSnapshot gamepad, Button button, long holdMs,
+      Runnable callback) {
+    return register(Trigger.HOLD, gamepad, button, holdMs, callback);
+  }
+
+  /**
+   * Fires the given callback when the given button of the given snapshot is pressed twice within
+   * the given time.
+   *
+   * @param gamepad The snapshot to read
+   * @param button The button to read
+   * @param windowMs The longest time between the two presses, in milliseconds
+   * @param callback The callback to run
+   * @return This InputResponder
+   */
+  public InputResponder onDoubleTap(GamepadSnapshot gamepad, Button button, long windowMs,
+      Runnable callback) {
+    return register(Trigger.DOUBLE_TAP, gamepad, button, windowMs, callback);
+  }
+
+  /**
+   * Fires the given callback when the given button of the given snapshot is pressed, and then
+   * every given interval while it is held.
+   *
+   * @param gamepad The snapshot to read
+   * @param button The button to read
+   * @param intervalMs The interval between two repeats, in milliseconds
+   * @param callback The callback to run
+   * @return This InputResponder
+   */
+  public InputResponder whileHeld(GamepadSnapshot gamepad, Button button, long intervalMs,
+      Runnable callback) {
+    return register(Trigger.REPEAT, gamepad, button, intervalMs, callback);
+  }
+
+  /**
+   * Fires the given callback when the given axis of the given snapshot crosses the given
+   * threshold.
+   *
+   * @param gamepad The snapshot to read
+   * @param axis The axis to read
+   * @param threshold The value that counts as pressed: the axis is pressed at or above a positive
+   * threshold, and at or below a negative one
+   * @param callback The callback to run
+   * @return This InputResponder
+   */
+  public InputResponder onThreshold(GamepadSnapshot gamepad, Axis axis, double threshold,
+      Runnable callback) {
+    return registerAxis(Trigger.RISING, gamepad, axis, threshold, 0, callback);
+  }
+
+  /**
+   * Binds the given button of the given snapshot to the given callback.
+   *
+   * @param trigger When to fire the callback
+   * @param gamepad The snapshot to read
+   * @param button The button to read
+   * @param timeMs The time of the trigger, in milliseconds: the hold time, the double-tap window
+   * or the repeat interval; ignored for edges
+   * @param callback The callback to run
+   * @return This InputResponder
+   * @throws IllegalArgumentException if the time is negative, or zero for {@link Trigger#REPEAT}
+   */
+  public InputResponder register(Trigger trigger, GamepadSnapshot gamepad, Button button,
+      long timeMs, Runnable callback) {
+    int binding = add(trigger, timeMs, callback);
+    sources[binding] = addSnapshot(gamepad);
+    inputs[binding] = button.ordinal();
+    sample(binding);
+    return this;
+  }
+
+  /**
+   * Binds the given axis of the given snapshot to the given callback. The axis counts as pressed
+   * at or beyond the given threshold, and as released once it has moved back by {@link
+   * #ANALOG_HYSTERESIS}.
+   *
+   * @param trigger When to fire the callback
+   * @param gamepad The snapshot to read
+   * @param axis The axis to read
+   * @param threshold The value that counts as pressed: the axis is pressed at or above a positive
+   * threshold, and at or below a negative one
+   * @param timeMs The time of the trigger, in milliseconds: the hold time, the double-tap window
+   * or the repeat interval; ignored for edges
+   * @param callback The callback to run
+   * @return This InputResponder
+   * @throws IllegalArgumentException if the time is negative, or zero for {@link Trigger#REPEAT}
+   */
+  public InputResponder registerAxis(Trigger trigger, GamepadSnapshot gamepad, Axis axis,
+      double threshold, long timeMs, Runnable callback) {
+    int binding = add(trigger, timeMs, callback);
+    sources[binding] = addSnapshot(gamepad);
+    inputs[binding] = GamepadSnapshot.BUTTON_COUNT + axis.ordinal();
+    thresholds[binding] = threshold;
+    sample(binding);
+    return this;
+  }
+
+  /**
+   * Binds the given button to the given callback.
+   *
+   * @param trigger When to fire the callback
+   * @param button The button to read
+   * @param timeMs The time of the trigger, in milliseconds: the hold time, the double-tap window
+   * or the repeat interval; ignored for edges
+   * @param callback The callback to run
+   * @return This InputResponder
+   * @throws IllegalArgumentException if the time is negative, or zero for {@link Trigger#REPEAT}
+   */
+  public InputResponder register(Trigger trigger, BooleanSupplier button, long timeMs,
+      Runnable callback) {
+    int binding = add(trigger, timeMs, callback);
+    buttons[binding] = button;
+    sample(binding);
+    return this;
+  }
+
+  /**
+   * Binds the given axis to the given callback. The axis counts as pressed at or beyond the given
+   * threshold, and as released once it has moved back by {@link #ANALOG_HYSTERESIS}.
+   *
+   * @param trigger When to fire the callback
+   * @param axis The axis to read, such as a trigger or a stick
+   * @param threshold The value that counts as pressed: the axis is pressed at or above a positive
+   * threshold, and at or below a negative one
+   * @param timeMs The time of the trigger, in milliseconds: the hold time, the double-tap window
+   * or the repeat interval; ignored for edges
+   * @param callback The callback to run
+   * @return This InputResponder
+   * @throws IllegalArgumentException if the time is negative, or zero for {@link Trigger#REPEAT}
+   */
+  public InputResponder registerAxis(Trigger trigger, DoubleSupplier axis, double threshold,
+      long timeMs, Runnable callback) {
+    int binding = add(trigger, timeMs, callback);
+    axes[binding] = axis;
+    thresholds[binding] = threshold;
+    sample(binding);
+    return this;
+  }
+
+  /**
+   * Binds the given predicate to the given callback, fired when the predicate becomes true.
+   *
+   * @param predicate The predicate to read
+   * @param triggerCallback The callback to run
+   * @return This InputResponder
+   */
+  @Override
+  public InputResponder register(Supplier<Boolean> predicate, Runnable triggerCallback) {
+    return onPress(predicate::get, triggerCallback);
+  }
+
+  /**
+   * Makes the binding registered last ignore changes of its input that last less than the given
+   * time.
+   *
+   * @param debounceMs The debounce time, in milliseconds
+   * @return This InputResponder
+   * @throws IllegalStateException if no binding has been registered
+   */
+  public InputResponder debounce(long debounceMs) {
+    if (bindingCount == 0) {
+      throw new IllegalStateException("No binding to debounce");
+    }
+    debounces[bindingCount - 1] = TimeUnit.MILLISECONDS.toNanos(debounceMs);
+    return this;
+  }
+
+  /**
+   * Sets where the binding registered last runs its callback.
+   *
+   * @param policy The dispatch policy
+   * @return This InputResponder
+   * @throws IllegalStateException if no binding has been registered
+   */
+  public InputResponder dispatch(Dispatch policy) {
+    if (bindingCount == 0) {
+      throw new IllegalStateException("No binding to dispatch");
+    }
+    int binding = bindingCount - 1;
+    switch (policy) {
+      case QUEUED:
+        callbacks[binding] = getDispatcher().queued(actions[binding]);
+        break;
+      case DROP_IF_BUSY:
+        callbacks[binding] = getDispatcher().dropIfBusy(actions[binding]);
+        break;
+      default:
+        callbacks[binding] = actions[binding];
+        break;
+    }
+    return this;
+  }
+
+  /**
+   * Sets the dispatcher that runs the callbacks of the bindings dispatched afterwards, so that
+   * several responders can share one worker. Bindings already dispatched keep their dispatcher.
+   *
+   * @param dispatcher The new dispatcher
+   * @return This InputResponder
+   */
+  public InputResponder setDispatcher(CallbackDispatcher dispatcher) {
+    this.dispatcher = dispatcher;
+    return this;
+  }
+
+  /**
+   * @return The dispatcher that runs the callbacks of dispatched bindings, created when first
+   * needed, whose metrics show the queue depth and the dispatch latency
+   */
+  public CallbackDispatcher getDispatcher() {
+    if (dispatcher == null) {
+      dispatcher = new CallbackDispatcher();
+    }
+    return dispatcher;
+  }
+
+  /**
+   * @return The number of bindings
+   */
+  public int size() {
+    return bindingCount;
+  }
+
+  /**
+   * Reads every input and fires the callbacks whose triggers have occurred.
+   */
+  @Override
+  public void update() {
+    update(System.nanoTime());
+  }
+
+  /**
+   * Reads every input and fires the callbacks whose triggers have occurred, at the given time.
+   *
+   * @param nanoTime The current time, in nanoseconds, on the clock of {@link System#nanoTime()}
+   */
+  public void update(long nanoTime) {
+    if (!indexed) {
+      buildIndex();
+    }
+    updateCount++;
+    int pass = generation;
+
+    // The waiting list is rebuilt by evaluate()
+    int[] previouslyWaiting = waiting;
+    int previousCount = waitingCount;
+    waiting = stillWaiting;
+    stillWaiting = previouslyWaiting;
+    waitingCount = 0;
+    for (int i = 0; i < previousCount; i++) {
+      evaluate(previouslyWaiting[i], nanoTime);
+      if (generation != pass) {
+        return;
+      }
+    }
+
+    for (int i = 0; i < polledCount; i++) {
+      evaluate(polled[i], nanoTime);
+      if (generation != pass) {
+        return;
+      }
+    }
+
+    for (int source = 0; source < snapshotCount; source++) {
+      int changed = takeChangedInputs(source);
+      int[][] bindings = bindingsByInput[source];
+      while (changed != 0) {
+        int input = Integer.numberOfTrailingZeros(changed);
+        changed &= changed - 1;
+        for (int binding : bindings[input]) {
+          evaluate(binding, nanoTime);
+          if (generation != pass) {
+            return;
+          }
+        }
+      }
+    }
+  }
+
+  @Override
+  public void clearRegistry() {
+    Arrays.fill(buttons, 0, bindingCount, null);
+    Arrays.fill(axes, 0, bindingCount, null);
+    Arrays.fill(actions, 0, bindingCount, null);
+    Arrays.fill(callbacks, 0, bindingCount, null);
+    Arrays.fill(snapshots, 0, snapshotCount, null);
+    bindingCount = 0;
+    snapshotCount = 0;
+    waitingCount = 0;
+    indexed = false;
+    generation++;
+  }
+
+  private void evaluate(int binding, long now) {
+    if (evaluatedAt[binding] == updateCount) {
+      return;
+    }
+    evaluatedAt[binding] = updateCount;
+
+    boolean raw = read(binding);
+    if (raw != candidates[binding]) {
+      candidates[binding] = raw;
+      candidateSince[binding] = now;
+    }
+
+    if (candidates[binding] != states[binding]
+        && now - candidateSince[binding] >= debounces[binding]) {
+      states[binding] = candidates[binding];
+      if (states[binding]) {
+        press(binding, now);
+      } else {
+        release(binding);
+      }
+    }
+
+    if (states[binding]) {
+      whilePressed(binding, now);
+    }
+
+    if (isWaiting(binding)) {
+      waiting[waitingCount++] = binding;
+    }
+  }
+
+  // True if the binding may fire or change state later without its input changing
+  private boolean isWaiting(int binding) {
+    if (candidates[binding] != states[binding]) {
+      return true;
+    }
+    Trigger trigger = triggers[binding];
+    return states[binding]
+        && (trigger == Trigger.REPEAT || (trigger == Trigger.HOLD && !held[binding]));
+  }
+
+  private int takeChangedInputs(int source) {
+    GamepadSnapshot snapshot = snapshots[source];
+    int changed = snapshot.getButtons() ^ seenButtons[source];
+    seenButtons[source] = snapshot.getButtons();
+
+    float[] seen = seenAxes[source];
+    for (int axis = 0; axis < GamepadSnapshot.AXIS_COUNT; axis++) {
+      float value = snapshot.getAxis(axis);
+      if (value != seen[axis]) {
+        seen[axis] = value;
+        changed |= 1 << (GamepadSnapshot.BUTTON_COUNT + axis);
+      }
+    }
+    return changed;
+  }
+
+  private int addSnapshot(GamepadSnapshot snapshot) {
+    for (int source = 0; source < snapshotCount; source++) {
+      if (snapshots[source] == snapshot) {
+        return source;
+      }
+    }
+
+    if (snapshotCount == snapshots.length) {
+      int capacity = snapshots.length * 2;
+      snapshots = Arrays.copyOf(snapshots, capacity);
+      seenButtons = Arrays.copyOf(seenButtons, capacity);
+      seenAxes = Arrays.copyOf(seenAxes, capacity);
+      bindingsByInput = Arrays.copyOf(bindingsByInput, capacity);
+    }
+
+    int source = snapshotCount++;
+    snapshots[source] = snapshot;
+    seenButtons[source] = snapshot.getButtons();
+    seenAxes[source] = new float[GamepadSnapshot.AXIS_COUNT];
+    for (int axis = 0; axis < GamepadSnapshot.AXIS_COUNT; axis++) {
+      seenAxes[source][axis] = snapshot.getAxis(axis);
+    }
+    return source;
+  }
+
+  private void buildIndex() {
+    int[][] counts = new int[snapshotCount][INPUT_COUNT];
+    polledCount = 0;
+    for (int binding = 0; binding < bindingCount; binding++) {
+      if (sources[binding] < 0) {
+        polled[polledCount++] = binding;
+      } else {
+        counts[sources[binding]][inputs[binding]]++;
+      }
+    }
+
+    for (int source = 0; source < snapshotCount; source++) {
+      bindingsByInput[source] = new int[INPUT_COUNT][];
+      for (int input = 0; input < INPUT_COUNT; input++) {
+        int count = counts[source][input];
+        bindingsByInput[source][input] = count == 0 ? NO_BINDINGS : new int[count];
+        counts[source][input] = 0;
+      }
+    }
+    for (int binding = 0; binding < bindingCount; binding++) {
+      int source = sources[binding];
+      if (source >= 0) {
+        bindingsByInput[source][inputs[binding]][counts[source][inputs[binding]]++] = binding;
+      }
+    }
+
+    // Bindings registered while pressed, or with a debounce pending, wait from the start
+    waitingCount = 0;
+    for (int binding = 0; binding < bindingCount; binding++) {
+      if (isWaiting(binding)) {
+        waiting[waitingCount++] = binding;
+      }
+    }
+    indexed = true;
+  }
+
+  private void press(int binding, long now) {
+    pressedAt[binding] = now;
+    held[binding] = false;
+
+    switch (triggers[binding]) {
+      case RISING:
+        callbacks[binding].run();
+        break;
+      case DOUBLE_TAP:
+        if (dueAt[binding] != NEVER && now - dueAt[binding] <= periods[binding]) {
+          dueAt[binding] = NEVER;
+          callbacks[binding].run();
+        } else {
+          dueAt[binding] = now;
+        }
+        break;
+      case REPEAT:
+        dueAt[binding] = now + periods[binding];
+        callbacks[binding].run();
+        break;
+      default:
+        break;
+    }
+  }
+
+  private void release(int binding) {
+    if (triggers[binding] == Trigger.FALLING) {
+      callbacks[binding].run();
+    }
+  }
+
+  private void whilePressed(int binding, long now) {
+    if (triggers[binding] == Trigger.HOLD) {
+      if (!held[binding] && now - pressedAt[binding] >= periods[binding]) {
+        held[binding] = true;
+        callbacks[binding].run();
+      }
+    } else if (triggers[binding] == Trigger.REPEAT && now - dueAt[binding] >= 0) {
+      // A slow loop repeats once, rather than catching up on every missed interval
+      dueAt[binding] = Math.max(dueAt[binding] + periods[binding], now + 1);
+      callbacks[binding].run();
+    }
+  }
+
+  private boolean read(int binding) {
+    double value;
+    int source = sources[binding];
+    if (source >= 0) {
+      int input = inputs[binding];
+      if (input < GamepadSnapshot.BUTTON_COUNT) {
+        return (snapshots[source].getButtons() & (1 << input)) != 0;
+      }
+      value = snapshots[source].getAxis(input - GamepadSnapshot.BUTTON_COUNT);
+    } else if (axes[binding] != null) {
+      value = axes[binding].getAsDouble();
+    } else {
+      return buttons[binding].getAsBoolean();
+    }
+
+    double threshold = thresholds[binding];
+    double releaseThreshold = candidates[binding]
+        ? threshold - Math.copySign(ANALOG_HYSTERESIS, threshold) : threshold;
+    return threshold >= 0 ? value >= releaseThreshold : value <= releaseThreshold;
+  }
+
+  private void sample(int binding) {
+    boolean state = read(binding);
+    states[binding] = state;
+    candidates[binding] = state;
+  }
+
+  private int add(Trigger trigger, long timeMs, Runnable callback) {
+    if (timeMs < 0 || (trigger == Trigger.REPEAT && timeMs == 0)) {
+      throw new IllegalArgumentException("Invalid time for " + trigger + ": " + timeMs);
+    }
+    if (bindingCount == triggers.length) {
+      grow(triggers.length * 2);
+    }
+
+    int binding = bindingCount++;
+    triggers[binding] = trigger;
+    actions[binding] = callback;
+    callbacks[binding] = callback;
+    buttons[binding] = null;
+    axes[binding] = null;
+    thresholds[binding] = 0;
+    periods[binding] = TimeUnit.MILLISECONDS.toNanos(timeMs);
+    debounces[binding] = 0;
+    candidates[binding] = false;
+    candidateSince[binding] = 0;
+    dueAt[binding] = NEVER;
+    held[binding] = false;
+    sources[binding] = -1;
+    inputs[binding] = -1;
+    evaluatedAt[binding] = 0;
+    indexed = false;
+    return binding;
+  }
+
+  private void grow(int capacity) {
+    triggers = Arrays.copyOf(triggers, capacity);
+    buttons = Arrays.copyOf(buttons, capacity);
+    axes = Arrays.copyOf(axes, capacity);
+    thresholds = Arrays.copyOf(thresholds, capacity);
+    actions = Arrays.copyOf(actions, capacity);
+    callbacks = Arrays.copyOf(callbacks, capacity);
+    periods = Arrays.copyOf(periods, capacity);
+    debounces = Arrays.copyOf(debounces, capacity);
+    states = Arrays.copyOf(states, capacity);
+    candidates = Arrays.copyOf(candidates, capacity);
+    candidateSince = Arrays.copyOf(candidateSince, capacity);
+    pressedAt = Arrays.copyOf(pressedAt, capacity);
+    dueAt = Arrays.copyOf(dueAt, capacity);
+    held = Arrays.copyOf(held, capacity);
+    sources = Arrays.copyOf(sources, capacity);
+    inputs = Arrays.copyOf(inputs, capacity);
+    polled = Arrays.copyOf(polled, capacity);
+    waiting = Arrays.copyOf(waiting, capacity);
+    stillWaiting = Arrays.copyOf(stillWaiting, capacity);
+    evaluatedAt = Arrays.copyOf(evaluatedAt, capacity);
+  }
+}
@@ -0,0 +1,219 @@
+package com.andoverrobotics.core.utilities;
+
+/**
+ * A precomputed one-dimensional motion profile: the position, velocity and acceleration over time
+ * of a move of a given distance that respects limits on velocity, acceleration and, for S-curve
+ * profiles, jerk. <p> A trapezoidal profile accelerates at the maximum acceleration, cruises at the
+ * maximum velocity, and decelerates symmetrically; short moves never reach the maximum velocity
+ * and have a triangular velocity. An S-curve profile also limits the rate of change of the
+ * acceleration, which reduces wheel slip further. <p> The profile is sampled at a fixed period when
+ * it is created, and the getters interpolate between samples, so that reading the profile on every
+ * control-loop iteration does not allocate. Units are those of the arguments, such as encoder
+ * ticks and seconds.
+ */
+public final class MotionProfile {
+
+  /**
+   * The default period between two precomputed samples, in seconds.
+   */
+  public static final double DEFAULT_SAMPLE_PERIOD = 0.01;
+
+  private final double distance, duration, samplePeriod;
+  private final double[] positions, velocities, accelerations;
+
+  private MotionProfile(double distance, double samplePeriod, double[] durations,
+      double[] startAccelerations, double[] jerks) {
+    this.distance = distance;
+    this.samplePeriod = samplePeriod;
+
+    double total = 0;
+    for (double segmentDuration : durations) {
+      total += segmentDuration;
+    }
+    duration = total;
+
+    int sampleCount = (int) Math.ceil(duration / samplePeriod - 1e-9) + 1;
+    positions = new double[sampleCount];
+    velocities = new double[sampleCount];
+    accelerations = new double[sampleCount];
+
+    double sign = Math.signum(distance);
+    int segment = 0;
+    double segmentStart = 0, startPosition = 0, startVelocity = 0;
+    for (int i = 0; i < sampleCount; i++) {
+      double time = Math.min(i * samplePeriod, duration);
+
+      // Advance to the segment containing this time, integrating each segment that is passed
+      while (segment < durations.length - 1 && time > segmentStart + durations[segment]) {
+        double t = durations[segment], a = startAccelerations[segment], j = jerks[segment];
+        startPosition += startVelocity * t + a * t * t / 2 + j * t * t * t / 6;
+        startVelocity += a * t + j * t * t / 2;
+        segmentStart += t;
+        segment++;
+      }
+
+      double t = durations.length == 0 ? 0 : time - segmentStart;
+      double a = durations.length == 0 ? 0 : startAccelerations[segment],
+          j = durations.length == 0 ? 0 : jerks[segment];
+      positions[i] = sign * (startPosition + startVelocity * t + a * t * t / 2 + j * t * t * t / 6);
+      velocities[i] = sign * (startVelocity + a * t + j * t * t / 2);
+      accelerations[i] = sign * (a + j * t);
+    }
+
+    // Remove the rounding error accumulated by the integration
+    int last = sampleCount - 1;
+    positions[last] = distance;
+    velocities[last] = 0;
+    accelerations[last] = 0;
+  }
+
+  /**
+   * Creates a trapezoidal profile sampled every {@link #DEFAULT_SAMPLE_PERIOD} seconds.
+   *
+   * @param distance The signed distance to travel
+   * @param maxVelocity The maximum velocity; must be positive
+   * @param maxAcceleration The maximum acceleration and deceleration; must be positive
+   * @return The new profile
+   * @throws IllegalArgumentException if a limit is not positive
+   */
+  public static MotionProfile trapezoidal(double distance, double maxVelocity,
+      double maxAcceleration) {
+    requirePositive(maxVelocity, maxAcceleration);
+    double length = Math.abs(distance);
+
+    double peakVelocity = Math.min(maxVelocity, Math.sqrt(length * maxAcceleration));
+    double accelerationTime = peakVelocity / maxAcceleration;
+    double cruiseTime = peakVelocity == 0 ? 0
+        : (length - peakVelocity * accelerationTime) / peakVelocity;
+
+    return new MotionProfile(distance, DEFAULT_SAMPLE_PERIOD,
+        new double[] {accelerationTime, Math.max(0, cruiseTime), accelerationTime},
+        new double[] {maxAcceleration, 0, -maxAcceleration},
+        new double[] {0, 0, 0});
+  }
+
+  /**
+   * Creates a jerk-limited S-curve profile sampled every {@link #DEFAULT_SAMPLE_PERIOD} seconds.
+   *
+   * @param distance The signed distance to travel
+   * @param maxVelocity The maximum velocity; must be positive
+   * @param maxAcceleration The maximum acceleration and deceleration; must be positive
+   * @param maxJerk The maximum rate of change of the acceleration; must be positive
+   * @return The new profile
+   * @throws IllegalArgumentException if a limit is not positive
+   */
+  public static MotionProfile sCurve(double distance, double maxVelocity, double maxAcceleration,
+      double maxJerk) {
+    requirePositive(maxVelocity, maxAcceleration, maxJerk);
+    double length = Math.abs(distance);
+
+    // The acceleration phase is symmetric, so it covers peakVelocity * its duration / 2; find the
+    // highest peak velocity for which both phases fit in the distance
+    double peakVelocity = maxVelocity;
+    if (2 * accelerationDistance(maxVelocity, maxAcceleration, maxJerk) > length) {
+      double low = 0, high = maxVelocity;
+      for (int i = 0; i < 100; i++) {
+        double middle = (low + high) / 2;
+        if (2 * accelerationDistance(middle, maxAcceleration, maxJerk) > length) {
+          high = middle;
+        } else {
+          low = middle;
+        }
+      }
+      peakVelocity = low;
+    }
+
+    double peakAcceleration = Math.min(maxAcceleration, Math.sqrt(peakVelocity * maxJerk));
+    double jerkTime = peakAcceleration / maxJerk;
+    double constantTime = peakAcceleration == 0 ? 0
+        : Math.max(0, peakVelocity / peakAcceleration - jerkTime);
+    double cruiseTime = peakVelocity == 0 ? 0
+        : Math.max(0, (length - 2 * accelerationDistance(peakVelocity, maxAcceleration, maxJerk))
+            / peakVelocity);
+
+    return new MotionProfile(distance, DEFAULT_SAMPLE_PERIOD,
+        new double[] {jerkTime, constantTime, jerkTime, cruiseTime, jerkTime, constantTime,
+            jerkTime},
+        new double[] {0, peakAcceleration, peakAcceleration, 0, 0, -peakAcceleration,
+            -peakAcceleration},
+        new double[] {maxJerk, 0, -maxJerk, 0, -maxJerk, 0, maxJerk});
+  }
+
+  // The distance covered while accelerating from rest to the given velocity with limited jerk
+  private static double accelerationDistance(double velocity, double maxAcceleration,
+      double maxJerk) {
+    double time = velocity * maxJerk >= maxAcceleration * maxAcceleration
+        ? velocity / maxAcceleration + maxAcceleration / maxJerk
+        : 2 * Math.sqrt(velocity / maxJerk);
+    return velocity * time / 2;
+  }
+
+  private static void requirePositive(double... limits) {
+    for (double limit : limits) {
+      if (!(limit > 0)) {
+        throw new IllegalArgumentException("Profile limits must be positive: " + limit);
+      }
+    }
+  }
+
+  /**
+   * @return The signed distance of the move
+   */
+  public double getDistance() {
+    return distance;
+  }
+
+  /**
+   * @return The duration of the move, in seconds
+   */
+  public double getDuration() {
+    return duration;
+  }
+
+  /**
+   * @return The number of precomputed samples
+   */
+  public int getSampleCount() {
+    return positions.length;
+  }
+
+  /**
+   * @param time The time since the start of the move, in seconds
+   * @return The position at the given time; before the start it is 0, and after the end it is the
+   * distance
+   */
+  public double getPosition(double time) {
+    return interpolate(positions, time);
+  }
+
+  /**
+   * @param time The time since the start of the move, in seconds
+   * @return The velocity at the given time, which is 0 outside of the move
+   */
+  public double getVelocity(double time) {
+    return interpolate(velocities, time);
+  }
+
+  /**
+   * @param time The time since the start of the move, in seconds
+   * @return The acceleration at the given time, which is 0 outside of the move
+   */
+  public double getAcceleration(double time) {
+    return time < 0 ? 0 : interpolate(accelerations, time);
+  }
+
+  private double interpolate(double[] samples, double time) {
+    int last = samples.length - 1;
+    if (!(time > 0)) {
+      return samples[0];
+    }
+    if (time >= duration) {
+      return samples[last];
+    }
+
+    int index = Math.min((int) (time / samplePeriod), last - 1);
+    double startTime = index * samplePeriod, endTime = Math.min(startTime + samplePeriod, duration);
+    double fraction = (time - startTime) / (endTime - startTime);
+    return samples[index] + (samples[index + 1] - samples[index]) * fraction;
+  }
+}
@@ -0,0 +1,85 @@
+package com.andoverrobotics.core.utilities;
+
+/**
+ * Follows a {@link MotionProfile} in real time: on every control-loop iteration, {@link
+ * #update(double)} samples the profile at the time elapsed since {@link #start(MotionProfile,
+ * double)}, and the getters return the reference position, velocity and acceleration for that
+ * iteration. Updating does not allocate.
+ */
+public class MotionProfileFollower {
+
+  private MotionProfile profile;
+  private double startTime, elapsed;
+  private double position, velocity, acceleration;
+
+  /**
+   * Starts following the given profile.
+   *
+   * @param profile The profile to follow
+   * @param timeSeconds The current time, in seconds
+   */
+  public void start(MotionProfile profile, double timeSeconds) {
+    this.profile = profile;
+    startTime = timeSeconds;
+    update(timeSeconds);
+  }
+
+  /**
+   * Samples the profile at the given time.
+   *
+   * @param timeSeconds The current time, in seconds, on the same clock as given to {@link
+   * #start(MotionProfile, double)}
+   * @throws IllegalStateException if no profile has been started
+   */
+  public void update(double timeSeconds) {
+    if (profile == null) {
+      throw new IllegalStateException("No profile has been started");
+    }
+    elapsed = timeSeconds - startTime;
+    position = profile.getPosition(elapsed);
+    velocity = profile.getVelocity(elapsed);
+    acceleration = profile.getAcceleration(elapsed);
+  }
+
+  /**
+   * @return The profile being followed, or null if none has been started
+   */
+  public MotionProfile getProfile() {
+    return profile;
+  }
+
+  /**
+   * @return The time elapsed since the start of the profile at the last update, in seconds
+   */
+  public double getElapsed() {
+    return elapsed;
+  }
+
+  /**
+   * @return True if the last update was at or after the end of the profile
+   */
+  public boolean isComplete() {
+    return profile != null && elapsed >= profile.getDuration();
+  }
+
+  /**
+   * @return The reference position at the last update
+   */
+  public double getPosition() {
+    return position;
+  }
+
+  /**
+   * @return The reference velocity at the last update
+   */
+  public double getVelocity() {
+    return velocity;
+  }
+
+  /**
+   * @return The reference acceleration at the last update
+   */
+  public double getAcceleration() {
+    return acceleration;
+  }
+}
@@ -1,6 +1,8 @@
 package com.andoverrobotics.core.utilities;
 
+import com.andoverrobotics.core.diagnostics.LoopProfiler;
 import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
 import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
 
 /**
@@ -8,6 +10,9 @@ import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
  */
 public class MotorAdapter extends CachedMotor implements IMotor {
 
+  private final MotorReadCache readCache;
+  private final int readSlot;
+
   /**
    * Creates a new MotorAdapter for the given motor.
    *
@@ -15,15 +20,112 @@ public class MotorAdapter extends CachedMotor implements IMotor {
    */
   public MotorAdapter(DcMotor motor) {
     super(motor);
+    readCache = null;
+    readSlot = -1;
+  }
+
+  /**
+   * Creates a new MotorAdapter for the given motor, whose reads are served by the given cache.
+   *
+   * @param motor The motor to send commands to
+   * @param readCache The cache that takes per-loop snapshots of the motor's state
+   */
+  public MotorAdapter(DcMotor motor, MotorReadCache readCache) {
+    super(motor);
+    this.readCache = readCache;
+    readSlot = readCache.register(motor);
   }
   
   @Override
   public void addTargetPosition(int tickOffset) {
-    setTargetPosition(motor.getCurrentPosition() + tickOffset);
+    setTargetPosition(getCurrentPosition() + tickOffset);
+  }
+
+  // A target position or mode that reaches the motor changes its busy state, and an encoder reset
+  // its position, so this motor's snapshot no longer holds. Writes dropped as duplicates or queued
+  // in a command buffer leave it in place.
+
+  @Override
+  boolean writeTargetPosition(int pos) {
+    boolean written = super.writeTargetPosition(pos);
+    if (written && readCache != null) {
+      readCache.invalidate(readSlot);
+    }
+    return written;
+  }
+
+  @Override
+  boolean writeMode(RunMode runMode) {
+    boolean written = super.writeMode(runMode);
+    if (written && readCache != null) {
+      readCache.invalidate(readSlot);
+    }
+    return written;
+  }
+
+  @Override
+  public void invalidateReads() {
+    if (readCache != null) {
+      readCache.invalidate();
+    }
+  }
+
+  @Override
+  public int getCurrentPosition() {
+    if (readCache == null) {
+      long start = startTiming();
+      int position = motor.getCurrentPosition();
+      stopTiming(LoopProfiler.MOTOR_READS, start);
+      return position;
+    }
+    boolean cached = readCache.isValid(readSlot);
+    long start = startCounting();
+    int position = readCache.getCurrentPosition(readSlot);
+    countRead(cached, start);
+    return position;
   }
 
   @Override
   public boolean isBusy() {
-    return motor.isBusy();
+    if (readCache == null) {
+      long start = startTiming();
+      boolean busy = motor.isBusy();
+      stopTiming(LoopProfiler.MOTOR_READS, start);
+      return busy;
+    }
+    boolean cached = readCache.isValid(readSlot);
+    long start = startCounting();
+    boolean busy = readCache.isBusy(readSlot);
+    countRead(cached, start);
+    return busy;
+  }
+
+  /**
+   * Reads the velocity of the motor, from the read cache if there is one.
+   *
+   * @return The velocity in encoder ticks per second
+   * @throws UnsupportedOperationException if there is no read cache and the motor is not a {@link
+   * DcMotorEx}
+   */
+  @Override
+  public double getVelocity() {
+    if (readCache != null) {
+      boolean cached = readCache.isValid(readSlot);
+      if (!cached && !(motor instanceof DcMotorEx)) {
+        // An estimate from the last snapshots is neither a hardware read nor a cache hit
+        return readCache.getVelocity(readSlot);
+      }
+      long start = startCounting();
+      double velocity = readCache.getVelocity(readSlot);
+      countRead(cached, start);
+      return velocity;
+    }
+    if (!(motor instanceof DcMotorEx)) {
+      throw new UnsupportedOperationException("Velocity reads need a DcMotorEx: " + motor);
+    }
+    long start = startTiming();
+    double velocity = ((DcMotorEx) motor).getVelocity();
+    stopTiming(LoopProfiler.MOTOR_READS, start);
+    return velocity;
   }
 }
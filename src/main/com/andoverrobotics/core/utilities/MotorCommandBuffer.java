@@ -0,0 +1,253 @@
+package com.andoverrobotics.core.utilities;
+
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import java.util.Arrays;
+
+/**
+ * Queues the writes made to a set of {@link CachedMotor}s during one control-loop iteration and
+ * sends them together in {@link #flush()}. <p> Between {@link #begin()} and {@link #flush()}, every
+ * <code>setPower</code>, <code>setVelocity</code>, <code>setTargetPosition</code> and
+ * <code>setMode</code> call on a motor attached through {@link
+ * CachedMotor#setCommandBuffer(MotorCommandBuffer)} is queued instead of sent. Only the last value
+ * of each field of each motor is kept, and values equal to what the motor already has are dropped.
+ * A velocity and a power both set the motor's output, so they share one field: whichever was
+ * written last is sent, and velocities count as power writes in the {@link FlushReport}. The flush
+ * sends all target positions first, then all modes, then all powers and velocities, since the SDK
+ * requires a target position before switching to {@link RunMode#RUN_TO_POSITION}, and a velocity
+ * only holds in a mode that uses the encoder. <p> {@link RunMode#STOP_AND_RESET_ENCODER} is never
+ * queued, because a later mode change in the same iteration would otherwise swallow the reset.
+ * <p> While no transaction is open, writes are sent right away, as if the motors had no buffer.
+ */
+public class MotorCommandBuffer {
+
+  private static final int POWER = 0, TARGET_POSITION = 1, MODE = 2, FIELD_COUNT = 3;
+  private static final String[] FIELD_NAMES = {"power", "targetPosition", "mode"};
+
+  /**
+   * Summarizes the writes sent and avoided by one {@link #flush()}. The same instance is reused by
+   * every flush of a buffer.
+   */
+  public static final class FlushReport {
+
+    private final int[] sent = new int[FIELD_COUNT], avoided = new int[FIELD_COUNT];
+
+    private FlushReport() {
+    }
+
+    /**
+     * @return The number of writes sent to the motors
+     */
+    public int getWritesSent() {
+      return sent[POWER] + sent[TARGET_POSITION] + sent[MODE];
+    }
+
+    /**
+     * @return The number of writes that were requested but not sent, either because a later write
+     * to the same field replaced them or because the motor already had the value
+     */
+    public int getWritesAvoided() {
+      return avoided[POWER] + avoided[TARGET_POSITION] + avoided[MODE];
+    }
+
+    /**
+     * @return The number of power writes sent to the motors
+     */
+    public int getPowerWritesSent() {
+      return sent[POWER];
+    }
+
+    /**
+     * @return The number of target position writes sent to the motors
+     */
+    public int getTargetPositionWritesSent() {
+      return sent[TARGET_POSITION];
+    }
+
+    /**
+     * @return The number of mode writes sent to the motors
+     */
+    public int getModeWritesSent() {
+      return sent[MODE];
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder builder = new StringBuilder("sent ")
+          .append(getWritesSent()).append(", avoided ").append(getWritesAvoided());
+      for (int field = 0; field < FIELD_COUNT; field++) {
+        builder.append("; ").append(FIELD_NAMES[field])
+            .append(": sent ").append(sent[field])
+            .append(", avoided ").append(avoided[field]);
+      }
+      return builder.toString();
+    }
+  }
+
+  private final FlushReport report = new FlushReport();
+  // Writes made outside of flush() during the transaction, reported by the next flush
+  private final int[] carriedSent = new int[FIELD_COUNT], carriedAvoided = new int[FIELD_COUNT];
+
+  private CachedMotor[] motors = new CachedMotor[4];
+  // Holds a velocity instead of a power where pendingVelocities is set
+  private double[] pendingPowers = new double[4];
+  private boolean[] pendingVelocities = new boolean[4];
+  private int[] pendingTargetPositions = new int[4];
+  private RunMode[] pendingModes = new RunMode[4];
+  private boolean[][] pending = new boolean[FIELD_COUNT][4];
+  private int[][] requests = new int[FIELD_COUNT][4];
+  private int motorCount = 0;
+
+  private boolean open = false;
+
+  /**
+   * Opens a transaction, so that writes to the attached motors are queued until {@link #flush()}.
+   */
+  public void begin() {
+    open = true;
+  }
+
+  /**
+   * @return True if a transaction is open
+   */
+  public boolean isOpen() {
+    return open;
+  }
+
+  /**
+   * Sends the queued writes in the order target positions, modes, powers and velocities, and
+   * closes the transaction.
+   *
+   * @return The report of this flush, which is overwritten by the next flush
+   */
+  public FlushReport flush() {
+    open = false;
+    for (int field = 0; field < FIELD_COUNT; field++) {
+      report.sent[field] = carriedSent[field];
+      report.avoided[field] = carriedAvoided[field];
+    }
+    Arrays.fill(carriedSent, 0);
+    Arrays.fill(carriedAvoided, 0);
+
+    for (int slot = 0; slot < motorCount; slot++) {
+      if (pending[TARGET_POSITION][slot]) {
+        record(TARGET_POSITION, slot,
+            motors[slot].writeTargetPosition(pendingTargetPositions[slot]));
+      }
+    }
+    for (int slot = 0; slot < motorCount; slot++) {
+      if (pending[MODE][slot]) {
+        record(MODE, slot, motors[slot].writeMode(pendingModes[slot]));
+        pendingModes[slot] = null;
+      }
+    }
+    for (int slot = 0; slot < motorCount; slot++) {
+      if (pending[POWER][slot]) {
+        CachedMotor motor = motors[slot];
+        record(POWER, slot, pendingVelocities[slot]
+            ? motor.writeVelocity(pendingPowers[slot]) : motor.writePower(pendingPowers[slot]));
+      }
+    }
+
+    return report;
+  }
+
+  /**
+   * @return The report of the most recent flush
+   */
+  public FlushReport getLastReport() {
+    return report;
+  }
+
+  int register(CachedMotor motor) {
+    for (int slot = 0; slot < motorCount; slot++) {
+      if (motors[slot] == motor) {
+        return slot;
+      }
+    }
+
+    if (motorCount == motors.length) {
+      int capacity = motors.length * 2;
+      motors = Arrays.copyOf(motors, capacity);
+      pendingPowers = Arrays.copyOf(pendingPowers, capacity);
+      pendingVelocities = Arrays.copyOf(pendingVelocities, capacity);
+      pendingTargetPositions = Arrays.copyOf(pendingTargetPositions, capacity);
+      pendingModes = Arrays.copyOf(pendingModes, capacity);
+      for (int field = 0; field < FIELD_COUNT; field++) {
+        pending[field] = Arrays.copyOf(pending[field], capacity);
+        requests[field] = Arrays.copyOf(requests[field], capacity);
+      }
+    }
+
+    motors[motorCount] = motor;
+    return motorCount++;
+  }
+
+  void queuePower(int slot, double power) {
+    pendingPowers[slot] = power;
+    pendingVelocities[slot] = false;
+    queue(POWER, slot);
+  }
+
+  void queueVelocity(int slot, double ticksPerSecond) {
+    pendingPowers[slot] = ticksPerSecond;
+    pendingVelocities[slot] = true;
+    queue(POWER, slot);
+  }
+
+  void queueTargetPosition(int slot, int targetPosition) {
+    pendingTargetPositions[slot] = targetPosition;
+    queue(TARGET_POSITION, slot);
+  }
+
+  void queueMode(int slot, RunMode mode) {
+    pendingModes[slot] = mode;
+    queue(MODE, slot);
+  }
+
+  void writeModeImmediately(int slot, RunMode mode) {
+    carriedAvoided[MODE] += requests[MODE][slot];
+    pending[MODE][slot] = false;
+    requests[MODE][slot] = 0;
+    pendingModes[slot] = null;
+
+    if (motors[slot].writeMode(mode)) {
+      carriedSent[MODE]++;
+    } else {
+      carriedAvoided[MODE]++;
+    }
+  }
+
+  boolean hasPendingPower(int slot) {
+    return pending[POWER][slot] && !pendingVelocities[slot];
+  }
+
+  double getPendingPower(int slot) {
+    return pendingPowers[slot];
+  }
+
+  boolean hasPendingTargetPosition(int slot) {
+    return pending[TARGET_POSITION][slot];
+  }
+
+  int getPendingTargetPosition(int slot) {
+    return pendingTargetPositions[slot];
+  }
+
+  RunMode getPendingMode(int slot) {
+    return pendingModes[slot];
+  }
+
+  private void queue(int field, int slot) {
+    pending[field][slot] = true;
+    requests[field][slot]++;
+  }
+
+  private void record(int field, int slot, boolean written) {
+    int sent = written ? 1 : 0;
+    report.sent[field] += sent;
+    report.avoided[field] += requests[field][slot] - sent;
+
+    pending[field][slot] = false;
+    requests[field][slot] = 0;
+  }
+}
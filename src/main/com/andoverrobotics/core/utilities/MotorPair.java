@@ -1,19 +1,25 @@
 package com.andoverrobotics.core.utilities;
 
+import com.andoverrobotics.core.diagnostics.LoopProfiler;
+import com.andoverrobotics.core.diagnostics.MotorCallCounters;
 import com.qualcomm.robotcore.hardware.DcMotor;
 import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
 
 /**
  * Implements the {@link IMotor} interface for the collective control of two physical motors.
+ * <p> Each motor is wrapped in a {@link MotorAdapter}, so that, as with a {@link CachedMotor},
+ * writes of a value that a motor already has are not sent.
  */
 public class MotorPair implements IMotor {
 
-  private DcMotor first;
-  private DcMotor second;
+  private final MotorAdapter first;
+  private final MotorAdapter second;
 
-  private MotorPair(DcMotor first, DcMotor second) {
-    this.first = first;
-    this.second = second;
+  private MotorPair(DcMotor first, DcMotor second, MotorReadCache readCache) {
+    this.first = readCache == null ? new MotorAdapter(first) : new MotorAdapter(first, readCache);
+    this.second =
+        readCache == null ? new MotorAdapter(second) : new MotorAdapter(second, readCache);
   }
 
   /**
@@ -24,7 +30,42 @@ public class MotorPair implements IMotor {
    * @return The new MotorPair
    */
   public static MotorPair of(DcMotor one, DcMotor two) {
-    return new MotorPair(one, two);
+    return new MotorPair(one, two, null);
+  }
+
+  /**
+   * Creates a MotorPair whose reads are served by the given cache.
+   *
+   * @param one The first motor in a pair
+   * @param two The second motor in a pair
+   * @param readCache The cache that takes per-loop snapshots of the motors' state
+   * @return The new MotorPair
+   */
+  public static MotorPair of(DcMotor one, DcMotor two, MotorReadCache readCache) {
+    return new MotorPair(one, two, readCache);
+  }
+
+  /**
+   * Counts the writes and reads of each motor of this pair, and the time spent in the SDK, under
+   * the given names. Motors given the same name share a counter.
+   *
+   * @param counters The counters to count calls in, or null to stop counting
+   * @param firstName The name of the first motor
+   * @param secondName The name of the second motor
+   */
+  public void setCallCounters(MotorCallCounters counters, String firstName, String secondName) {
+    first.setCallCounters(counters, firstName);
+    second.setCallCounters(counters, secondName);
+  }
+
+  /**
+   * Times the hardware calls of both motors in the given profiler.
+   *
+   * @param profiler The profiler to record in, or null to stop timing
+   */
+  public void setProfiler(LoopProfiler profiler) {
+    first.setProfiler(profiler);
+    second.setProfiler(profiler);
   }
 
   @Override
@@ -33,10 +74,39 @@ public class MotorPair implements IMotor {
     second.setPower(power);
   }
 
+  /**
+   * Sets the velocity of both motors.
+   *
+   * @param ticksPerSecond The new velocity, in encoder ticks per second
+   * @throws UnsupportedOperationException if either motor is not a {@link DcMotorEx}
+   */
+  @Override
+  public void setVelocity(double ticksPerSecond) {
+    first.setVelocity(ticksPerSecond);
+    second.setVelocity(ticksPerSecond);
+  }
+
+  /**
+   * Reads the average velocity of both motors, from the read cache if there is one.
+   *
+   * @return The average velocity in encoder ticks per second
+   * @throws UnsupportedOperationException if there is no read cache and either motor is not a
+   * {@link DcMotorEx}
+   */
+  @Override
+  public double getVelocity() {
+    return (first.getVelocity() + second.getVelocity()) / 2;
+  }
+
   @Override
   public void addTargetPosition(int position) {
-    first.setTargetPosition(first.getCurrentPosition() + position);
-    second.setTargetPosition(second.getCurrentPosition() + position);
+    first.addTargetPosition(position);
+    second.addTargetPosition(position);
+  }
+
+  @Override
+  public int getCurrentPosition() {
+    return (first.getCurrentPosition() + second.getCurrentPosition()) / 2;
   }
 
   @Override
@@ -45,6 +115,12 @@ public class MotorPair implements IMotor {
     second.setMode(mode);
   }
 
+  @Override
+  public void invalidateReads() {
+    first.invalidateReads();
+    second.invalidateReads();
+  }
+
   @Override
   public boolean isBusy() {
     return first.isBusy() || second.isBusy();
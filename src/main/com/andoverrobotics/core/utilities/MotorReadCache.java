@@ -0,0 +1,286 @@
+package com.andoverrobotics.core.utilities;
+
+import com.andoverrobotics.core.diagnostics.LoopProfiler;
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Takes a snapshot of the encoder position, busy state and velocity of every registered motor once
+ * per control-loop iteration, so that the {@link IMotor}s built on top of it serve their reads from
+ * the snapshot instead of issuing a hub transaction per read. <p> Call {@link #refresh()} at the
+ * start of each iteration. Until the next refresh, or until {@link #invalidate()} is called, reads
+ * through {@link MotorAdapter} and {@link MotorPair} instances that were given this cache are
+ * served from the snapshot. While the cache is invalid, reads go straight to the hardware. <p> When
+ * created with {@link #fromHardware(HardwareMap)}, the cache also puts every Expansion Hub into
+ * manual bulk caching mode, so that each refresh costs a single bulk read per hub. <p> A {@link
+ * MotorAdapter} invalidates its own slot when a target position or a mode actually reaches its
+ * motor, so the other motors keep reading the snapshot, and the blocking moves of the DriveTrains
+ * invalidate the whole cache before every poll, so a move never sees a stale busy state. <p> A cache is not thread-safe: refresh it and read through it from one thread, usually
+ * the OpMode's. Do not read motors that use a cache from other threads, such as a started {@link
+ * com.andoverrobotics.core.drivetrain.PoseEstimator} or {@link
+ * com.andoverrobotics.core.drivetrain.DriveTrain#whenMotionComplete()}.
+ */
+public class MotorReadCache {
+
+  private final List<LynxModule> hubs;
+
+  private DcMotor[] motors = new DcMotor[4];
+  private int[] positions = new int[4], previousPositions = new int[4];
+  private boolean[] busy = new boolean[4];
+  // Slots whose motor was written since the refresh, and which read the hardware until the next
+  private boolean[] stale = new boolean[4];
+  private double[] velocities = new double[4];
+  private int motorCount = 0;
+
+  private boolean valid = false, hasPreviousSnapshot = false;
+  private long refreshNanos, previousRefreshNanos;
+
+  private long hardwareReads = 0, cachedReads = 0;
+
+  private LoopProfiler profiler;
+
+  /**
+   * Creates an empty MotorReadCache that does not manage the bulk caching mode of any hub.
+   */
+  public MotorReadCache() {
+    this(new ArrayList<>());
+  }
+
+  private MotorReadCache(List<LynxModule> hubs) {
+    this.hubs = hubs;
+  }
+
+  /**
+   * Creates an empty MotorReadCache that puts every Expansion Hub in the given map into manual bulk
+   * caching mode, and clears their bulk caches on every {@link #refresh()}.
+   *
+   * @param map The hardware map of the OpMode
+   * @return The new MotorReadCache
+   */
+  public static MotorReadCache fromHardware(HardwareMap map) {
+    List<LynxModule> hubs = map.getAll(LynxModule.class);
+    for (LynxModule hub : hubs) {
+      hub.setBulkCachingMode(LynxModule.BulkCachingMode.MANUAL);
+    }
+    return new MotorReadCache(hubs);
+  }
+
+  /**
+   * Times each {@link #refresh()}, and each read that goes to the hardware while the cache is
+   * invalid, in the {@link LoopProfiler#MOTOR_READS} section of the given profiler.
+   *
+   * @param profiler The profiler to record in, or null to stop timing
+   */
+  public void setProfiler(LoopProfiler profiler) {
+    this.profiler = profiler;
+  }
+
+  /**
+   * Adds the given motor to the set of motors read on every refresh. Registering a motor more than
+   * once returns the same slot. The new motor is not part of the snapshot until the next refresh.
+   *
+   * @param motor The motor to read
+   * @return The slot of the motor in this cache
+   */
+  public int register(DcMotor motor) {
+    for (int slot = 0; slot < motorCount; slot++) {
+      if (motors[slot] == motor) {
+        return slot;
+      }
+    }
+
+    if (motorCount == motors.length) {
+      int capacity = motors.length * 2;
+      motors = Arrays.copyOf(motors, capacity);
+      positions = Arrays.copyOf(positions, capacity);
+      previousPositions = Arrays.copyOf(previousPositions, capacity);
+      busy = Arrays.copyOf(busy, capacity);
+      stale = Arrays.copyOf(stale, capacity);
+      velocities = Arrays.copyOf(velocities, capacity);
+    }
+
+    motors[motorCount] = motor;
+    valid = false;
+    hasPreviousSnapshot = false;
+    return motorCount++;
+  }
+
+  /**
+   * Reads the encoder position, busy state and velocity of every registered motor, and serves
+   * subsequent reads from this snapshot until the next refresh or invalidation.
+   */
+  public void refresh() {
+    long start = startTiming();
+    for (int i = 0; i < hubs.size(); i++) {
+      hubs.get(i).clearBulkCache();
+    }
+
+    previousRefreshNanos = refreshNanos;
+    refreshNanos = System.nanoTime();
+    double elapsedSeconds = (refreshNanos - previousRefreshNanos) / 1e9;
+
+    for (int slot = 0; slot < motorCount; slot++) {
+      DcMotor motor = motors[slot];
+      previousPositions[slot] = positions[slot];
+      positions[slot] = motor.getCurrentPosition();
+      busy[slot] = motor.isBusy();
+      hardwareReads += 2;
+
+      if (motor instanceof DcMotorEx) {
+        velocities[slot] = ((DcMotorEx) motor).getVelocity();
+        hardwareReads++;
+      } else if (hasPreviousSnapshot && elapsedSeconds > 0) {
+        velocities[slot] = (positions[slot] - previousPositions[slot]) / elapsedSeconds;
+      } else {
+        velocities[slot] = 0;
+      }
+    }
+
+    Arrays.fill(stale, 0, motorCount, false);
+    valid = true;
+    hasPreviousSnapshot = true;
+    stopTiming(start);
+  }
+
+  /**
+   * Discards the current snapshot, so that reads go to the hardware until the next {@link
+   * #refresh()}. Call this after a write that changes the state being read, such as resetting the
+   * encoders, if the new state must be seen within the same iteration.
+   */
+  public void invalidate() {
+    valid = false;
+  }
+
+  /**
+   * Discards the snapshot of the motor in the given slot, so that its reads go to the hardware
+   * until the next {@link #refresh()}, while the other motors keep reading the snapshot.
+   *
+   * @param slot The slot returned by {@link #register(DcMotor)}
+   */
+  public void invalidate(int slot) {
+    stale[slot] = true;
+  }
+
+  /**
+   * @return True if reads are currently served from a snapshot
+   */
+  public boolean isValid() {
+    return valid;
+  }
+
+  /**
+   * @param slot The slot returned by {@link #register(DcMotor)}
+   * @return True if reads of the motor in the given slot are currently served from a snapshot
+   */
+  public boolean isValid(int slot) {
+    return valid && !stale[slot];
+  }
+
+  /**
+   * Reads the encoder position of the motor in the given slot.
+   *
+   * @param slot The slot returned by {@link #register(DcMotor)}
+   * @return The encoder position in the current snapshot, or read from the motor if the slot is
+   * invalid
+   */
+  public int getCurrentPosition(int slot) {
+    if (isValid(slot)) {
+      cachedReads++;
+      return positions[slot];
+    }
+    hardwareReads++;
+    long start = startTiming();
+    int position = motors[slot].getCurrentPosition();
+    stopTiming(start);
+    return position;
+  }
+
+  /**
+   * Reads the busy state of the motor in the given slot.
+   *
+   * @param slot The slot returned by {@link #register(DcMotor)}
+   * @return The busy state in the current snapshot, or read from the motor if the slot is invalid
+   */
+  public boolean isBusy(int slot) {
+    if (isValid(slot)) {
+      cachedReads++;
+      return busy[slot];
+    }
+    hardwareReads++;
+    long start = startTiming();
+    boolean isBusy = motors[slot].isBusy();
+    stopTiming(start);
+    return isBusy;
+  }
+
+  /**
+   * Reads the velocity of the motor in the given slot, in ticks per second. For motors that are
+   * not {@link DcMotorEx}, the velocity is derived from the positions of the last two snapshots.
+   *
+   * @param slot The slot returned by {@link #register(DcMotor)}
+   * @return The velocity in the current snapshot, or the most recent estimate if the slot is
+   * invalid
+   */
+  public double getVelocity(int slot) {
+    if (isValid(slot)) {
+      cachedReads++;
+      return velocities[slot];
+    }
+    DcMotor motor = motors[slot];
+    if (!(motor instanceof DcMotorEx)) {
+      // The estimate cannot be read from the hardware, so it avoids no read
+      return velocities[slot];
+    }
+    hardwareReads++;
+    long start = startTiming();
+    double velocity = ((DcMotorEx) motor).getVelocity();
+    stopTiming(start);
+    return velocity;
+  }
+
+  /**
+   * @return The number of registered motors
+   */
+  public int size() {
+    return motorCount;
+  }
+
+  /**
+   * @return The number of reads that went to the hardware, including those made by {@link
+   * #refresh()}
+   */
+  public long getHardwareReads() {
+    return hardwareReads;
+  }
+
+  /**
+   * @return The number of reads that were served from a snapshot, each of which would otherwise
+   * have been a hardware read
+   */
+  public long getReadsAvoided() {
+    return cachedReads;
+  }
+
+  /**
+   * Resets the read counters to zero.
+   */
+  public void resetCounters() {
+    hardwareReads = 0;
+    cachedReads = 0;
+  }
+
+  private long startTiming() {
+    return profiler == null ? 0 : profiler.start();
+  }
+
+  private void stopTiming(long start) {
+    if (profiler != null) {
+      profiler.stop(LoopProfiler.MOTOR_READS, start);
+    }
+  }
+}
@@ -0,0 +1,171 @@
+package com.andoverrobotics.core.utilities;
+
+import java.util.Arrays;
+
+/**
+ * A fixed number of independent PID controllers whose gains and state are kept in parallel
+ * primitive arrays, and which are all updated in one loop from a shared timestamp. <p> Each
+ * channel behaves exactly like a {@link PIDController} with the same gains and bounds that is
+ * given the same errors and times: the arithmetic is performed in the same order, so the outputs
+ * are bit-for-bit identical. Use a bank instead of separate controllers when many axes, such as
+ * every drive wheel and every lift motor, are controlled on each iteration.
+ */
+public class PIDBank {
+
+  private final int channelCount;
+  private final double[] kP, kI, kD;
+  private final double[] errorSum, prevError;
+  private final long[] prevTime;
+  private final boolean[] isInitialized;
+  private final double[] outputMin, outputMax, maxErrorSum;
+
+  /**
+   * Creates a bank of the given number of channels, each with zero gains and no bounds.
+   *
+   * @param channelCount The number of channels
+   * @throws IllegalArgumentException if the number of channels is negative
+   */
+  public PIDBank(int channelCount) {
+    if (channelCount < 0) {
+      throw new IllegalArgumentException("Channel count must not be negative: " + channelCount);
+    }
+    this.channelCount = channelCount;
+
+    kP = new double[channelCount];
+    kI = new double[channelCount];
+    kD = new double[channelCount];
+    errorSum = new double[channelCount];
+    prevError = new double[channelCount];
+    prevTime = new long[channelCount];
+    isInitialized = new boolean[channelCount];
+    outputMin = new double[channelCount];
+    outputMax = new double[channelCount];
+    maxErrorSum = new double[channelCount];
+
+    Arrays.fill(outputMin, Double.NEGATIVE_INFINITY);
+    Arrays.fill(outputMax, Double.POSITIVE_INFINITY);
+    Arrays.fill(maxErrorSum, Double.MAX_VALUE);
+  }
+
+  /**
+   * @return The number of channels in this bank
+   */
+  public int getChannelCount() {
+    return channelCount;
+  }
+
+  /**
+   * Sets the gains of the given channel.
+   *
+   * @param channel The index of the channel
+   * @param kP The proportional gain
+   * @param kI The integral gain
+   * @param kD The derivative gain
+   */
+  public void setGains(int channel, double kP, double kI, double kD) {
+    this.kP[channel] = kP;
+    this.kI[channel] = kI;
+    this.kD[channel] = kD;
+  }
+
+  /**
+   * Limits the output of the given channel, as {@link PIDController#boundOutput(double, double)}.
+   *
+   * @param channel The index of the channel
+   * @param min The minimum output
+   * @param max The maximum output
+   */
+  public void boundOutput(int channel, double min, double max) {
+    outputMin[channel] = min;
+    outputMax[channel] = max;
+  }
+
+  /**
+   * Limits the error sum of the given channel, as {@link PIDController#boundIntegral(double)}.
+   *
+   * @param channel The index of the channel
+   * @param max The maximum magnitude of the error sum
+   */
+  public void boundIntegral(int channel, double max) {
+    maxErrorSum[channel] = max;
+  }
+
+  /**
+   * Resets the state of every channel, keeping their gains and bounds.
+   */
+  public void reset() {
+    for (int channel = 0; channel < channelCount; channel++) {
+      reset(channel);
+    }
+  }
+
+  /**
+   * Resets the state of the given channel, keeping its gains and bounds.
+   *
+   * @param channel The index of the channel
+   */
+  public void reset(int channel) {
+    errorSum[channel] = 0;
+    prevError[channel] = 0;
+    prevTime[channel] = 0;
+    isInitialized[channel] = false;
+  }
+
+  /**
+   * Runs one iteration of every channel.
+   *
+   * @param errors The error of each channel; at least {@link #getChannelCount()} long
+   * @param time The time shared by every channel
+   * @param outputs The array into which the output of each channel is written; at least {@link
+   * #getChannelCount()} long
+   */
+  public void runIteration(double[] errors, long time, double[] outputs) {
+    for (int channel = 0; channel < channelCount; channel++) {
+      outputs[channel] = runChannel(channel, errors[channel], time);
+    }
+  }
+
+  /**
+   * Runs one iteration of the given channel only.
+   *
+   * @param channel The index of the channel
+   * @param error The error of the channel
+   * @param time The time of the iteration
+   * @return The output of the channel
+   */
+  public double runIteration(int channel, double error, long time) {
+    return runChannel(channel, error, time);
+  }
+
+  // Mirrors PIDController.runIteration operation for operation
+  private double runChannel(int channel, double error, long time) {
+    if (!isInitialized[channel]) {
+      isInitialized[channel] = true;
+      prevError[channel] = error;
+      prevTime[channel] = time;
+      return bounded(channel, error * kP[channel]);
+    }
+
+    long previousTime = prevTime[channel];
+    if (time <= previousTime) {
+      return bounded(channel, error * kP[channel] + errorSum[channel] * kI[channel]);
+    }
+
+    double previousError = prevError[channel];
+    double output = error * kP[channel];
+    double sum = errorSum[channel] + (previousError + error) * (time - previousTime) / 2;
+    sum = Math.min(Math.abs(sum), Math.abs(maxErrorSum[channel])) * Math.signum(sum);
+    errorSum[channel] = sum;
+    output += sum * kI[channel];
+    output += (error - previousError) / (time - previousTime) * kD[channel];
+
+    prevError[channel] = error;
+    prevTime[channel] = time;
+
+    return bounded(channel, output);
+  }
+
+  private double bounded(int channel, double output) {
+    return Math.max(outputMin[channel], Math.min(outputMax[channel], output));
+  }
+}
@@ -36,6 +36,9 @@ public class PIDController {
     if (!isInitialized)
       return initialIteration(error, time);
 
+    if (time <= prevTime)
+      return bounded(error * kP + errorSum * kI);
+
     double output = error * kP;
     errorSum += (prevError + error) * (time - prevTime) / 2;
     boundErrorSum();
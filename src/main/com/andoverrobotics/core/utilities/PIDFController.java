@@ -0,0 +1,262 @@
+package com.andoverrobotics.core.utilities;
+
+/**
+ * A PID controller with feedforward, intended for closed-loop control of mechanisms such as arms,
+ * lifts and drivetrains. Compared to {@link PIDController}, it adds:
+ * <ul>
+ * <li>a first-order low-pass filter on the derivative term, see {@link
+ * #setDerivativeFilter(double)};</li>
+ * <li>optional derivative on measurement, which avoids output spikes when the setpoint jumps, see
+ * {@link #setDerivativeOnMeasurement(boolean)};</li>
+ * <li>conditional integration: the integral does not grow while the output is saturated in the
+ * direction the integral would push it, which prevents windup without a hand-tuned clamp;</li>
+ * <li>static, velocity and acceleration feedforward, see {@link #setFeedforward(double, double,
+ * double)};</li>
+ * <li>gains that may change at runtime, directly or through a {@link GainSchedule}. The integral
+ * is accumulated with the integral gain already applied, so changing gains does not bump the
+ * output.</li>
+ * </ul>
+ * <p> Time is given in seconds by the caller on every iteration. An iteration whose time is not
+ * after the previous one does not change the controller's state and never divides by zero. No
+ * iteration allocates.
+ */
+public class PIDFController {
+
+  private double kP, kI, kD;
+  private double kS = 0, kV = 0, kA = 0;
+
+  private double derivativeTimeConstant = 0;
+  private boolean derivativeOnMeasurement = false;
+  private GainSchedule gainSchedule;
+
+  private double outputMin = Double.NEGATIVE_INFINITY, outputMax = Double.POSITIVE_INFINITY;
+  private double maxIntegral = Double.MAX_VALUE;
+
+  private double integral = 0, derivative = 0;
+  private double prevError, prevMeasurement, prevTime;
+  private boolean isInitialized = false;
+  private double error, output;
+
+  /**
+   * Creates a controller with the given gains and no feedforward.
+   *
+   * @param kP The proportional gain
+   * @param kI The integral gain, per second
+   * @param kD The derivative gain, in seconds
+   */
+  public PIDFController(double kP, double kI, double kD) {
+    setGains(kP, kI, kD);
+  }
+
+  /**
+   * Changes the PID gains, taking effect from the next iteration.
+   *
+   * @param kP The proportional gain
+   * @param kI The integral gain, per second
+   * @param kD The derivative gain, in seconds
+   */
+  public void setGains(double kP, double kI, double kD) {
+    this.kP = kP;
+    this.kI = kI;
+    this.kD = kD;
+  }
+
+  /**
+   * Sets the feedforward gains, which are applied to the reference velocity and acceleration given
+   * to {@link #calculate(double, double, double, double, double)} as <code>kS * sign(velocity) +
+   * kV * velocity + kA * acceleration</code>.
+   *
+   * @param kS The static gain, which overcomes friction whenever the reference is moving
+   * @param kV The velocity gain
+   * @param kA The acceleration gain
+   */
+  public void setFeedforward(double kS, double kV, double kA) {
+    this.kS = kS;
+    this.kV = kV;
+    this.kA = kA;
+  }
+
+  /**
+   * Sets the time constant of the low-pass filter applied to the derivative. A time constant of 0
+   * disables the filter; larger values reject more sensor noise at the cost of a slower derivative.
+   *
+   * @param timeConstantSeconds The time constant of the filter, in seconds
+   * @throws IllegalArgumentException if the time constant is negative
+   */
+  public void setDerivativeFilter(double timeConstantSeconds) {
+    if (timeConstantSeconds < 0) {
+      throw new IllegalArgumentException("Time constant must not be negative: "
+          + timeConstantSeconds);
+    }
+    derivativeTimeConstant = timeConstantSeconds;
+  }
+
+  /**
+   * Chooses whether the derivative is taken of the error (the default) or of the negated
+   * measurement. The two are equal while the setpoint is constant, but only the latter stays
+   * smooth when the setpoint jumps.
+   *
+   * @param onMeasurement True to take the derivative of the measurement
+   */
+  public void setDerivativeOnMeasurement(boolean onMeasurement) {
+    derivativeOnMeasurement = onMeasurement;
+  }
+
+  /**
+   * Sets the schedule consulted by {@link #schedule(double)}.
+   *
+   * @param schedule The schedule, or null to remove it
+   */
+  public void setGainSchedule(GainSchedule schedule) {
+    gainSchedule = schedule;
+  }
+
+  /**
+   * Sets the PID gains to those of the gain schedule at the given value of the scheduling variable.
+   * Call this before {@link #calculate(double, double, double)} on each iteration.
+   *
+   * @param input The current value of the scheduling variable
+   * @throws IllegalStateException if no gain schedule has been set
+   */
+  public void schedule(double input) {
+    if (gainSchedule == null) {
+      throw new IllegalStateException("No gain schedule has been set");
+    }
+    setGains(gainSchedule.getP(input), gainSchedule.getI(input), gainSchedule.getD(input));
+  }
+
+  /**
+   * Limits the output of the controller to the given range. While the output is at either limit,
+   * the integral does not grow further in that direction.
+   *
+   * @param min The minimum output
+   * @param max The maximum output
+   */
+  public void boundOutput(double min, double max) {
+    outputMin = min;
+    outputMax = max;
+  }
+
+  /**
+   * Limits the magnitude of the integral term, in output units.
+   *
+   * @param max The maximum magnitude of the integral term
+   */
+  public void boundIntegral(double max) {
+    maxIntegral = Math.abs(max);
+  }
+
+  /**
+   * Clears the integral, the derivative and the previous iteration.
+   */
+  public void reset() {
+    integral = 0;
+    derivative = 0;
+    error = 0;
+    output = 0;
+    isInitialized = false;
+  }
+
+  /**
+   * Runs one iteration without feedforward.
+   *
+   * @param setpoint The desired value of the process variable
+   * @param measurement The measured value of the process variable
+   * @param timeSeconds The time of the measurement, in seconds
+   * @return The bounded output
+   */
+  public double calculate(double setpoint, double measurement, double timeSeconds) {
+    return calculate(setpoint, measurement, 0, 0, timeSeconds);
+  }
+
+  /**
+   * Runs one iteration.
+   *
+   * @param setpoint The desired value of the process variable
+   * @param measurement The measured value of the process variable
+   * @param referenceVelocity The desired rate of change of the process variable, for feedforward
+   * @param referenceAcceleration The desired second derivative of the process variable, for
+   * feedforward
+   * @param timeSeconds The time of the measurement, in seconds
+   * @return The bounded output
+   */
+  public double calculate(double setpoint, double measurement, double referenceVelocity,
+      double referenceAcceleration, double timeSeconds) {
+    error = setpoint - measurement;
+    double feedforward = kS * Math.signum(referenceVelocity) + kV * referenceVelocity
+        + kA * referenceAcceleration;
+
+    if (!isInitialized) {
+      isInitialized = true;
+      remember(measurement, timeSeconds);
+      output = bounded(error * kP + integral + feedforward);
+      return output;
+    }
+
+    double dt = timeSeconds - prevTime;
+    if (!(dt > 0)) {
+      // No time has passed: keep the state and recompute the output from it
+      output = bounded(error * kP + integral + derivative * kD + feedforward);
+      return output;
+    }
+
+    double rawDerivative = derivativeOnMeasurement
+        ? -(measurement - prevMeasurement) / dt
+        : (error - prevError) / dt;
+    derivative += (rawDerivative - derivative) * (dt / (derivativeTimeConstant + dt));
+
+    double candidateIntegral = clampIntegral(integral + kI * (prevError + error) / 2 * dt);
+    double unbounded = error * kP + candidateIntegral + derivative * kD + feedforward;
+    boolean windingUp = (unbounded > outputMax && candidateIntegral > integral)
+        || (unbounded < outputMin && candidateIntegral < integral);
+    if (!windingUp) {
+      integral = candidateIntegral;
+    }
+
+    remember(measurement, timeSeconds);
+    output = bounded(error * kP + integral + derivative * kD + feedforward);
+    return output;
+  }
+
+  /**
+   * @return The error of the most recent iteration
+   */
+  public double getError() {
+    return error;
+  }
+
+  /**
+   * @return The integral term, in output units
+   */
+  public double getIntegral() {
+    return integral;
+  }
+
+  /**
+   * @return The filtered derivative of the most recent iteration, per second
+   */
+  public double getDerivative() {
+    return derivative;
+  }
+
+  /**
+   * @return The output of the most recent iteration
+   */
+  public double getOutput() {
+    return output;
+  }
+
+  private void remember(double measurement, double timeSeconds) {
+    prevError = error;
+    prevMeasurement = measurement;
+    prevTime = timeSeconds;
+  }
+
+  private double clampIntegral(double value) {
+    return Math.max(-maxIntegral, Math.min(maxIntegral, value));
+  }
+
+  private double bounded(double value) {
+    return Math.max(outputMin, Math.min(outputMax, value));
+  }
+}
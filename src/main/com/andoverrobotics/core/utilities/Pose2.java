@@ -0,0 +1,144 @@
+package com.andoverrobotics.core.utilities;
+
+/**
+ * Represents the mutable position and heading of a robot on the field. <p> The heading is the
+ * counter-clockwise angle, in degrees, from the field's x-axis to the robot's x-axis, and is kept
+ * in the [0, 360) range. As with {@link Vector2}, every operation modifies this pose in place and
+ * returns it, so that a Pose2 can be updated on every control-loop iteration without allocating.
+ */
+public class Pose2 {
+
+  private double x;
+  private double y;
+  private double heading;
+
+  /**
+   * Creates a pose at the origin with a heading of 0.
+   */
+  public Pose2() {
+  }
+
+  /**
+   * Creates a pose with the given position and heading.
+   *
+   * @param x The x component of the position
+   * @param y The y component of the position
+   * @param heading The heading in degrees
+   */
+  public Pose2(double x, double y, double heading) {
+    set(x, y, heading);
+  }
+
+  /**
+   * @return The x component of the position
+   */
+  public double getX() {
+    return x;
+  }
+
+  /**
+   * @return The y component of the position
+   */
+  public double getY() {
+    return y;
+  }
+
+  /**
+   * @return The heading in degrees, in the [0, 360) range
+   */
+  public double getHeading() {
+    return heading;
+  }
+
+  /**
+   * Copies the position of this pose into the given vector.
+   *
+   * @param out The vector in which to store the position
+   * @return The given vector
+   */
+  public Vector2 getPosition(Vector2 out) {
+    return out.set(x, y);
+  }
+
+  /**
+   * @return A new Coordinate at the position of this pose
+   */
+  public Coordinate toCoordinate() {
+    return Coordinate.fromXY(x, y);
+  }
+
+  /**
+   * Sets the position and heading of this pose.
+   *
+   * @param x The new x component of the position
+   * @param y The new y component of the position
+   * @param heading The new heading in degrees
+   * @return This pose
+   */
+  public Pose2 set(double x, double y, double heading) {
+    this.x = x;
+    this.y = y;
+    this.heading = Converter.normalizedDegrees(heading);
+    return this;
+  }
+
+  /**
+   * Copies the position and heading of the given pose into this pose.
+   *
+   * @param other The pose to copy
+   * @return This pose
+   */
+  public Pose2 set(Pose2 other) {
+    x = other.x;
+    y = other.y;
+    heading = other.heading;
+    return this;
+  }
+
+  /**
+   * Moves this pose by the given field-relative offset, without changing its heading.
+   *
+   * @param dx The offset along the field's x-axis
+   * @param dy The offset along the field's y-axis
+   * @return This pose
+   */
+  public Pose2 translate(double dx, double dy) {
+    x += dx;
+    y += dy;
+    return this;
+  }
+
+  /**
+   * Turns this pose by the given number of degrees.
+   *
+   * @param degrees The number of degrees to turn. Positive means counter-clockwise.
+   * @return This pose
+   */
+  public Pose2 turn(double degrees) {
+    heading = Converter.normalizedDegrees(heading + degrees);
+    return this;
+  }
+
+  /**
+   * Applies a robot-relative displacement to this pose: the offset is rotated by the current
+   * heading into the field frame and added to the position, then the heading is turned.
+   *
+   * @param dx The offset along the robot's x-axis
+   * @param dy The offset along the robot's y-axis
+   * @param dHeading The change in heading in degrees. Positive means counter-clockwise.
+   * @return This pose
+   */
+  public Pose2 transformBy(double dx, double dy, double dHeading) {
+    double radians = Math.toRadians(heading);
+    double sin = Math.sin(radians), cos = Math.cos(radians);
+
+    x += dx * cos - dy * sin;
+    y += dx * sin + dy * cos;
+    return turn(dHeading);
+  }
+
+  @Override
+  public String toString() {
+    return "(" + x + ", " + y + ") @ " + heading + "deg";
+  }
+}
@@ -0,0 +1,211 @@
+package com.andoverrobotics.core.utilities;
+
+/**
+ * Represents a mutable vector in the 2D coordinate plane. <p> Unlike {@link Coordinate}, every
+ * operation modifies this vector in place and returns it, so that a Vector2 can be reused across
+ * control-loop iterations without allocating. Angles follow the same convention as Coordinate:
+ * positive rotations are counter-clockwise.
+ */
+public class Vector2 {
+
+  private double x;
+  private double y;
+
+  /**
+   * Creates a zero vector.
+   */
+  public Vector2() {
+  }
+
+  /**
+   * Creates a vector with the given Cartesian components.
+   *
+   * @param x The x component
+   * @param y The y component
+   */
+  public Vector2(double x, double y) {
+    this.x = x;
+    this.y = y;
+  }
+
+  /**
+   * Creates a vector with the components of the given Coordinate.
+   *
+   * @param coordinate The Coordinate from which the components are copied
+   * @return The new vector
+   */
+  public static Vector2 fromCoordinate(Coordinate coordinate) {
+    return new Vector2(coordinate.getX(), coordinate.getY());
+  }
+
+  /**
+   * @return A new Coordinate with the components of this vector
+   */
+  public Coordinate toCoordinate() {
+    return Coordinate.fromXY(x, y);
+  }
+
+  /**
+   * @return The x component of this vector
+   */
+  public double getX() {
+    return x;
+  }
+
+  /**
+   * @return The y component of this vector
+   */
+  public double getY() {
+    return y;
+  }
+
+  /**
+   * Sets the components of this vector.
+   *
+   * @param x The new x component
+   * @param y The new y component
+   * @return This vector
+   */
+  public Vector2 set(double x, double y) {
+    this.x = x;
+    this.y = y;
+    return this;
+  }
+
+  /**
+   * Copies the components of the given vector into this vector.
+   *
+   * @param other The vector from which the components are copied
+   * @return This vector
+   */
+  public Vector2 set(Vector2 other) {
+    return set(other.x, other.y);
+  }
+
+  /**
+   * Copies the components of the given Coordinate into this vector.
+   *
+   * @param coordinate The Coordinate from which the components are copied
+   * @return This vector
+   */
+  public Vector2 set(Coordinate coordinate) {
+    return set(coordinate.getX(), coordinate.getY());
+  }
+
+  /**
+   * Adds the given components to this vector.
+   *
+   * @param dx The amount to add to the x component
+   * @param dy The amount to add to the y component
+   * @return This vector
+   */
+  public Vector2 add(double dx, double dy) {
+    x += dx;
+    y += dy;
+    return this;
+  }
+
+  /**
+   * Adds the given vector to this vector.
+   *
+   * @param other The vector to add
+   * @return This vector
+   */
+  public Vector2 add(Vector2 other) {
+    return add(other.x, other.y);
+  }
+
+  /**
+   * Subtracts the given vector from this vector.
+   *
+   * @param other The vector to subtract
+   * @return This vector
+   */
+  public Vector2 subtract(Vector2 other) {
+    return add(-other.x, -other.y);
+  }
+
+  /**
+   * Multiplies both components of this vector by the given factor.
+   *
+   * @param factor The factor by which to scale this vector
+   * @return This vector
+   */
+  public Vector2 scale(double factor) {
+    x *= factor;
+    y *= factor;
+    return this;
+  }
+
+  /**
+   * Rotates this vector counter-clockwise about the origin by the angle whose sine and cosine are
+   * given. Callers that rotate many vectors by the same angle should compute the sine and cosine
+   * once and use this method.
+   *
+   * @param sin The sine of the angle of rotation
+   * @param cos The cosine of the angle of rotation
+   * @return This vector
+   */
+  public Vector2 rotate(double sin, double cos) {
+    double rotatedX = x * cos - y * sin;
+    y = x * sin + y * cos;
+    x = rotatedX;
+    return this;
+  }
+
+  /**
+   * Rotates this vector about the origin by the given number of degrees.
+   *
+   * @param degrees The number of degrees to rotate. Positive means counter-clockwise, negative
+   * means clockwise.
+   * @return This vector
+   */
+  public Vector2 rotateDegrees(double degrees) {
+    double radians = Math.toRadians(degrees);
+    return rotate(Math.sin(radians), Math.cos(radians));
+  }
+
+  /**
+   * Scales this vector to a length of 1. A vector whose length is less than 1e-9 becomes the zero
+   * vector.
+   *
+   * @return This vector
+   */
+  public Vector2 normalize() {
+    double length = length();
+    if (length < 1e-9) {
+      return set(0, 0);
+    }
+    return scale(1 / length);
+  }
+
+  /**
+   * Calculates the dot product of this vector and the given vector.
+   *
+   * @param other The other vector
+   * @return The dot product
+   */
+  public double dot(Vector2 other) {
+    return x * other.x + y * other.y;
+  }
+
+  /**
+   * @return The distance from the origin to the point at this vector
+   */
+  public double length() {
+    return Math.sqrt(x * x + y * y);
+  }
+
+  /**
+   * @return The square of the length of this vector, which avoids a square root when only
+   * comparing lengths
+   */
+  public double lengthSquared() {
+    return x * x + y * y;
+  }
+
+  @Override
+  public String toString() {
+    return "(" + x + ", " + y + ")";
+  }
+}
@@ -0,0 +1,64 @@
+package com.andoverrobotics.core.vision;
+
+import org.opencv.core.Mat;
+
+/**
+ * One step of a {@link VisionPipeline}, which processes the pipeline's working frame and may draw
+ * its result on the output. <p> A stage creates its Mats and drawing primitives in its
+ * constructor, and the views into the working frame, such as submats, in {@link #allocate(Mat)},
+ * which the pipeline calls before the first frame and whenever the frame size or buffer changes.
+ * {@link #process(Mat)} and {@link #draw(Mat)} then run on every frame without allocating; the
+ * pipeline draws only after every stage has processed the frame. <p> Stages run
+ * on EasyOpenCV's frame worker thread; results that an OpMode reads must be published safely, for
+ * example through synchronized getters.
+ */
+public abstract class PipelineStage {
+
+  private final String name;
+
+  /**
+   * Creates a stage with the given name, which is shown with its timing.
+   *
+   * @param name The name of the stage
+   */
+  protected PipelineStage(String name) {
+    this.name = name;
+  }
+
+  /**
+   * @return The name of the stage
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Creates the views into the working frame that this stage reads. The previous views, if any,
+   * must be released.
+   *
+   * @param frame The working frame, which keeps its buffer until this is called again
+   */
+  protected void allocate(Mat frame) {
+  }
+
+  /**
+   * Processes the working frame.
+   *
+   * @param frame The working frame
+   */
+  protected abstract void process(Mat frame);
+
+  /**
+   * Draws the result of this stage on the frame that is shown on the viewport.
+   *
+   * @param output The frame to draw on
+   */
+  protected void draw(Mat output) {
+  }
+
+  /**
+   * Releases the Mats of this stage.
+   */
+  protected void release() {
+  }
+}
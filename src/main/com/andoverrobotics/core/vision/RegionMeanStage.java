@@ -0,0 +1,102 @@
+package com.andoverrobotics.core.vision;
+
+import org.opencv.core.Core;
+import org.opencv.core.Mat;
+import org.opencv.core.Point;
+import org.opencv.core.Rect;
+import org.opencv.core.Scalar;
+import org.opencv.imgproc.Imgproc;
+
+/**
+ * Samples the mean of each channel of a region of the working frame, and outlines the region.
+ * <p> The submat of the region is created once per frame size, and the corners and color of the
+ * outline once. The only allocation per frame is the {@link Scalar} that {@link Core#mean(Mat)}
+ * returns, which OpenCV's Java API cannot fill in place.
+ */
+public final class RegionMeanStage extends PipelineStage {
+
+  private final Rect region;
+  private final Point topLeft, bottomRight;
+  private final Scalar outline = new Scalar(0, 0, 0);
+  private final Scalar fixedColor;
+  private final int thickness;
+  private final double[] mean = new double[4];
+  private Mat submat;
+
+  /**
+   * Creates a stage that outlines its region in its mean color, which suits a pipeline that does
+   * not convert the camera's colors.
+   *
+   * @param name The name of the stage
+   * @param region The region to sample, in pixels of the working frame
+   */
+  public RegionMeanStage(String name, Rect region) {
+    this(name, region, null, 3);
+  }
+
+  /**
+   * Creates a stage that outlines its region in the given color.
+   *
+   * @param name The name of the stage
+   * @param region The region to sample, in pixels of the working frame
+   * @param color The color of the outline, or null to draw it in the mean color of the region
+   * @param thickness The thickness of the outline, in pixels
+   */
+  public RegionMeanStage(String name, Rect region, Scalar color, int thickness) {
+    super(name);
+    this.region = region;
+    this.fixedColor = color;
+    this.thickness = thickness;
+    topLeft = new Point(region.x, region.y);
+    bottomRight = new Point(region.x + region.width, region.y + region.height);
+  }
+
+  @Override
+  protected void allocate(Mat frame) {
+    release();
+    submat = frame.submat(region);
+  }
+
+  @Override
+  protected void process(Mat frame) {
+    Scalar sample = Core.mean(submat);
+    synchronized (this) {
+      System.arraycopy(sample.val, 0, mean, 0, mean.length);
+    }
+  }
+
+  @Override
+  protected void draw(Mat output) {
+    Scalar color = fixedColor;
+    if (color == null) {
+      synchronized (this) {
+        outline.set(mean);
+      }
+      color = outline;
+    }
+    Imgproc.rectangle(output, topLeft, bottomRight, color, thickness);
+  }
+
+  @Override
+  protected void release() {
+    if (submat != null) {
+      submat.release();
+      submat = null;
+    }
+  }
+
+  /**
+   * @param channel The channel, such as 1 for Cr in a YCrCb frame
+   * @return The mean of the channel over the region in the last frame
+   */
+  public synchronized double getMean(int channel) {
+    return mean[channel];
+  }
+
+  /**
+   * @return The region this stage samples
+   */
+  public Rect getRegion() {
+    return region;
+  }
+}
@@ -0,0 +1,103 @@
+package com.andoverrobotics.core.vision;
+
+import org.opencv.core.Core;
+import org.opencv.core.Mat;
+import org.opencv.core.Point;
+import org.opencv.core.Rect;
+import org.opencv.core.Scalar;
+import org.opencv.imgproc.Imgproc;
+
+/**
+ * Measures the fraction of a region of the working frame whose pixels lie within a range of
+ * colors, and detects the region when the fraction reaches a minimum. The region is outlined in
+ * green when it is detected, and in red otherwise. <p> The submat and the mask are allocated once
+ * per frame size, and the bounds, corners and colors once, so a frame does not allocate.
+ */
+public final class RegionThresholdStage extends PipelineStage {
+
+  private static final Scalar DETECTED = new Scalar(0, 255, 0);
+  private static final Scalar MISSED = new Scalar(255, 0, 0);
+
+  private final Rect region;
+  private final Scalar lower, upper;
+  private final double minFraction;
+  private final Point topLeft, bottomRight;
+  private final Mat mask = new Mat();
+  private Mat submat;
+  private double fraction;
+  private boolean detected;
+
+  /**
+   * Creates a stage that detects the given range of colors in the given region.
+   *
+   * @param name The name of the stage
+   * @param region The region to sample, in pixels of the working frame
+   * @param lower The lowest value of each channel that is in range
+   * @param upper The highest value of each channel that is in range
+   * @param minFraction The fraction of the region, from 0 to 1, that must be in range for the
+   * region to be detected
+   */
+  public RegionThresholdStage(String name, Rect region, Scalar lower, Scalar upper,
+      double minFraction) {
+    super(name);
+    this.region = region;
+    this.lower = lower;
+    this.upper = upper;
+    this.minFraction = minFraction;
+    topLeft = new Point(region.x, region.y);
+    bottomRight = new Point(region.x + region.width, region.y + region.height);
+  }
+
+  @Override
+  protected void allocate(Mat frame) {
+    if (submat != null) {
+      submat.release();
+    }
+    submat = frame.submat(region);
+  }
+
+  @Override
+  protected void process(Mat frame) {
+    Core.inRange(submat, lower, upper, mask);
+    double inRange = (double) Core.countNonZero(mask) / (region.width * region.height);
+    synchronized (this) {
+      fraction = inRange;
+      detected = inRange >= minFraction;
+    }
+  }
+
+  @Override
+  protected void draw(Mat output) {
+    Imgproc.rectangle(output, topLeft, bottomRight, isDetected() ? DETECTED : MISSED, 2);
+  }
+
+  @Override
+  protected void release() {
+    if (submat != null) {
+      submat.release();
+      submat = null;
+    }
+    mask.release();
+  }
+
+  /**
+   * @return The fraction of the region that was in range in the last frame, from 0 to 1
+   */
+  public synchronized double getFraction() {
+    return fraction;
+  }
+
+  /**
+   * @return True if enough of the region was in range in the last frame
+   */
+  public synchronized boolean isDetected() {
+    return detected;
+  }
+
+  /**
+   * @return The region this stage samples
+   */
+  public Rect getRegion() {
+    return region;
+  }
+}
@@ -0,0 +1,188 @@
+package com.andoverrobotics.core.vision;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Hands the latest result of a vision pipeline from the frame worker thread to the OpMode, with
+ * the number of the frame it came from and when that frame was captured. <p> The channel holds
+ * one shared copy of the result. The pipeline, its single writer, copies each result into it with
+ * {@link #publish(Object, long)}; every reader copies it out into its own {@link Reader}. Reads are
+ * optimistic, like a seqlock: a reader copies without locking, then checks that no write happened
+ * meanwhile and retries if one did, so reads neither lock nor allocate, and neither delay the
+ * pipeline nor wait for it. A write holds the lock only for one copy, so a retry soon succeeds.
+ * <pre>
+ *   ResultChannel&lt;double[]&gt; channel = new ResultChannel&lt;&gt;(
+ *       () -&gt; new double[3], (from, to) -&gt; System.arraycopy(from, 0, to, 0, 3));
+ *   // In the pipeline
+ *   channel.publish(means, getFrameStartNanos());
+ *   // In the OpMode
+ *   ResultChannel.Reader&lt;double[]&gt; reader = channel.newReader();
+ *   if (reader.update() &amp;&amp; !reader.isStale(200)) {
+ *     double[] means = reader.getValue();
+ *   }
+ * </pre>
+ *
+ * @param <T> The type of the result, which must be mutable so that it can be copied into
+ */
+public final class ResultChannel<T> {
+
+  private final StampedLock lock = new StampedLock();
+  private final Supplier<T> factory;
+  private final BiConsumer<T, T> copier;
+  private final T shared;
+  private long frameNumber = 0, captureNanos;
+
+  /**
+   * Creates a channel for results of the given type.
+   *
+   * @param factory Creates an empty result, once for the channel and once per reader
+   * @param copier Copies the first result into the second, which must not keep references to the
+   * mutable state of the first; it may run while the first is being written, and its output is
+   * then discarded, so it must not throw on inconsistent values
+   */
+  public ResultChannel(Supplier<T> factory, BiConsumer<T, T> copier) {
+    this.factory = factory;
+    this.copier = copier;
+    shared = factory.get();
+  }
+
+  /**
+   * Publishes a result of a frame captured now.
+   *
+   * @param result The result, which is copied; the writer may reuse it afterwards
+   */
+  public void publish(T result) {
+    publish(result, System.nanoTime());
+  }
+
+  /**
+   * Publishes a result of a frame captured at the given time. Only one thread may publish.
+   *
+   * @param result The result, which is copied; the writer may reuse it afterwards
+   * @param captureNanos When the frame was captured, on the {@link System#nanoTime()} clock
+   */
+  public void publish(T result, long captureNanos) {
+    long stamp = lock.writeLock();
+    try {
+      copier.accept(result, shared);
+      this.captureNanos = captureNanos;
+      frameNumber++;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * @return A new reader, which must be used from one thread
+   */
+  public Reader<T> newReader() {
+    return new Reader<>(this, factory.get());
+  }
+
+  // Copies the shared result into the reader if it is newer, and returns true if it was
+  private boolean readInto(Reader<T> reader) {
+    while (true) {
+      long stamp = lock.tryOptimisticRead();
+      if (stamp == 0) {
+        // A write is in progress
+        continue;
+      }
+      long frame = frameNumber, capture = captureNanos;
+      if (frame != reader.frameNumber) {
+        copier.accept(shared, reader.value);
+      }
+      if (lock.validate(stamp)) {
+        return reader.accept(frame, capture);
+      }
+    }
+  }
+
+  /**
+   * A reader's copy of the latest result of a {@link ResultChannel}.
+   *
+   * @param <T> The type of the result
+   */
+  public static final class Reader<T> {
+
+    private final ResultChannel<T> channel;
+    private final T value;
+    private long frameNumber = 0, captureNanos;
+
+    private Reader(ResultChannel<T> channel, T value) {
+      this.channel = channel;
+      this.value = value;
+    }
+
+    /**
+     * Copies the latest result, if it is newer than the one this reader has.
+     *
+     * @return True if a newer result was copied
+     */
+    public boolean update() {
+      return channel.readInto(this);
+    }
+
+    /**
+     * @return True if a result has been read
+     */
+    public boolean hasValue() {
+      return frameNumber != 0;
+    }
+
+    /**
+     * @return The copy of the result read last, which the next {@link #update()} overwrites
+     */
+    public T getValue() {
+      return value;
+    }
+
+    /**
+     * @return The number of the frame of the result read last, counted from 1, or 0 if none has
+     * been read
+     */
+    public long getFrameNumber() {
+      return frameNumber;
+    }
+
+    /**
+     * @return When the frame of the result read last was captured, on the {@link
+     * System#nanoTime()} clock
+     */
+    public long getCaptureNanos() {
+      return captureNanos;
+    }
+
+    /**
+     * @return The time since the frame of the result read last was captured, in milliseconds, or
+     * {@link Double#POSITIVE_INFINITY} if none has been read
+     */
+    public double getAgeMs() {
+      if (!hasValue()) {
+        return Double.POSITIVE_INFINITY;
+      }
+      return (System.nanoTime() - captureNanos) / 1e6;
+    }
+
+    /**
+     * @param maxAgeMs The greatest age of a fresh result, in milliseconds
+     * @return True if no result has been read, or the frame of the result read last was captured
+     * longer ago than the given age
+     */
+    public boolean isStale(long maxAgeMs) {
+      return !hasValue()
+          || System.nanoTime() - captureNanos > TimeUnit.MILLISECONDS.toNanos(maxAgeMs);
+    }
+
+    private boolean accept(long frame, long capture) {
+      if (frame == frameNumber) {
+        return false;
+      }
+      frameNumber = frame;
+      captureNanos = capture;
+      return true;
+    }
+  }
+}
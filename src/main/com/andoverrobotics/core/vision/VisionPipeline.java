@@ -0,0 +1,203 @@
+package com.andoverrobotics.core.vision;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.opencv.core.Mat;
+import org.opencv.imgproc.Imgproc;
+import org.openftc.easyopencv.OpenCvPipeline;
+
+/**
+ * An EasyOpenCV pipeline that runs a fixed list of {@link PipelineStage}s on a working frame,
+ * without allocating Mats on the frame worker thread. <p> Every frame is first converted, for
+ * example to YCrCb, into a working frame that the pipeline owns. With {@link #NO_CONVERSION}, the camera's frame
+ * itself is the working frame, so it is not copied. As the working frame keeps its buffer from one
+ * frame to the next, the stages create their submats of it once, and again only when the frame
+ * size or the buffer changes. Once every stage has processed the working frame, the stages draw
+ * their results on the camera's frame, which is shown on the viewport, so that an outline drawn by
+ * one stage never shows up in the region of another. <p> Add the stages in the constructor of the
+ * subclass:
+ * <pre>
+ *   class RingPipeline extends VisionPipeline {
+ *     final RegionMeanStage left;
+ *
+ *     RingPipeline() {
+ *       super(Imgproc.COLOR_RGB2YCrCb);
+ *       left = addStage(new RegionMeanStage("left", new Rect(40, 100, 30, 30)));
+ *     }
+ *   }
+ * </pre>
+ * The pipeline keeps a moving average of the time of each stage, which {@link #publish(Telemetry)}
+ * adds to the telemetry next to the camera's own pipeline time. To hand the results to the OpMode,
+ * publish them to a {@link ResultChannel} in {@link #onFrameProcessed(Mat)}.
+ */
+public abstract class VisionPipeline extends OpenCvPipeline {
+
+  /**
+   * The conversion code that uses the camera's frame as the working frame, unchanged.
+   */
+  public static final int NO_CONVERSION = -1;
+
+  // Each new sample moves the average by 1/8 of its difference
+  private static final int AVERAGE_SHIFT = 3;
+
+  private final int colorConversion;
+  private final Mat frame = new Mat();
+  private PipelineStage[] stages = new PipelineStage[0];
+  private int frameRows = -1, frameCols = -1;
+  private long frameAddress = 0;
+  private long frameStartNanos;
+  // The time of each stage in the current frame, in nanoseconds
+  private long[] stageNanos = new long[0];
+
+  // The moving averages in nanoseconds: the conversion first, then one per stage
+  private AtomicLongArray averageNanos = new AtomicLongArray(1);
+
+  /**
+   * Creates a pipeline that converts each frame with the given code.
+   *
+   * @param colorConversion An {@link Imgproc} color conversion code, such as {@link
+   * Imgproc#COLOR_RGB2YCrCb}, or {@link #NO_CONVERSION}
+   */
+  protected VisionPipeline(int colorConversion) {
+    this.colorConversion = colorConversion;
+  }
+
+  /**
+   * Adds a stage that runs after those added before it. Stages must be added before the first
+   * frame, usually in the constructor.
+   *
+   * @param stage The stage to add
+   * @param <T> The type of the stage
+   * @return The stage
+   */
+  protected final <T extends PipelineStage> T addStage(T stage) {
+    stages = Arrays.copyOf(stages, stages.length + 1);
+    stages[stages.length - 1] = stage;
+    averageNanos = new AtomicLongArray(stages.length + 1);
+    stageNanos = new long[stages.length];
+    return stage;
+  }
+
+  @Override
+  public final Mat processFrame(Mat input) {
+    long start = System.nanoTime();
+    frameStartNanos = start;
+    Mat working = input;
+    if (colorConversion != NO_CONVERSION) {
+      Imgproc.cvtColor(input, frame, colorConversion);
+      working = frame;
+    }
+    if (working.dataAddr() != frameAddress || working.rows() != frameRows
+        || working.cols() != frameCols) {
+      frameAddress = working.dataAddr();
+      frameRows = working.rows();
+      frameCols = working.cols();
+      for (PipelineStage stage : stages) {
+        stage.allocate(working);
+      }
+    }
+    start = record(0, start);
+
+    for (int i = 0; i < stages.length; i++) {
+      stages[i].process(working);
+      long end = System.nanoTime();
+      stageNanos[i] = end - start;
+      start = end;
+    }
+    // Drawing waits for every stage, as the working frame may be the frame that is drawn on
+    for (int i = 0; i < stages.length; i++) {
+      stages[i].draw(input);
+      long end = System.nanoTime();
+      recordNanos(i + 1, stageNanos[i] + end - start);
+      start = end;
+    }
+
+    onFrameProcessed(input);
+    return input;
+  }
+
+  /**
+   * Called on the frame worker thread after the stages have processed a frame, for example to
+   * publish results that depend on several stages.
+   *
+   * @param output The camera's frame, on which the stages have drawn
+   */
+  protected void onFrameProcessed(Mat output) {
+  }
+
+  /**
+   * @return When the pipeline received the current frame, on the {@link System#nanoTime()} clock,
+   * to publish with its results as their capture time
+   */
+  protected final long getFrameStartNanos() {
+    return frameStartNanos;
+  }
+
+  /**
+   * @return The number of stages
+   */
+  public int getStageCount() {
+    return stages.length;
+  }
+
+  /**
+   * @param index The index of the stage, in the order the stages were added
+   * @return The stage
+   */
+  public PipelineStage getStage(int index) {
+    return stages[index];
+  }
+
+  /**
+   * @param index The index of the stage, in the order the stages were added
+   * @return The moving average of the time the stage takes to process and draw, in milliseconds
+   */
+  public double getStageTimeMs(int index) {
+    return averageNanos.get(index + 1) / 1e6;
+  }
+
+  /**
+   * @return The moving average of the time to convert the frame, in milliseconds
+   */
+  public double getConversionTimeMs() {
+    return averageNanos.get(0) / 1e6;
+  }
+
+  /**
+   * Adds the time of the conversion and of each stage to the telemetry.
+   *
+   * @param telemetry The telemetry to add to
+   */
+  public void publish(Telemetry telemetry) {
+    telemetry.addData("Conversion ms", "%.2f", getConversionTimeMs());
+    for (int i = 0; i < stages.length; i++) {
+      telemetry.addData(stages[i].getName() + " ms", "%.2f", getStageTimeMs(i));
+    }
+  }
+
+  /**
+   * Releases the working frame and the Mats of every stage. Call it after the camera has stopped
+   * streaming.
+   */
+  public void release() {
+    for (PipelineStage stage : stages) {
+      stage.release();
+    }
+    frame.release();
+    frameAddress = 0;
+    frameRows = -1;
+    frameCols = -1;
+  }
+
+  private long record(int slot, long start) {
+    long end = System.nanoTime();
+    recordNanos(slot, end - start);
+    return end;
+  }
+
+  private void recordNanos(int slot, long nanos) {
+    long average = averageNanos.get(slot);
+    averageNanos.set(slot, average + ((nanos - average) >> AVERAGE_SHIFT));
+  }
+}
@@ -0,0 +1,5 @@
+/**
+ * Includes a base for EasyOpenCV pipelines that reuse their Mats and drawing primitives, and
+ * reusable stages that sample regions of the frame.
+ */
+package com.andoverrobotics.core.vision;
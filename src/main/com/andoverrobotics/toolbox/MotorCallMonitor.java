@@ -0,0 +1,128 @@
+package com.andoverrobotics.toolbox;
+
+import com.andoverrobotics.core.diagnostics.MotorCallCounters;
+import com.andoverrobotics.core.utilities.GamepadSnapshot;
+import com.andoverrobotics.core.utilities.GamepadSnapshot.Axis;
+import com.andoverrobotics.core.utilities.GamepadSnapshot.Button;
+import com.andoverrobotics.core.utilities.InputResponder;
+import com.andoverrobotics.core.utilities.MotorAdapter;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+@TeleOp(name = "TBX: Motor Call Monitor", group = "ARC Toolbox")
+public class MotorCallMonitor extends OpMode {
+  private static final String REPORT_FILE_NAME = "motor-calls.txt";
+
+  private final File reportFile;
+  private final MotorCallCounters counters = new MotorCallCounters();
+  private final Map<String, MotorAdapter> motors = new LinkedHashMap<>();
+  private InputResponder input = new InputResponder();
+  private GamepadSnapshot pad;
+  private Selector motorSelector;
+  private volatile String reportStatus = "Not written";
+
+  public MotorCallMonitor() {
+    this(new File(AppUtil.FIRST_FOLDER, REPORT_FILE_NAME));
+  }
+
+  /**
+   * Creates a monitor that writes its report to the given file instead of the FIRST folder of the
+   * Robot Controller's storage.
+   *
+   * @param reportFile The file to write the report to
+   */
+  protected MotorCallMonitor(File reportFile) {
+    this.reportFile = reportFile;
+  }
+
+  @Override
+  public void init() {
+    pad = new GamepadSnapshot(gamepad1);
+    for (Map.Entry<String, DcMotor> entry : hardwareMap.dcMotor.entrySet()) {
+      MotorAdapter motor = new MotorAdapter(entry.getValue());
+      motor.setCallCounters(counters, entry.getKey());
+      motors.put(entry.getKey(), motor);
+    }
+    motorSelector = new Selector(motors.keySet().stream());
+
+    input.onPress(pad, Button.X, motorSelector::selectNext)
+        .onPress(pad, Button.A, () -> counters.setEnabled(!counters.isEnabled()))
+        .onPress(pad, Button.B, counters::reset)
+        .onPress(pad, Button.Y, this::requestReport);
+  }
+
+  @Override
+  public void loop() {
+    pad.capture();
+    input.update();
+
+    String selected = motorSelector.selected();
+    for (Map.Entry<String, MotorAdapter> entry : motors.entrySet()) {
+      MotorAdapter motor = entry.getValue();
+      motor.setPower(entry.getKey().equals(selected) ? -pad.getAxis(Axis.LEFT_STICK_Y) : 0);
+      motor.getCurrentPosition();
+    }
+
+    telemetry.addLine("Controls")
+        .addData("Left stick Y", "Controls power of the selected motor")
+        .addData("X", "Selects next motor")
+        .addData("A", "Pauses or resumes counting")
+        .addData("B", "Resets counters")
+        .addData("Y", "Writes the report to " + reportFile);
+    telemetry.addData("Selected motor", selected);
+    telemetry.addData("Counting", counters.isEnabled() ? "Yes" : "Paused");
+    telemetry.addData("Report", reportStatus);
+    telemetry.addLine("Writes sent/requested, reads hardware/total, time blocked");
+    counters.publish(telemetry);
+  }
+
+  @Override
+  public void stop() {
+    try {
+      // The final report must not race with one that the worker is still writing
+      input.getDispatcher().close(1, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    writeReport(snapshotReport());
+    telemetry.addData("Report", reportStatus);
+    telemetry.update();
+  }
+
+  // The counters may only be read on the loop thread, so they are snapshotted here and only the
+  // file write runs on the dispatcher's worker, where it does not stall the loop
+  private void requestReport() {
+    String report = snapshotReport();
+    input.getDispatcher().queued(() -> writeReport(report)).run();
+  }
+
+  private String snapshotReport() {
+    StringWriter report = new StringWriter();
+    try {
+      counters.writeReport(report);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return report.toString();
+  }
+
+  private void writeReport(String report) {
+    try (Writer writer = new FileWriter(reportFile)) {
+      writer.write(report);
+      reportStatus = "Written to " + reportFile;
+    } catch (IOException e) {
+      reportStatus = "Could not write " + reportFile + ": " + e.getMessage();
+    }
+  }
+}
@@ -1,7 +1,9 @@
 package com.andoverrobotics.toolbox;
 
-import com.andoverrobotics.core.utilities.InputColumnResponder;
-import com.andoverrobotics.core.utilities.InputColumnResponderImpl;
+import com.andoverrobotics.core.utilities.GamepadSnapshot;
+import com.andoverrobotics.core.utilities.GamepadSnapshot.Axis;
+import com.andoverrobotics.core.utilities.GamepadSnapshot.Button;
+import com.andoverrobotics.core.utilities.InputResponder;
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
 import com.qualcomm.robotcore.hardware.DcMotor;
@@ -12,19 +14,23 @@ import java.util.stream.Stream;
 @TeleOp(name = "TBX: Motor Diagnostic", group = "ARC Toolbox")
 public class MotorDiagnostic extends OpMode {
   private static int TP_DELTA = 5;
+  private static long REPEAT_MS = 150;
 
   private Selector motorSelector;
-  private InputColumnResponder input = new InputColumnResponderImpl();
+  private InputResponder input = new InputResponder();
+  private GamepadSnapshot pad;
   private DcMotor motor;
 
   @Override
   public void init() {
+    pad = new GamepadSnapshot(gamepad1);
     motorSelector = new Selector(hardwareMap.dcMotor.entrySet().stream().map(Map.Entry::getKey));
-    input.register(() -> gamepad1.x, motorSelector::selectNext);
+    input.onPress(pad, Button.X, motorSelector::selectNext);
   }
 
   @Override
   public void init_loop() {
+    pad.capture();
     input.update();
     telemetry.addData("Selected motor", motorSelector.selected());
     telemetry.addLine("Press X to select next");
@@ -35,10 +41,10 @@ public class MotorDiagnostic extends OpMode {
     motor = hardwareMap.dcMotor.get(motorSelector.selected());
     input.clearRegistry();
 
-    input.register(() -> gamepad1.a, modeSelector::selectNext)
-        .register(() -> gamepad1.b, zpbSelector::selectNext)
-        .register(() -> gamepad1.dpad_up, () -> motor.setTargetPosition(motor.getTargetPosition() + TP_DELTA))
-        .register(() -> gamepad1.dpad_down, () -> motor.setTargetPosition(motor.getTargetPosition() - TP_DELTA));
+    input.onPress(pad, Button.A, modeSelector::selectNext)
+        .onPress(pad, Button.B, zpbSelector::selectNext)
+        .whileHeld(pad, Button.DPAD_UP, REPEAT_MS, () -> motor.setTargetPosition(motor.getTargetPosition() + TP_DELTA))
+        .whileHeld(pad, Button.DPAD_DOWN, REPEAT_MS, () -> motor.setTargetPosition(motor.getTargetPosition() - TP_DELTA));
   }
 
   private Selector modeSelector = new Selector(enumOrdinals(DcMotor.RunMode.values())),
@@ -50,8 +56,8 @@ public class MotorDiagnostic extends OpMode {
         .addData("Left stick Y", "Controls Power Value")
         .addData("A", "Switches modes")
         .addData("B", "Toggles zero power behavior")
-        .addData("Dpad Up", "Increases target position")
-        .addData("Dpad Down", "Decreases target position");
+        .addData("Dpad Up", "Increases target position; hold to repeat")
+        .addData("Dpad Down", "Decreases target position; hold to repeat");
 
     telemetry.addLine("Motor Data")
         .addData("Type", motor.getMotorType().getName())
@@ -66,8 +72,9 @@ public class MotorDiagnostic extends OpMode {
         .addData("Selected Mode", modeSelector.selected())
         .addData("Selected ZPB", zpbSelector.selected());
 
+    pad.capture();
     input.update();
-    motor.setPower(-gamepad1.left_stick_y);
+    motor.setPower(-pad.getAxis(Axis.LEFT_STICK_Y));
   }
 
   private <T extends Enum> Stream<String> enumOrdinals(T[] values) {
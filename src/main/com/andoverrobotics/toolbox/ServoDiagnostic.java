@@ -1,7 +1,8 @@
 package com.andoverrobotics.toolbox;
 
-import com.andoverrobotics.core.utilities.InputColumnResponder;
-import com.andoverrobotics.core.utilities.InputColumnResponderImpl;
+import com.andoverrobotics.core.utilities.GamepadSnapshot;
+import com.andoverrobotics.core.utilities.GamepadSnapshot.Button;
+import com.andoverrobotics.core.utilities.InputResponder;
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
 import com.qualcomm.robotcore.hardware.Servo;
@@ -11,19 +12,23 @@ import java.util.Map;
 @TeleOp(name = "TBX: Servo Diagnostic", group = "ARC Toolbox")
 public class ServoDiagnostic extends OpMode {
   private static double POS_DELTA = 0.05;
+  private static long REPEAT_MS = 200;
 
   private Servo servo;
-  private InputColumnResponder input = new InputColumnResponderImpl();
+  private InputResponder input = new InputResponder();
+  private GamepadSnapshot pad;
   private Selector servoSelector;
 
   @Override
   public void init() {
+    pad = new GamepadSnapshot(gamepad1);
     servoSelector = new Selector(hardwareMap.servo.entrySet().stream().map(Map.Entry::getKey));
-    input.register(() -> gamepad1.x, servoSelector::selectNext);
+    input.onPress(pad, Button.X, servoSelector::selectNext);
   }
 
   @Override
   public void init_loop() {
+    pad.capture();
     input.update();
     telemetry.addData("Selected", servoSelector.selected());
     telemetry.addLine("Press X to select next");
@@ -34,10 +39,10 @@ public class ServoDiagnostic extends OpMode {
     servo = hardwareMap.servo.get(servoSelector.selected());
     input.clearRegistry();
 
-    input.register(() -> gamepad1.dpad_up, () -> servo.setDirection(Servo.Direction.FORWARD))
-        .register(() -> gamepad1.dpad_down, () -> servo.setDirection(Servo.Direction.REVERSE))
-        .register(() -> gamepad1.y, () -> servo.setPosition(servo.getPosition() + POS_DELTA))
-        .register(() -> gamepad1.a, () -> servo.setPosition(servo.getPosition() - POS_DELTA));
+    input.onPress(pad, Button.DPAD_UP, () -> servo.setDirection(Servo.Direction.FORWARD))
+        .onPress(pad, Button.DPAD_DOWN, () -> servo.setDirection(Servo.Direction.REVERSE))
+        .whileHeld(pad, Button.Y, REPEAT_MS, () -> servo.setPosition(servo.getPosition() + POS_DELTA))
+        .whileHeld(pad, Button.A, REPEAT_MS, () -> servo.setPosition(servo.getPosition() - POS_DELTA));
   }
 
   @Override
@@ -45,13 +50,14 @@ public class ServoDiagnostic extends OpMode {
     telemetry.addLine("Controls")
         .addData("Dpad Up", "Sets direction to FORWARD")
         .addData("Dpad Down", "Sets direction to REVERSE")
-        .addData("Y", "Increments position by %.3f", POS_DELTA)
-        .addData("A", "Decrements position by %.3f", POS_DELTA);
+        .addData("Y", "Increments position by %.3f; hold to repeat", POS_DELTA)
+        .addData("A", "Decrements position by %.3f; hold to repeat", POS_DELTA);
 
     telemetry.addLine("Servo Data")
         .addData("Direction", servo.getDirection().name())
         .addData("Position", "%.4f", servo.getPosition());
 
+    pad.capture();
     input.update();
   }
 }
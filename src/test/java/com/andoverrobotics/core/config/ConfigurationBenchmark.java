@@ -0,0 +1,80 @@
+package com.andoverrobotics.core.config;
+
+import com.andoverrobotics.core.testing.MicroBenchmark;
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compares loading a Schema with a freshly compiled binder (the cost of the first load), with the
+ * cached binder (every later load), and with the per-load reflection that the binder replaced.
+ */
+public class ConfigurationBenchmark {
+
+  static class Schema {
+
+    int autonomousTrials;
+    double motorSpeed;
+    boolean useEncoders;
+    String robotName;
+    long startDelayNanos;
+    float servoOffset;
+  }
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> map = new HashMap<>();
+    map.put("autonomousTrials", "4");
+    map.put("motorSpeed", "0.412");
+    map.put("useEncoders", "false");
+    map.put("robotName", "BenchBot");
+    map.put("startDelayNanos", "5000000000");
+    map.put("servoOffset", "0.25");
+    Configuration config = Configuration.from(map);
+
+    MicroBenchmark benchmark = new MicroBenchmark(5, 10, 100_000);
+
+    benchmark.run("first load (compile + bind)",
+        i -> SchemaBinder.compile(Schema.class).bind(new Schema(), config).motorSpeed);
+    benchmark.run("repeated load (cached binder)",
+        i -> config.loadToSchema(new Schema()).motorSpeed);
+    benchmark.run("per-load reflection (previous)",
+        i -> legacyLoad(config, new Schema()).motorSpeed);
+
+    System.out.println("sink " + benchmark.getSink());
+  }
+
+  // The loading strategy used before SchemaBinder: look up the fields and switch on type names on
+  // every load
+  private static Schema legacyLoad(Configuration config, Schema schema) {
+    try {
+      for (Field field : Schema.class.getDeclaredFields()) {
+        String name = field.getName();
+        switch (field.getType().getCanonicalName()) {
+          case "int":
+            field.setInt(schema, config.getInt(name));
+            break;
+          case "long":
+            field.setLong(schema, config.getLong(name));
+            break;
+          case "float":
+            field.setFloat(schema, config.getFloat(name));
+            break;
+          case "double":
+            field.setDouble(schema, config.getDouble(name));
+            break;
+          case "boolean":
+            field.setBoolean(schema, config.getBoolean(name));
+            break;
+          case "java.lang.String":
+            field.set(schema, config.getString(name));
+            break;
+          default:
+            break;
+        }
+      }
+      return schema;
+    } catch (IllegalAccessException accessError) {
+      throw new IllegalStateException(accessError);
+    }
+  }
+}
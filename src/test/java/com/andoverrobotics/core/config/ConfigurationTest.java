@@ -1,8 +1,11 @@
 package com.andoverrobotics.core.config;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.IOException;
 import java.io.StringReader;
@@ -27,8 +30,8 @@ public class ConfigurationTest {
           "robotName=ConfigTestBot";
   private static final Configuration config = Configuration.from(schemaProvider);
 
-  // Must be static; otherwise, it will contain a "declared" field named "this",
-  //   referring to ConfigurationTest.
+  // Static, although the synthetic "this" field of an inner class would be skipped;
+  //   see InnerSchema.
   static class TestSchema {
 
     public int autonomousTrials;
@@ -42,9 +45,38 @@ public class ConfigurationTest {
 
     public double motorSpeed;
     public boolean useEncoders;
-    public float badType;
+    public Object badType;
   }
 
+  enum Alliance {
+    RED, BLUE
+  }
+
+  static class ExtendedSchema {
+
+    static int ignoredStatic = 7;
+
+    long startDelayNanos;
+    float servoOffset;
+    Alliance alliance;
+    int[] waypoints;
+    double[] gains;
+    String[] routines;
+    Alliance[] allowedAlliances;
+    boolean[] flags;
+  }
+
+  private static final Map<String, String> extendedProvider = new HashMap<String, String>() {{
+    put("startDelayNanos", "5000000000");
+    put("servoOffset", "0.25");
+    put("alliance", "BLUE");
+    put("waypoints", "1, 2,3");
+    put("gains", "0.5,1e-3");
+    put("routines", " park , scan ");
+    put("allowedAlliances", "RED,BLUE");
+    put("flags", "");
+  }};
+
   @Test
   public void fromPropertiesReaderGivenPropertiesReturnsCorrectly() throws IOException {
     Configuration stringConfig =
@@ -122,4 +154,71 @@ public class ConfigurationTest {
   public void fromMapToSchemaGivenBadSchemaThrowsException() {
     Configuration.from(schemaProvider).loadToSchema(new BadTestSchema());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void getLongAndFloatReturnCorrectValues() {
+    Configuration extended = Configuration.from(extendedProvider);
+
+    assertEquals(5000000000L, extended.getLong("startDelayNanos"));
+    assertEquals(0.25f, extended.getFloat("servoOffset"), 1e-8);
+    assertEquals(Alliance.BLUE, extended.getEnum("alliance", Alliance.class));
+  }
+
+  @Test(expected = InvalidFormatError.class)
+  public void getEnumGivenUnknownNameThrowsException() {
+    config.getEnum("robotName", Alliance.class);
+  }
+
+  @Test(expected = InvalidFormatError.class)
+  public void getLongGivenDoubleKeyThrowsException() {
+    config.getLong("motorSpeed");
+  }
+
+  @Test
+  public void fromMapToSchemaLoadsExtendedTypes() {
+    ExtendedSchema schema = Configuration.from(extendedProvider).loadToSchema(new ExtendedSchema());
+
+    assertEquals(5000000000L, schema.startDelayNanos);
+    assertEquals(0.25f, schema.servoOffset, 1e-8);
+    assertEquals(Alliance.BLUE, schema.alliance);
+    assertArrayEquals(new int[] {1, 2, 3}, schema.waypoints);
+    assertArrayEquals(new double[] {0.5, 1e-3}, schema.gains, 1e-12);
+    assertArrayEquals(new String[] {"park", "scan"}, schema.routines);
+    assertArrayEquals(new Alliance[] {Alliance.RED, Alliance.BLUE}, schema.allowedAlliances);
+    assertEquals(0, schema.flags.length);
+    assertEquals(7, ExtendedSchema.ignoredStatic);
+  }
+
+  @Test
+  public void fromMapToSchemaWrapsBadArrayElement() {
+    Map<String, String> provider = new HashMap<>(extendedProvider);
+    provider.put("waypoints", "1,two,3");
+
+    try {
+      Configuration.from(provider).loadToSchema(new ExtendedSchema());
+      fail();
+    } catch (InvalidSchemaError error) {
+      assertTrue(error.getCause() instanceof InvalidFormatError);
+    }
+  }
+
+  @Test
+  public void schemaBinderIsCompiledOnce() {
+    SchemaBinder binder = SchemaBinder.of(TestSchema.class);
+
+    assertSame(binder, SchemaBinder.of(TestSchema.class));
+    assertEquals(5, binder.getFieldCount());
+  }
+
+  class InnerSchema {
+
+    int autonomousTrials;
+  }
+
+  @Test
+  public void fromMapToSchemaIgnoresSyntheticFields() {
+    InnerSchema schema = config.loadToSchema(new InnerSchema());
+
+    assertEquals(4, schema.autonomousTrials);
+  }
+}
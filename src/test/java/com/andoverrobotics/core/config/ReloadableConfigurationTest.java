@@ -0,0 +1,191 @@
+package com.andoverrobotics.core.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.andoverrobotics.core.config.ReloadableConfiguration.BoundSchema;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ReloadableConfigurationTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  static class TuningSchema {
+
+    double kP;
+    int servoTicks;
+  }
+
+  private ConfigurationWatcher watcher;
+  private File tuningFile;
+  // Each rewrite moves the modification time forward, since file systems may only keep seconds
+  private long nextModified = System.currentTimeMillis() - 100_000;
+
+  @Before
+  public void setUp() throws IOException {
+    watcher = new ConfigurationWatcher(folder.getRoot(), 10);
+    tuningFile = write("tuning.properties", "kP=0.5\nservoTicks=100\n");
+  }
+
+  @After
+  public void tearDown() {
+    watcher.close();
+  }
+
+  @Test
+  public void watchReadsFileImmediately() throws IOException {
+    ReloadableConfiguration config = watcher.watch("tuning.properties");
+
+    assertEquals(0.5, config.get().getDouble("kP"), 1e-9);
+    assertSame(config, watcher.watch("tuning.properties"));
+    assertEquals(tuningFile, config.getFile());
+  }
+
+  @Test
+  public void unchangedFileIsNotReparsed() throws IOException {
+    ReloadableConfiguration config = watcher.watch("tuning.properties");
+    Configuration snapshot = config.get();
+
+    assertEquals(0, watcher.checkForChanges());
+    assertSame(snapshot, config.get());
+    assertEquals(0, config.getReloadCount());
+  }
+
+  @Test
+  public void changedFileSwapsSnapshotAndSchemas() throws IOException {
+    ReloadableConfiguration config = watcher.watch("tuning.properties");
+    BoundSchema<TuningSchema> schema = config.bind(TuningSchema::new);
+    TuningSchema before = schema.get();
+
+    write("tuning.properties", "kP=0.75\nservoTicks=120\n");
+    assertEquals(1, watcher.checkForChanges());
+
+    TuningSchema after = schema.get();
+    assertNotSame(before, after);
+    assertEquals(0.5, before.kP, 1e-9);
+    assertEquals(0.75, after.kP, 1e-9);
+    assertEquals(120, after.servoTicks);
+    assertEquals(1, config.getReloadCount());
+  }
+
+  @Test
+  public void onlyChangedFilesAreReloaded() throws IOException {
+    write("vision.properties", "threshold=40\n");
+    ReloadableConfiguration tuning = watcher.watch("tuning.properties");
+    ReloadableConfiguration vision = watcher.watch("vision.properties");
+
+    write("vision.properties", "threshold=55\n");
+    assertEquals(1, watcher.checkForChanges());
+
+    assertEquals(0, tuning.getReloadCount());
+    assertEquals(1, vision.getReloadCount());
+    assertEquals(55, vision.get().getInt("threshold"));
+  }
+
+  @Test
+  public void brokenFileKeepsPreviousSnapshot() throws IOException {
+    ReloadableConfiguration config = watcher.watch("tuning.properties");
+    BoundSchema<TuningSchema> schema = config.bind(TuningSchema::new);
+    TuningSchema before = schema.get();
+
+    write("tuning.properties", "kP=fast\nservoTicks=100\n");
+    assertEquals(0, watcher.checkForChanges());
+
+    assertSame(before, schema.get());
+    assertEquals(0.5, config.get().getDouble("kP"), 1e-9);
+    assertTrue(config.getLastError() instanceof InvalidSchemaError);
+
+    // The broken file is not re-parsed until it changes again
+    assertEquals(0, watcher.checkForChanges());
+
+    write("tuning.properties", "kP=0.6\nservoTicks=100\n");
+    assertEquals(1, watcher.checkForChanges());
+    assertNull(config.getLastError());
+    assertEquals(0.6, schema.get().kP, 1e-9);
+  }
+
+  @Test
+  public void missingKeyKeepsPreviousSnapshot() throws IOException {
+    ReloadableConfiguration config = watcher.watch("tuning.properties");
+    BoundSchema<TuningSchema> schema = config.bind(TuningSchema::new);
+    TuningSchema before = schema.get();
+
+    write("tuning.properties", "kP=0.7\n");
+    assertEquals(0, watcher.checkForChanges());
+
+    assertSame(before, schema.get());
+    assertEquals(0.5, config.get().getDouble("kP"), 1e-9);
+    assertTrue(config.getLastError() instanceof NoSuchFieldError);
+
+    write("tuning.properties", "kP=0.7\nservoTicks=100\n");
+    assertEquals(1, watcher.checkForChanges());
+    assertNull(config.getLastError());
+    assertEquals(0.7, schema.get().kP, 1e-9);
+  }
+
+  @Test
+  public void listenersAreNotifiedAfterSwap() throws IOException {
+    ReloadableConfiguration config = watcher.watch("tuning.properties");
+    BoundSchema<TuningSchema> schema = config.bind(TuningSchema::new);
+    AtomicReference<Double> seenKP = new AtomicReference<>();
+    config.addListener((source, configuration) -> seenKP.set(schema.get().kP));
+
+    write("tuning.properties", "kP=0.9\nservoTicks=100\n");
+    watcher.checkForChanges();
+
+    assertEquals(0.9, seenKP.get(), 1e-9);
+  }
+
+  @Test
+  public void backgroundThreadPicksUpChanges() throws Exception {
+    ReloadableConfiguration config = watcher.watch("tuning.properties");
+    CountDownLatch reloaded = new CountDownLatch(1);
+    AtomicReference<String> threadName = new AtomicReference<>();
+    config.addListener((source, configuration) -> {
+      threadName.set(Thread.currentThread().getName());
+      reloaded.countDown();
+    });
+
+    watcher.start();
+    assertTrue(watcher.isRunning());
+    write("tuning.properties", "kP=1.25\nservoTicks=100\n");
+
+    assertTrue(reloaded.await(5, TimeUnit.SECONDS));
+    assertEquals(1.25, config.get().getDouble("kP"), 1e-9);
+    assertEquals("ConfigurationWatcher", threadName.get());
+
+    watcher.close();
+    assertFalse(watcher.isRunning());
+  }
+
+  @Test(expected = IOException.class)
+  public void watchingMissingFileThrows() throws IOException {
+    watcher.watch("missing.properties");
+  }
+
+  private File write(String name, String contents) throws IOException {
+    File file = new File(folder.getRoot(), name);
+    try (Writer writer = new FileWriter(file)) {
+      writer.write(contents);
+    }
+    nextModified += 2000;
+    assertTrue(file.setLastModified(nextModified));
+    return file;
+  }
+}
@@ -0,0 +1,81 @@
+package com.andoverrobotics.core.diagnostics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.andoverrobotics.core.testing.MicroBenchmark;
+import java.util.Random;
+import org.junit.Test;
+
+public class HistogramTest {
+
+  private final Histogram histogram = new Histogram();
+
+  @Test
+  public void smallValuesHaveTheirOwnBuckets() {
+    for (long value = 0; value < 64; value++) {
+      assertEquals(value, Histogram.indexOf(value));
+      assertEquals(value, Histogram.highestValueOf((int) value));
+    }
+  }
+
+  @Test
+  public void bucketsAreContiguousAndPrecise() {
+    for (int index = 64; Histogram.highestValueOf(index) < Histogram.MAX_TRACKABLE_VALUE;
+        index++) {
+      long lowest = Histogram.highestValueOf(index - 1) + 1,
+          highest = Histogram.highestValueOf(index);
+
+      assertEquals(index, Histogram.indexOf(lowest));
+      assertEquals(index, Histogram.indexOf(highest));
+      assertTrue("bucket " + index, highest - lowest + 1 <= lowest / 32 + 1);
+    }
+    assertEquals(Histogram.MAX_TRACKABLE_VALUE,
+        Histogram.highestValueOf(Histogram.indexOf(Histogram.MAX_TRACKABLE_VALUE)));
+  }
+
+  @Test
+  public void percentilesOfUniformValues() {
+    for (int value = 1; value <= 10000; value++) {
+      histogram.record(value * 1000L);
+    }
+
+    assertEquals(10000, histogram.getCount());
+    assertEquals(1000, histogram.getMin());
+    assertEquals(10_000_000, histogram.getMax());
+    assertEquals(5_000_500, histogram.getMean(), 1e-6);
+    assertEquals(5_000_000, histogram.getValueAtPercentile(50), 5_000_000 / 32.0);
+    assertEquals(9_900_000, histogram.getValueAtPercentile(99), 9_900_000 / 32.0);
+    assertEquals(10_000_000, histogram.getValueAtPercentile(100));
+    assertEquals(1000, histogram.getValueAtPercentile(0), 1000 / 32.0);
+  }
+
+  @Test
+  public void outOfRangeValuesAreClamped() {
+    histogram.record(-5);
+    histogram.record(Long.MAX_VALUE);
+
+    assertEquals(0, histogram.getMin());
+    assertEquals(Long.MAX_VALUE, histogram.getMax());
+    assertEquals(0, histogram.getValueAtPercentile(50));
+    assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void resetClearsValues() {
+    histogram.record(12345);
+    histogram.reset();
+
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getMin());
+    assertEquals(0, histogram.getMax());
+    assertEquals(0, histogram.getMean(), 0);
+    assertEquals(0, histogram.getValueAtPercentile(99));
+  }
+
+  @Test
+  public void recordingDoesNotAllocate() {
+    Random random = new Random(7);
+    MicroBenchmark.assertNoAllocation(() -> histogram.record(random.nextInt(50_000_000)));
+  }
+}
@@ -0,0 +1,130 @@
+package com.andoverrobotics.core.diagnostics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import com.andoverrobotics.core.utilities.MotorAdapter;
+import com.andoverrobotics.core.utilities.MotorReadCache;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import java.io.IOException;
+import java.io.StringWriter;
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.junit.Test;
+
+public class LoopProfilerTest {
+
+  private final LoopProfiler profiler = new LoopProfiler();
+
+  @Test
+  public void loopsRecordDurationAndPeriod() throws InterruptedException {
+    for (int i = 0; i < 3; i++) {
+      profiler.beginLoop();
+      Thread.sleep(2);
+      profiler.endLoop();
+    }
+
+    assertEquals(3, profiler.getHistogram(LoopProfiler.LOOP).getCount());
+    assertEquals(2, profiler.getHistogram(LoopProfiler.PERIOD).getCount());
+    assertTrue(profiler.getHistogram(LoopProfiler.LOOP).getMin() >= 2_000_000);
+    assertTrue(profiler.getHistogram(LoopProfiler.PERIOD).getMin()
+        >= profiler.getHistogram(LoopProfiler.LOOP).getMin());
+  }
+
+  @Test
+  public void sectionsAreTimedSeparately() {
+    int vision = profiler.addSection("vision");
+
+    long start = profiler.start();
+    profiler.stop(LoopProfiler.PID, start);
+    profiler.record(vision, 5000);
+
+    assertEquals(7, profiler.getSectionCount());
+    assertEquals("vision", profiler.getSectionName(vision));
+    assertEquals(1, profiler.getHistogram(LoopProfiler.PID).getCount());
+    assertEquals(5000, profiler.getHistogram(vision).getMax());
+    assertEquals(0, profiler.getHistogram(LoopProfiler.USER).getCount());
+  }
+
+  @Test
+  public void disabledProfilerRecordsNothing() {
+    profiler.setEnabled(false);
+
+    profiler.beginLoop();
+    profiler.record(LoopProfiler.USER, 100);
+    profiler.endLoop();
+
+    assertFalse(profiler.isEnabled());
+    assertEquals(0, profiler.getHistogram(LoopProfiler.LOOP).getCount());
+    assertEquals(0, profiler.getHistogram(LoopProfiler.USER).getCount());
+  }
+
+  @Test
+  public void publishIsThrottled() {
+    Telemetry telemetry = mock(Telemetry.class);
+    profiler.record(LoopProfiler.LOOP, 4_000_000);
+    profiler.record(LoopProfiler.LOOP, 6_000_000);
+
+    assertTrue(profiler.publish(telemetry));
+    assertFalse(profiler.publish(telemetry));
+
+    verify(telemetry).addData(eq("loop"), anyString(), anyDouble(), anyDouble(), anyDouble());
+    verifyNoMoreInteractions(telemetry);
+
+    profiler.setPublishInterval(0);
+    assertTrue(profiler.publish(telemetry));
+    // The median is reported as the top of its bucket, which is within 2% of 4000 us
+    verify(telemetry, times(2))
+        .addData(eq("loop"), anyString(), eq(4063.231), eq(6000.0), eq(6000.0));
+  }
+
+  @Test
+  public void exportCsvWritesStatistics() throws IOException {
+    for (int i = 1; i <= 100; i++) {
+      profiler.record(LoopProfiler.USER, i * 1000L);
+    }
+    StringWriter writer = new StringWriter();
+
+    profiler.exportCsv(writer);
+
+    String[] lines = writer.toString().split("\n");
+    assertEquals("section,count,min_us,mean_us,p50_us,p90_us,p99_us,max_us", lines[0]);
+    assertEquals("loop,0,0.0,0.0,0.0,0.0,0.0,0.0", lines[1]);
+    assertEquals("user,100,1.0,50.5,50.2,90.1,100.0,100.0", lines[6]);
+    assertEquals("section,bucket_max_us,count", lines[8]);
+    assertEquals("user,1.007,1", lines[9]);
+    long bucketed = 0;
+    for (int i = 9; i < lines.length; i++) {
+      bucketed += Long.parseLong(lines[i].split(",")[2]);
+    }
+    assertEquals(100, bucketed);
+  }
+
+  @Test
+  public void motorsRecordHardwareCalls() {
+    DcMotor motor = mock(DcMotor.class), cachedMotor = mock(DcMotor.class);
+    MotorAdapter adapter = new MotorAdapter(motor);
+    MotorReadCache cache = new MotorReadCache();
+    MotorAdapter cachedAdapter = new MotorAdapter(cachedMotor, cache);
+    adapter.setProfiler(profiler);
+    cache.setProfiler(profiler);
+
+    adapter.setPower(0.5);
+    adapter.setPower(0.5);
+    adapter.setMode(RunMode.RUN_TO_POSITION);
+    adapter.getCurrentPosition();
+    cache.refresh();
+    cachedAdapter.isBusy();
+
+    assertEquals(2, profiler.getHistogram(LoopProfiler.MOTOR_WRITES).getCount());
+    assertEquals(2, profiler.getHistogram(LoopProfiler.MOTOR_READS).getCount());
+  }
+}
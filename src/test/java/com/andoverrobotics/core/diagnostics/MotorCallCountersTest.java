@@ -0,0 +1,155 @@
+package com.andoverrobotics.core.diagnostics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.andoverrobotics.core.diagnostics.MotorCallCounters.Counter;
+import com.andoverrobotics.core.utilities.MotorAdapter;
+import com.andoverrobotics.core.utilities.MotorPair;
+import com.andoverrobotics.core.utilities.MotorReadCache;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import java.io.IOException;
+import java.io.StringWriter;
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.junit.Test;
+
+public class MotorCallCountersTest {
+
+  private final MotorCallCounters counters = new MotorCallCounters();
+  private final DcMotor motor = mock(DcMotor.class), other = mock(DcMotor.class);
+
+  @Test
+  public void cachedMotorCountsRequestedAndSentWrites() {
+    MotorAdapter adapter = new MotorAdapter(motor);
+    adapter.setCallCounters(counters, "lift");
+
+    adapter.setPower(0.5);
+    adapter.setPower(0.5);
+    adapter.setPower(0.7);
+    adapter.setMode(RunMode.RUN_TO_POSITION);
+    adapter.setMode(RunMode.RUN_TO_POSITION);
+
+    Counter counter = counters.forMotor("lift");
+    assertEquals(5, counter.getWritesRequested());
+    assertEquals(3, counter.getWritesSent());
+    assertTrue(counter.getBlockedNanos() > 0);
+  }
+
+  @Test
+  public void readsThroughCacheAreCountedSeparately() {
+    MotorReadCache cache = new MotorReadCache();
+    MotorAdapter adapter = new MotorAdapter(motor, cache);
+    adapter.setCallCounters(counters, "arm");
+
+    adapter.getCurrentPosition();
+    cache.refresh();
+    adapter.getCurrentPosition();
+    adapter.isBusy();
+
+    Counter counter = counters.forMotor("arm");
+    assertEquals(3, counter.getReads());
+    assertEquals(1, counter.getHardwareReads());
+  }
+
+  @Test
+  public void motorsWithSameNameShareCounter() {
+    MotorAdapter first = new MotorAdapter(motor), second = new MotorAdapter(motor);
+    first.setCallCounters(counters, "intake");
+    second.setCallCounters(counters, "intake");
+
+    first.getCurrentPosition();
+    second.isBusy();
+
+    assertSame(counters.forMotor("intake"), counters.getCounters().get(0));
+    assertEquals(1, counters.getCounters().size());
+    assertEquals(2, counters.forMotor("intake").getHardwareReads());
+  }
+
+  @Test
+  public void motorPairCountsEachMotor() {
+    MotorPair pair = MotorPair.of(motor, other);
+    pair.setCallCounters(counters, "left front", "left back");
+
+    pair.setPower(0.3);
+    pair.addTargetPosition(100);
+    pair.isBusy();
+
+    Counter front = counters.forMotor("left front"), back = counters.forMotor("left back");
+    assertEquals(2, front.getWritesSent());
+    assertEquals(2, back.getWritesRequested());
+    assertEquals(2, front.getHardwareReads());
+    // isBusy() stops at the first busy motor, and the mocks are never busy
+    assertEquals(2, back.getReads());
+  }
+
+  @Test
+  public void disabledCountersKeepTheirValues() {
+    MotorAdapter adapter = new MotorAdapter(motor);
+    adapter.setCallCounters(counters, "lift");
+    adapter.setPower(0.5);
+
+    counters.setEnabled(false);
+    adapter.setPower(0.2);
+    adapter.getCurrentPosition();
+
+    Counter counter = counters.forMotor("lift");
+    assertEquals(1, counter.getWritesRequested());
+    assertEquals(1, counter.getWritesSent());
+    assertEquals(0, counter.getReads());
+
+    counters.setEnabled(true);
+    counters.reset();
+    assertEquals(0, counter.getWritesSent());
+    assertEquals(0, counter.getBlockedNanos());
+  }
+
+  @Test
+  public void detachedMotorStopsCounting() {
+    MotorAdapter adapter = new MotorAdapter(motor);
+    adapter.setCallCounters(counters, "lift");
+    adapter.setCallCounters(null, "lift");
+
+    adapter.setPower(0.5);
+
+    assertEquals(0, counters.forMotor("lift").getWritesRequested());
+  }
+
+  @Test
+  public void reportListsEveryMotor() throws IOException {
+    Counter lift = counters.forMotor("lift");
+    lift.countWriteRequested();
+    lift.countWriteRequested();
+    lift.countWriteRequested();
+    lift.countWriteRequested();
+    lift.countWriteSent(1_500_000);
+    lift.countHardwareRead(500_000);
+    counters.forMotor("arm");
+    StringWriter writer = new StringWriter();
+
+    counters.writeReport(writer);
+
+    String[] lines = writer.toString().split(System.lineSeparator());
+    assertEquals(3, lines.length);
+    assertEquals("lift                      4          1    75.0%"
+        + "          1          1        2.000", lines[1]);
+    assertTrue(lines[2].startsWith("arm "));
+    assertEquals("lift: writes 1/4, reads 1/1, blocked 2.0 ms", lift.toString());
+  }
+
+  @Test
+  public void publishAddsLinePerMotor() {
+    Telemetry telemetry = mock(Telemetry.class);
+    counters.forMotor("lift").countWriteRequested();
+
+    counters.publish(telemetry);
+
+    verify(telemetry).addData(eq("lift"), anyString(), eq(0L), eq(1L), eq(0L), eq(0L),
+        eq(0.0));
+  }
+}
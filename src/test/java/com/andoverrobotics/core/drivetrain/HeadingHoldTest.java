@@ -0,0 +1,143 @@
+package com.andoverrobotics.core.drivetrain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.andoverrobotics.core.simulation.SimulatedMotor;
+import com.andoverrobotics.core.simulation.Simulation;
+import com.andoverrobotics.core.simulation.SimulationPoller;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HeadingHoldTest {
+
+  private static final int TICKS_PER_INCH = 50, TICKS_PER_360 = 2000;
+  private static final double FREE_SPEED = 1000;
+
+  // A tank chassis whose wheels slip, so that it turns less than its encoders report
+  private class SimulatedChassis implements HeadingSource {
+    static final double SLIP = 0.85;
+
+    double heading, left, right;
+    int reads;
+
+    void step() {
+      double turned = ((motorR.getPosition() - right) - (motorL.getPosition() - left)) / 2;
+      left = motorL.getPosition();
+      right = motorR.getPosition();
+      heading += turned / TICKS_PER_360 * 360 * SLIP;
+    }
+
+    @Override
+    public double getHeading() {
+      reads++;
+      return heading;
+    }
+  }
+
+  private final SimulatedChassis chassis = new SimulatedChassis();
+  private Simulation simulation;
+  private SimulationPoller poller;
+  private SimulatedMotor motorL, motorR;
+  private TankDrive driveTrain;
+
+  @Before
+  public void setUp() {
+    createDriveTrain(1);
+  }
+
+  @Test(timeout = 5000)
+  public void turnToHeadingReachesTargetDespiteSlip() {
+    driveTrain.turnToHeading(90, 0.8);
+
+    assertEquals(90, chassis.heading, 1.5);
+    assertEquals(0, motorL.getPower(), 0);
+    assertEquals(0, motorR.getPower(), 0);
+  }
+
+  @Test(timeout = 5000)
+  public void turnTakesShortestDirection() {
+    chassis.heading = 170;
+
+    driveTrain.turnToHeading(-170, 0.8);
+
+    assertEquals(190, chassis.heading, 1.5);
+  }
+
+  @Test(timeout = 5000)
+  public void turnByDegreesIsRelative() {
+    chassis.heading = 30;
+
+    driveTrain.turnByDegrees(-45, 0.6);
+
+    assertEquals(-15, chassis.heading, 1.5);
+  }
+
+  @Test(timeout = 5000)
+  public void turnReadsHeadingOncePerTick() {
+    driveTrain.turnToHeading(45, 0.8);
+
+    assertEquals(poller.getIterations() + 1, chassis.reads);
+  }
+
+  @Test(timeout = 5000)
+  public void turnEndsOnlyAfterSettleTime() {
+    long withoutSettling = timeToTurn(60, 0);
+    long withSettling = timeToTurn(60, 300);
+
+    assertTrue(withoutSettling + " " + withSettling, withSettling - withoutSettling >= 300_000_000L);
+  }
+
+  @Test(timeout = 5000)
+  public void driveStraightHoldsHeadingWithWeakSide() {
+    createDriveTrain(0.8);
+    driveTrain.getHeadingController().setGains(0.02, 0.1, 0.002);
+
+    driveTrain.driveStraight(20, 0.6);
+
+    double traveled = (motorL.getPosition() + motorR.getPosition()) / 2;
+    assertEquals(20 * TICKS_PER_INCH, traveled, 40);
+    assertEquals(0, chassis.heading, 1.5);
+  }
+
+  @Test(timeout = 5000)
+  public void driveStraightBackwards() {
+    driveTrain.driveStraight(-10, 0.5);
+
+    double traveled = (motorL.getPosition() + motorR.getPosition()) / 2;
+    assertEquals(-10 * TICKS_PER_INCH, traveled, 30);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void closedLoopRequiresHeadingSource() {
+    driveTrain.setHeadingSource(null);
+
+    driveTrain.turnToHeading(10, 0.5);
+  }
+
+  private long timeToTurn(double heading, long settleTimeMs) {
+    chassis.heading = 0;
+    createDriveTrain(1);
+    driveTrain.setHeadingTolerance(1, settleTimeMs);
+
+    driveTrain.turnToHeading(heading, 0.8);
+    return simulation.getNanoTime();
+  }
+
+  // The left side reaches only the given fraction of the right side's speed
+  private void createDriveTrain(double leftEfficiency) {
+    simulation = new Simulation();
+    poller = new SimulationPoller(simulation, 10);
+    motorL = simulation.addMotor("left").setFreeSpeed(FREE_SPEED * leftEfficiency);
+    motorR = simulation.addMotor("right").setFreeSpeed(FREE_SPEED);
+    chassis.left = chassis.right = 0;
+    simulation.addStepListener(chassis::step);
+
+    driveTrain = TankDrive.fromMotors(motorL.getDevice(), motorR.getDevice(), mock(OpMode.class),
+        TICKS_PER_INCH, TICKS_PER_360);
+    driveTrain.setMotionPoller(poller);
+    driveTrain.setHeadingSource(chassis);
+  }
+}
@@ -0,0 +1,54 @@
+package com.andoverrobotics.core.drivetrain;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.qualcomm.hardware.bosch.BNO055IMU;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.AxesOrder;
+import org.firstinspires.ftc.robotcore.external.navigation.AxesReference;
+import org.firstinspires.ftc.robotcore.external.navigation.Orientation;
+import org.junit.Test;
+
+public class ImuHeadingSourceTest {
+  private final BNO055IMU imu = mock(BNO055IMU.class);
+  private final ImuHeadingSource source = new ImuHeadingSource(imu);
+
+  @Test
+  public void readsYawInDegrees() {
+    givenYaw(42.5f);
+
+    assertEquals(42.5, source.getHeading(), 1e-6);
+  }
+
+  @Test
+  public void setHeadingOffsetsLaterReads() {
+    givenYaw(30);
+    source.setHeading(0);
+
+    givenYaw(75);
+    assertEquals(45, source.getHeading(), 1e-6);
+  }
+
+  @Test
+  public void fromHardwareInitializesInDegrees() {
+    HardwareMap map = mock(HardwareMap.class);
+    when(map.get(BNO055IMU.class, "imu")).thenReturn(imu);
+
+    ImuHeadingSource.fromHardware(map, "imu");
+
+    verify(imu).initialize(argThat(parameters ->
+        parameters.angleUnit == BNO055IMU.AngleUnit.DEGREES));
+  }
+
+  private void givenYaw(float yaw) {
+    Orientation orientation = new Orientation();
+    orientation.firstAngle = yaw;
+    when(imu.getAngularOrientation(AxesReference.INTRINSIC, AxesOrder.ZYX, AngleUnit.DEGREES))
+        .thenReturn(orientation);
+  }
+}
@@ -1,12 +1,15 @@
 package com.andoverrobotics.core.drivetrain;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
+import com.andoverrobotics.core.testing.MicroBenchmark;
 import com.andoverrobotics.core.utilities.Coordinate;
+import com.andoverrobotics.core.utilities.MotorAdapter;
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.hardware.DcMotor;
 import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
@@ -30,6 +33,7 @@ public class MecanumDriveTest {
 
   private StrafingDriveTrain driveTrain = MecanumDrive.fromOctagonalMotors(
       motorFL, motorFR, motorBL, motorBR, opMode, 5, 100);
+  private int iteration = 0;
 
   @Before
   public void setUp() {
@@ -229,6 +233,43 @@ public class MecanumDriveTest {
     verify(motorBR).setPower(AdditionalMatchers.eq(0.5173569, 1e-4));
   }
 
+  @Test
+  public void teleOpMethodsDoNotAllocate() {
+    NoOpMotor[] motors = {new NoOpMotor(), new NoOpMotor(), new NoOpMotor(), new NoOpMotor()};
+    MecanumDrive drive = new MecanumDrive(motors[0], motors[1], motors[2], motors[3], opMode, 5, 100);
+    MicroBenchmark.assertNoAllocation(() -> runTeleOpCalls(drive));
+
+    drive.setStrafeRotation(0, 1, 0.8, 0);
+    assertEquals(0.8, Math.abs(motors[2].power), 1e-4);
+  }
+
+  private void runTeleOpCalls(MecanumDrive drive) {
+    double x = Math.sin(iteration), y = Math.cos(iteration++);
+    drive.setStrafeRotation(x, y, 0.8, 0.3);
+    drive.setStrafe(x, y, 0.5);
+    drive.setMovementAndRotation(y, x);
+    drive.setRotationPower(x);
+    drive.setMovementPower(y);
+  }
+
+  // Records writes without going through a mock, since mock invocations allocate
+  private static class NoOpMotor extends MotorAdapter {
+    private double power;
+
+    NoOpMotor() {
+      super(mock(DcMotor.class));
+    }
+
+    @Override
+    public void setPower(double power) {
+      this.power = power;
+    }
+
+    @Override
+    public void setMode(RunMode runMode) {
+    }
+  }
+
   private void verifyPowersWithoutEncoder(double leftPower, double rightPower) {
 
     for (DcMotor motor : allMotors) {
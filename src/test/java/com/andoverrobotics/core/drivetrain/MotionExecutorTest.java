@@ -0,0 +1,217 @@
+package com.andoverrobotics.core.drivetrain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.andoverrobotics.core.utilities.IMotor;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.AdditionalMatchers;
+
+public class MotionExecutorTest {
+
+  private final OpMode opMode = mock(OpMode.class);
+  private final IMotor motorL = mock(IMotor.class),
+      motorR = mock(IMotor.class);
+  private final DriveTrain driveTrain = new TankDrive(motorL, motorR, opMode, 50, 720);
+  private final MotionExecutor executor = driveTrain.getMotionExecutor();
+
+  @Before
+  public void setUp() {
+    when(motorL.isBusy()).thenReturn(true);
+    when(motorR.isBusy()).thenReturn(true);
+  }
+
+  @Test
+  public void driveForwardsAsyncReturnsWhileBusy() {
+    Motion motion = driveTrain.driveForwardsAsync(5, 0.5);
+
+    verify(motorL).startRunToPosition(eq(250), AdditionalMatchers.eq(0.5, 1e-4));
+    verify(motorR).startRunToPosition(eq(250), AdditionalMatchers.eq(0.5, 1e-4));
+    assertFalse(motion.isDone());
+
+    executor.tick();
+
+    assertFalse(motion.isDone());
+    assertEquals(1, executor.getActiveCount());
+    verify(motorL, never()).setMode(RunMode.RUN_USING_ENCODER);
+  }
+
+  @Test
+  public void tickCompletesMotionOnceIdle() {
+    Motion motion = driveTrain.rotateClockwiseAsync(90, 0.4);
+    givenIdleMotors();
+
+    executor.tick();
+
+    assertTrue(motion.isDone());
+    assertTrue(motion.isCompleted());
+    assertEquals(0, executor.getActiveCount());
+    verify(motorL).setPower(0);
+    verify(motorR).setPower(0);
+    verify(motorL).setMode(RunMode.RUN_USING_ENCODER);
+    verify(motorR).setMode(RunMode.RUN_USING_ENCODER);
+  }
+
+  @Test
+  public void endOfOpModeCancelsMotion() {
+    boolean[] active = {true};
+    DriveTrain stoppable = new TankDrive(motorL, motorR, opMode, 50, 720) {
+      @Override
+      protected boolean opModeIsActive() {
+        return active[0];
+      }
+    };
+    Motion motion = stoppable.driveBackwardsAsync(3);
+    active[0] = false;
+
+    stoppable.getMotionExecutor().tick();
+
+    assertTrue(motion.isCancelled());
+    assertFalse(motion.isCompleted());
+    verify(motorL).setPower(0);
+    verify(motorR).setPower(0);
+  }
+
+  @Test
+  public void defaultPowerOverloadsUseDefaultPower() {
+    driveTrain.setDefaultDrivePower(0.3);
+
+    driveTrain.driveBackwardsAsync(2).cancel();
+    verify(motorL).startRunToPosition(eq(-100), AdditionalMatchers.eq(0.3, 1e-4));
+
+    driveTrain.rotateCounterClockwiseAsync(90);
+    verify(motorL).startRunToPosition(eq(-180), AdditionalMatchers.eq(0.3, 1e-4));
+  }
+
+  @Test
+  public void stopCancelsActiveMotion() {
+    Motion motion = driveTrain.driveBackwardsAsync(3, 0.6);
+
+    driveTrain.stop();
+
+    assertTrue(motion.isCancelled());
+    verify(motorL).setPower(0);
+    verify(motorR).setPower(0);
+
+    executor.tick();
+    assertEquals(0, executor.getActiveCount());
+    verify(motorL, never()).setMode(RunMode.RUN_USING_ENCODER);
+  }
+
+  @Test
+  public void cancelStopsMotors() {
+    Motion motion = driveTrain.rotateCounterClockwiseAsync(45, 0.3);
+
+    assertTrue(motion.cancel());
+    assertFalse(motion.cancel());
+
+    assertTrue(motion.isCancelled());
+    verify(motorL).setPower(0);
+    verify(motorR).setPower(0);
+  }
+
+  @Test
+  public void startingMotionCancelsPreviousOne() {
+    Motion first = driveTrain.driveForwardsAsync(5, 0.5);
+    Motion second = driveTrain.driveForwardsAsync(2, 0.5);
+
+    assertTrue(first.isCancelled());
+    assertFalse(second.isDone());
+
+    executor.tick();
+    assertEquals(1, executor.getActiveCount());
+  }
+
+  @Test
+  public void cancellingFinishedMotionDoesNotStopNewOne() {
+    Motion first = driveTrain.driveForwardsAsync(5, 0.5);
+    givenIdleMotors();
+    executor.tick();
+
+    when(motorL.isBusy()).thenReturn(true);
+    Motion second = driveTrain.driveForwardsAsync(2, 0.5);
+    first.cancel();
+
+    assertTrue(first.isCompleted());
+    assertFalse(second.isDone());
+  }
+
+  @Test
+  public void awaitTicksUntilDone() {
+    when(motorL.isBusy()).thenReturn(true, true, false);
+    when(motorR.isBusy()).thenReturn(false);
+    driveTrain.setMotionPoller(new MotionPoller(1));
+
+    Motion motion = driveTrain.driveForwardsAsync(5, 0.5);
+    motion.await();
+
+    assertTrue(motion.isCompleted());
+  }
+
+  @Test
+  public void sharedExecutorAdvancesEveryDriveTrain() {
+    IMotor otherL = mock(IMotor.class), otherR = mock(IMotor.class);
+    DriveTrain other = new TankDrive(otherL, otherR, opMode, 50, 720);
+    other.setMotionExecutor(executor);
+
+    Motion first = driveTrain.driveForwardsAsync(5, 0.5);
+    Motion second = other.driveForwardsAsync(5, 0.5);
+    executor.tick();
+
+    assertFalse(first.isDone());
+    assertTrue(second.isCompleted());
+
+    givenIdleMotors();
+    executor.tick();
+    assertTrue(first.isCompleted());
+  }
+
+  @Test
+  public void cancelAllCancelsEveryMotion() {
+    Motion motion = driveTrain.driveForwardsAsync(5, 0.5);
+
+    executor.cancelAll();
+
+    assertTrue(motion.isCancelled());
+    assertEquals(0, executor.getActiveCount());
+  }
+
+  @Test
+  public void strafeInchesAsyncStartsDiagonals() {
+    DcMotor motorFL = mock(DcMotor.class), motorFR = mock(DcMotor.class),
+        motorBL = mock(DcMotor.class), motorBR = mock(DcMotor.class);
+    when(motorFL.isBusy()).thenReturn(true);
+    StrafingDriveTrain mecanum =
+        MecanumDrive.fromOctagonalMotors(motorFL, motorFR, motorBL, motorBR, opMode, 5, 100);
+
+    Motion motion = mecanum.strafeInchesAsync(10, 15, 0.4);
+    mecanum.getMotionExecutor().tick();
+
+    verify(motorFL).setMode(RunMode.RUN_TO_POSITION);
+    verify(motorBL).setMode(RunMode.RUN_TO_POSITION);
+    verify(motorFL, never()).setPower(0);
+    assertFalse(motion.isDone());
+
+    when(motorFL.isBusy()).thenReturn(false);
+    mecanum.getMotionExecutor().tick();
+
+    assertTrue(motion.isCompleted());
+    verify(motorFL).setPower(0);
+    verify(motorBL, never()).setMode(RunMode.RUN_USING_ENCODER);
+  }
+
+  private void givenIdleMotors() {
+    when(motorL.isBusy()).thenReturn(false);
+    when(motorR.isBusy()).thenReturn(false);
+  }
+}
@@ -0,0 +1,218 @@
+package com.andoverrobotics.core.drivetrain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.andoverrobotics.core.utilities.IMotor;
+import com.andoverrobotics.core.utilities.MotorAdapter;
+import com.andoverrobotics.core.utilities.MotorReadCache;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class MotionPollerTest {
+
+  // Advances a fake clock instead of parking, so that poll counts are exact
+  private static class FakeClockPoller extends MotionPoller {
+    long now = 0;
+
+    FakeClockPoller(long pollIntervalMs) {
+      super(pollIntervalMs);
+    }
+
+    @Override
+    protected long nanoTime() {
+      return now;
+    }
+
+    @Override
+    protected void parkUntil(long deadlineNanos) {
+      now = Math.max(now, deadlineNanos);
+    }
+  }
+
+  private final OpMode opMode = mock(OpMode.class);
+  private final IMotor motorL = mock(IMotor.class),
+      motorR = mock(IMotor.class);
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nonPositiveIntervalRejected() {
+    new MotionPoller(0);
+  }
+
+  @Test
+  public void awaitIdleWhenNotBusyPollsOnce() {
+    AtomicInteger busCalls = new AtomicInteger();
+
+    int polls = new MotionPoller().awaitIdle(() -> busCalls.incrementAndGet() < 0, () -> true);
+
+    assertEquals(1, polls);
+    assertEquals(1, busCalls.get());
+  }
+
+  @Test
+  public void awaitIdleWhenInactiveDoesNotPoll() {
+    AtomicInteger busCalls = new AtomicInteger();
+
+    int polls = new MotionPoller().awaitIdle(() -> busCalls.incrementAndGet() > 0, () -> false);
+
+    assertEquals(0, polls);
+    assertEquals(0, busCalls.get());
+  }
+
+  @Test
+  public void awaitIdlePollsOncePerInterval() {
+    FakeClockPoller poller = new FakeClockPoller(10);
+    long moveEnd = TimeUnit.MILLISECONDS.toNanos(100);
+    AtomicInteger busCalls = new AtomicInteger();
+
+    int polls = poller.awaitIdle(() -> {
+      busCalls.incrementAndGet();
+      return poller.now < moveEnd;
+    }, () -> true);
+
+    // Polls at 0, 10, ..., 100 ms
+    assertEquals(11, polls);
+    assertEquals(11, busCalls.get());
+  }
+
+  @Test
+  public void stallDoesNotCauseBurstOfPolls() {
+    FakeClockPoller poller = new FakeClockPoller(10);
+    long moveEnd = TimeUnit.MILLISECONDS.toNanos(100);
+    AtomicInteger busCalls = new AtomicInteger();
+
+    int polls = poller.awaitIdle(() -> {
+      if (busCalls.incrementAndGet() == 2) {
+        // A 55 ms stall, such as a garbage collection, during the second poll
+        poller.now += TimeUnit.MILLISECONDS.toNanos(55);
+      }
+      return poller.now < moveEnd;
+    }, () -> true);
+
+    // Polls at 0, 10, then 65 after the stall, 75, ..., 105 ms, rather than 20..60 back-to-back
+    assertEquals(7, polls);
+  }
+
+  @Test
+  public void blockingMoveWithReadCacheSeesFreshBusyState() {
+    FakeClockPoller poller = new FakeClockPoller(20);
+    long moveEnd = TimeUnit.MILLISECONDS.toNanos(200);
+    boolean[] moving = {false};
+    DcMotor left = mock(DcMotor.class), right = mock(DcMotor.class);
+    when(left.isBusy()).then(invocation -> moving[0] && poller.now < moveEnd);
+    when(right.isBusy()).then(invocation -> moving[0] && poller.now < moveEnd);
+
+    MotorReadCache cache = new MotorReadCache();
+    DriveTrain driveTrain = new TankDrive(new MotorAdapter(left, cache),
+        new MotorAdapter(right, cache), opMode, 50, 720);
+    driveTrain.setMotionPoller(poller);
+
+    // The snapshot of the previous loop says that the motors are idle
+    cache.refresh();
+    moving[0] = true;
+    driveTrain.driveForwards(10, 0.5);
+
+    assertTrue(poller.now >= moveEnd);
+    // One read by the refresh, then one per poll at 0, 20, ..., 200 ms
+    verify(left, times(12)).isBusy();
+  }
+
+  @Test
+  public void tankDriveMoveCostsOneBusCallPerMotorPerPoll() {
+    FakeClockPoller poller = new FakeClockPoller(20);
+    long moveEnd = TimeUnit.MILLISECONDS.toNanos(200);
+    AtomicInteger busCallsL = new AtomicInteger(), busCallsR = new AtomicInteger();
+
+    when(motorL.isBusy()).then(invocation -> {
+      busCallsL.incrementAndGet();
+      return poller.now < moveEnd;
+    });
+    when(motorR.isBusy()).then(invocation -> {
+      busCallsR.incrementAndGet();
+      return poller.now < moveEnd;
+    });
+
+    DriveTrain driveTrain = new TankDrive(motorL, motorR, opMode, 50, 720);
+    driveTrain.setMotionPoller(poller);
+    driveTrain.driveForwards(10, 0.5);
+
+    // motorR is only consulted once motorL reports idle
+    assertEquals(11, busCallsL.get());
+    assertEquals(1, busCallsR.get());
+    verify(motorL).setPower(0);
+    verify(motorR).setPower(0);
+  }
+
+  @Test
+  public void pollingUsesFarFewerBusCallsThanSpinning() {
+    long moveNanos = TimeUnit.MILLISECONDS.toNanos(60);
+    AtomicInteger spinCalls = new AtomicInteger(), pollCalls = new AtomicInteger();
+
+    // Before: the empty-bodied while loop that used to wait for moves
+    long spinEnd = System.nanoTime() + moveNanos;
+    while (busyUntil(spinEnd, spinCalls)) {
+    }
+
+    // After
+    long pollEnd = System.nanoTime() + moveNanos;
+    new MotionPoller(10).awaitIdle(() -> busyUntil(pollEnd, pollCalls), () -> true);
+
+    assertTrue("polled " + pollCalls.get() + " times", pollCalls.get() <= 10);
+    assertTrue("spun " + spinCalls.get() + " times", spinCalls.get() > 100 * pollCalls.get());
+  }
+
+  @Test
+  public void watchCompletesWhenIdle() throws Exception {
+    long moveEnd = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(30);
+
+    CompletableFuture<Integer> completion =
+        new MotionPoller(5).watch(() -> System.nanoTime() < moveEnd, () -> true);
+
+    assertTrue(completion.get(1, TimeUnit.SECONDS) >= 1);
+    assertTrue(System.nanoTime() >= moveEnd);
+  }
+
+  @Test
+  public void cancelledWatchStopsPolling() throws Exception {
+    AtomicInteger busCalls = new AtomicInteger();
+
+    CompletableFuture<Integer> completion =
+        new MotionPoller(5).watch(() -> busCalls.incrementAndGet() > 0, () -> true);
+    completion.cancel(false);
+    Thread.sleep(30);
+    int callsAfterCancel = busCalls.get();
+    Thread.sleep(30);
+
+    assertTrue(completion.isCancelled());
+    assertEquals(callsAfterCancel, busCalls.get());
+  }
+
+  @Test
+  public void whenMotionCompleteWatchesMotors() throws Exception {
+    when(motorL.isBusy()).thenReturn(true, true, false);
+    when(motorR.isBusy()).thenReturn(false);
+
+    DriveTrain driveTrain = new TankDrive(motorL, motorR, opMode, 50, 720);
+    driveTrain.setMotionPoller(new MotionPoller(1));
+    CompletableFuture<Integer> completion = driveTrain.whenMotionComplete();
+
+    assertEquals(3, (int) completion.get(1, TimeUnit.SECONDS));
+    assertFalse(completion.isCompletedExceptionally());
+    verify(motorL, atLeastOnce()).isBusy();
+  }
+
+  private static boolean busyUntil(long deadline, AtomicInteger calls) {
+    calls.incrementAndGet();
+    return System.nanoTime() < deadline;
+  }
+}
@@ -0,0 +1,197 @@
+package com.andoverrobotics.core.drivetrain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.andoverrobotics.core.simulation.SimulatedMotor;
+import com.andoverrobotics.core.simulation.Simulation;
+import com.andoverrobotics.core.simulation.SimulationPoller;
+import com.andoverrobotics.core.utilities.Converter;
+import com.andoverrobotics.core.utilities.Coordinate;
+import com.andoverrobotics.core.utilities.MotorAdapter;
+import com.andoverrobotics.core.utilities.Pose2;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PathFollowerTest {
+
+  private static final int TICKS_PER_INCH = 50, TICKS_PER_360 = 2000;
+  private static final double FREE_SPEED = 2500;
+
+  private final Simulation simulation = new Simulation();
+  private final SimulationPoller poller = new SimulationPoller(simulation, 10);
+  private SimulatedMotor[] motors;
+  private PoseEstimator estimator;
+  private PathFollower follower;
+  private Path path;
+  // The lowest speed of the motors while between the first and last waypoints
+  private double lowestSpeed = Double.POSITIVE_INFINITY;
+
+  @Before
+  public void setUp() {
+    simulation.addStepListener(() -> {
+      if (follower != null && follower.getDistanceAlongPath() > 6
+          && follower.getDistanceAlongPath() < path.getLength() - 12) {
+        lowestSpeed = Math.min(lowestSpeed, speed());
+      }
+    });
+  }
+
+  @Test(timeout = 10000)
+  public void mecanumDriveFollowsCornerWithoutStopping() {
+    PathFollower follower = mecanumFollower();
+    estimator.setPose(0, 0, 30);
+    path = Path.of(Coordinate.fromXY(0, 0), Coordinate.fromXY(0, 36), Coordinate.fromXY(36, 36),
+        Coordinate.fromXY(36, 0));
+
+    follower.follow(path);
+
+    Pose2 pose = estimator.getPose();
+    assertEquals(36, pose.getX(), 1.5);
+    assertEquals(0, pose.getY(), 1.5);
+    assertEquals(0, Converter.signedDegrees(pose.getHeading() - 30), 3);
+    assertTrue("lowest speed " + lowestSpeed, lowestSpeed > 200);
+    assertTrue("took " + simulation.getTime(), simulation.getTime() < 8);
+  }
+
+  @Test(timeout = 10000)
+  public void mecanumDriveHoldsGivenHeading() {
+    PathFollower follower = mecanumFollower();
+    path = Path.of(Coordinate.fromXY(0, 0), Coordinate.fromXY(24, 24));
+
+    follower.follow(path, 90);
+
+    Pose2 pose = estimator.getPose();
+    assertEquals(24, pose.getX(), 1.5);
+    assertEquals(24, pose.getY(), 1.5);
+    assertEquals(90, pose.getHeading(), 3);
+  }
+
+  @Test(timeout = 10000)
+  public void tankDriveSteersAlongCurve() {
+    PathFollower follower = tankFollower();
+    path = Path.of(Coordinate.fromXY(0, 0), Coordinate.fromXY(0, 30), Coordinate.fromXY(-20, 50),
+        Coordinate.fromXY(-50, 50));
+
+    follower.follow(path);
+
+    Pose2 pose = estimator.getPose();
+    assertEquals(-50, pose.getX(), 1.5);
+    assertEquals(50, pose.getY(), 1.5);
+    assertEquals(90, pose.getHeading(), 20);
+    assertTrue("lowest speed " + lowestSpeed, lowestSpeed > 200);
+  }
+
+  @Test(timeout = 10000)
+  public void tankDriveReversesAlongCurveBehind() {
+    PathFollower follower = tankFollower();
+    path = Path.of(Coordinate.fromXY(0, 0), Coordinate.fromXY(0, -30),
+        Coordinate.fromXY(-20, -50), Coordinate.fromXY(-50, -50));
+
+    follower.follow(path);
+
+    // Backing towards -x swings the rear clockwise, so the robot ends up facing +x
+    Pose2 pose = estimator.getPose();
+    assertEquals(-50, pose.getX(), 1.5);
+    assertEquals(-50, pose.getY(), 1.5);
+    assertEquals(-90, Converter.signedDegrees(pose.getHeading()), 20);
+  }
+
+  @Test(timeout = 10000)
+  public void followEndsOncePastTheEnd() {
+    PathFollower follower = tankFollower();
+    path = Path.of(Coordinate.fromXY(0, 0), Coordinate.fromXY(0, 24));
+    // No pose can be within a zero tolerance, so only passing the end finishes the path
+    follower.setTolerance(0);
+
+    follower.follow(path);
+
+    assertEquals(24, estimator.getPose().getY(), 1.5);
+    assertEquals(0, motors[0].getPower(), 0);
+  }
+
+  @Test(timeout = 10000)
+  public void closestSegmentNeverSkipsBack() {
+    PathFollower follower = mecanumFollower();
+    // A narrow hairpin: the return leg passes within 4 inches of the outbound leg
+    path = Path.of(Coordinate.fromXY(0, 0), Coordinate.fromXY(0, 40), Coordinate.fromXY(4, 40),
+        Coordinate.fromXY(4, 0));
+    follower.setLookahead(3);
+    follower.start(path);
+
+    int previous = 0;
+    while (follower.update()) {
+      assertTrue(follower.getSegmentIndex() >= previous);
+      previous = follower.getSegmentIndex();
+      simulation.advance(10_000_000);
+    }
+
+    assertEquals(2, follower.getSegmentIndex());
+    assertEquals(4, estimator.getPose().getX(), 1.5);
+    assertEquals(0, estimator.getPose().getY(), 1.5);
+  }
+
+  @Test
+  public void pathMeasuresLengthAndCurvature() {
+    Path path = Path.of(Coordinate.fromXY(0, 0), Coordinate.fromXY(0, 0), Coordinate.fromXY(0, 10),
+        Coordinate.fromXY(0, 20), Coordinate.fromXY(10, 20));
+
+    assertEquals(4, path.getWaypointCount());
+    assertEquals(30, path.getLength(), 1e-9);
+    assertEquals(10, path.getDistance(1), 1e-9);
+    assertEquals(0, path.getCurvature(0), 0);
+    assertEquals(0, path.getCurvature(1), 1e-12);
+    // The circle through (0, 10), (0, 20) and (10, 20) has a radius of sqrt(50)
+    assertEquals(1 / Math.sqrt(50), path.getCurvature(2), 1e-9);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void pathNeedsTwoDistinctWaypoints() {
+    Path.of(Coordinate.fromXY(3, 4), Coordinate.fromXY(3, 4));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void updateRequiresPath() {
+    mecanumFollower().update();
+  }
+
+  private PathFollower mecanumFollower() {
+    motors = new SimulatedMotor[] {simulatedMotor("a"), simulatedMotor("b"), simulatedMotor("c"),
+        simulatedMotor("d")};
+    MecanumDrive driveTrain = new MecanumDrive(adapter(motors[0]), adapter(motors[1]),
+        adapter(motors[2]), adapter(motors[3]), mock(OpMode.class), TICKS_PER_INCH,
+        TICKS_PER_360);
+    driveTrain.setMotionPoller(poller);
+    estimator = new PoseEstimator(driveTrain);
+    follower = new PathFollower(driveTrain, estimator);
+    return follower;
+  }
+
+  private PathFollower tankFollower() {
+    motors = new SimulatedMotor[] {simulatedMotor("left"), simulatedMotor("right")};
+    TankDrive driveTrain = TankDrive.fromMotors(motors[0].getDevice(), motors[1].getDevice(),
+        mock(OpMode.class), TICKS_PER_INCH, TICKS_PER_360);
+    driveTrain.setMotionPoller(poller);
+    estimator = new PoseEstimator(driveTrain);
+    follower = new PathFollower(driveTrain, estimator);
+    return follower;
+  }
+
+  private SimulatedMotor simulatedMotor(String name) {
+    return simulation.addMotor(name).setFreeSpeed(FREE_SPEED);
+  }
+
+  private static MotorAdapter adapter(SimulatedMotor motor) {
+    return new MotorAdapter(motor.getDevice());
+  }
+
+  private double speed() {
+    double sum = 0;
+    for (SimulatedMotor motor : motors) {
+      sum += Math.abs(motor.getVelocity());
+    }
+    return sum / motors.length;
+  }
+}
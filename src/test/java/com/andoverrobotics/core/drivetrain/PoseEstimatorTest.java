@@ -0,0 +1,232 @@
+package com.andoverrobotics.core.drivetrain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.andoverrobotics.core.utilities.Converter;
+import com.andoverrobotics.core.utilities.IMotor;
+import com.andoverrobotics.core.utilities.MotorAdapter;
+import com.andoverrobotics.core.utilities.Pose2;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.After;
+import org.junit.Test;
+
+public class PoseEstimatorTest {
+
+  private static final int TICKS_PER_INCH = 50, TICKS_PER_360 = 2000;
+  private static final double STEP = 1e-3;
+  private static final int STEPS_PER_UPDATE = 10;
+
+  private static class EncoderMotor extends MotorAdapter {
+    volatile double position;
+
+    EncoderMotor() {
+      super(mock(DcMotor.class));
+    }
+
+    @Override
+    public int getCurrentPosition() {
+      return (int) Math.round(position);
+    }
+
+    @Override
+    public void setPower(double power) {
+    }
+
+    @Override
+    public void setMode(RunMode runMode) {
+    }
+  }
+
+  // Drives the encoders of a drivetrain through a script of robot-relative velocities, and
+  // integrates the true field pose alongside
+  private class ScriptedRobot {
+    final EncoderMotor[] motors;
+    final DriveTrain driveTrain;
+    final PoseEstimator estimator;
+    double x, y, heading;
+
+    ScriptedRobot(boolean mecanum) {
+      if (mecanum) {
+        motors = new EncoderMotor[] {
+            new EncoderMotor(), new EncoderMotor(), new EncoderMotor(), new EncoderMotor()};
+        driveTrain = new MecanumDrive(motors[0], motors[1], motors[2], motors[3],
+            mock(OpMode.class), TICKS_PER_INCH, TICKS_PER_360);
+      } else {
+        motors = new EncoderMotor[] {new EncoderMotor(), new EncoderMotor()};
+        driveTrain = new TankDrive(motors[0], motors[1], mock(OpMode.class), TICKS_PER_INCH,
+            TICKS_PER_360);
+      }
+      estimator = new PoseEstimator(driveTrain);
+      estimator.update();
+    }
+
+    // Moves at the given velocities, in inches per second to the right and forwards and degrees
+    // per second counterclockwise, updating the estimator every STEPS_PER_UPDATE steps
+    ScriptedRobot move(double right, double forwards, double turnRate, double seconds) {
+      long steps = Math.round(seconds / STEP);
+      for (long step = 1; step <= steps; step++) {
+        advance(right, forwards, turnRate);
+        if (step % STEPS_PER_UPDATE == 0) {
+          estimator.update();
+        }
+      }
+      estimator.update();
+      return this;
+    }
+
+    private void advance(double right, double forwards, double turnRate) {
+      double rotationTicks = turnRate * STEP / 360 * TICKS_PER_360;
+      if (motors.length == 2) {
+        motors[0].position += forwards * STEP * TICKS_PER_INCH - rotationTicks;
+        motors[1].position += forwards * STEP * TICKS_PER_INCH + rotationTicks;
+      } else {
+        double leftDiagonal = (forwards - right) * Math.sqrt(0.5) * STEP * TICKS_PER_INCH,
+            rightDiagonal = (forwards + right) * Math.sqrt(0.5) * STEP * TICKS_PER_INCH;
+        motors[0].position += leftDiagonal - rotationTicks;
+        motors[1].position += leftDiagonal + rotationTicks;
+        motors[2].position += rightDiagonal - rotationTicks;
+        motors[3].position += rightDiagonal + rotationTicks;
+      }
+
+      // Integrate the true pose in substeps, far finer than the estimator's updates
+      for (int i = 0; i < 10; i++) {
+        double radians = Math.toRadians(heading);
+        x += (right * Math.cos(radians) - forwards * Math.sin(radians)) * STEP / 10;
+        y += (right * Math.sin(radians) + forwards * Math.cos(radians)) * STEP / 10;
+        heading += turnRate * STEP / 10;
+      }
+    }
+
+    void assertPose(double tolerance) {
+      Pose2 pose = estimator.getPose();
+      assertEquals("x", x, pose.getX(), tolerance);
+      assertEquals("y", y, pose.getY(), tolerance);
+      assertEquals("heading", 0, Converter.signedDegrees(heading - pose.getHeading()), 0.5);
+    }
+  }
+
+  private PoseEstimator started;
+
+  @After
+  public void tearDown() {
+    if (started != null) {
+      started.close();
+    }
+  }
+
+  @Test
+  public void tankDriveAroundSquareReturnsToStart() {
+    ScriptedRobot robot = new ScriptedRobot(false);
+    for (int side = 0; side < 4; side++) {
+      robot.move(0, 20, 0, 1.2).move(0, 0, 90, 1);
+    }
+
+    robot.assertPose(0.1);
+    assertEquals(0, robot.x, 1e-6);
+    assertEquals(0, robot.y, 1e-6);
+  }
+
+  @Test
+  public void tankDriveFollowsArcs() {
+    ScriptedRobot robot = new ScriptedRobot(false);
+    robot.move(0, 20, 30, 3).move(0, -15, -60, 2).move(0, 25, 10, 4);
+
+    robot.assertPose(0.25);
+  }
+
+  @Test
+  public void mecanumDriveStrafesWhileTurning() {
+    ScriptedRobot robot = new ScriptedRobot(true);
+    robot.move(10, 15, 45, 4).move(-20, 0, 0, 1).move(5, -10, -90, 2.5);
+
+    robot.assertPose(0.25);
+  }
+
+  @Test
+  public void mecanumDriveStrafesSideways() {
+    ScriptedRobot robot = new ScriptedRobot(true);
+    robot.move(12, 0, 0, 2);
+
+    robot.assertPose(0.05);
+    assertEquals(24, robot.estimator.getPose().getX(), 0.05);
+  }
+
+  @Test
+  public void setPoseMovesFrameOfEstimate() {
+    ScriptedRobot robot = new ScriptedRobot(false);
+    robot.estimator.setPose(10, 5, 90);
+
+    // Facing heading 90, forwards is the negative x-direction
+    robot.move(0, 10, 0, 1);
+
+    Pose2 pose = robot.estimator.getPose();
+    assertEquals(0, pose.getX(), 0.05);
+    assertEquals(5, pose.getY(), 0.05);
+    assertEquals(90, pose.getHeading(), 1e-9);
+  }
+
+  @Test(timeout = 5000)
+  public void backgroundThreadTracksEncoders() throws InterruptedException {
+    ScriptedRobot robot = new ScriptedRobot(false);
+    started = new PoseEstimator(robot.driveTrain, 2);
+    started.start();
+    assertTrue(started.isRunning());
+
+    awaitUpdates(started, 2);
+    robot.motors[0].position += 10 * TICKS_PER_INCH;
+    robot.motors[1].position += 10 * TICKS_PER_INCH;
+    awaitUpdates(started, 2);
+
+    assertEquals(10, started.getPose().getY(), 1e-9);
+
+    started.close();
+    assertFalse(started.isRunning());
+  }
+
+  @Test(timeout = 10000)
+  public void snapshotsAreNeverTorn() throws InterruptedException {
+    ScriptedRobot robot = new ScriptedRobot(false);
+    PoseEstimator estimator = robot.estimator;
+    AtomicBoolean running = new AtomicBoolean(true);
+
+    Thread writer = new Thread(() -> {
+      for (int i = 0; running.get(); i++) {
+        estimator.setPose(i, -i, i % 360);
+      }
+    });
+    writer.start();
+
+    Pose2 pose = new Pose2();
+    long deadline = System.nanoTime() + 200_000_000L;
+    try {
+      while (System.nanoTime() < deadline) {
+        estimator.getPose(pose);
+        assertEquals(pose.toString(), pose.getX(), -pose.getY(), 0);
+        assertEquals(pose.toString(), pose.getX() % 360, pose.getHeading(), 0);
+      }
+    } finally {
+      running.set(false);
+      writer.join();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void periodMustBePositive() {
+    IMotor motor = new EncoderMotor();
+    new PoseEstimator(new TankDrive(motor, motor, mock(OpMode.class), 1, 1), 0);
+  }
+
+  private static void awaitUpdates(PoseEstimator estimator, int count)
+      throws InterruptedException {
+    long target = estimator.getUpdateCount() + count;
+    while (estimator.getUpdateCount() < target) {
+      Thread.sleep(1);
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package com.andoverrobotics.core.drivetrain;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.andoverrobotics.core.simulation.SimulatedMotor;
+import com.andoverrobotics.core.simulation.Simulation;
+import com.andoverrobotics.core.simulation.SimulationPoller;
+import com.andoverrobotics.core.utilities.Coordinate;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProfiledMoveTest {
+
+  private static final int TICKS_PER_INCH = 50, TICKS_PER_360 = 2000;
+  private static final double MAX_VELOCITY = 800, MAX_ACCELERATION = 1600;
+  // The speed, in ticks per second, that the motors' velocity loop regulates to at full power
+  private static final double MAX_SPEED = 1000;
+
+  private final Simulation simulation = new Simulation();
+  private final SimulationPoller poller = new SimulationPoller(simulation, 10);
+  private final SimulatedMotor motorL = simulatedMotor("left"), motorR = simulatedMotor("right");
+  private final TankDrive driveTrain = TankDrive.fromMotors(motorL.getDevice(),
+      motorR.getDevice(), mock(OpMode.class), TICKS_PER_INCH, TICKS_PER_360);
+  private double peakSpeed;
+
+  @Before
+  public void setUp() {
+    driveTrain.setMotionPoller(poller);
+    driveTrain.setMotionConstraints(MAX_VELOCITY, MAX_ACCELERATION, 0);
+    driveTrain.setProfileGains(1 / MAX_SPEED, 0.03 / MAX_SPEED, 0.01);
+    simulation.addStepListener(
+        () -> peakSpeed = Math.max(peakSpeed, Math.abs(motorL.getVelocity())));
+  }
+
+  @Test(timeout = 5000)
+  public void driveForwardsFollowsProfile() {
+    driveTrain.driveForwardsProfiled(40);
+
+    assertEquals(40 * TICKS_PER_INCH, motorL.getPosition(), 10);
+    assertEquals(40 * TICKS_PER_INCH, motorR.getPosition(), 10);
+    assertEquals(0, motorL.getPower(), 0);
+    assertEquals(RunMode.RUN_USING_ENCODER, motorL.getMode());
+    assertTrue("peak speed " + peakSpeed, peakSpeed < MAX_VELOCITY * 1.05);
+
+    // 2000 ticks at 800 ticks/s with 0.5 s ramps take 3 s, plus a few ticks to settle
+    double profileDuration = 2000 / MAX_VELOCITY + MAX_VELOCITY / MAX_ACCELERATION;
+    assertTrue("took " + simulation.getNanoTime(), simulation.getNanoTime() / 1e9 < profileDuration + 0.2);
+  }
+
+  @Test(timeout = 5000)
+  public void driveBackwardsWithSCurve() {
+    driveTrain.setMotionConstraints(MAX_VELOCITY, MAX_ACCELERATION, 8000);
+
+    driveTrain.driveBackwardsProfiled(10);
+
+    assertEquals(-10 * TICKS_PER_INCH, motorL.getPosition(), 10);
+    assertEquals(-10 * TICKS_PER_INCH, motorR.getPosition(), 10);
+  }
+
+  @Test(timeout = 5000)
+  public void rotationsTurnSidesInOpposition() {
+    driveTrain.rotateClockwiseProfiled(90);
+
+    assertEquals(TICKS_PER_360 / 4, motorL.getPosition(), 10);
+    assertEquals(-TICKS_PER_360 / 4, motorR.getPosition(), 10);
+
+    driveTrain.rotateCounterClockwiseProfiled(90);
+
+    assertEquals(0, motorL.getPosition(), 10);
+    assertEquals(0, motorR.getPosition(), 10);
+  }
+
+  @Test(timeout = 5000)
+  public void negativeRotationsTurnTheOtherWay() {
+    driveTrain.rotateClockwiseProfiled(-90);
+
+    assertEquals(-TICKS_PER_360 / 4, motorL.getPosition(), 10);
+    assertEquals(TICKS_PER_360 / 4, motorR.getPosition(), 10);
+
+    driveTrain.rotateCounterClockwiseProfiled(-90);
+
+    assertEquals(0, motorL.getPosition(), 10);
+    assertEquals(0, motorR.getPosition(), 10);
+  }
+
+  @Test(timeout = 5000)
+  public void unreachableTargetTimesOut() {
+    driveTrain.setProfileGains(0.5 / MAX_SPEED, 0, 0);
+
+    driveTrain.driveForwardsProfiled(10);
+
+    double profileDuration = 500 / MAX_VELOCITY + MAX_VELOCITY / MAX_ACCELERATION;
+    assertEquals(profileDuration + ProfiledMove.SETTLE_TIMEOUT_SECONDS, simulation.getNanoTime() / 1e9, 0.02);
+    assertEquals(0, motorL.getPower(), 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constraintsMustBePositive() {
+    driveTrain.setMotionConstraints(0, MAX_ACCELERATION, 0);
+  }
+
+  @Test
+  public void mecanumOffsetsMatchEncoderMoves() {
+    DcMotor motorFL = mock(DcMotor.class), motorFR = mock(DcMotor.class),
+        motorBL = mock(DcMotor.class), motorBR = mock(DcMotor.class);
+    MecanumDrive mecanum =
+        MecanumDrive.fromOctagonalMotors(motorFL, motorFR, motorBL, motorBR, null, 5, 100);
+
+    // The same offsets as strafeInches(10, 15, power) gives the diagonals
+    Coordinate diagonals = Coordinate.fromXY(10, 15).rotate(-45);
+    int left = (int) (diagonals.getY() * 5), right = (int) (diagonals.getX() * 5);
+    assertArrayEquals(new int[] {right, right, left, left},
+        mecanum.getStrafeTickOffsets(Coordinate.fromXY(10, 15)));
+
+    assertArrayEquals(new int[] {25, -25, 25, -25}, mecanum.getRotationTickOffsets(90));
+    // Rounded like TankDrive's, rather than truncated to 24
+    assertArrayEquals(new int[] {25, -25, 25, -25}, mecanum.getRotationTickOffsets(89));
+    assertArrayEquals(mecanum.getStrafeTickOffsets(Coordinate.fromXY(0, 4)),
+        mecanum.getForwardTickOffsets(4));
+  }
+
+  private SimulatedMotor simulatedMotor(String name) {
+    return simulation.addMotor(name)
+        .setFreeSpeed(MAX_SPEED / SimulatedMotor.REGULATED_SPEED_FRACTION)
+        .setTimeConstant(0.03);
+  }
+}
@@ -0,0 +1,124 @@
+package com.andoverrobotics.core.drivetrain;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.mockito.invocation.Invocation;
+
+// Counts the writes that reach the hardware in each TeleOp loop
+public class TeleopWritesTest {
+
+  private static final List<String> WRITES =
+      Arrays.asList("setPower", "setMode", "setTargetPosition", "setVelocity");
+
+  private final OpMode opMode = mock(OpMode.class);
+  private final DcMotor motorFL = mock(DcMotor.class), motorFR = mock(DcMotor.class),
+      motorBL = mock(DcMotor.class), motorBR = mock(DcMotor.class);
+  private final DcMotor[] motors = {motorFL, motorFR, motorBL, motorBR};
+
+  private int countedWrites = 0;
+
+  @Test
+  public void mecanumStrafeRotationSendsOnlyChangedPowers() {
+    MecanumDrive mecanum =
+        MecanumDrive.fromOctagonalMotors(motorFL, motorFR, motorBL, motorBR, opMode, 5, 100);
+
+    mecanum.setStrafeRotation(0.3, 0.6, 0.8, 0.1);
+    assertEquals(4 + 4, newWrites());
+
+    for (int loop = 0; loop < 10; loop++) {
+      mecanum.setStrafeRotation(0.3, 0.6, 0.8, 0.1);
+      assertEquals(0, newWrites());
+    }
+
+    mecanum.setStrafeRotation(0.3, 0.6, 0.6, 0.1);
+    assertEquals(4, newWrites());
+  }
+
+  @Test
+  public void mecanumTeleopMethodsShareMode() {
+    MecanumDrive mecanum =
+        MecanumDrive.fromOctagonalMotors(motorFL, motorFR, motorBL, motorBR, opMode, 5, 100);
+
+    mecanum.setMovementPower(0.4);
+    newWrites();
+
+    mecanum.setRotationPower(0.5);
+    mecanum.setMovementAndRotation(0.2, 0.1);
+    mecanum.setStrafe(1, 0, 0.4);
+
+    // Powers only: each call changes all four wheels
+    assertEquals(3 * 4, newWrites());
+  }
+
+  @Test
+  public void fourMotorTankDriveSendsOnlyChangedPowers() {
+    TankDrive tank = TankDrive.fromMotors(motorFL, motorBL, motorFR, motorBR, opMode, 50, 720);
+
+    tank.setMovementAndRotation(0.5, 0.1);
+    assertEquals(4 + 4, newWrites());
+
+    for (int loop = 0; loop < 10; loop++) {
+      tank.setMovementAndRotation(0.5, 0.1);
+      assertEquals(0, newWrites());
+    }
+
+    tank.setMovementAndRotation(0.5, 0.2);
+    assertEquals(4, newWrites());
+  }
+
+  @Test
+  public void encoderMoveSwitchesModeBackOnce() {
+    for (DcMotor motor : motors) {
+      when(motor.isBusy()).thenReturn(false);
+    }
+    TankDrive tank = TankDrive.fromMotors(motorFL, motorBL, motorFR, motorBR, opMode, 50, 720);
+    tank.setMovementPower(0.5);
+    tank.driveForwards(10, 0.5);
+    newWrites();
+
+    tank.setMovementPower(0.5);
+    // Back to RUN_WITHOUT_ENCODER, then the power that the move replaced with 0
+    assertEquals(4 + 4, newWrites());
+    // Once before the move and once after it
+    for (DcMotor motor : motors) {
+      assertEquals(2, countCalls(motor, "setMode", RunMode.RUN_WITHOUT_ENCODER));
+    }
+
+    tank.setMovementPower(0.5);
+    assertEquals(0, newWrites());
+  }
+
+  private int newWrites() {
+    int total = 0;
+    for (DcMotor motor : motors) {
+      for (Invocation invocation : mockingDetails(motor).getInvocations()) {
+        if (WRITES.contains(invocation.getMethod().getName())) {
+          total++;
+        }
+      }
+    }
+    int writes = total - countedWrites;
+    countedWrites = total;
+    return writes;
+  }
+
+  private static int countCalls(DcMotor motor, String method, Object argument) {
+    int count = 0;
+    for (Invocation invocation : mockingDetails(motor).getInvocations()) {
+      if (invocation.getMethod().getName().equals(method)
+          && invocation.getArguments()[0] == argument) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,124 @@
+package com.andoverrobotics.core.drivetrain;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.andoverrobotics.core.drivetrain.VelocityControl.Mode;
+import com.andoverrobotics.core.simulation.SimulatedMotor;
+import com.andoverrobotics.core.simulation.Simulation;
+import com.andoverrobotics.core.utilities.IMotor;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import org.junit.Test;
+import org.mockito.AdditionalMatchers;
+
+public class VelocityControlTest {
+
+  private static final long SECOND = 1_000_000_000L;
+
+  private final OpMode opMode = mock(OpMode.class);
+  private final Simulation simulation = new Simulation();
+  private final SimulatedMotor motorFL = simulation.addMotor("fl"),
+      motorFR = simulation.addMotor("fr"), motorBL = simulation.addMotor("bl"),
+      motorBR = simulation.addMotor("br");
+  private final MecanumDrive mecanum = MecanumDrive.fromOctagonalMotors(motorFL.getDevice(),
+      motorFR.getDevice(), motorBL.getDevice(), motorBR.getDevice(), opMode, 50, 2000);
+
+  @Test
+  public void hubModeHoldsWheelVelocities() {
+    mecanum.setVelocityControl(new VelocityControl(1600));
+
+    mecanum.setMovementPower(0.5);
+    simulation.advance(SECOND);
+
+    for (SimulatedMotor motor : new SimulatedMotor[] {motorFL, motorFR, motorBL, motorBR}) {
+      assertEquals(RunMode.RUN_USING_ENCODER, motor.getMode());
+      assertEquals(800, motor.getVelocity(), 5);
+    }
+  }
+
+  @Test
+  public void hubModeSendsEachVelocityOnce() {
+    DcMotorEx left = mock(DcMotorEx.class), right = mock(DcMotorEx.class);
+    when(left.getMode()).thenReturn(RunMode.RUN_WITHOUT_ENCODER);
+    when(right.getMode()).thenReturn(RunMode.RUN_WITHOUT_ENCODER);
+    TankDrive tank = TankDrive.fromMotors(left, right, opMode, 50, 720);
+    tank.setVelocityControl(new VelocityControl(1000));
+
+    tank.setMovementAndRotation(0.5, 0.1);
+    tank.setMovementAndRotation(0.5, 0.1);
+
+    verify(left).setMode(RunMode.RUN_USING_ENCODER);
+    verify(left, times(1)).setVelocity(AdditionalMatchers.eq(600, 1e-6));
+    verify(right, times(1)).setVelocity(AdditionalMatchers.eq(400, 1e-6));
+  }
+
+  @Test
+  public void feedforwardCompensatesBatteryVoltage() {
+    simulation.setBatteryVoltage(10);
+    mecanum.setVelocityControl(new VelocityControl(2000)
+        .setMode(Mode.FEEDFORWARD)
+        .setFeedforwardGains(0, 1 / SimulatedMotor.DEFAULT_FREE_SPEED, 0)
+        .setVoltageSensor(simulation.getVoltageSensor(), 0));
+
+    mecanum.setRotationPower(0.5);
+    simulation.advance(SECOND);
+
+    assertEquals(1.2, mecanum.getVelocityControl().getVoltageCompensation(), 1e-9);
+    assertEquals(RunMode.RUN_WITHOUT_ENCODER, motorFL.getMode());
+    assertEquals(1000, Math.abs(motorFL.getVelocity()), 5);
+    assertEquals(1000, Math.abs(motorBR.getVelocity()), 5);
+  }
+
+  @Test
+  public void feedforwardWithoutSensorSagsWithBattery() {
+    simulation.setBatteryVoltage(10);
+    mecanum.setVelocityControl(new VelocityControl(2000)
+        .setMode(Mode.FEEDFORWARD)
+        .setFeedforwardGains(0, 1 / SimulatedMotor.DEFAULT_FREE_SPEED, 0));
+
+    mecanum.setMovementPower(0.5);
+    simulation.advance(SECOND);
+
+    assertEquals(1000 * 10 / 12.0, motorFL.getVelocity(), 5);
+  }
+
+  @Test
+  public void feedforwardCorrectsMeasuredVelocity() {
+    IMotor left = mock(IMotor.class), right = mock(IMotor.class);
+    when(left.getVelocity()).thenReturn(100.0);
+    when(right.getVelocity()).thenReturn(-500.0);
+    TankDrive tank = new TankDrive(left, right, opMode, 50, 720);
+    tank.setVelocityControl(new VelocityControl(1000)
+        .setMode(Mode.FEEDFORWARD)
+        .setFeedforwardGains(0.05, 0.0005, 0.001));
+
+    tank.setMovementPower(0.5);
+
+    // 0.05 + 0.0005 * 500 + 0.001 * (500 - 100)
+    verify(left).setPower(AdditionalMatchers.eq(0.7, 1e-9));
+    // 0.05 + 0.0005 * 500 + 0.001 * (500 + 500)
+    verify(right).setPower(AdditionalMatchers.eq(1.3, 1e-9));
+  }
+
+  @Test
+  public void removingControlRestoresOpenLoop() {
+    mecanum.setVelocityControl(new VelocityControl(1600));
+    mecanum.setMovementPower(0.5);
+
+    mecanum.setVelocityControl(null);
+    mecanum.setMovementPower(0.5);
+
+    assertEquals(RunMode.RUN_WITHOUT_ENCODER, motorFL.getMode());
+    assertEquals(0.5, motorFL.getPower(), 1e-9);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void maxVelocityMustBePositive() {
+    new VelocityControl(0);
+  }
+}
@@ -0,0 +1,77 @@
+package com.andoverrobotics.core.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.andoverrobotics.core.drivetrain.MecanumDrive;
+import com.andoverrobotics.core.drivetrain.TankDrive;
+import com.andoverrobotics.core.utilities.MotorPair;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import org.junit.Test;
+
+public class SimulatedDriveTrainTest {
+
+  private static final int TICKS_PER_INCH = 45, TICKS_PER_360 = 3600;
+
+  private final Simulation simulation = new Simulation();
+  private final SimulationPoller poller = new SimulationPoller(simulation);
+
+  @Test
+  public void tankDriveMoveTakesMeasurableTime() {
+    SimulatedMotor left = simulation.addMotor("left"), right = simulation.addMotor("right");
+    TankDrive driveTrain = TankDrive.fromMotors(left.getDevice(), right.getDevice(),
+        mock(OpMode.class), TICKS_PER_INCH, TICKS_PER_360);
+    driveTrain.setMotionPoller(poller);
+
+    driveTrain.driveForwards(24, 0.5);
+
+    int target = 24 * TICKS_PER_INCH;
+    assertEquals(target, left.getPosition(), SimulatedMotor.DEFAULT_TARGET_POSITION_TOLERANCE);
+    assertEquals(target, right.getPosition(), SimulatedMotor.DEFAULT_TARGET_POSITION_TOLERANCE);
+    assertEquals(0, left.getPower(), 0);
+    assertEquals(DcMotor.RunMode.RUN_USING_ENCODER, left.getMode());
+
+    // 1080 ticks at half of the regulated speed take at least 0.9 s
+    double minimum = target / (0.5 * left.getRegulatedSpeed());
+    assertTrue("took " + simulation.getTime(), simulation.getTime() > minimum);
+    assertTrue("took " + simulation.getTime(), simulation.getTime() < minimum + 0.5);
+    assertEquals(simulation.getNanoTime() / poller.getPollIntervalNanos(), poller.getIterations());
+  }
+
+  @Test
+  public void motorPairsShareTheMove() {
+    SimulatedMotor l1 = simulation.addMotor("l1"), l2 = simulation.addMotor("l2"),
+        r1 = simulation.addMotor("r1"), r2 = simulation.addMotor("r2");
+    TankDrive driveTrain = new TankDrive(MotorPair.of(l1.getDevice(), l2.getDevice()),
+        MotorPair.of(r1.getDevice(), r2.getDevice()), mock(OpMode.class), TICKS_PER_INCH,
+        TICKS_PER_360);
+    driveTrain.setMotionPoller(poller);
+
+    driveTrain.rotateClockwise(90, 0.6);
+
+    assertEquals(TICKS_PER_360 / 4, l1.getPosition(), 10);
+    assertEquals(TICKS_PER_360 / 4, l2.getPosition(), 10);
+    assertEquals(-TICKS_PER_360 / 4, r1.getPosition(), 10);
+    assertEquals(-TICKS_PER_360 / 4, r2.getPosition(), 10);
+  }
+
+  @Test
+  public void mecanumRoutineRunsFasterThanRealTime() {
+    SimulatedMotor fl = simulation.addMotor("fl"), fr = simulation.addMotor("fr"),
+        bl = simulation.addMotor("bl"), br = simulation.addMotor("br");
+    MecanumDrive driveTrain = MecanumDrive.fromOctagonalMotors(fl.getDevice(), fr.getDevice(),
+        bl.getDevice(), br.getDevice(), mock(OpMode.class), TICKS_PER_INCH, TICKS_PER_360);
+    driveTrain.setMotionPoller(poller);
+
+    long start = System.nanoTime();
+    driveTrain.strafeInches(24, 24, 0.7);
+    driveTrain.rotateCounterClockwise(90, 0.5);
+    driveTrain.driveBackwards(12, 0.6);
+    long elapsed = System.nanoTime() - start;
+
+    assertTrue("simulated " + simulation.getTime(), simulation.getTime() > 2);
+    assertTrue("took " + elapsed / 1e9, elapsed < simulation.getNanoTime() / 4);
+  }
+}
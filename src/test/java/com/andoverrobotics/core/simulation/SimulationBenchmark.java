@@ -0,0 +1,72 @@
+package com.andoverrobotics.core.simulation;
+
+import com.andoverrobotics.core.drivetrain.MecanumDrive;
+import com.andoverrobotics.core.drivetrain.TankDrive;
+import com.andoverrobotics.core.testing.MicroBenchmark;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import java.util.Locale;
+
+/**
+ * Measures how long a simulated autonomous routine takes to run on the host, against the
+ * simulated time that it covers. Each operation runs the whole routine on a fresh simulation.
+ */
+public class SimulationBenchmark {
+
+  private static final OpMode OP_MODE = new OpMode() {
+    @Override
+    public void init() {
+    }
+
+    @Override
+    public void loop() {
+    }
+  };
+
+  public static void main(String[] args) {
+    MicroBenchmark benchmark = new MicroBenchmark(3, 5, 20);
+
+    double tankNanos = benchmark.run("tank routine", i -> tankRoutine().getTime());
+    report(tankRoutine(), tankNanos);
+
+    double mecanumNanos = benchmark.run("mecanum routine", i -> mecanumRoutine().getTime());
+    report(mecanumRoutine(), mecanumNanos);
+
+    System.out.println("sink " + benchmark.getSink());
+  }
+
+  private static Simulation tankRoutine() {
+    Simulation simulation = new Simulation();
+    TankDrive driveTrain = TankDrive.fromMotors(simulation.addMotor("left").getDevice(),
+        simulation.addMotor("right").getDevice(), OP_MODE, 45, 3600);
+    driveTrain.setMotionPoller(new SimulationPoller(simulation));
+
+    for (int lap = 0; lap < 4; lap++) {
+      driveTrain.driveForwards(36, 0.8);
+      driveTrain.rotateCounterClockwise(90, 0.5);
+    }
+    return simulation;
+  }
+
+  private static Simulation mecanumRoutine() {
+    Simulation simulation = new Simulation();
+    MecanumDrive driveTrain = MecanumDrive.fromOctagonalMotors(
+        simulation.addMotor("fl").getDevice(), simulation.addMotor("fr").getDevice(),
+        simulation.addMotor("bl").getDevice(), simulation.addMotor("br").getDevice(), OP_MODE,
+        45, 3600);
+    driveTrain.setMotionPoller(new SimulationPoller(simulation));
+
+    for (int lap = 0; lap < 4; lap++) {
+      driveTrain.strafeInches(24, 36, 0.8);
+      driveTrain.rotateClockwise(45, 0.5);
+      driveTrain.strafeLeft(12, 0.6);
+    }
+    return simulation;
+  }
+
+  private static void report(Simulation simulation, double nanosPerRun) {
+    System.out.println(String.format(Locale.US,
+        "  %.1f s simulated in %.2f ms (%.0fx real time, %d steps)",
+        simulation.getTime(), nanosPerRun / 1e6, simulation.getNanoTime() / nanosPerRun,
+        simulation.getSteps()));
+  }
+}
@@ -0,0 +1,168 @@
+package com.andoverrobotics.core.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import com.qualcomm.robotcore.hardware.DcMotor.ZeroPowerBehavior;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.DcMotorSimple.Direction;
+import org.junit.Test;
+
+public class SimulationTest {
+
+  private static final long SECOND = 1_000_000_000L;
+
+  private final Simulation simulation = new Simulation();
+  private final SimulatedMotor motor = simulation.addMotor("motor");
+  private final DcMotorEx device = motor.getDevice();
+
+  @Test
+  public void motorSpeedLagsBehindPower() {
+    device.setPower(1);
+    simulation.advance(SECOND / 20);
+
+    // One time constant covers about 63% of the change in speed
+    assertEquals(0.632 * SimulatedMotor.DEFAULT_FREE_SPEED, motor.getVelocity(), 5);
+
+    simulation.advance(SECOND);
+    assertEquals(SimulatedMotor.DEFAULT_FREE_SPEED, device.getVelocity(), 1);
+    assertEquals((int) motor.getPosition(), device.getCurrentPosition());
+  }
+
+  @Test
+  public void batteryVoltageScalesOpenLoopSpeed() {
+    simulation.setBatteryVoltage(10);
+    assertEquals(10, simulation.getVoltageSensor().getVoltage(), 0);
+
+    device.setPower(0.6);
+    simulation.advance(SECOND);
+
+    assertEquals(0.6 * SimulatedMotor.DEFAULT_FREE_SPEED * 10 / 12, motor.getVelocity(), 1);
+  }
+
+  @Test
+  public void velocityLoopHoldsSpeedDespiteVoltage() {
+    simulation.setBatteryVoltage(11);
+    device.setMode(RunMode.RUN_USING_ENCODER);
+    device.setPower(0.5);
+    simulation.advance(SECOND);
+
+    assertEquals(0.5 * motor.getRegulatedSpeed(), motor.getVelocity(), 1);
+
+    device.setVelocity(1000);
+    simulation.advance(SECOND);
+    assertEquals(1000, motor.getVelocity(), 1);
+  }
+
+  @Test
+  public void runToPositionSettlesWithinTolerance() {
+    device.setTargetPosition(1500);
+    device.setMode(RunMode.RUN_TO_POSITION);
+    device.setPower(0.8);
+    assertTrue(device.isBusy());
+
+    double peak = 0;
+    while (device.isBusy()) {
+      simulation.advance(SECOND / 100);
+      peak = Math.max(peak, motor.getPosition());
+    }
+
+    assertEquals(1500, motor.getPosition(), SimulatedMotor.DEFAULT_TARGET_POSITION_TOLERANCE);
+    assertTrue("peak " + peak, peak < 1500 + 50);
+    assertTrue("took " + simulation.getTime(), simulation.getTime() < 1.5);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void runToPositionNeedsTarget() {
+    device.setMode(RunMode.RUN_TO_POSITION);
+  }
+
+  @Test
+  public void reverseDirectionFlipsShaft() {
+    device.setDirection(Direction.REVERSE);
+    device.setPower(0.5);
+    simulation.advance(SECOND);
+
+    assertTrue(motor.getPosition() > 0);
+    assertEquals(-motor.getPosition(), motor.getShaftPosition(), 1e-9);
+  }
+
+  @Test
+  public void stopAndResetEncoderZeroesPosition() {
+    device.setPower(0.5);
+    simulation.advance(SECOND);
+    device.setMode(RunMode.STOP_AND_RESET_ENCODER);
+
+    assertEquals(0, device.getCurrentPosition());
+    simulation.advance(SECOND);
+    assertEquals(0, motor.getVelocity(), 1);
+    assertTrue(motor.getShaftPosition() > 0);
+  }
+
+  @Test
+  public void floatingMotorCoastsFurther() {
+    double braked = coastDistance(ZeroPowerBehavior.BRAKE),
+        floated = coastDistance(ZeroPowerBehavior.FLOAT);
+
+    assertTrue(braked + " " + floated, floated > 4 * braked);
+  }
+
+  @Test
+  public void simulationIsDeterministic() {
+    assertEquals(runScript(), runScript(), 0);
+  }
+
+  @Test
+  public void pollerAdvancesSimulatedTime() {
+    SimulationPoller poller = new SimulationPoller(simulation, 20);
+    device.setTargetPosition(600);
+    device.setMode(RunMode.RUN_TO_POSITION);
+    device.setPower(1);
+
+    int polls = poller.awaitIdle(device::isBusy, () -> true);
+
+    assertFalse(device.isBusy());
+    assertEquals(polls - 1, poller.getIterations());
+    assertEquals(poller.getIterations() * 20_000_000L, simulation.getNanoTime());
+    assertEquals(simulation.getNanoTime() / 1_000_000, simulation.getSteps());
+  }
+
+  @Test
+  public void devicesBehaveAsObjects() {
+    DcMotorEx other = simulation.addMotor("other").getDevice();
+
+    assertEquals(device, device);
+    assertNotEquals(device, other);
+    assertEquals("motor", device.getDeviceName());
+    assertEquals("SimulatedMotor(motor)", device.toString());
+    assertEquals(0, device.getVersion());
+  }
+
+  private double coastDistance(ZeroPowerBehavior behavior) {
+    Simulation simulation = new Simulation();
+    SimulatedMotor motor = simulation.addMotor("coasting");
+    motor.getDevice().setZeroPowerBehavior(behavior);
+    motor.getDevice().setPower(1);
+    simulation.advance(SECOND);
+
+    double start = motor.getPosition();
+    motor.getDevice().setPower(0);
+    simulation.advance(SECOND);
+    return motor.getPosition() - start;
+  }
+
+  private static double runScript() {
+    Simulation simulation = new Simulation();
+    SimulatedMotor motor = simulation.addMotor("scripted").setTimeConstant(0.08);
+    DcMotorEx device = motor.getDevice();
+    device.setPower(0.7);
+    simulation.advance(SECOND / 3);
+    device.setTargetPosition(-200);
+    device.setMode(RunMode.RUN_TO_POSITION);
+    simulation.advance(2 * SECOND);
+    return motor.getPosition() * 1e6 + motor.getVelocity();
+  }
+}
@@ -0,0 +1,135 @@
+package com.andoverrobotics.core.testing;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+/**
+ * A minimal JMH-style harness for the <code>*Benchmark</code> classes in the test sources. <p> Each
+ * benchmark runs a number of warm-up rounds, so that the JIT compiles the measured code, followed by
+ * measured rounds. It reports the average and best time per operation and the bytes allocated per
+ * operation. The value returned by each operation is accumulated into a sink that is printed, so
+ * the JIT cannot discard the measured work. <p> Benchmarks are run by hand through their
+ * <code>main</code> methods and are not part of the unit test suite. <p> {@link
+ * #assertNoAllocation(Runnable)} uses the same allocation counter to check, from unit tests, that a
+ * loop-time operation does not allocate.
+ */
+public final class MicroBenchmark {
+
+  /**
+   * The operation being measured.
+   */
+  public interface Operation {
+
+    /**
+     * @param iteration The index of this invocation within the current round
+     * @return Any value that depends on the measured work
+     */
+    double run(int iteration);
+  }
+
+  private static final com.sun.management.ThreadMXBean THREADS =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private final int warmupRounds, measuredRounds, operationsPerRound;
+  private double sink;
+
+  /**
+   * Creates a harness that runs 5 warm-up rounds and 10 measured rounds of 1,000,000 operations.
+   */
+  public MicroBenchmark() {
+    this(5, 10, 1_000_000);
+  }
+
+  /**
+   * @param warmupRounds The number of rounds run before measuring
+   * @param measuredRounds The number of measured rounds
+   * @param operationsPerRound The number of operations per round
+   */
+  public MicroBenchmark(int warmupRounds, int measuredRounds, int operationsPerRound) {
+    this.warmupRounds = warmupRounds;
+    this.measuredRounds = measuredRounds;
+    this.operationsPerRound = operationsPerRound;
+  }
+
+  /**
+   * Measures the given operation and prints one line of results.
+   *
+   * @param name The name printed with the results
+   * @param operation The operation to measure
+   * @return The average time per operation in nanoseconds
+   */
+  public double run(String name, Operation operation) {
+    for (int round = 0; round < warmupRounds; round++) {
+      runRound(operation);
+    }
+
+    long threadId = Thread.currentThread().getId();
+    long totalNanos = 0, bestNanos = Long.MAX_VALUE;
+    long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+
+    for (int round = 0; round < measuredRounds; round++) {
+      long nanos = runRound(operation);
+      totalNanos += nanos;
+      bestNanos = Math.min(bestNanos, nanos);
+    }
+
+    long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+    long operations = (long) measuredRounds * operationsPerRound;
+    double averageNanos = (double) totalNanos / operations;
+
+    System.out.println(String.format(Locale.US,
+        "%-40s %10.2f ns/op (best %8.2f)  %8.2f B/op",
+        name, averageNanos, (double) bestNanos / operationsPerRound,
+        (double) allocated / operations));
+    return averageNanos;
+  }
+
+  /**
+   * Asserts that the given operation does not allocate once the JIT has compiled it. The operation
+   * is run 20,000 times to warm up, then in rounds of 1,000 that must not allocate.
+   *
+   * @param operation One iteration of the operation to check
+   */
+  public static void assertNoAllocation(Runnable operation) {
+    long threadId = Thread.currentThread().getId();
+
+    for (int i = 0; i < 20000; i++) {
+      operation.run();
+    }
+
+    long overhead = -THREADS.getThreadAllocatedBytes(threadId);
+    overhead += THREADS.getThreadAllocatedBytes(threadId);
+
+    // A recompilation can allocate once in a while, so only one of a few rounds has to be clean
+    long allocated = Long.MAX_VALUE;
+    for (int round = 0; round < 3 && allocated != overhead; round++) {
+      allocated = -THREADS.getThreadAllocatedBytes(threadId);
+      for (int i = 0; i < 1000; i++) {
+        operation.run();
+      }
+      allocated += THREADS.getThreadAllocatedBytes(threadId);
+    }
+
+    assertEquals("Bytes allocated by 1000 operations", overhead, allocated);
+  }
+
+  /**
+   * @return The accumulated results of every operation run so far
+   */
+  public double getSink() {
+    return sink;
+  }
+
+  private long runRound(Operation operation) {
+    double accumulator = 0;
+    long start = System.nanoTime();
+    for (int i = 0; i < operationsPerRound; i++) {
+      accumulator += operation.run(i);
+    }
+    long elapsed = System.nanoTime() - start;
+    sink += accumulator;
+    return elapsed;
+  }
+}
@@ -0,0 +1,175 @@
+package com.andoverrobotics.core.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+
+public class CallbackDispatcherTest {
+
+  private final CallbackDispatcher dispatcher = new CallbackDispatcher();
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final List<Integer> runs = new CopyOnWriteArrayList<>();
+
+  @After
+  public void closeDispatcher() {
+    release.countDown();
+    dispatcher.close();
+  }
+
+  @Test
+  public void queuedCallbacksRunInOrder() throws InterruptedException {
+    Runnable blocker = dispatcher.queued(this::awaitRelease);
+    Runnable first = dispatcher.queued(() -> runs.add(1));
+    Runnable second = dispatcher.queued(() -> runs.add(2));
+
+    blocker.run();
+    awaitQueueDepth(0);
+    first.run();
+    second.run();
+    first.run();
+    awaitQueueDepth(3);
+    assertEquals(3, dispatcher.getQueueDepth());
+
+    release.countDown();
+    awaitCompleted(4);
+    assertEquals(0, dispatcher.getQueueDepth());
+    assertEquals(3, dispatcher.getMaxQueueDepth());
+    assertEquals(4, dispatcher.getDispatchedCount());
+    assertEquals(Arrays.asList(1, 2, 1), runs);
+  }
+
+  @Test
+  public void busyCallbacksAreDropped() throws InterruptedException {
+    Runnable slow = dispatcher.dropIfBusy(() -> {
+      awaitRelease();
+      runs.add(1);
+    });
+
+    slow.run();
+    slow.run();
+    slow.run();
+    assertEquals(2, dispatcher.getDroppedCount());
+
+    release.countDown();
+    awaitCompleted(1);
+    slow.run();
+    awaitCompleted(2);
+    assertEquals(Arrays.asList(1, 1), runs);
+  }
+
+  @Test
+  public void failuresAreCountedAndDoNotStopTheWorker() throws InterruptedException {
+    IllegalStateException error = new IllegalStateException("Test");
+    dispatcher.queued(() -> {
+      throw error;
+    }).run();
+    dispatcher.queued(() -> runs.add(1)).run();
+
+    awaitCompleted(2);
+    assertEquals(1, dispatcher.getFailedCount());
+    assertEquals(error, dispatcher.getLastFailure());
+    assertEquals(Collections.singletonList(1), runs);
+  }
+
+  @Test
+  public void latencyIncludesTimeBehindSlowCallback() throws InterruptedException {
+    dispatcher.queued(this::awaitRelease).run();
+    dispatcher.queued(() -> runs.add(1)).run();
+
+    Thread.sleep(20);
+    release.countDown();
+    awaitCompleted(2);
+
+    assertTrue(dispatcher.getMaxLatency() >= TimeUnit.MILLISECONDS.toNanos(20));
+    assertEquals(dispatcher.getMaxLatency(), dispatcher.getLatencyAtPercentile(100));
+
+    dispatcher.resetMetrics();
+    assertEquals(0, dispatcher.getMaxLatency());
+    assertEquals(0, dispatcher.getCompletedCount());
+  }
+
+  @Test
+  public void closeDiscardsQueuedCallbacks() throws InterruptedException {
+    Runnable slow = dispatcher.dropIfBusy(this::awaitRelease);
+    Runnable queued = dispatcher.dropIfBusy(() -> runs.add(1));
+    slow.run();
+    queued.run();
+    awaitQueueDepth(1);
+
+    dispatcher.close();
+    assertEquals(0, dispatcher.getQueueDepth());
+
+    // A discarded callback is no longer busy, and runs on a new worker
+    queued.run();
+    awaitCompleted(2);
+    assertEquals(Collections.singletonList(1), runs);
+    assertEquals(0, dispatcher.getDroppedCount());
+  }
+
+  @Test
+  public void closingWithTimeoutRunsQueuedCallbacks() throws InterruptedException {
+    Runnable slow = dispatcher.queued(() -> {
+      sleep(20);
+      runs.add(1);
+    });
+    Runnable queued = dispatcher.queued(() -> runs.add(2));
+    slow.run();
+    queued.run();
+
+    assertTrue(dispatcher.close(5, TimeUnit.SECONDS));
+    assertEquals(Arrays.asList(1, 2), runs);
+    assertEquals(0, dispatcher.getQueueDepth());
+  }
+
+  @Test
+  public void closingWithTimeoutDiscardsWhatIsLeft() throws InterruptedException {
+    Runnable slow = dispatcher.queued(this::awaitRelease);
+    Runnable queued = dispatcher.queued(() -> runs.add(1));
+    slow.run();
+    queued.run();
+
+    assertFalse(dispatcher.close(10, TimeUnit.MILLISECONDS));
+    assertEquals(0, dispatcher.getQueueDepth());
+    assertEquals(Collections.emptyList(), runs);
+  }
+
+  private void sleep(long ms) {
+    try {
+      Thread.sleep(ms);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void awaitRelease() {
+    try {
+      release.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void awaitQueueDepth(int depth) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (dispatcher.getQueueDepth() != depth && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+  }
+
+  private void awaitCompleted(long count) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (dispatcher.getCompletedCount() < count && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    assertEquals(count, dispatcher.getCompletedCount());
+  }
+}
@@ -0,0 +1,38 @@
+package com.andoverrobotics.core.utilities;
+
+import com.andoverrobotics.core.testing.MicroBenchmark;
+
+/**
+ * Compares the constant-time angle normalization against the loop it replaced, and the lookup-table
+ * sine against {@link Math#sin(double)}.
+ */
+public class ConverterBenchmark {
+
+  public static void main(String[] args) {
+    MicroBenchmark benchmark = new MicroBenchmark(5, 10, 100_000);
+
+    benchmark.run("loop normalizedDegrees(small)", i -> loopNormalizedDegrees(i % 1000 - 500));
+    benchmark.run("normalizedDegrees(small)", i -> Converter.normalizedDegrees(i % 1000 - 500));
+    benchmark.run("loop normalizedDegrees(1e6 + i)", i -> loopNormalizedDegrees(1e6 + i));
+    benchmark.run("normalizedDegrees(1e6 + i)", i -> Converter.normalizedDegrees(1e6 + i));
+    benchmark.run("signedDegrees(1e6 + i)", i -> Converter.signedDegrees(1e6 + i));
+
+    benchmark.run("Math.sin", i -> Math.sin(i * 1e-3));
+    benchmark.run("Converter.fastSin", i -> Converter.fastSin(i * 1e-3));
+    benchmark.run("Math.cos", i -> Math.cos(i * 1e-3));
+    benchmark.run("Converter.fastCos", i -> Converter.fastCos(i * 1e-3));
+
+    System.out.println("sink " + benchmark.getSink());
+  }
+
+  // The normalization used before it became constant-time
+  private static double loopNormalizedDegrees(double degrees) {
+    while (degrees < 0) {
+      degrees += 360;
+    }
+    while (degrees >= 360) {
+      degrees -= 360;
+    }
+    return degrees;
+  }
+}
@@ -2,6 +2,8 @@ package com.andoverrobotics.core.utilities;
 
 import static org.junit.Assert.*;
 
+import java.math.BigDecimal;
+import java.util.Random;
 import org.junit.Test;
 
 public class ConverterTest {
@@ -44,4 +46,133 @@ public class ConverterTest {
     assertEquals(135, Converter.radiansToDegrees(Math.PI * 2.75), 1e-7);
     assertEquals(270, Converter.radiansToDegrees(Math.PI * 5.5), 1e-7);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void normalizedDegreesMatchesExactRemainder() {
+    Random random = new Random(7);
+    for (int i = 0; i < 10000; i++) {
+      double input = extremeInput(random);
+      double result = Converter.normalizedDegrees(input);
+
+      assertTrue(input + " -> " + result, result >= 0 && result < 360);
+      assertEquals(input + "", exactRemainder(input, 360), result, 1e-12);
+    }
+  }
+
+  @Test
+  public void normalizedRadiansMatchesExactRemainder() {
+    Random random = new Random(11);
+    for (int i = 0; i < 10000; i++) {
+      double input = extremeInput(random);
+      double result = Converter.normalizedRadians(input);
+
+      assertTrue(input + " -> " + result, result >= 0 && result < Converter.TAU);
+      assertEquals(input + "", exactRemainder(input, Converter.TAU), result, 1e-12);
+    }
+  }
+
+  @Test(timeout = 1000)
+  public void normalizationTakesConstantTime() {
+    assertEquals(0, Converter.normalizedDegrees(1e6 * 360), 0);
+    assertEquals(80, Converter.normalizedDegrees(-1e9 * 360 + 80), 1e-6);
+    assertTrue(Converter.normalizedDegrees(Double.MAX_VALUE) < 360);
+    assertTrue(Converter.normalizedRadians(-Double.MAX_VALUE) < Converter.TAU);
+  }
+
+  @Test
+  public void normalizationOfNonFiniteIsNaN() {
+    assertTrue(Double.isNaN(Converter.normalizedDegrees(Double.NaN)));
+    assertTrue(Double.isNaN(Converter.normalizedDegrees(Double.POSITIVE_INFINITY)));
+    assertTrue(Double.isNaN(Converter.normalizedRadians(Double.NEGATIVE_INFINITY)));
+    assertTrue(Double.isNaN(Converter.signedDegrees(Double.NaN)));
+  }
+
+  @Test
+  public void normalizationEdgeCases() {
+    assertEquals(0.0, Converter.normalizedDegrees(-0.0), 0);
+    assertEquals(1 / 0.0, 1 / Converter.normalizedDegrees(-0.0), 0);
+    assertEquals(0, Converter.normalizedDegrees(-360), 0);
+    assertEquals(0, Converter.normalizedDegrees(-1e-15), 0);
+    assertTrue(Converter.normalizedRadians(-1e-17) < Converter.TAU);
+  }
+
+  @Test
+  public void signedDegrees() {
+    assertEquals(180, Converter.signedDegrees(180), 0);
+    assertEquals(180, Converter.signedDegrees(-180), 0);
+    assertEquals(-179, Converter.signedDegrees(181), 1e-12);
+    assertEquals(-90, Converter.signedDegrees(270), 1e-12);
+    assertEquals(10, Converter.signedDegrees(370 + 360 * 1e6), 1e-6);
+    assertEquals(0, Converter.signedDegrees(0), 0);
+  }
+
+  @Test
+  public void signedRadians() {
+    assertEquals(Math.PI, Converter.signedRadians(Math.PI), 0);
+    assertEquals(Math.PI, Converter.signedRadians(-Math.PI), 1e-12);
+    assertEquals(-Math.PI / 2, Converter.signedRadians(Math.PI * 1.5), 1e-12);
+  }
+
+  @Test
+  public void signedRangeProperty() {
+    Random random = new Random(13);
+    for (int i = 0; i < 10000; i++) {
+      double input = extremeInput(random);
+      double degrees = Converter.signedDegrees(input),
+          radians = Converter.signedRadians(input);
+
+      assertTrue(input + " -> " + degrees, degrees > -180 && degrees <= 180);
+      assertTrue(input + " -> " + radians, radians > -Math.PI && radians <= Math.PI);
+    }
+  }
+
+  @Test
+  public void fastTrigWithinErrorBound() {
+    Random random = new Random(17);
+    for (int i = 0; i < 100000; i++) {
+      double magnitude = i % 2 == 0 ? Converter.TAU : 1e6;
+      double input = (random.nextDouble() * 2 - 1) * magnitude;
+
+      assertEquals(input + "", Math.sin(input), Converter.fastSin(input),
+          Converter.FAST_TRIG_MAX_ERROR);
+      assertEquals(input + "", Math.cos(input), Converter.fastCos(input),
+          Converter.FAST_TRIG_MAX_ERROR);
+    }
+  }
+
+  @Test
+  public void fastTrigAtKeyAngles() {
+    for (int quarter = -8; quarter <= 8; quarter++) {
+      double input = quarter * Math.PI / 2;
+
+      assertEquals(Math.sin(input), Converter.fastSin(input), Converter.FAST_TRIG_MAX_ERROR);
+      assertEquals(Math.cos(input), Converter.fastCos(input), Converter.FAST_TRIG_MAX_ERROR);
+    }
+    assertTrue(Double.isNaN(Converter.fastSin(Double.NaN)));
+    assertTrue(Double.isNaN(Converter.fastCos(Double.POSITIVE_INFINITY)));
+  }
+
+  // Mixes small angles, multi-turn headings and values near the limits of double precision
+  private static double extremeInput(Random random) {
+    double sign = random.nextBoolean() ? 1 : -1;
+    switch (random.nextInt(4)) {
+      case 0:
+        return sign * random.nextDouble() * 720;
+      case 1:
+        return sign * random.nextDouble() * 1e7;
+      case 2:
+        return sign * Math.pow(10, random.nextDouble() * 300);
+      default:
+        return sign * random.nextInt(1000) * 360.0;
+    }
+  }
+
+  private static double exactRemainder(double input, double period) {
+    BigDecimal exactPeriod = new BigDecimal(period);
+    BigDecimal remainder = new BigDecimal(input).remainder(exactPeriod);
+    if (remainder.signum() < 0) {
+      remainder = remainder.add(exactPeriod);
+    }
+    return remainder.doubleValue();
+  }
+}
@@ -0,0 +1,31 @@
+package com.andoverrobotics.core.utilities;
+
+import com.andoverrobotics.core.testing.MicroBenchmark;
+
+/**
+ * Compares rotating an immutable {@link Coordinate} against rotating a {@link Vector2} in place.
+ */
+public class CoordinateBenchmark {
+
+  public static void main(String[] args) {
+    MicroBenchmark benchmark = new MicroBenchmark();
+
+    Coordinate[] coordinate = {Coordinate.fromXY(3, 4)};
+    benchmark.run("Coordinate.rotate(int)", i -> {
+      coordinate[0] = coordinate[0].rotate(30);
+      return coordinate[0].getX();
+    });
+
+    Vector2 degrees = new Vector2(3, 4);
+    benchmark.run("Vector2.rotateDegrees(double)", i -> degrees.rotateDegrees(30).getX());
+
+    double radians = Math.toRadians(30), sin = Math.sin(radians), cos = Math.cos(radians);
+    Vector2 precomputed = new Vector2(3, 4);
+    benchmark.run("Vector2.rotate(sin, cos)", i -> precomputed.rotate(sin, cos).getX());
+
+    Vector2 sum = new Vector2(), step = new Vector2(0.5, -0.25);
+    benchmark.run("Vector2.add + normalize", i -> sum.add(step).normalize().dot(step));
+
+    System.out.println("sink " + benchmark.getSink());
+  }
+}
@@ -0,0 +1,43 @@
+package com.andoverrobotics.core.utilities;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class GainScheduleTest {
+  private GainSchedule schedule = new GainSchedule();
+
+  @Test
+  public void interpolatesBetweenPoints() {
+    schedule.addPoint(12, 1, 0.2, 0.02);
+    schedule.addPoint(10, 2, 0.4, 0.04);
+
+    assertEquals(1.5, schedule.getP(11), 1e-9);
+    assertEquals(0.3, schedule.getI(11), 1e-9);
+    assertEquals(0.035, schedule.getD(10.5), 1e-9);
+  }
+
+  @Test
+  public void clampsOutsidePoints() {
+    schedule.addPoint(0, 5, 0, 0);
+    schedule.addPoint(1, 3, 0, 0);
+
+    assertEquals(5, schedule.getP(-4), 1e-9);
+    assertEquals(3, schedule.getP(9), 1e-9);
+    assertEquals(5, schedule.getP(0), 1e-9);
+  }
+
+  @Test
+  public void addingExistingPointReplacesIt() {
+    schedule.addPoint(3, 1, 1, 1);
+    schedule.addPoint(3, 2, 2, 2);
+
+    assertEquals(1, schedule.size());
+    assertEquals(2, schedule.getP(3), 1e-9);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void emptyScheduleThrows() {
+    schedule.getP(0);
+  }
+}
@@ -0,0 +1,80 @@
+package com.andoverrobotics.core.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.andoverrobotics.core.utilities.GamepadSnapshot.Axis;
+import com.andoverrobotics.core.utilities.GamepadSnapshot.Button;
+import com.qualcomm.robotcore.hardware.Gamepad;
+import org.junit.Test;
+
+public class GamepadSnapshotTest {
+
+  private final Gamepad gamepad = new Gamepad();
+  private final GamepadSnapshot snapshot = new GamepadSnapshot(gamepad);
+
+  @Test
+  public void buttonsArePackedIntoMask() {
+    gamepad.a = true;
+    gamepad.dpad_left = true;
+    gamepad.guide = true;
+    snapshot.capture();
+
+    assertEquals(Button.A.mask() | Button.DPAD_LEFT.mask() | Button.GUIDE.mask(),
+        snapshot.getButtons());
+    assertTrue(snapshot.isPressed(Button.DPAD_LEFT));
+    assertFalse(snapshot.isPressed(Button.B));
+  }
+
+  @Test
+  public void masksCoverEveryButton() {
+    int all = 0;
+    for (Button button : Button.values()) {
+      all |= button.mask();
+    }
+    assertEquals(GamepadSnapshot.BUTTON_COUNT, Button.values().length);
+    assertEquals(GamepadSnapshot.AXIS_COUNT, Axis.values().length);
+    assertEquals((1 << GamepadSnapshot.BUTTON_COUNT) - 1, all);
+  }
+
+  @Test
+  public void diffTracksEdges() {
+    gamepad.x = true;
+    snapshot.capture();
+    assertTrue(snapshot.wasJustPressed(Button.X));
+    assertEquals(Button.X.mask(), snapshot.getChangedButtons());
+
+    gamepad.y = true;
+    snapshot.capture();
+    assertFalse(snapshot.wasJustPressed(Button.X));
+    assertTrue(snapshot.wasJustPressed(Button.Y));
+
+    gamepad.x = false;
+    snapshot.capture();
+    assertTrue(snapshot.wasJustReleased(Button.X));
+    assertFalse(snapshot.wasJustReleased(Button.Y));
+
+    snapshot.capture();
+    assertFalse(snapshot.hasChanged());
+    assertEquals(4, snapshot.getCaptureCount());
+  }
+
+  @Test
+  public void axesAreCopiedAndDiffed() {
+    gamepad.left_stick_y = -0.5f;
+    gamepad.right_trigger = 1;
+    snapshot.capture();
+
+    assertEquals(-0.5f, snapshot.getAxis(Axis.LEFT_STICK_Y), 0);
+    assertEquals(Axis.LEFT_STICK_Y.mask() | Axis.RIGHT_TRIGGER.mask(), snapshot.getChangedAxes());
+
+    // The gamepad changes after the capture, but the snapshot keeps its copy
+    gamepad.left_stick_y = 0;
+    assertEquals(-0.5f, snapshot.getAxis(Axis.LEFT_STICK_Y), 0);
+
+    snapshot.capture();
+    assertEquals(Axis.LEFT_STICK_Y.mask(), snapshot.getChangedAxes());
+    assertTrue(snapshot.hasChanged());
+  }
+}
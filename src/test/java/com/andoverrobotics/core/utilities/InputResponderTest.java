@@ -0,0 +1,396 @@
+package com.andoverrobotics.core.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.andoverrobotics.core.testing.MicroBenchmark;
+import com.andoverrobotics.core.utilities.GamepadSnapshot.Axis;
+import com.andoverrobotics.core.utilities.GamepadSnapshot.Button;
+import com.andoverrobotics.core.utilities.InputResponder.Dispatch;
+import com.andoverrobotics.core.utilities.InputResponder.Trigger;
+import com.qualcomm.robotcore.hardware.Gamepad;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class InputResponderTest {
+
+  private static final long MS = 1_000_000;
+
+  private final InputResponder responder = new InputResponder();
+  private final Gamepad gamepad = new Gamepad();
+  private final GamepadSnapshot pad = new GamepadSnapshot(gamepad);
+  private boolean button = false;
+  private double axis = 0;
+  private int fired = 0;
+  private long now = 0;
+  private int loop = 0;
+
+  @Test
+  public void pressFiresOnRisingEdge() {
+    responder.onPress(() -> button, this::fire);
+
+    step(true);
+    step(true);
+    step(false);
+    step(true);
+
+    assertEquals(2, fired);
+  }
+
+  @Test
+  public void callbackMayClearRegistry() {
+    responder.onPress(() -> button, responder::clearRegistry)
+        .onPress(() -> button, this::fire);
+
+    step(true);
+    assertEquals(0, responder.size());
+    assertEquals(0, fired);
+
+    responder.onPress(() -> button, this::fire);
+    step(false);
+    step(true);
+    assertEquals(1, fired);
+  }
+
+  @Test
+  public void releaseFiresOnFallingEdge() {
+    responder.onRelease(() -> button, this::fire);
+
+    step(true);
+    assertEquals(0, fired);
+    step(false);
+    step(false);
+    assertEquals(1, fired);
+  }
+
+  @Test
+  public void alreadyPressedInputDoesNotFire() {
+    button = true;
+    responder.onPress(() -> button, this::fire);
+
+    step(true);
+
+    assertEquals(0, fired);
+  }
+
+  @Test
+  public void holdFiresOnceAfterHoldTime() {
+    responder.onHold(() -> button, 500, this::fire);
+
+    step(true);
+    advance(400);
+    assertEquals(0, fired);
+
+    advance(100);
+    advance(1000);
+    assertEquals(1, fired);
+
+    step(false);
+    step(true);
+    advance(100);
+    assertEquals(1, fired);
+  }
+
+  @Test
+  public void doubleTapFiresOnSecondPressWithinWindow() {
+    responder.onDoubleTap(() -> button, 300, this::fire);
+
+    step(true);
+    step(false);
+    now += 200 * MS;
+    step(true);
+    assertEquals(1, fired);
+
+    // A third press starts a new pair
+    step(false);
+    step(true);
+    assertEquals(1, fired);
+
+    step(false);
+    now += 400 * MS;
+    step(true);
+    assertEquals(1, fired);
+  }
+
+  @Test
+  public void repeatFiresWhileHeld() {
+    responder.whileHeld(() -> button, 100, this::fire);
+
+    step(true);
+    assertEquals(1, fired);
+
+    for (int i = 0; i < 10; i++) {
+      advance(50);
+    }
+    assertEquals(1 + 5, fired);
+
+    // A long stall repeats once instead of catching up
+    advance(1000);
+    assertEquals(7, fired);
+
+    step(false);
+    advance(1000);
+    assertEquals(7, fired);
+  }
+
+  @Test
+  public void debounceIgnoresShortChanges() {
+    responder.onPress(() -> button, this::fire).debounce(20);
+
+    step(true);
+    now += 5 * MS;
+    step(false);
+    now += 30 * MS;
+    step(false);
+    assertEquals(0, fired);
+
+    step(true);
+    now += 10 * MS;
+    step(true);
+    assertEquals(0, fired);
+    now += 10 * MS;
+    step(true);
+    assertEquals(1, fired);
+  }
+
+  @Test
+  public void thresholdUsesHysteresis() {
+    responder.onThreshold(() -> axis, 0.5, this::fire);
+
+    stepAxis(0.49);
+    stepAxis(0.5);
+    assertEquals(1, fired);
+
+    // Noise just below the threshold does not release the axis
+    stepAxis(0.47);
+    stepAxis(0.52);
+    assertEquals(1, fired);
+
+    stepAxis(0.4);
+    stepAxis(0.6);
+    assertEquals(2, fired);
+  }
+
+  @Test
+  public void negativeThresholdFiresBelow() {
+    responder.registerAxis(Trigger.FALLING, () -> axis, -0.8, 0, this::fire);
+
+    stepAxis(-0.9);
+    assertEquals(0, fired);
+    stepAxis(-0.77);
+    assertEquals(0, fired);
+    stepAxis(-0.7);
+    assertEquals(1, fired);
+  }
+
+  @Test
+  public void clearRegistryRemovesBindings() {
+    responder.onPress(() -> button, this::fire);
+    responder.clearRegistry();
+
+    step(true);
+
+    assertEquals(0, responder.size());
+    assertEquals(0, fired);
+  }
+
+  @Test
+  public void manyBindingsGrowStorage() {
+    for (int i = 0; i < 40; i++) {
+      responder.onPress(() -> button, this::fire);
+    }
+
+    step(true);
+
+    assertEquals(40, responder.size());
+    assertEquals(40, fired);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void repeatNeedsInterval() {
+    responder.whileHeld(() -> button, 0, this::fire);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void debounceNeedsBinding() {
+    responder.debounce(10);
+  }
+
+  @Test
+  public void snapshotBindingsFireOnChanges() {
+    responder.onPress(pad, Button.A, this::fire)
+        .onRelease(pad, Button.A, this::fire)
+        .onThreshold(pad, Axis.RIGHT_TRIGGER, 0.5, this::fire);
+
+    gamepad.a = true;
+    capture();
+    capture();
+    assertEquals(1, fired);
+
+    gamepad.a = false;
+    gamepad.right_trigger = 0.8f;
+    capture();
+    assertEquals(3, fired);
+  }
+
+  @Test
+  public void onlyBindingsOfChangedInputsAreEvaluated() {
+    int[] reads = new int[1];
+    responder.onPress(pad, Button.A, this::fire)
+        .onPress(pad, Button.B, this::fire)
+        .onHold(pad, Button.X, 100, this::fire)
+        .onPress(() -> {
+          reads[0]++;
+          return false;
+        }, this::fire);
+
+    gamepad.a = true;
+    capture();
+    capture();
+    capture();
+    assertEquals(1, fired);
+    // Supplier bindings cannot be indexed, so they are read on every update
+    assertEquals(4, reads[0]);
+
+    gamepad.b = true;
+    gamepad.a = false;
+    capture();
+    assertEquals(2, fired);
+  }
+
+  @Test
+  public void timedSnapshotBindingsFireWithoutChanges() {
+    responder.onHold(pad, Button.Y, 100, this::fire)
+        .whileHeld(pad, Button.LEFT_BUMPER, 50, this::fire);
+
+    gamepad.y = true;
+    gamepad.left_bumper = true;
+    capture();
+    assertEquals(1, fired);
+
+    // Nothing changes, but the hold and the repeat are still due
+    for (int i = 0; i < 10; i++) {
+      now += 10 * MS;
+      pad.capture();
+      responder.update(now);
+    }
+    assertEquals(4, fired);
+  }
+
+  @Test
+  public void snapshotBindingsAreDebounced() {
+    responder.onPress(pad, Button.DPAD_UP, this::fire).debounce(20);
+
+    gamepad.dpad_up = true;
+    capture();
+    gamepad.dpad_up = false;
+    capture();
+    assertEquals(0, fired);
+
+    gamepad.dpad_up = true;
+    capture();
+    // The press settles while the input stays unchanged
+    now += 30 * MS;
+    pad.capture();
+    responder.update(now);
+    assertEquals(1, fired);
+  }
+
+  @Test
+  public void changesBetweenUpdatesAreNotMissed() {
+    responder.onPress(pad, Button.START, this::fire);
+
+    gamepad.start = true;
+    pad.capture();
+    pad.capture();
+    responder.update(now += MS);
+
+    assertEquals(1, fired);
+  }
+
+  @Test
+  public void dispatchedCallbacksRunOnWorker() throws InterruptedException {
+    CountDownLatch done = new CountDownLatch(2);
+    Thread[] threads = new Thread[2];
+    responder.onPress(() -> button, () -> {
+      threads[0] = Thread.currentThread();
+      done.countDown();
+    }).dispatch(Dispatch.QUEUED)
+        .onRelease(() -> button, () -> {
+          threads[1] = Thread.currentThread();
+          done.countDown();
+        }).dispatch(Dispatch.DROP_IF_BUSY)
+        .onPress(() -> button, this::fire);
+
+    try {
+      step(true);
+      step(false);
+      assertEquals(1, fired);
+      assertTrue(done.await(5, TimeUnit.SECONDS));
+    } finally {
+      responder.getDispatcher().close();
+    }
+
+    assertEquals(threads[0], threads[1]);
+    assertNotEquals(Thread.currentThread(), threads[0]);
+    assertEquals(2, responder.getDispatcher().getDispatchedCount());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void dispatchNeedsBinding() {
+    responder.dispatch(Dispatch.QUEUED);
+  }
+
+  @Test
+  public void updateDoesNotAllocate() {
+    for (int i = 0; i < 10; i++) {
+      responder.onPress(() -> button, this::fire)
+          .onHold(() -> button, 30, this::fire)
+          .whileHeld(() -> button, 20, this::fire)
+          .onThreshold(() -> axis, 0.5, this::fire).debounce(5)
+          .onPress(pad, Button.A, this::fire)
+          .whileHeld(pad, Button.A, 20, this::fire)
+          .onThreshold(pad, Axis.LEFT_TRIGGER, 0.5, this::fire).debounce(5);
+    }
+    MicroBenchmark.assertNoAllocation(this::runLoop);
+  }
+
+  private void runLoop() {
+    button = loop % 50 < 30;
+    axis = Math.sin(loop++ * 0.1);
+    gamepad.a = button;
+    gamepad.left_trigger = (float) axis;
+    now += 2 * MS;
+    pad.capture();
+    responder.update(now);
+  }
+
+  private void step(boolean pressed) {
+    button = pressed;
+    now += MS;
+    responder.update(now);
+  }
+
+  private void stepAxis(double value) {
+    axis = value;
+    now += MS;
+    responder.update(now);
+  }
+
+  private void capture() {
+    now += MS;
+    pad.capture();
+    responder.update(now);
+  }
+
+  private void advance(long ms) {
+    now += ms * MS;
+    responder.update(now);
+  }
+
+  private void fire() {
+    fired++;
+  }
+}
@@ -0,0 +1,157 @@
+package com.andoverrobotics.core.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.andoverrobotics.core.testing.MicroBenchmark;
+import org.junit.Test;
+
+public class MotionProfileTest {
+
+  private static final double STEP = 1e-3, EPSILON = 1e-6;
+
+  private int iteration = 0;
+  private double sum = 0;
+
+  @Test
+  public void trapezoidalCruisesAtMaxVelocity() {
+    MotionProfile profile = MotionProfile.trapezoidal(3000, 1000, 2000);
+
+    // 0.5 s to accelerate, 2.5 s of cruising over the remaining 2500 ticks, 0.5 s to decelerate
+    assertEquals(3.5, profile.getDuration(), EPSILON);
+    assertEquals(1000, profile.getVelocity(1.75), EPSILON);
+    assertEquals(2000, profile.getAcceleration(0.25), EPSILON);
+    assertEquals(-2000, profile.getAcceleration(3.25), EPSILON);
+    assertEquals(250, profile.getPosition(0.5), EPSILON);
+    assertRespectsLimits(profile, 1000, 2000);
+  }
+
+  @Test
+  public void shortTrapezoidalMoveIsTriangular() {
+    MotionProfile profile = MotionProfile.trapezoidal(200, 1000, 2000);
+
+    double peakVelocity = Math.sqrt(200 * 2000);
+    assertEquals(2 * peakVelocity / 2000, profile.getDuration(), EPSILON);
+    // The peak falls between two samples, whose interpolation cuts it by up to one sample period
+    assertEquals(peakVelocity, profile.getVelocity(profile.getDuration() / 2), 2000 * 0.01);
+    assertRespectsLimits(profile, 1000, 2000);
+  }
+
+  @Test
+  public void sCurveLimitsJerk() {
+    MotionProfile profile = MotionProfile.sCurve(3000, 1000, 2000, 10000);
+
+    assertRespectsLimits(profile, 1000, 2000);
+    assertEquals(1000, profile.getVelocity(profile.getDuration() / 2), EPSILON);
+
+    double previous = profile.getAcceleration(0);
+    for (double t = STEP; t <= profile.getDuration(); t += STEP) {
+      double acceleration = profile.getAcceleration(t);
+      assertTrue("jerk at " + t, Math.abs(acceleration - previous) / STEP <= 10000 * (1 + 1e-6));
+      previous = acceleration;
+    }
+  }
+
+  @Test
+  public void shortSCurveMoveReachesDistance() {
+    MotionProfile profile = MotionProfile.sCurve(50, 1000, 2000, 10000);
+
+    assertRespectsLimits(profile, 1000, 2000);
+    assertEquals(25, profile.getPosition(profile.getDuration() / 2), 0.01);
+  }
+
+  @Test
+  public void sCurveIsSlowerThanTrapezoidal() {
+    double trapezoidal = MotionProfile.trapezoidal(1000, 1000, 2000).getDuration(),
+        sCurve = MotionProfile.sCurve(1000, 1000, 2000, 10000).getDuration();
+
+    assertTrue(trapezoidal + " " + sCurve, sCurve > trapezoidal);
+  }
+
+  @Test
+  public void negativeDistanceIsMirrored() {
+    MotionProfile forwards = MotionProfile.sCurve(800, 500, 1000, 5000),
+        backwards = MotionProfile.sCurve(-800, 500, 1000, 5000);
+
+    assertEquals(forwards.getDuration(), backwards.getDuration(), 0);
+    for (double t = 0; t <= forwards.getDuration(); t += 0.05) {
+      assertEquals(-forwards.getPosition(t), backwards.getPosition(t), EPSILON);
+      assertEquals(-forwards.getVelocity(t), backwards.getVelocity(t), EPSILON);
+    }
+    assertEquals(-800, backwards.getPosition(10), 0);
+  }
+
+  @Test
+  public void zeroDistanceHasNoDuration() {
+    MotionProfile profile = MotionProfile.trapezoidal(0, 1000, 2000);
+
+    assertEquals(0, profile.getDuration(), 0);
+    assertEquals(1, profile.getSampleCount());
+    assertEquals(0, profile.getPosition(1), 0);
+    assertEquals(0, profile.getVelocity(0), 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void limitsMustBePositive() {
+    MotionProfile.sCurve(100, 1000, 0, 10000);
+  }
+
+  @Test
+  public void followerSamplesElapsedTime() {
+    MotionProfile profile = MotionProfile.trapezoidal(3000, 1000, 2000);
+    MotionProfileFollower follower = new MotionProfileFollower();
+
+    follower.start(profile, 10);
+    assertEquals(0, follower.getPosition(), 0);
+
+    follower.update(11.75);
+    assertEquals(1.75, follower.getElapsed(), EPSILON);
+    assertEquals(profile.getPosition(1.75), follower.getPosition(), 0);
+    assertEquals(1000, follower.getVelocity(), EPSILON);
+    assertFalse(follower.isComplete());
+
+    follower.update(14);
+    assertTrue(follower.isComplete());
+    assertEquals(3000, follower.getPosition(), 0);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void followerRequiresProfile() {
+    new MotionProfileFollower().update(0);
+  }
+
+  @Test
+  public void followingDoesNotAllocate() {
+    MotionProfileFollower follower = new MotionProfileFollower();
+    follower.start(MotionProfile.sCurve(3000, 1000, 2000, 10000), 0);
+    MicroBenchmark.assertNoAllocation(() -> follow(follower));
+
+    assertTrue(sum > 0);
+  }
+
+  private void follow(MotionProfileFollower follower) {
+    follower.update(iteration++ % 500 * 0.01);
+    sum += follower.getPosition() + follower.getVelocity() + follower.getAcceleration();
+  }
+
+  // Checks the endpoints, the limits, and that the position is the integral of the velocity
+  private static void assertRespectsLimits(MotionProfile profile, double maxVelocity,
+      double maxAcceleration) {
+    double duration = profile.getDuration();
+    assertEquals(0, profile.getPosition(0), 0);
+    assertEquals(0, profile.getVelocity(0), 0);
+    assertEquals(profile.getDistance(), profile.getPosition(duration), 0);
+    assertEquals(0, profile.getVelocity(duration), 0);
+
+    double integral = 0;
+    for (double t = 0; t < duration; t += STEP) {
+      double step = Math.min(STEP, duration - t);
+      assertTrue("velocity at " + t, Math.abs(profile.getVelocity(t)) <= maxVelocity + EPSILON);
+      assertTrue("acceleration at " + t,
+          Math.abs(profile.getAcceleration(t)) <= maxAcceleration + EPSILON);
+      integral += (profile.getVelocity(t) + profile.getVelocity(t + step)) / 2 * step;
+    }
+    assertEquals(profile.getDistance(), integral, Math.abs(profile.getDistance()) * 1e-3);
+  }
+}
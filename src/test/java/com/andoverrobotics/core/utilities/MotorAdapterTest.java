@@ -5,6 +5,7 @@ import static junit.framework.TestCase.assertTrue;
 import static org.mockito.Mockito.*;
 
 import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
 import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
 import org.junit.After;
 import org.junit.Test;
@@ -120,6 +121,48 @@ public class MotorAdapterTest {
     assertTrue(testee.isBusy());
   }
 
+  @Test
+  public void setVelocityDropsRepeatedWrites() {
+    DcMotorEx motorEx = mock(DcMotorEx.class);
+    MotorAdapter adapter = new MotorAdapter(motorEx);
+
+    adapter.setVelocity(800);
+    adapter.setVelocity(800);
+    adapter.setPower(0.3);
+    adapter.setVelocity(800);
+
+    InOrder order = inOrder(motorEx);
+    order.verify(motorEx).setVelocity(800);
+    order.verify(motorEx).setPower(0.3);
+    order.verify(motorEx).setVelocity(800);
+    verify(motorEx, times(2)).setVelocity(800);
+  }
+
+  @Test
+  public void setPowerAfterVelocityIsSent() {
+    DcMotorEx motorEx = mock(DcMotorEx.class);
+    MotorAdapter adapter = new MotorAdapter(motorEx);
+    adapter.setPower(0.3);
+
+    adapter.setVelocity(800);
+    adapter.setPower(0.3);
+
+    verify(motorEx, times(2)).setPower(0.3);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void setVelocityNeedsExtendedMotor() {
+    testee.setVelocity(800);
+  }
+
+  @Test
+  public void getVelocityReadsExtendedMotor() {
+    DcMotorEx motorEx = mock(DcMotorEx.class);
+    when(motorEx.getVelocity()).thenReturn(640.0);
+
+    assertTrue(new MotorAdapter(motorEx).getVelocity() == 640.0);
+  }
+
   private void verifyStartRunToPosition(int target, double power) {
     InOrder order = inOrder(targetMotor);
     order.verify(targetMotor).setTargetPosition(target);
@@ -0,0 +1,190 @@
+package com.andoverrobotics.core.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import com.andoverrobotics.core.utilities.MotorCommandBuffer.FlushReport;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+public class MotorCommandBufferTest {
+  private DcMotor dcOne = mock(DcMotor.class),
+      dcTwo = mock(DcMotor.class);
+  private CachedMotor one = new CachedMotor(dcOne),
+      two = new CachedMotor(dcTwo);
+  private MotorCommandBuffer buffer = new MotorCommandBuffer();
+
+  @Before
+  public void setUp() {
+    reset(dcOne, dcTwo);
+    one.setCommandBuffer(buffer);
+    two.setCommandBuffer(buffer);
+  }
+
+  @Test
+  public void writesPassThroughWithoutTransaction() {
+    assertFalse(buffer.isOpen());
+
+    one.setPower(0.5);
+    verify(dcOne).setPower(0.5);
+  }
+
+  @Test
+  public void writesAreQueuedUntilFlush() {
+    buffer.begin();
+    one.setPower(0.5);
+    one.setTargetPosition(30);
+    two.setMode(RunMode.RUN_USING_ENCODER);
+
+    verifyZeroInteractions(dcOne, dcTwo);
+
+    FlushReport report = buffer.flush();
+    verify(dcOne).setPower(0.5);
+    verify(dcOne).setTargetPosition(30);
+    verify(dcTwo).setMode(RunMode.RUN_USING_ENCODER);
+    assertEquals(3, report.getWritesSent());
+    assertEquals(0, report.getWritesAvoided());
+    assertFalse(buffer.isOpen());
+  }
+
+  @Test
+  public void lastValueWins() {
+    buffer.begin();
+    one.setPower(0.2);
+    one.setPower(0.4);
+    one.setPower(0.6);
+    assertEquals(0.6, one.getPower(), 1e-9);
+
+    FlushReport report = buffer.flush();
+    verify(dcOne).setPower(0.6);
+    verifyNoMoreInteractions(dcOne);
+    assertEquals(1, report.getPowerWritesSent());
+    assertEquals(2, report.getWritesAvoided());
+  }
+
+  @Test
+  public void valueMatchingMotorIsAvoided() {
+    one.setPower(0.3);
+    reset(dcOne);
+
+    buffer.begin();
+    one.setPower(0.8);
+    one.setPower(0.3);
+    FlushReport report = buffer.flush();
+
+    verifyZeroInteractions(dcOne);
+    assertEquals(0, report.getWritesSent());
+    assertEquals(2, report.getWritesAvoided());
+  }
+
+  @Test
+  public void flushOrdersTargetsThenModesThenPowers() {
+    buffer.begin();
+    one.setPower(0.5);
+    two.setPower(0.7);
+    one.setMode(RunMode.RUN_TO_POSITION);
+    two.setMode(RunMode.RUN_TO_POSITION);
+    two.setTargetPosition(100);
+    one.setTargetPosition(200);
+    buffer.flush();
+
+    InOrder order = inOrder(dcOne, dcTwo);
+    order.verify(dcOne).setTargetPosition(200);
+    order.verify(dcTwo).setTargetPosition(100);
+    order.verify(dcOne).setMode(RunMode.RUN_TO_POSITION);
+    order.verify(dcTwo).setMode(RunMode.RUN_TO_POSITION);
+    order.verify(dcOne).setPower(0.5);
+    order.verify(dcTwo).setPower(0.7);
+  }
+
+  @Test
+  public void velocityIsQueuedAfterModes() {
+    DcMotorEx dcEx = mock(DcMotorEx.class);
+    CachedMotor motorEx = new CachedMotor(dcEx);
+    motorEx.setCommandBuffer(buffer);
+    reset(dcEx);
+
+    buffer.begin();
+    motorEx.setMode(RunMode.RUN_USING_ENCODER);
+    motorEx.setPower(0.4);
+    motorEx.setVelocity(600);
+    verifyZeroInteractions(dcEx);
+
+    FlushReport report = buffer.flush();
+    InOrder order = inOrder(dcEx);
+    order.verify(dcEx).setMode(RunMode.RUN_USING_ENCODER);
+    order.verify(dcEx).setVelocity(600);
+    verify(dcEx, never()).setPower(0.4);
+    assertEquals(1, report.getPowerWritesSent());
+    assertEquals(1, report.getWritesAvoided());
+  }
+
+  @Test
+  public void encoderResetIsSentImmediately() {
+    buffer.begin();
+    one.setMode(RunMode.RUN_TO_POSITION);
+    one.setMode(RunMode.STOP_AND_RESET_ENCODER);
+    verify(dcOne).setMode(RunMode.STOP_AND_RESET_ENCODER);
+
+    one.setMode(RunMode.RUN_USING_ENCODER);
+    FlushReport report = buffer.flush();
+
+    InOrder order = inOrder(dcOne);
+    order.verify(dcOne).setMode(RunMode.STOP_AND_RESET_ENCODER);
+    order.verify(dcOne).setMode(RunMode.RUN_USING_ENCODER);
+    verifyNoMoreInteractions(dcOne);
+    assertEquals(2, report.getModeWritesSent());
+    assertEquals(1, report.getWritesAvoided());
+  }
+
+  @Test
+  public void gettersReflectPendingValues() {
+    buffer.begin();
+    one.setTargetPosition(42);
+    one.setMode(RunMode.RUN_TO_POSITION);
+
+    assertEquals(42, one.getTargetPosition());
+    assertEquals(RunMode.RUN_TO_POSITION, one.getMode());
+
+    buffer.flush();
+    assertEquals(42, one.getTargetPosition());
+    assertEquals(RunMode.RUN_TO_POSITION, one.getMode());
+  }
+
+  @Test
+  public void reportIsReusedAndDescribed() {
+    buffer.begin();
+    one.setPower(0.1);
+    FlushReport first = buffer.flush();
+
+    buffer.begin();
+    FlushReport second = buffer.flush();
+
+    assertTrue(first == second);
+    assertTrue(second == buffer.getLastReport());
+    assertEquals(0, second.getWritesSent());
+    assertEquals("sent 0, avoided 0; power: sent 0, avoided 0; "
+        + "targetPosition: sent 0, avoided 0; mode: sent 0, avoided 0", second.toString());
+  }
+
+  @Test
+  public void detachingSendsWritesRightAway() {
+    buffer.begin();
+    one.setCommandBuffer(null);
+    one.setPower(0.9);
+
+    verify(dcOne).setPower(0.9);
+  }
+}
@@ -1,5 +1,6 @@
 package com.andoverrobotics.core.utilities;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -47,6 +48,14 @@ public class MotorPairTest {
     verify(two).setTargetPosition(-50);
   }
 
+  @Test
+  public void getCurrentPositionAverages() {
+    when(one.getCurrentPosition()).thenReturn(50);
+    when(two.getCurrentPosition()).thenReturn(-10);
+
+    assertEquals(20, pair.getCurrentPosition());
+  }
+
   @Test
   public void setMode() {
     pair.setMode(RunMode.RUN_USING_ENCODER);
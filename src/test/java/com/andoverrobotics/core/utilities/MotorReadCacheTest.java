@@ -0,0 +1,198 @@
+package com.andoverrobotics.core.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MotorReadCacheTest {
+  private DcMotor one = mock(DcMotor.class),
+      two = mock(DcMotor.class);
+  private MotorReadCache cache = new MotorReadCache();
+  private MotorAdapter adapter = new MotorAdapter(one, cache);
+  private MotorPair pair = MotorPair.of(one, two, cache);
+
+  @Before
+  public void setUp() {
+    reset(one, two);
+    when(one.getCurrentPosition()).thenReturn(100);
+    when(two.getCurrentPosition()).thenReturn(50);
+    when(one.isBusy()).thenReturn(true);
+  }
+
+  @Test
+  public void registeringSameMotorReturnsSameSlot() {
+    assertEquals(2, cache.size());
+    assertEquals(cache.register(one), cache.register(one));
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void refreshReadsEachMotorOnce() {
+    cache.refresh();
+
+    verify(one).getCurrentPosition();
+    verify(one).isBusy();
+    verify(two).getCurrentPosition();
+    verify(two).isBusy();
+    assertEquals(4, cache.getHardwareReads());
+  }
+
+  @Test
+  public void readsAreServedFromSnapshot() {
+    cache.refresh();
+    reset(one, two);
+
+    assertEquals(100, adapter.getCurrentPosition());
+    assertTrue(adapter.isBusy());
+    assertEquals(75, pair.getCurrentPosition());
+    assertTrue(pair.isBusy());
+
+    verifyNoMoreInteractions(one, two);
+    assertEquals(5, cache.getReadsAvoided());
+  }
+
+  @Test
+  public void addTargetPositionInvalidatesOnlyWrittenMotor() {
+    cache.refresh();
+    when(one.getCurrentPosition()).thenReturn(300);
+    when(two.getCurrentPosition()).thenReturn(500);
+
+    adapter.addTargetPosition(20);
+    assertTrue(cache.isValid());
+    assertFalse(cache.isValid(cache.register(one)));
+    // Only the written motor reads the hardware; the other one still reads the snapshot
+    pair.addTargetPosition(-10);
+
+    verify(one).setTargetPosition(120);
+    verify(one).setTargetPosition(290);
+    verify(two).setTargetPosition(40);
+  }
+
+  @Test
+  public void modeWriteInvalidatesMotor() {
+    cache.refresh();
+
+    adapter.setMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
+
+    assertFalse(cache.isValid(cache.register(one)));
+    assertTrue(cache.isValid(cache.register(two)));
+  }
+
+  @Test
+  public void duplicateWritesKeepSnapshot() {
+    adapter.setMode(DcMotor.RunMode.RUN_USING_ENCODER);
+    adapter.setTargetPosition(70);
+    cache.refresh();
+
+    adapter.setMode(DcMotor.RunMode.RUN_USING_ENCODER);
+    adapter.setTargetPosition(70);
+
+    assertTrue(cache.isValid(cache.register(one)));
+  }
+
+  @Test
+  public void invalidCacheReadsHardware() {
+    assertFalse(cache.isValid());
+    assertEquals(100, adapter.getCurrentPosition());
+
+    cache.refresh();
+    cache.invalidate();
+    when(one.getCurrentPosition()).thenReturn(250);
+
+    assertEquals(250, adapter.getCurrentPosition());
+    assertEquals(0, cache.getReadsAvoided());
+  }
+
+  @Test
+  public void refreshPicksUpNewState() {
+    cache.refresh();
+    when(one.getCurrentPosition()).thenReturn(180);
+    when(one.isBusy()).thenReturn(false);
+
+    assertEquals(100, adapter.getCurrentPosition());
+
+    cache.refresh();
+    assertEquals(180, adapter.getCurrentPosition());
+    assertFalse(adapter.isBusy());
+  }
+
+  @Test
+  public void velocityDerivedFromSnapshots() throws InterruptedException {
+    cache.refresh();
+    assertEquals(0, cache.getVelocity(0), 1e-9);
+
+    when(one.getCurrentPosition()).thenReturn(200);
+    Thread.sleep(20);
+    cache.refresh();
+
+    double velocity = cache.getVelocity(0);
+    assertTrue("velocity " + velocity, velocity > 0 && velocity <= 100 / 0.02);
+  }
+
+  @Test
+  public void velocityEstimateIsOnlyCountedFromValidSnapshot() {
+    cache.refresh();
+    cache.resetCounters();
+
+    adapter.getVelocity();
+    assertEquals(1, cache.getReadsAvoided());
+
+    cache.invalidate();
+    adapter.getVelocity();
+    assertEquals(1, cache.getReadsAvoided());
+    assertEquals(0, cache.getHardwareReads());
+  }
+
+  @Test
+  public void velocityReadFromExtendedMotors() {
+    DcMotorEx motorEx = mock(DcMotorEx.class);
+    when(motorEx.getVelocity()).thenReturn(1234.0);
+    int slot = cache.register(motorEx);
+
+    cache.refresh();
+    assertEquals(1234.0, cache.getVelocity(slot), 1e-9);
+    verify(motorEx).getVelocity();
+
+    cache.getVelocity(slot);
+    verify(motorEx, times(1)).getVelocity();
+  }
+
+  @Test
+  public void resetCountersClearsCounts() {
+    cache.refresh();
+    adapter.isBusy();
+
+    cache.resetCounters();
+
+    assertEquals(0, cache.getHardwareReads());
+    assertEquals(0, cache.getReadsAvoided());
+  }
+
+  @Test
+  public void fromHardwareManagesBulkCaching() {
+    HardwareMap map = mock(HardwareMap.class);
+    LynxModule hub = mock(LynxModule.class);
+    when(map.getAll(LynxModule.class)).thenReturn(Arrays.asList(hub));
+
+    MotorReadCache hubCache = MotorReadCache.fromHardware(map);
+    verify(hub).setBulkCachingMode(LynxModule.BulkCachingMode.MANUAL);
+
+    hubCache.refresh();
+    hubCache.refresh();
+    verify(hub, times(2)).clearBulkCache();
+  }
+}
@@ -0,0 +1,48 @@
+package com.andoverrobotics.core.utilities;
+
+import com.andoverrobotics.core.testing.MicroBenchmark;
+
+/**
+ * Compares a {@link PIDBank} against one {@link PIDController} per channel, at several channel
+ * counts. Each operation updates every channel once.
+ */
+public class PIDBankBenchmark {
+
+  public static void main(String[] args) {
+    for (int channels : new int[] {8, 32, 128}) {
+      MicroBenchmark benchmark = new MicroBenchmark(5, 10, 2_000_000 / channels);
+
+      PIDController[] controllers = new PIDController[channels];
+      PIDBank bank = new PIDBank(channels);
+      for (int channel = 0; channel < channels; channel++) {
+        controllers[channel] = new PIDController(1, 0.01, 0.1);
+        controllers[channel].boundOutput(-1, 1);
+        bank.setGains(channel, 1, 0.01, 0.1);
+        bank.boundOutput(channel, -1, 1);
+      }
+      double[] errors = new double[channels], outputs = new double[channels];
+      long[] time = {0};
+
+      benchmark.run(channels + " x PIDController", i -> {
+        time[0]++;
+        double sum = 0;
+        for (int channel = 0; channel < channels; channel++) {
+          sum += controllers[channel].runIteration((channel + i) % 7 - 3, time[0]);
+        }
+        return sum;
+      });
+
+      time[0] = 0;
+      benchmark.run("PIDBank(" + channels + ")", i -> {
+        time[0]++;
+        for (int channel = 0; channel < channels; channel++) {
+          errors[channel] = (channel + i) % 7 - 3;
+        }
+        bank.runIteration(errors, time[0], outputs);
+        return outputs[0];
+      });
+
+      System.out.println("sink " + benchmark.getSink());
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package com.andoverrobotics.core.utilities;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class PIDBankTest {
+  private static final int CHANNELS = 7;
+
+  private final Random random = new Random(42);
+  private final PIDBank bank = new PIDBank(CHANNELS);
+  private final PIDController[] controllers = new PIDController[CHANNELS];
+
+  @Test
+  public void matchesPIDControllerExactly() {
+    for (int channel = 0; channel < CHANNELS; channel++) {
+      double kP = random.nextDouble() * 2, kI = random.nextDouble(), kD = random.nextDouble();
+      bank.setGains(channel, kP, kI, kD);
+      controllers[channel] = new PIDController(kP, kI, kD);
+
+      if (channel % 2 == 0) {
+        bank.boundOutput(channel, -0.8, 0.9);
+        controllers[channel].boundOutput(-0.8, 0.9);
+      }
+      if (channel % 3 == 0) {
+        bank.boundIntegral(channel, 5);
+        controllers[channel].boundIntegral(5);
+      }
+    }
+
+    double[] errors = new double[CHANNELS], outputs = new double[CHANNELS];
+    long time = 1000;
+    for (int iteration = 0; iteration < 500; iteration++) {
+      // Includes repeated and backwards timestamps
+      time += random.nextInt(25) - 3;
+      for (int channel = 0; channel < CHANNELS; channel++) {
+        errors[channel] = random.nextGaussian() * 3;
+      }
+      if (iteration == 250) {
+        bank.reset(3);
+        controllers[3].reset();
+      }
+
+      bank.runIteration(errors, time, outputs);
+
+      for (int channel = 0; channel < CHANNELS; channel++) {
+        double expected = controllers[channel].runIteration(errors[channel], time);
+        assertEquals("channel " + channel + " iteration " + iteration,
+            expected, outputs[channel], 0);
+      }
+    }
+  }
+
+  @Test
+  public void singleChannelIterationMatches() {
+    PIDController controller = new PIDController(1, 0.2, 0.6);
+    bank.setGains(2, 1, 0.2, 0.6);
+
+    assertEquals(controller.runIteration(100, 0), bank.runIteration(2, 100, 0), 0);
+    assertEquals(controller.runIteration(90, 20), bank.runIteration(2, 90, 20), 0);
+  }
+
+  @Test
+  public void resetClearsEveryChannel() {
+    bank.setGains(0, 1, 1, 1);
+    bank.runIteration(0, 10, 0);
+    bank.runIteration(0, 10, 5);
+
+    bank.reset();
+
+    assertEquals(4, bank.runIteration(0, 4, 100), 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeChannelCountThrows() {
+    new PIDBank(-1);
+  }
+}
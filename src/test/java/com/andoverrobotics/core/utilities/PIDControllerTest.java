@@ -56,4 +56,17 @@ public class PIDControllerTest {
     assertEquals(-10*kP - 30*kI + 5*kD, controller.runIteration(-10, 2), 1e-4);
     assertEquals(-30*kP - 80*kI - 20/3.0*kD, controller.runIteration(-30, 5), 1e-4);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void repeatedTimeDoesNotDivideByZero() {
+    controller.runIteration(100, 0);
+    double second = controller.runIteration(90, 20);
+
+    double repeated = controller.runIteration(90, 20);
+    assertEquals(90*kP + 1900*kI, repeated, 1e-4);
+    assertFalse(Double.isNaN(controller.runIteration(80, 10)));
+
+    assertEquals(80*kP + 2750*kI - 10/10.0*kD, controller.runIteration(80, 30), 1e-4);
+    assertTrue(second != repeated);
+  }
+}
@@ -0,0 +1,202 @@
+package com.andoverrobotics.core.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.andoverrobotics.core.testing.MicroBenchmark;
+import org.junit.Test;
+
+public class PIDFControllerTest {
+
+  private static final double DT = 0.01;
+
+  private int iteration = 0;
+
+  // A motor-driven mechanism: the output is a power in [-1, 1], which accelerates the mechanism
+  // towards a speed of MAX_SPEED units per second with a time constant of TIME_CONSTANT seconds.
+  private static class SimulatedPlant {
+    static final double MAX_SPEED = 2, TIME_CONSTANT = 0.1;
+
+    double position, velocity;
+
+    void step(double power, double dt) {
+      double clipped = Math.max(-1, Math.min(1, power));
+      velocity += (MAX_SPEED * clipped - velocity) / TIME_CONSTANT * dt;
+      position += velocity * dt;
+    }
+  }
+
+  private interface Control {
+    double output(double setpoint, double measurement, double time);
+  }
+
+  private static class StepResponse {
+    double overshoot, settlingTime = Double.NaN, finalError;
+  }
+
+  // Settling time is the time after which the position stays within 2% of the step
+  private static StepResponse simulateStep(Control control, double step, double duration) {
+    SimulatedPlant plant = new SimulatedPlant();
+    StepResponse response = new StepResponse();
+    double band = 0.02 * step, peak = 0;
+    double lastOutside = 0;
+
+    for (int i = 0; i * DT <= duration; i++) {
+      double time = i * DT;
+      plant.step(control.output(step, plant.position, time), DT);
+      peak = Math.max(peak, plant.position);
+      if (Math.abs(plant.position - step) > band) {
+        lastOutside = time + DT;
+      }
+    }
+
+    response.overshoot = Math.max(0, (peak - step) / step);
+    response.finalError = step - plant.position;
+    if (lastOutside < duration) {
+      response.settlingTime = lastOutside;
+    }
+    return response;
+  }
+
+  @Test
+  public void stepResponseSettlesWithLittleOvershoot() {
+    PIDFController controller = new PIDFController(4, 0.5, 0.1);
+    controller.boundOutput(-1, 1);
+    controller.setDerivativeFilter(0.02);
+
+    StepResponse response = simulateStep(controller::calculate, 1, 5);
+
+    assertTrue("overshoot " + response.overshoot, response.overshoot < 0.05);
+    assertTrue("settling time " + response.settlingTime, response.settlingTime < 1.5);
+    assertEquals(0, response.finalError, 0.01);
+  }
+
+  @Test
+  public void conditionalIntegrationPreventsWindup() {
+    double kP = 2, kI = 1, kD = 0.05;
+
+    // PIDController takes integer time; run it in milliseconds with gains scaled to match
+    PIDController clampedMillis = new PIDController(kP, kI / 1000, kD * 1000);
+    clampedMillis.boundOutput(-1, 1);
+    StepResponse plain = simulateStep((setpoint, measurement, time) ->
+        clampedMillis.runIteration(setpoint - measurement, Math.round(time * 1000)), 10, 15);
+
+    PIDFController controller = new PIDFController(kP, kI, kD);
+    controller.boundOutput(-1, 1);
+    StepResponse conditional = simulateStep(controller::calculate, 10, 15);
+
+    assertTrue("plain overshoot " + plain.overshoot, plain.overshoot > 0.2);
+    assertTrue("conditional overshoot " + conditional.overshoot, conditional.overshoot < 0.05);
+    assertTrue(conditional.settlingTime < plain.settlingTime
+        || Double.isNaN(plain.settlingTime));
+  }
+
+  @Test
+  public void derivativeOnMeasurementAvoidsSetpointKick() {
+    PIDFController onError = new PIDFController(0, 0, 1);
+    PIDFController onMeasurement = new PIDFController(0, 0, 1);
+    onMeasurement.setDerivativeOnMeasurement(true);
+
+    onError.calculate(0, 0, 0);
+    onMeasurement.calculate(0, 0, 0);
+
+    assertEquals(100, onError.calculate(1, 0, DT), 1e-9);
+    assertEquals(0, onMeasurement.calculate(1, 0, DT), 1e-9);
+    assertEquals(-50, onMeasurement.calculate(1, 0.5, 2 * DT), 1e-9);
+  }
+
+  @Test
+  public void derivativeFilterAttenuatesNoise() {
+    PIDFController raw = new PIDFController(0, 0, 1);
+    PIDFController filtered = new PIDFController(0, 0, 1);
+    filtered.setDerivativeFilter(0.05);
+
+    double rawPeak = 0, filteredPeak = 0;
+    for (int i = 0; i < 200; i++) {
+      double noise = i % 2 == 0 ? 0.01 : -0.01;
+      rawPeak = Math.max(rawPeak, Math.abs(raw.calculate(0, noise, i * DT)));
+      filteredPeak = Math.max(filteredPeak, Math.abs(filtered.calculate(0, noise, i * DT)));
+    }
+
+    assertEquals(2, rawPeak, 1e-9);
+    assertTrue("filtered peak " + filteredPeak, filteredPeak < 0.5);
+  }
+
+  @Test
+  public void repeatedTimeLeavesStateUnchanged() {
+    PIDFController controller = new PIDFController(1, 2, 3);
+    controller.calculate(10, 0, 0);
+    double output = controller.calculate(10, 2, 0.1);
+    double integral = controller.getIntegral(), derivative = controller.getDerivative();
+
+    assertEquals(output, controller.calculate(10, 2, 0.1), 1e-9);
+    assertEquals(output, controller.calculate(10, 2, 0.05), 1e-9);
+    assertEquals(integral, controller.getIntegral(), 0);
+    assertEquals(derivative, controller.getDerivative(), 0);
+    assertTrue(Double.isFinite(output));
+  }
+
+  @Test
+  public void feedforwardAddsToOutput() {
+    PIDFController controller = new PIDFController(1, 0, 0);
+    controller.setFeedforward(0.1, 0.4, 0.05);
+
+    assertEquals(0.1 + 0.4 * 0.5 + 0.05 * 2, controller.calculate(0, 0, 0.5, 2, 0), 1e-9);
+    assertEquals(-0.1 - 0.4 * 0.5 + 0.3, controller.calculate(0.3, 0, -0.5, 0, DT), 1e-9);
+    assertEquals(0, controller.calculate(0, 0, 0, 0, 2 * DT), 1e-9);
+  }
+
+  @Test
+  public void gainScheduleChangesGainsWithoutBump() {
+    GainSchedule schedule = new GainSchedule();
+    schedule.addPoint(0, 1, 1, 0);
+    schedule.addPoint(10, 3, 2, 0);
+    PIDFController controller = new PIDFController(0, 0, 0);
+    controller.setGainSchedule(schedule);
+
+    controller.schedule(5);
+    controller.calculate(1, 0, 0);
+    double before = controller.calculate(1, 0, 1);
+
+    controller.schedule(10);
+    double after = controller.calculate(1, 0, 1);
+
+    assertEquals(2 + 1.5, before, 1e-9);
+    assertEquals(3 + 1.5, after, 1e-9);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void scheduleWithoutGainScheduleThrows() {
+    new PIDFController(1, 0, 0).schedule(3);
+  }
+
+  @Test
+  public void boundIntegralLimitsIntegralTerm() {
+    PIDFController controller = new PIDFController(0, 1, 0);
+    controller.boundIntegral(0.5);
+
+    for (int i = 0; i <= 100; i++) {
+      controller.calculate(1, 0, i * DT);
+    }
+
+    assertEquals(0.5, controller.getIntegral(), 1e-9);
+  }
+
+  @Test
+  public void iterationsDoNotAllocate() {
+    PIDFController controller = new PIDFController(4, 0.5, 0.1);
+    controller.boundOutput(-1, 1);
+    controller.setDerivativeFilter(0.02);
+    GainSchedule schedule = new GainSchedule();
+    schedule.addPoint(0, 4, 0.5, 0.1);
+    schedule.addPoint(1, 2, 0.5, 0.1);
+    controller.setGainSchedule(schedule);
+    MicroBenchmark.assertNoAllocation(() -> runIteration(controller));
+  }
+
+  private void runIteration(PIDFController controller) {
+    double measurement = Math.sin(iteration * 0.01);
+    controller.schedule(Math.abs(1 - measurement));
+    controller.calculate(1, measurement, 0.3, 0, iteration++ * DT);
+  }
+}
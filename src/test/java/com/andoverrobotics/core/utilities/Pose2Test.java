@@ -0,0 +1,53 @@
+package com.andoverrobotics.core.utilities;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class Pose2Test {
+  private Pose2 testee = new Pose2();
+
+  @Test
+  public void headingIsNormalized() {
+    testee.set(0, 0, -90);
+    assertEquals(270, testee.getHeading(), 1e-9);
+
+    testee.turn(450);
+    assertEquals(0, testee.getHeading(), 1e-9);
+  }
+
+  @Test
+  public void translateKeepsHeading() {
+    testee.set(1, 2, 30).translate(3, -1);
+
+    assertPose(4, 1, 30);
+  }
+
+  @Test
+  public void transformByRotatesRobotRelativeOffset() {
+    testee.set(10, 10, 90).transformBy(0, 5, -90);
+
+    assertPose(5, 10, 0);
+
+    testee.transformBy(2, 0, 45);
+    assertPose(7, 10, 45);
+  }
+
+  @Test
+  public void getPositionCopiesIntoVector() {
+    testee.set(-3, 8, 12);
+    Vector2 out = new Vector2();
+
+    testee.getPosition(out);
+
+    assertEquals(-3, out.getX(), 1e-9);
+    assertEquals(8, out.getY(), 1e-9);
+    assertEquals(Coordinate.fromXY(-3, 8), testee.toCoordinate());
+  }
+
+  private void assertPose(double x, double y, double heading) {
+    assertEquals(x, testee.getX(), 1e-9);
+    assertEquals(y, testee.getY(), 1e-9);
+    assertEquals(heading, testee.getHeading(), 1e-9);
+  }
+}
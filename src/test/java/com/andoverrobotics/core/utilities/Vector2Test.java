@@ -0,0 +1,81 @@
+package com.andoverrobotics.core.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class Vector2Test {
+  private Vector2 testee = new Vector2(3, 4);
+
+  @Test
+  public void operationsModifyInPlace() {
+    assertSame(testee, testee.add(1, 2));
+    assertSame(testee, testee.scale(2));
+    assertSame(testee, testee.rotate(0, 1));
+    assertSame(testee, testee.normalize());
+  }
+
+  @Test
+  public void addAndSubtract() {
+    testee.add(new Vector2(1, -1));
+    assertComponents(4, 3);
+
+    testee.subtract(new Vector2(4, 4));
+    assertComponents(0, -1);
+  }
+
+  @Test
+  public void rotateMatchesCoordinate() {
+    for (int degrees = -720; degrees <= 720; degrees += 15) {
+      Coordinate expected = Coordinate.fromXY(3, 4).rotate(degrees);
+      testee.set(3, 4).rotateDegrees(degrees);
+
+      assertEquals(expected.getX(), testee.getX(), 1e-9);
+      assertEquals(expected.getY(), testee.getY(), 1e-9);
+    }
+  }
+
+  @Test
+  public void rotateBySinCos() {
+    testee.set(1, 0).rotate(1, 0);
+    assertComponents(0, 1);
+
+    testee.rotate(Math.sin(Math.PI / 4), Math.cos(Math.PI / 4));
+    assertComponents(-Math.sqrt(0.5), Math.sqrt(0.5));
+  }
+
+  @Test
+  public void dotAndLength() {
+    assertEquals(11, testee.dot(new Vector2(1, 2)), 1e-9);
+    assertEquals(5, testee.length(), 1e-9);
+    assertEquals(25, testee.lengthSquared(), 1e-9);
+  }
+
+  @Test
+  public void normalize() {
+    testee.normalize();
+    assertComponents(0.6, 0.8);
+
+    testee.set(0, 0).normalize();
+    assertComponents(0, 0);
+  }
+
+  @Test
+  public void coordinateConversion() {
+    Coordinate coordinate = testee.toCoordinate();
+    assertEquals(Coordinate.fromXY(3, 4), coordinate);
+
+    Vector2 copy = Vector2.fromCoordinate(Coordinate.fromXY(-2, 7));
+    assertEquals(-2, copy.getX(), 1e-9);
+    assertEquals(7, copy.getY(), 1e-9);
+
+    testee.set(Coordinate.fromXY(1, 1));
+    assertComponents(1, 1);
+  }
+
+  private void assertComponents(double x, double y) {
+    assertEquals(x, testee.getX(), 1e-9);
+    assertEquals(y, testee.getY(), 1e-9);
+  }
+}
@@ -0,0 +1,125 @@
+package com.andoverrobotics.core.vision;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.andoverrobotics.core.testing.MicroBenchmark;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+public class ResultChannelTest {
+
+  private final ResultChannel<long[]> channel = new ResultChannel<>(() -> new long[2],
+      (from, to) -> System.arraycopy(from, 0, to, 0, 2));
+  private final ResultChannel.Reader<long[]> reader = channel.newReader();
+  private long frame = 0;
+
+  @Test
+  public void readerStartsEmpty() {
+    assertFalse(reader.update());
+    assertFalse(reader.hasValue());
+    assertEquals(0, reader.getFrameNumber());
+    assertTrue(reader.isStale(1000));
+    assertEquals(Double.POSITIVE_INFINITY, reader.getAgeMs(), 0);
+  }
+
+  @Test
+  public void readerGetsLatestResultOnce() {
+    channel.publish(new long[] {1, 2}, 100);
+    channel.publish(new long[] {3, 4}, 200);
+
+    assertTrue(reader.update());
+    assertEquals(3, reader.getValue()[0]);
+    assertEquals(4, reader.getValue()[1]);
+    assertEquals(2, reader.getFrameNumber());
+    assertEquals(200, reader.getCaptureNanos());
+
+    assertFalse(reader.update());
+    assertEquals(2, reader.getFrameNumber());
+  }
+
+  @Test
+  public void resultIsCopied() {
+    long[] result = {5, 6};
+    channel.publish(result);
+    result[0] = 7;
+
+    reader.update();
+    assertEquals(5, reader.getValue()[0]);
+  }
+
+  @Test
+  public void readersAreIndependent() {
+    ResultChannel.Reader<long[]> other = channel.newReader();
+    channel.publish(new long[] {1, 1});
+    assertTrue(reader.update());
+
+    channel.publish(new long[] {2, 2});
+    assertTrue(other.update());
+    assertEquals(2, other.getValue()[0]);
+    assertEquals(1, reader.getValue()[0]);
+  }
+
+  @Test
+  public void oldFramesAreStale() {
+    channel.publish(new long[2], System.nanoTime() - TimeUnit.SECONDS.toNanos(1));
+    reader.update();
+
+    assertTrue(reader.isStale(500));
+    assertFalse(reader.isStale(5000));
+    assertTrue(reader.getAgeMs() >= 1000);
+  }
+
+  @Test
+  public void concurrentReadsAreConsistent() throws InterruptedException {
+    AtomicBoolean running = new AtomicBoolean(true);
+    AtomicLong torn = new AtomicLong();
+    Thread[] readers = new Thread[2];
+    for (int i = 0; i < readers.length; i++) {
+      ResultChannel.Reader<long[]> concurrent = channel.newReader();
+      readers[i] = new Thread(() -> {
+        long lastFrame = 0;
+        while (running.get()) {
+          if (concurrent.update()) {
+            long[] value = concurrent.getValue();
+            if (value[0] != -value[1] || value[0] != concurrent.getFrameNumber()
+                || concurrent.getFrameNumber() <= lastFrame) {
+              torn.incrementAndGet();
+            }
+            lastFrame = concurrent.getFrameNumber();
+          }
+        }
+      });
+      readers[i].start();
+    }
+
+    long[] result = new long[2];
+    for (long frame = 1; frame <= 200_000; frame++) {
+      result[0] = frame;
+      result[1] = -frame;
+      channel.publish(result, frame);
+    }
+    running.set(false);
+    for (Thread thread : readers) {
+      thread.join();
+    }
+
+    assertEquals(0, torn.get());
+  }
+
+  @Test
+  public void updateDoesNotAllocate() {
+    long[] result = new long[2];
+    MicroBenchmark.assertNoAllocation(() -> runFrame(result));
+  }
+
+  private void runFrame(long[] result) {
+    result[0] = ++frame;
+    channel.publish(result, frame);
+    reader.update();
+    reader.isStale(100);
+  }
+}